@@ -78,11 +78,15 @@ import org.apache.tinkerpop.gremlin.structure.util.detached.DetachedFactory;
 import org.apache.tinkerpop.gremlin.util.function.MutableMetricsSupplier;
 import org.apache.tinkerpop.gremlin.util.iterator.EmptyIterator;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -100,9 +104,16 @@ import java.util.Set;
  */
 public final class TraversalVertexProgram implements VertexProgram<TraverserSet<Object>> {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(TraversalVertexProgram.class);
+
     public static final String TRAVERSAL = "gremlin.traversalVertexProgram.traversal";
     public static final String HALTED_TRAVERSERS = "gremlin.traversalVertexProgram.haltedTraversers";
     public static final String ACTIVE_TRAVERSERS = "gremlin.traversalVertexProgram.activeTraversers";
+    public static final String MEASURE_MESSAGE_BYTES = "gremlin.traversalVertexProgram.measureMessageBytes";
+    public static final String MESSAGE_COUNT = "gremlin.traversalVertexProgram.messageCount";
+    public static final String MESSAGE_BYTES = "gremlin.traversalVertexProgram.messageBytes";
+    protected static final String ITERATION_MESSAGE_COUNT = "gremlin.traversalVertexProgram.iterationMessageCount";
+    protected static final String ITERATION_MESSAGE_BYTES = "gremlin.traversalVertexProgram.iterationMessageBytes";
     protected static final String MUTATED_MEMORY_KEYS = "gremlin.traversalVertexProgram.mutatedMemoryKeys";
     private static final String VOTE_TO_HALT = "gremlin.traversalVertexProgram.voteToHalt";
     private static final String COMPLETED_BARRIERS = "gremlin.traversalVertexProgram.completedBarriers";
@@ -117,6 +128,9 @@ public final class TraversalVertexProgram implements VertexProgram<TraverserSet<
     private TraversalMatrix<?, ?> traversalMatrix;
     private final Set<MapReduce> mapReducers = new HashSet<>();
     private boolean keepDistributedHaltedTraversers = true;
+    private boolean measureMessageBytes = false;
+    // the traversers of the ACTIVE_TRAVERSERS memory key grouped by the id of their hosting vertex
+    private Map<Object, List<Traverser.Admin<Object>>> memoryActiveTraversers = null;
 
     private TraversalVertexProgram() {
     }
@@ -141,6 +155,7 @@ public final class TraversalVertexProgram implements VertexProgram<TraverserSet<
             this.traversal.get().applyStrategies();
         /// traversal is compiled and ready to be introspected
         this.traversalMatrix = new TraversalMatrix<>(this.traversal.get());
+        this.measureMessageBytes = configuration.getBoolean(MEASURE_MESSAGE_BYTES, false);
         // if results will be serialized out, don't save halted traversers across the cluster
         this.keepDistributedHaltedTraversers =
                 !(this.traversal.get().getParent().asStep().getNextStep() instanceof ComputerResultStep || // if its just going to stream it out, don't distribute
@@ -169,12 +184,17 @@ public final class TraversalVertexProgram implements VertexProgram<TraverserSet<
         this.memoryComputeKeys.add(MemoryComputeKey.of(ACTIVE_TRAVERSERS, Operator.addAll, true, true));
         this.memoryComputeKeys.add(MemoryComputeKey.of(MUTATED_MEMORY_KEYS, Operator.addAll, false, true));
         this.memoryComputeKeys.add(MemoryComputeKey.of(COMPLETED_BARRIERS, Operator.addAll, true, true));
+        this.memoryComputeKeys.add(MemoryComputeKey.of(MESSAGE_COUNT, Operator.sumLong, false, false));
+        this.memoryComputeKeys.add(MemoryComputeKey.of(MESSAGE_BYTES, Operator.sumLong, false, false));
+        this.memoryComputeKeys.add(MemoryComputeKey.of(ITERATION_MESSAGE_COUNT, Operator.sumLong, true, false));
+        this.memoryComputeKeys.add(MemoryComputeKey.of(ITERATION_MESSAGE_BYTES, Operator.sumLong, true, false));
     }
 
     @Override
     public void storeState(final Configuration configuration) {
         VertexProgram.super.storeState(configuration);
         this.traversal.storeState(configuration, TRAVERSAL);
+        configuration.setProperty(MEASURE_MESSAGE_BYTES, this.measureMessageBytes);
     }
 
     @Override
@@ -186,6 +206,10 @@ public final class TraversalVertexProgram implements VertexProgram<TraverserSet<
         memory.set(ACTIVE_TRAVERSERS, new TraverserSet<>());
         memory.set(MUTATED_MEMORY_KEYS, new HashSet<>());
         memory.set(COMPLETED_BARRIERS, new HashSet<>());
+        memory.set(MESSAGE_COUNT, 0l);
+        memory.set(MESSAGE_BYTES, 0l);
+        memory.set(ITERATION_MESSAGE_COUNT, 0l);
+        memory.set(ITERATION_MESSAGE_BYTES, 0l);
         final TraversalSideEffects sideEffects = ((MemoryTraversalSideEffects) this.traversal.get().getSideEffects()).getSideEffects();
         sideEffects.keys().forEach(key -> memory.set(key, sideEffects.get(key)));
     }
@@ -195,6 +219,16 @@ public final class TraversalVertexProgram implements VertexProgram<TraverserSet<
         return MESSAGE_SCOPES;
     }
 
+    @Override
+    public void workerIterationStart(final Memory memory) {
+        this.memoryActiveTraversers = TraverserExecutor.routeActiveTraversers(memory.get(ACTIVE_TRAVERSERS));
+    }
+
+    @Override
+    public void workerIterationEnd(final Memory memory) {
+        this.memoryActiveTraversers = null;
+    }
+
     @Override
     public void execute(final Vertex vertex, final Messenger<TraverserSet<Object>> messenger, final Memory memory) {
         // memory is distributed
@@ -206,6 +240,10 @@ public final class TraversalVertexProgram implements VertexProgram<TraverserSet<
             if (step instanceof Barrier)
                 ((Barrier) this.traversalMatrix.getStepById(stepId)).done();
         }
+        // a GraphComputer is expected to call workerIterationStart() but if it did not, route the traversers now
+        if (null == this.memoryActiveTraversers)
+            this.memoryActiveTraversers = TraverserExecutor.routeActiveTraversers(memory.get(ACTIVE_TRAVERSERS));
+        final List<Traverser.Admin<Object>> vertexActiveTraversers = this.memoryActiveTraversers.getOrDefault(vertex.id(), Collections.emptyList());
         //////////////////
         if (memory.isInitialIteration()) {    // ITERATION 1
             final TraverserSet<Object> haltedTraversers = vertex.<TraverserSet<Object>>property(HALTED_TRAVERSERS).orElse(new TraverserSet<>());
@@ -235,9 +273,9 @@ public final class TraversalVertexProgram implements VertexProgram<TraverserSet<
                         activeTraversers.add((Traverser.Admin) traverser);
                 });
             }
-            memory.add(VOTE_TO_HALT, activeTraversers.isEmpty() || TraverserExecutor.execute(vertex, new SingleMessenger<>(messenger, activeTraversers), this.traversalMatrix, memory, !this.keepDistributedHaltedTraversers));
+            memory.add(VOTE_TO_HALT, activeTraversers.isEmpty() || TraverserExecutor.execute(vertex, new SingleMessenger<>(messenger, activeTraversers), this.traversalMatrix, memory, !this.keepDistributedHaltedTraversers, vertexActiveTraversers, this.measureMessageBytes));
         } else {  // ITERATION 1+
-            memory.add(VOTE_TO_HALT, TraverserExecutor.execute(vertex, messenger, this.traversalMatrix, memory, !this.keepDistributedHaltedTraversers));
+            memory.add(VOTE_TO_HALT, TraverserExecutor.execute(vertex, messenger, this.traversalMatrix, memory, !this.keepDistributedHaltedTraversers, vertexActiveTraversers, this.measureMessageBytes));
         }
         if (!this.keepDistributedHaltedTraversers)
             vertex.<TraverserSet>property(HALTED_TRAVERSERS).value().clear();
@@ -247,6 +285,7 @@ public final class TraversalVertexProgram implements VertexProgram<TraverserSet<
     public boolean terminate(final Memory memory) {
         // memory is local
         ((MemoryTraversalSideEffects) this.traversal.get().getSideEffects()).setMemory(memory, false);
+        this.updateMessageMetrics(memory);
         final boolean voteToHalt = memory.<Boolean>get(VOTE_TO_HALT);
         memory.set(VOTE_TO_HALT, true);
         memory.set(ACTIVE_TRAVERSERS, new TraverserSet<>());
@@ -256,6 +295,7 @@ public final class TraversalVertexProgram implements VertexProgram<TraverserSet<
             // local traverser sets to process
             TraverserSet<Object> toProcessTraversers = new TraverserSet<>();
             TraverserSet<Object> localActiveTraversers = new TraverserSet<>();
+            TraverserSet<Object> drainedTraversers;
             final TraverserSet<Object> remoteActiveTraversers = new TraverserSet<>();
             final TraverserSet<Object> haltedTraversers = memory.get(HALTED_TRAVERSERS);
             // get all barrier traversers
@@ -264,8 +304,11 @@ public final class TraversalVertexProgram implements VertexProgram<TraverserSet<
             // process all results from barriers locally and when elements are touched, put them in remoteActiveTraversers
             while (!toProcessTraversers.isEmpty()) {
                 this.processTraversers(toProcessTraversers, localActiveTraversers, remoteActiveTraversers, haltedTraversers);
+                // the drained set is cleared and reused to collect the next round of local traversers
+                drainedTraversers = toProcessTraversers;
+                drainedTraversers.clear();
                 toProcessTraversers = localActiveTraversers;
-                localActiveTraversers = new TraverserSet<>();
+                localActiveTraversers = drainedTraversers;
             }
             // tell parallel barriers that might not have been active in the last round that they are no longer active
             memory.set(COMPLETED_BARRIERS, completedBarriers);
@@ -294,6 +337,21 @@ public final class TraversalVertexProgram implements VertexProgram<TraverserSet<
         }
     }
 
+    private void updateMessageMetrics(final Memory memory) {
+        final long messageCount = memory.<Long>get(ITERATION_MESSAGE_COUNT);
+        final long messageBytes = memory.<Long>get(ITERATION_MESSAGE_BYTES);
+        if (LOGGER.isDebugEnabled()) {
+            if (this.measureMessageBytes)
+                LOGGER.debug("Iteration {} sent {} traverser messages totaling {} bytes", memory.getIteration(), messageCount, messageBytes);
+            else
+                LOGGER.debug("Iteration {} sent {} traverser messages", memory.getIteration(), messageCount);
+        }
+        memory.set(MESSAGE_COUNT, memory.<Long>get(MESSAGE_COUNT) + messageCount);
+        memory.set(MESSAGE_BYTES, memory.<Long>get(MESSAGE_BYTES) + messageBytes);
+        memory.set(ITERATION_MESSAGE_COUNT, 0l);
+        memory.set(ITERATION_MESSAGE_BYTES, 0l);
+    }
+
     private void processMemory(final Memory memory, final Set<String> toProcessMemoryKeys, final TraverserSet<Object> traverserSet, final Set<String> completedBarriers) {
         for (final String key : toProcessMemoryKeys) {
             final Step<Object, Object> step = this.traversalMatrix.getStepById(key);
@@ -406,6 +464,7 @@ public final class TraversalVertexProgram implements VertexProgram<TraverserSet<
             if (!clone.traversal.get().isLocked())
                 clone.traversal.get().applyStrategies();
             clone.traversalMatrix = new TraversalMatrix<>(clone.traversal.get());
+            clone.memoryActiveTraversers = null;
             return clone;
         } catch (final CloneNotSupportedException e) {
             throw new IllegalStateException(e.getMessage(), e);
@@ -477,6 +536,16 @@ public final class TraversalVertexProgram implements VertexProgram<TraverserSet<
             PureTraversal.storeState(this.configuration, TRAVERSAL, traversal);
             return this;
         }
+
+        /**
+         * Whether the Gryo serialized size of the traverser messages should be accumulated into the
+         * {@link TraversalVertexProgram#MESSAGE_BYTES} memory key.  This requires an extra serialization of each
+         * message and is therefore off by default.
+         */
+        public Builder measureMessageBytes(final boolean measureMessageBytes) {
+            this.configuration.setProperty(MEASURE_MESSAGE_BYTES, measureMessageBytes);
+            return this;
+        }
     }
 
 }
\ No newline at end of file
@@ -34,12 +34,20 @@ import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Property;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoMapper;
 import org.apache.tinkerpop.gremlin.structure.util.Attachable;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+import org.apache.tinkerpop.shaded.kryo.Kryo;
+import org.apache.tinkerpop.shaded.kryo.KryoException;
+import org.apache.tinkerpop.shaded.kryo.io.Output;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -47,10 +55,15 @@ import java.util.concurrent.atomic.AtomicBoolean;
  */
 public final class TraverserExecutor {
 
-    public static boolean execute(final Vertex vertex, final Messenger<TraverserSet<Object>> messenger, final TraversalMatrix<?, ?> traversalMatrix, final Memory memory, final boolean returnHaltedTraversers) {
+    private static final ThreadLocal<Kryo> KRYO = ThreadLocal.withInitial(() -> GryoMapper.build().create().createMapper());
+    private static final ThreadLocal<Output> OUTPUT = ThreadLocal.withInitial(() -> new Output(4096, -1));
+
+    public static boolean execute(final Vertex vertex, final Messenger<TraverserSet<Object>> messenger, final TraversalMatrix<?, ?> traversalMatrix, final Memory memory, final boolean returnHaltedTraversers, final List<Traverser.Admin<Object>> memoryActiveTraversers, final boolean measureMessageBytes) {
 
         final TraversalSideEffects traversalSideEffects = traversalMatrix.getTraversal().getSideEffects();
         final AtomicBoolean voteToHalt = new AtomicBoolean(true);
+        // traversers leaving the vertex are bulked per destination vertex and sent as one message per destination
+        final Map<Vertex, TraverserSet<Object>> outgoingTraversers = new HashMap<>();
         final TraverserSet<Object> haltedTraversers = vertex.value(TraversalVertexProgram.HALTED_TRAVERSERS);
         final TraverserSet<Object> activeTraversers = new TraverserSet<>();
         final TraverserSet<Object> toProcessTraversers = new TraverserSet<>();
@@ -59,17 +72,11 @@ public final class TraverserExecutor {
         // GENERATE LOCAL TRAVERSERS //
         ///////////////////////////////
 
-        // these are traversers that are going from OLTP to OLAP
-        final TraverserSet<Object> maybeActiveTraversers = memory.get(TraversalVertexProgram.ACTIVE_TRAVERSERS);
-        final Iterator<Traverser.Admin<Object>> iterator = maybeActiveTraversers.iterator();
-        while (iterator.hasNext()) {
-            final Traverser.Admin<Object> traverser = iterator.next();
-            if (vertex.equals(TraverserExecutor.getHostingVertex(traverser.get()))) {
-                // iterator.remove(); ConcurrentModificationException
-                traverser.attach(Attachable.Method.get(vertex));
-                traverser.setSideEffects(traversalSideEffects);
-                toProcessTraversers.add(traverser);
-            }
+        // these are traversers that are going from OLTP to OLAP (already routed to this vertex by routeActiveTraversers())
+        for (final Traverser.Admin<Object> traverser : memoryActiveTraversers) {
+            traverser.attach(Attachable.Method.get(vertex));
+            traverser.setSideEffects(traversalSideEffects);
+            toProcessTraversers.add(traverser);
         }
         // these are traversers that exist from from a local barrier
         vertex.<TraverserSet<Object>>property(TraversalVertexProgram.ACTIVE_TRAVERSERS).ifPresent(previousActiveTraversers -> {
@@ -125,7 +132,7 @@ public final class TraverserExecutor {
                         if (!vertex.equals(hostingVertex)) { // necessary for path access
                             voteToHalt.set(false);
                             traverser.detach();
-                            messenger.sendMessage(MessageScope.Global.of(hostingVertex), new TraverserSet<>(traverser));
+                            outgoingTraversers.computeIfAbsent(hostingVertex, v -> new TraverserSet<>()).add(traverser);
                         } else {
                             if (traverser.get() instanceof Attachable)   // necessary for path access to local object
                                 traverser.attach(Attachable.Method.get(vertex));
@@ -137,9 +144,41 @@ public final class TraverserExecutor {
                 assert activeTraversers.isEmpty();
             }
         }
+
+        ////////////////////////////////
+        // SEND OUTGOING TRAVERSERS //
+        ///////////////////////////////
+
+        if (!outgoingTraversers.isEmpty()) {
+            long messageBytes = 0l;
+            for (final Map.Entry<Vertex, TraverserSet<Object>> entry : outgoingTraversers.entrySet()) {
+                if (measureMessageBytes)
+                    messageBytes += TraverserExecutor.getSerializedSize(entry.getValue());
+                messenger.sendMessage(MessageScope.Global.of(entry.getKey()), entry.getValue());
+            }
+            memory.add(TraversalVertexProgram.ITERATION_MESSAGE_COUNT, (long) outgoingTraversers.size());
+            if (measureMessageBytes)
+                memory.add(TraversalVertexProgram.ITERATION_MESSAGE_BYTES, messageBytes);
+        }
         return voteToHalt.get();
     }
 
+    /**
+     * Determines the number of bytes that the {@link TraverserSet} takes when serialized with Gryo. This is an
+     * estimate of the message size as a {@link org.apache.tinkerpop.gremlin.process.computer.GraphComputer} may use
+     * a different serializer (or none at all).  Objects that Gryo can not serialize are counted as zero bytes.
+     */
+    private static long getSerializedSize(final TraverserSet<Object> traverserSet) {
+        final Output output = OUTPUT.get();
+        output.clear();
+        try {
+            KRYO.get().writeClassAndObject(output, traverserSet);
+            return output.total();
+        } catch (final KryoException | IllegalArgumentException e) {
+            return 0l;
+        }
+    }
+
     private static void drainStep(final Vertex vertex, final Step<Object, Object> step, final TraverserSet<Object> activeTraversers, final TraverserSet<Object> haltedTraversers, final Memory memory, final boolean returnHaltedTraversers) {
         if (step instanceof Barrier) {
             if (step instanceof Bypassing)
@@ -184,6 +223,19 @@ public final class TraverserExecutor {
         }
     }
 
+    /**
+     * Groups the traversers by the id of the vertex that hosts the object they reference so that a vertex can get
+     * its own traversers without inspecting the traversers of every other vertex.
+     */
+    public static Map<Object, List<Traverser.Admin<Object>>> routeActiveTraversers(final TraverserSet<Object> activeTraversers) {
+        if (activeTraversers.isEmpty()) return Collections.emptyMap();
+        final Map<Object, List<Traverser.Admin<Object>>> routedTraversers = new HashMap<>();
+        for (final Traverser.Admin<Object> traverser : activeTraversers) {
+            routedTraversers.computeIfAbsent(TraverserExecutor.getHostingVertex(traverser.get()).id(), id -> new ArrayList<>(1)).add(traverser);
+        }
+        return routedTraversers;
+    }
+
     private static Vertex getHostingVertex(final Object object) {
         Object obj = object;
         while (true) {
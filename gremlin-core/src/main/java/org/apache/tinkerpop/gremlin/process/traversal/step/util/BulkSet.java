@@ -18,28 +18,49 @@
  */
 package org.apache.tinkerpop.gremlin.process.traversal.step.util;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
 import java.util.Spliterator;
 import java.util.function.BiConsumer;
-import java.util.stream.Collectors;
 
 /**
  * BulkSet is a weighted set (i.e. a multi-set). Objects are added along with a bulk counter the denotes how many times the object was added to the set.
  * Given that count-based compression (vs. enumeration) can yield large sets, methods exist that are long-based (2^64).
+ * <p/>
+ * The distinct objects are held in insertion order in an array with their bulks in a parallel {@code long} array and
+ * are located through an open-addressing (linear probing) table of indices into those arrays.  Incrementing the bulk
+ * of an object already in the set does not allocate and the total bulk of the set is maintained as objects are added
+ * and removed.
  *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 public final class BulkSet<S> extends AbstractSet<S> implements Set<S>, Serializable {
-    private final Map<S, Long> map = new LinkedHashMap<>();
+
+    private static final Object[] EMPTY_OBJECTS = new Object[0];
+    private static final long[] EMPTY_BULKS = new long[0];
+    private static final int[] EMPTY_TABLE = new int[0];
+    private static final int FREE = 0;
+    private static final int DELETED = -1;
+    private static final Object NULL = Null.INSTANCE;   // stands in for a null object as null marks a removed slot
+
+    private Object[] objects = EMPTY_OBJECTS;
+    private long[] bulks = EMPTY_BULKS;
+    // index + 1 into objects/bulks or FREE/DELETED
+    private transient int[] table = EMPTY_TABLE;
+    private transient int deleted = 0;
+    private int tail = 0;
+    private int uniqueSize = 0;
+    private long longSize = 0l;
 
     @Override
     public int size() {
@@ -47,21 +68,21 @@ public final class BulkSet<S> extends AbstractSet<S> implements Set<S>, Serializ
     }
 
     public int uniqueSize() {
-        return this.map.size();
+        return this.uniqueSize;
     }
 
     public long longSize() {
-        return this.map.values().stream().collect(Collectors.summingLong(Long::longValue));
+        return this.longSize;
     }
 
     @Override
     public boolean isEmpty() {
-        return this.map.isEmpty();
+        return 0 == this.uniqueSize;
     }
 
     @Override
     public boolean contains(final Object s) {
-        return this.map.containsKey(s);
+        return -1 != this.find(mask(s));
     }
 
     @Override
@@ -72,7 +93,11 @@ public final class BulkSet<S> extends AbstractSet<S> implements Set<S>, Serializ
     @Override
     public boolean addAll(final Collection<? extends S> collection) {
         if (collection instanceof BulkSet) {
-            ((BulkSet<S>) collection).map.forEach(this::add);
+            final BulkSet<S> bulkSet = (BulkSet<S>) collection;
+            for (int i = 0; i < bulkSet.tail; i++) {
+                if (null != bulkSet.objects[i])
+                    this.add((S) unmask(bulkSet.objects[i]), bulkSet.bulks[i]);
+            }
         } else {
             collection.iterator().forEachRemaining(this::add);
         }
@@ -80,23 +105,52 @@ public final class BulkSet<S> extends AbstractSet<S> implements Set<S>, Serializ
     }
 
     public void forEach(final BiConsumer<S, Long> consumer) {
-        this.map.forEach(consumer);
+        for (int i = 0; i < this.tail; i++) {
+            if (null != this.objects[i])
+                consumer.accept((S) unmask(this.objects[i]), this.bulks[i]);
+        }
     }
 
     public boolean add(final S s, final long bulk) {
-        final Long current = this.map.get(s);
-        if (current != null) {
-            this.map.put(s, current + bulk);
-            return false;
-        } else {
-            this.map.put(s, bulk);
-            return true;
+        final Object object = mask(s);
+        final int hash = hash(object);
+        int insertAt = -1;
+        if (this.table.length > 0) {
+            final int mask = this.table.length - 1;
+            for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+                final int entry = this.table[slot];
+                if (FREE == entry) {
+                    if (-1 == insertAt) insertAt = slot;
+                    break;
+                } else if (DELETED == entry) {
+                    if (-1 == insertAt) insertAt = slot;
+                } else if (object.equals(this.objects[entry - 1])) {
+                    this.bulks[entry - 1] = this.bulks[entry - 1] + bulk;
+                    this.longSize = this.longSize + bulk;
+                    return false;
+                }
+            }
+        }
+        if (this.tail == this.objects.length || -1 == insertAt || (this.uniqueSize + this.deleted + 1) << 1 > this.table.length) {
+            this.ensureCapacity();
+            final int mask = this.table.length - 1;
+            insertAt = hash & mask;
+            while (FREE != this.table[insertAt]) {
+                insertAt = (insertAt + 1) & mask;
+            }
         }
+        if (DELETED == this.table[insertAt]) this.deleted--;
+        this.objects[this.tail] = object;
+        this.bulks[this.tail] = bulk;
+        this.table[insertAt] = ++this.tail;
+        this.uniqueSize++;
+        this.longSize = this.longSize + bulk;
+        return true;
     }
 
     public long get(final S s) {
-        final Long bulk = this.map.get(s);
-        return null == bulk ? 0 : bulk;
+        final int slot = this.find(mask(s));
+        return -1 == slot ? 0 : this.bulks[this.table[slot] - 1];
     }
 
     /*public void set(final S s, final long bulk) {
@@ -106,12 +160,27 @@ public final class BulkSet<S> extends AbstractSet<S> implements Set<S>, Serializ
 
     @Override
     public boolean remove(final Object s) {
-        return this.map.remove(s) != null;
+        final int slot = this.find(mask(s));
+        if (-1 == slot) return false;
+        final int index = this.table[slot] - 1;
+        this.table[slot] = DELETED;
+        this.deleted++;
+        this.longSize = this.longSize - this.bulks[index];
+        this.objects[index] = null;
+        this.bulks[index] = 0l;
+        if (0 == --this.uniqueSize) this.clear();
+        return true;
     }
 
     @Override
     public void clear() {
-        this.map.clear();
+        if (0 == this.tail) return;
+        Arrays.fill(this.objects, 0, this.tail, null);
+        Arrays.fill(this.table, FREE);
+        this.tail = 0;
+        this.uniqueSize = 0;
+        this.deleted = 0;
+        this.longSize = 0l;
     }
 
     @Override
@@ -124,7 +193,7 @@ public final class BulkSet<S> extends AbstractSet<S> implements Set<S>, Serializ
         Objects.requireNonNull(collection);
         boolean modified = false;
         for (final Object object : collection) {
-            if (null != this.map.remove(object))
+            if (this.remove(object))
                 modified = true;
         }
         return modified;
@@ -132,22 +201,45 @@ public final class BulkSet<S> extends AbstractSet<S> implements Set<S>, Serializ
 
     @Override
     public int hashCode() {
-        return this.map.hashCode();
+        // equivalent to the hash code of a Map of the objects to their bulks
+        int hashCode = 0;
+        for (int i = 0; i < this.tail; i++) {
+            if (null != this.objects[i])
+                hashCode = hashCode + (Objects.hashCode(unmask(this.objects[i])) ^ Long.hashCode(this.bulks[i]));
+        }
+        return hashCode;
     }
 
     @Override
     public boolean equals(final Object object) {
-        return this.map.equals(object);
+        if (this == object) return true;
+        if (!(object instanceof BulkSet)) return false;
+        final BulkSet<S> other = (BulkSet<S>) object;
+        if (other.uniqueSize != this.uniqueSize || other.longSize != this.longSize) return false;
+        for (int i = 0; i < this.tail; i++) {
+            if (null != this.objects[i] && other.get((S) unmask(this.objects[i])) != this.bulks[i])
+                return false;
+        }
+        return true;
     }
 
     @Override
     public String toString() {
-        return this.map.toString();
+        final StringBuilder builder = new StringBuilder("{");
+        boolean first = true;
+        for (int i = 0; i < this.tail; i++) {
+            if (null == this.objects[i]) continue;
+            if (!first) builder.append(", ");
+            final Object object = unmask(this.objects[i]);
+            builder.append(object == this ? "(this Map)" : object).append('=').append(this.bulks[i]);
+            first = false;
+        }
+        return builder.append('}').toString();
     }
 
     private List<S> toList() {
         final List<S> list = new ArrayList<>();
-        this.map.forEach((k, v) -> {
+        this.forEach((k, v) -> {
             for (long i = 0; i < v; i++) {
                 list.add(k);
             }
@@ -158,29 +250,115 @@ public final class BulkSet<S> extends AbstractSet<S> implements Set<S>, Serializ
     @Override
     public Iterator<S> iterator() {
         return new Iterator<S>() {
-            final Iterator<Map.Entry<S, Long>> entryIterator = map.entrySet().iterator();
-            S lastObject = null;
-            long lastCount = 0l;
+            int index = 0;
+            long remaining = 0l;
 
             public boolean hasNext() {
-                return this.lastCount > 0l || this.entryIterator.hasNext();
+                if (this.remaining > 0l) return true;
+                while (this.index < tail && null == objects[this.index]) {
+                    this.index++;
+                }
+                return this.index < tail;
             }
 
             @Override
             public S next() {
-                if (this.lastCount > 0l) {
-                    this.lastCount--;
-                    return this.lastObject;
-                }
-                final Map.Entry<S, Long> entry = entryIterator.next();
-                if (entry.getValue() == 1) {
-                    return entry.getKey();
-                } else {
-                    this.lastObject = entry.getKey();
-                    this.lastCount = entry.getValue() - 1;
-                    return this.lastObject;
+                if (this.remaining == 0l) {
+                    if (!this.hasNext()) throw new NoSuchElementException();
+                    this.remaining = bulks[this.index++];
                 }
+                this.remaining--;
+                return (S) unmask(objects[this.index - 1]);
             }
         };
     }
+
+    ///////////
+
+    private static Object mask(final Object object) {
+        return null == object ? NULL : object;
+    }
+
+    private static Object unmask(final Object object) {
+        return NULL == object ? null : object;
+    }
+
+    private static int hash(final Object object) {
+        final int h = object.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Get the table slot of the (masked) object or {@code -1} if it is not in the set.
+     */
+    private int find(final Object object) {
+        if (0 == this.uniqueSize) return -1;
+        final int mask = this.table.length - 1;
+        for (int slot = hash(object) & mask; ; slot = (slot + 1) & mask) {
+            final int entry = this.table[slot];
+            if (FREE == entry)
+                return -1;
+            else if (DELETED != entry && object.equals(this.objects[entry - 1]))
+                return slot;
+        }
+    }
+
+    private void ensureCapacity() {
+        if (this.tail == this.objects.length) {
+            if (this.uniqueSize < (this.objects.length >> 1)) {
+                // more than half of the arrays are removed objects so reclaim them rather than grow
+                int to = 0;
+                for (int from = 0; from < this.tail; from++) {
+                    if (null != this.objects[from]) {
+                        this.objects[to] = this.objects[from];
+                        this.bulks[to++] = this.bulks[from];
+                    }
+                }
+                Arrays.fill(this.objects, to, this.tail, null);
+                this.tail = to;
+            } else {
+                final int length = Math.max(8, this.objects.length << 1);
+                this.objects = Arrays.copyOf(this.objects, length);
+                this.bulks = Arrays.copyOf(this.bulks, length);
+            }
+        }
+        int length = Math.max(16, this.table.length);
+        while ((this.uniqueSize + 1) << 1 > length) {
+            length = length << 1;
+        }
+        this.rehash(length);
+    }
+
+    private void rehash(final int length) {
+        if (this.table.length == length)
+            Arrays.fill(this.table, FREE);
+        else
+            this.table = new int[length];
+        this.deleted = 0;
+        final int mask = length - 1;
+        for (int i = 0; i < this.tail; i++) {
+            if (null == this.objects[i]) continue;
+            int slot = hash(this.objects[i]) & mask;
+            while (FREE != this.table[slot]) {
+                slot = (slot + 1) & mask;
+            }
+            this.table[slot] = i + 1;
+        }
+    }
+
+    private void readObject(final ObjectInputStream inputStream) throws IOException, ClassNotFoundException {
+        inputStream.defaultReadObject();
+        this.table = EMPTY_TABLE;
+        if (this.uniqueSize > 0) {
+            int length = 16;
+            while (this.uniqueSize << 1 > length) {
+                length = length << 1;
+            }
+            this.rehash(length);
+        }
+    }
+
+    private enum Null {
+        INSTANCE
+    }
 }
@@ -20,74 +20,121 @@ package org.apache.tinkerpop.gremlin.process.traversal.traverser.util;
 
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
 import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
-import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.AbstractSet;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Queue;
 import java.util.Set;
 import java.util.Spliterator;
+import java.util.Spliterators;
 
 /**
+ * An insertion ordered set of traversers where adding a traverser that is equal to one already in the set merges
+ * its bulk into the existing traverser.  Traversers are held in an array in the order they were added and located
+ * through an open-addressing (linear probing) table of indices into that array, so adding a traverser allocates
+ * nothing beyond occasional growth of the arrays.  The total bulk of the set is maintained as traversers are added
+ * and removed which means that the bulk of a traverser should not be altered while it is in the set.
+ *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 public class TraverserSet<S> extends AbstractSet<Traverser.Admin<S>> implements Set<Traverser.Admin<S>>, Queue<Traverser.Admin<S>>, Serializable {
 
-    private final Map<Traverser.Admin<S>, Traverser.Admin<S>> map = new LinkedHashMap<>();
+    private static final Traverser.Admin[] EMPTY_TRAVERSERS = new Traverser.Admin[0];
+    private static final int[] EMPTY_TABLE = new int[0];
+    private static final int FREE = 0;
+    private static final int DELETED = -1;
+
+    // traversers in insertion order where removed traversers leave a null behind until the array is compacted
+    private Traverser.Admin<S>[] traversers = EMPTY_TRAVERSERS;
+    // index + 1 into traversers or FREE/DELETED
+    private transient int[] table = EMPTY_TABLE;
+    private transient int deleted = 0;
+    private int head = 0;
+    private int tail = 0;
+    private int size = 0;
+    private long bulkSize = 0l;
 
     public TraverserSet() {
 
     }
 
     public TraverserSet(final Traverser.Admin<S> traverser) {
-        this.map.put(traverser, traverser);
+        this.add(traverser);
     }
 
     @Override
     public Iterator<Traverser.Admin<S>> iterator() {
-        return this.map.values().iterator();
+        return new TraverserSetIterator();
     }
 
     public Traverser.Admin<S> get(final Traverser.Admin<S> traverser) {
-        return this.map.get(traverser);
+        final int slot = this.find(traverser);
+        return -1 == slot ? null : this.traversers[this.table[slot] - 1];
     }
 
     @Override
     public int size() {
-        return this.map.size();
+        return this.size;
     }
 
     public long bulkSize() {
-        return this.map.values().stream().map(Traverser::bulk).reduce(0l, (a, b) -> a + b);
+        return this.bulkSize;
     }
 
     @Override
     public boolean isEmpty() {
-        return this.map.isEmpty();
+        return 0 == this.size;
     }
 
     @Override
     public boolean contains(final Object traverser) {
-        return this.map.containsKey(traverser);
+        return -1 != this.find(traverser);
     }
 
     @Override
     public boolean add(final Traverser.Admin<S> traverser) {
-        final Traverser.Admin<S> existing = this.map.get(traverser);
-        if (null == existing) {
-            this.map.put(traverser, traverser);
-            return true;
-        } else {
-            existing.merge(traverser);
-            return false;
+        final int hash = hash(traverser);
+        int mask = this.table.length - 1;
+        int insertAt = -1;
+        if (this.table.length > 0) {
+            for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+                final int entry = this.table[slot];
+                if (FREE == entry) {
+                    if (-1 == insertAt) insertAt = slot;
+                    break;
+                } else if (DELETED == entry) {
+                    if (-1 == insertAt) insertAt = slot;
+                } else {
+                    final Traverser.Admin<S> existing = this.traversers[entry - 1];
+                    if (traverser.equals(existing)) {
+                        existing.merge(traverser);
+                        this.bulkSize = this.bulkSize + traverser.bulk();
+                        return false;
+                    }
+                }
+            }
+        }
+        if (this.tail == this.traversers.length || -1 == insertAt || (this.size + this.deleted + 1) << 1 > this.table.length) {
+            this.ensureCapacity();
+            mask = this.table.length - 1;
+            insertAt = hash & mask;
+            while (FREE != this.table[insertAt]) {
+                insertAt = (insertAt + 1) & mask;
+            }
         }
+        if (DELETED == this.table[insertAt]) this.deleted--;
+        this.traversers[this.tail] = traverser;
+        this.table[insertAt] = ++this.tail;
+        this.size++;
+        this.bulkSize = this.bulkSize + traverser.bulk();
+        return true;
     }
 
     @Override
@@ -97,63 +144,200 @@ public class TraverserSet<S> extends AbstractSet<Traverser.Admin<S>> implements
 
     @Override
     public Traverser.Admin<S> remove() {  // pop, exception if empty
-        final Iterator<Traverser.Admin<S>> iterator = this.map.values().iterator();
-        if (!iterator.hasNext())
+        if (0 == this.size)
             throw FastNoSuchElementException.instance();
-        final Traverser.Admin<S> next = iterator.next();
-        iterator.remove();
-        return next;
+        final Traverser.Admin<S> traverser = this.traversers[this.head];
+        this.removeAt(this.head);
+        return traverser;
     }
 
     @Override
     public Traverser.Admin<S> poll() {  // pop, null if empty
-        return this.map.isEmpty() ? null : this.remove();
+        return 0 == this.size ? null : this.remove();
     }
 
     @Override
     public Traverser.Admin<S> element() { // peek, exception if empty
-        return this.iterator().next();
+        if (0 == this.size)
+            throw new NoSuchElementException();
+        return this.traversers[this.head];
     }
 
     @Override
     public Traverser.Admin<S> peek() { // peek, null if empty
-        return this.map.isEmpty() ? null : this.iterator().next();
+        return 0 == this.size ? null : this.traversers[this.head];
     }
 
     @Override
     public boolean remove(final Object traverser) {
-        return this.map.remove(traverser) != null;
+        final int slot = this.find(traverser);
+        if (-1 == slot) return false;
+        this.removeAt(this.table[slot] - 1);
+        return true;
     }
 
+    /**
+     * Removes all traversers while retaining the allocated arrays so that the set can be refilled without growing
+     * them again.
+     */
     @Override
     public void clear() {
-        this.map.clear();
+        if (0 == this.tail) return;
+        Arrays.fill(this.traversers, this.head, this.tail, null);
+        Arrays.fill(this.table, FREE);
+        this.head = 0;
+        this.tail = 0;
+        this.size = 0;
+        this.deleted = 0;
+        this.bulkSize = 0l;
     }
 
     @Override
     public Spliterator<Traverser.Admin<S>> spliterator() {
-        return this.map.values().spliterator();
-    }
-
-    @Override
-    public String toString() {
-        return this.map.values().toString();
+        return Spliterators.spliterator(this, Spliterator.ORDERED | Spliterator.DISTINCT);
     }
 
     public void sort(final Comparator<Traverser<S>> comparator) {
-        final List<Traverser.Admin<S>> list = new ArrayList<>(this.map.size());
-        IteratorUtils.removeOnNext(this.map.values().iterator()).forEachRemaining(list::add);
-        Collections.sort(list, comparator);
-        this.map.clear();
-        list.forEach(traverser -> this.map.put(traverser, traverser));
+        this.compact();
+        Arrays.sort(this.traversers, 0, this.size, comparator);
+        this.rehash(this.table.length);
     }
 
     public void shuffle() {
-        final List<Traverser.Admin<S>> list = new ArrayList<>(this.map.size());
-        IteratorUtils.removeOnNext(this.map.values().iterator()).forEachRemaining(list::add);
-        Collections.shuffle(list);
-        this.map.clear();
-        list.forEach(traverser -> this.map.put(traverser, traverser));
+        this.compact();
+        Collections.shuffle(Arrays.asList(this.traversers).subList(0, this.size));
+        this.rehash(this.table.length);
     }
 
+    ///////////
+
+    private static int hash(final Object traverser) {
+        final int h = traverser.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Get the table slot of the traverser or {@code -1} if it is not in the set.
+     */
+    private int find(final Object traverser) {
+        if (0 == this.size) return -1;
+        final int mask = this.table.length - 1;
+        for (int slot = hash(traverser) & mask; ; slot = (slot + 1) & mask) {
+            final int entry = this.table[slot];
+            if (FREE == entry)
+                return -1;
+            else if (DELETED != entry && traverser.equals(this.traversers[entry - 1]))
+                return slot;
+        }
+    }
+
+    private void removeAt(final int index) {
+        final Traverser.Admin<S> traverser = this.traversers[index];
+        final int mask = this.table.length - 1;
+        int slot = hash(traverser) & mask;
+        while (this.table[slot] != index + 1) {
+            slot = (slot + 1) & mask;
+        }
+        this.table[slot] = DELETED;
+        this.deleted++;
+        this.traversers[index] = null;
+        this.size--;
+        this.bulkSize = this.bulkSize - traverser.bulk();
+        if (0 == this.size)
+            this.clear();
+        else if (index == this.head) {
+            while (null == this.traversers[this.head]) {
+                this.head++;
+            }
+        }
+    }
+
+    private void ensureCapacity() {
+        if (this.tail == this.traversers.length) {
+            if (this.size < (this.traversers.length >> 1))
+                this.compact(); // more than half of the array is removed traversers so reclaim it rather than grow
+            else
+                this.traversers = Arrays.copyOf(this.traversers, Math.max(8, this.traversers.length << 1));
+        }
+        int length = Math.max(16, this.table.length);
+        while ((this.size + 1) << 1 > length) {
+            length = length << 1;
+        }
+        this.rehash(length);
+    }
+
+    /**
+     * Move the traversers to the front of the array closing the gaps left by removed traversers.  The table must be
+     * rebuilt afterwards.
+     */
+    private void compact() {
+        if (this.size == this.tail) return;
+        int to = 0;
+        for (int from = this.head; from < this.tail; from++) {
+            if (null != this.traversers[from])
+                this.traversers[to++] = this.traversers[from];
+        }
+        Arrays.fill(this.traversers, to, this.tail, null);
+        this.head = 0;
+        this.tail = to;
+    }
+
+    private void rehash(final int length) {
+        if (this.table.length == length)
+            Arrays.fill(this.table, FREE);
+        else
+            this.table = new int[length];
+        this.deleted = 0;
+        final int mask = length - 1;
+        for (int i = this.head; i < this.tail; i++) {
+            if (null == this.traversers[i]) continue;
+            int slot = hash(this.traversers[i]) & mask;
+            while (FREE != this.table[slot]) {
+                slot = (slot + 1) & mask;
+            }
+            this.table[slot] = i + 1;
+        }
+    }
+
+    private void readObject(final ObjectInputStream inputStream) throws IOException, ClassNotFoundException {
+        inputStream.defaultReadObject();
+        this.table = EMPTY_TABLE;
+        if (this.size > 0) {
+            int length = 16;
+            while (this.size << 1 > length) {
+                length = length << 1;
+            }
+            this.rehash(length);
+        }
+    }
+
+    private final class TraverserSetIterator implements Iterator<Traverser.Admin<S>> {
+
+        private int next = head;
+        private int current = -1;
+
+        @Override
+        public boolean hasNext() {
+            while (this.next < tail && null == traversers[this.next]) {
+                this.next++;
+            }
+            return this.next < tail;
+        }
+
+        @Override
+        public Traverser.Admin<S> next() {
+            if (!this.hasNext())
+                throw FastNoSuchElementException.instance();
+            this.current = this.next++;
+            return traversers[this.current];
+        }
+
+        @Override
+        public void remove() {
+            if (-1 == this.current || null == traversers[this.current])
+                throw new IllegalStateException();
+            removeAt(this.current);
+            this.current = -1;
+        }
+    }
 }
@@ -71,6 +71,7 @@ import java.util.stream.Stream;
 public final class GraphSONReader implements GraphReader {
     private final ObjectMapper mapper;
     private final long batchSize;
+    private final int parallelism;
     private boolean unwrapAdjacencyList = false;
 
     final TypeReference<Map<String, Object>> mapTypeReference = new TypeReference<Map<String, Object>>() {
@@ -79,6 +80,7 @@ public final class GraphSONReader implements GraphReader {
     private GraphSONReader(final Builder builder) {
         mapper = builder.mapper.createMapper();
         batchSize = builder.batchSize;
+        parallelism = builder.parallelism;
         unwrapAdjacencyList = builder.unwrapAdjacencyList;
     }
 
@@ -100,12 +102,18 @@ public final class GraphSONReader implements GraphReader {
         final boolean supportsTx = graphToWriteTo.features().graph().supportsTransactions();
         final Graph.Features.EdgeFeatures edgeFeatures = graphToWriteTo.features().edge();
 
-        readVertexStrings(inputStream).<Vertex>map(FunctionUtils.wrapFunction(line -> readVertex(new ByteArrayInputStream(line.getBytes()), null, null, Direction.IN))).forEach(vertex -> {
-            final Attachable<Vertex> attachable = (Attachable<Vertex>) vertex;
-            cache.put((StarGraph.StarVertex) attachable.get(), attachable.attach(Attachable.Method.create(graphToWriteTo)));
-            if (supportsTx && counter.incrementAndGet() % batchSize == 0)
-                graphToWriteTo.tx().commit();
-        });
+        final Iterator<Vertex> vertices = readVertexStrings(inputStream, null, null, Direction.IN);
+        try {
+            vertices.forEachRemaining(vertex -> {
+                final Attachable<Vertex> attachable = (Attachable<Vertex>) vertex;
+                cache.put((StarGraph.StarVertex) attachable.get(), attachable.attach(Attachable.Method.create(graphToWriteTo)));
+                if (supportsTx && counter.incrementAndGet() % batchSize == 0)
+                    graphToWriteTo.tx().commit();
+            });
+        } finally {
+            // release the parsing threads if attaching a vertex failed before the input was exhausted
+            if (vertices instanceof ParallelVertexIterator) ((ParallelVertexIterator) vertices).close();
+        }
         cache.entrySet().forEach(kv -> kv.getKey().edges(Direction.IN).forEachRemaining(e -> {
             // can't use a standard Attachable attach method here because we have to use the cache for those
             // graphs that don't support userSuppliedIds on edges.  note that outVertex/inVertex methods return
@@ -131,13 +139,15 @@ public final class GraphSONReader implements GraphReader {
      * @param vertexAttachMethod a function that creates re-attaches a {@link Vertex} to a {@link Host} object.
      * @param edgeAttachMethod a function that creates re-attaches a {@link Edge} to a {@link Host} object.
      * @param attachEdgesOfThisDirection only edges of this direction are passed to the {@code edgeMaker}.
+     * @return the vertices read, which is also {@code AutoCloseable} when {@link Builder#parallelism(int)} is greater
+     *         than one, in which case it must be closed if it is not iterated to the end.
      */
     @Override
     public Iterator<Vertex> readVertices(final InputStream inputStream,
                                          final Function<Attachable<Vertex>, Vertex> vertexAttachMethod,
                                          final Function<Attachable<Edge>, Edge> edgeAttachMethod,
                                          final Direction attachEdgesOfThisDirection) throws IOException {
-        return readVertexStrings(inputStream).<Vertex>map(FunctionUtils.wrapFunction(line -> readVertex(new ByteArrayInputStream(line.getBytes()), vertexAttachMethod, edgeAttachMethod, attachEdgesOfThisDirection))).iterator();
+        return readVertexStrings(inputStream, vertexAttachMethod, edgeAttachMethod, attachEdgesOfThisDirection);
     }
 
     /**
@@ -249,6 +259,41 @@ public final class GraphSONReader implements GraphReader {
         return mapper.readValue(inputStream, clazz);
     }
 
+    /**
+     * Reads each vertex of the adjacency list.  When {@link #parallelism} is greater than one, the JSON of the
+     * vertices is parsed into {@link StarGraph} instances on a {@code ForkJoinPool} while the attach methods are
+     * still called in order on the thread consuming the returned {@link ParallelVertexIterator}.
+     */
+    private Iterator<Vertex> readVertexStrings(final InputStream inputStream,
+                                               final Function<Attachable<Vertex>, Vertex> vertexAttachMethod,
+                                               final Function<Attachable<Edge>, Edge> edgeAttachMethod,
+                                               final Direction attachEdgesOfThisDirection) throws IOException {
+        final Stream<String> lines = readVertexStrings(inputStream);
+        if (parallelism <= 1)
+            return lines.<Vertex>map(FunctionUtils.wrapFunction(line -> readVertex(new ByteArrayInputStream(line.getBytes()), vertexAttachMethod, edgeAttachMethod, attachEdgesOfThisDirection))).iterator();
+
+        final OrderedParallelIterator<String, StarGraph> starGraphs = new OrderedParallelIterator<>(lines.iterator(),
+                FunctionUtils.wrapFunction(line -> readStarGraph(line, attachEdgesOfThisDirection)), parallelism);
+        return new ParallelVertexIterator(starGraphs, vertexAttachMethod, edgeAttachMethod, attachEdgesOfThisDirection);
+    }
+
+    /**
+     * Parses a vertex of the adjacency list including its edges of the given direction, without calling any
+     * attach methods, so that it is safe to call from any thread.
+     */
+    private StarGraph readStarGraph(final String line, final Direction attachEdgesOfThisDirection) throws IOException {
+        final Map<String, Object> vertexData = mapper.readValue(line, mapTypeReference);
+        final StarGraph starGraph = StarGraphGraphSONSerializer.readStarGraphVertex(vertexData);
+
+        if (vertexData.containsKey(GraphSONTokens.OUT_E) && (attachEdgesOfThisDirection == Direction.BOTH || attachEdgesOfThisDirection == Direction.OUT))
+            StarGraphGraphSONSerializer.readStarGraphEdges(null, starGraph, vertexData, GraphSONTokens.OUT_E);
+
+        if (vertexData.containsKey(GraphSONTokens.IN_E) && (attachEdgesOfThisDirection == Direction.BOTH || attachEdgesOfThisDirection == Direction.IN))
+            StarGraphGraphSONSerializer.readStarGraphEdges(null, starGraph, vertexData, GraphSONTokens.IN_E);
+
+        return starGraph;
+    }
+
     private Stream<String> readVertexStrings(final InputStream inputStream) throws IOException {
         if (unwrapAdjacencyList) {
             final JsonNode root = mapper.readTree(inputStream);
@@ -265,8 +310,49 @@ public final class GraphSONReader implements GraphReader {
         return new Builder();
     }
 
+    /**
+     * Calls the attach methods on the vertices parsed by an {@link OrderedParallelIterator}, as they are consumed,
+     * and shuts down its pool when closed.
+     */
+    private static final class ParallelVertexIterator implements Iterator<Vertex>, AutoCloseable {
+        private final OrderedParallelIterator<String, StarGraph> starGraphs;
+        private final Function<Attachable<Vertex>, Vertex> vertexAttachMethod;
+        private final Function<Attachable<Edge>, Edge> edgeAttachMethod;
+        private final Direction attachEdgesOfThisDirection;
+
+        private ParallelVertexIterator(final OrderedParallelIterator<String, StarGraph> starGraphs,
+                                       final Function<Attachable<Vertex>, Vertex> vertexAttachMethod,
+                                       final Function<Attachable<Edge>, Edge> edgeAttachMethod,
+                                       final Direction attachEdgesOfThisDirection) {
+            this.starGraphs = starGraphs;
+            this.vertexAttachMethod = vertexAttachMethod;
+            this.edgeAttachMethod = edgeAttachMethod;
+            this.attachEdgesOfThisDirection = attachEdgesOfThisDirection;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.starGraphs.hasNext();
+        }
+
+        @Override
+        public Vertex next() {
+            final StarGraph starGraph = this.starGraphs.next();
+            if (this.vertexAttachMethod != null) this.vertexAttachMethod.apply(starGraph.getStarVertex());
+            if (this.edgeAttachMethod != null && this.attachEdgesOfThisDirection != null)
+                starGraph.getStarVertex().edges(this.attachEdgesOfThisDirection).forEachRemaining(e -> this.edgeAttachMethod.apply((Attachable<Edge>) e));
+            return starGraph.getStarVertex();
+        }
+
+        @Override
+        public void close() {
+            this.starGraphs.close();
+        }
+    }
+
     public final static class Builder implements ReaderBuilder<GraphSONReader> {
         private long batchSize = 10000;
+        private int parallelism = 1;
 
         private Mapper<ObjectMapper> mapper = GraphSONMapper.build().create();
         private boolean unwrapAdjacencyList = false;
@@ -282,6 +368,19 @@ public final class GraphSONReader implements GraphReader {
             return this;
         }
 
+        /**
+         * Number of threads to parse vertices with when using {@link GraphSONReader#readGraph(InputStream, Graph)}
+         * or {@link GraphSONReader#readVertices(InputStream, Function, Function, Direction)}.  The lines of the
+         * adjacency list are read, and the vertices attached, on the calling thread in their original order so the
+         * {@link Graph} does not need to support concurrent mutation.  By default vertices are parsed on the calling
+         * thread.
+         */
+        public Builder parallelism(final int parallelism) {
+            if (parallelism < 1) throw new IllegalArgumentException("parallelism must be greater than zero");
+            this.parallelism = parallelism;
+            return this;
+        }
+
         /**
          * Override all of the {@link GraphSONMapper} builder
          * options with this mapper.  If this value is set to something other than null then that value will be
@@ -29,6 +29,8 @@ import org.apache.tinkerpop.gremlin.structure.io.GraphWriter;
 import org.apache.tinkerpop.gremlin.structure.io.Mapper;
 import org.apache.tinkerpop.gremlin.structure.util.star.StarGraph;
 import org.apache.tinkerpop.gremlin.structure.util.star.StarGraphGraphSONSerializer;
+import org.apache.tinkerpop.gremlin.util.function.FunctionUtils;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 import org.apache.tinkerpop.shaded.jackson.databind.ObjectMapper;
 
 import java.io.*;
@@ -48,10 +50,12 @@ import java.util.function.Function;
 public final class GraphSONWriter implements GraphWriter {
     private final ObjectMapper mapper;
     private final boolean wrapAdjacencyList;
+    private final int parallelism;
 
     private GraphSONWriter(final Builder builder) {
         mapper = builder.mapper.createMapper();
         wrapAdjacencyList = builder.wrapAdjacencyList;
+        parallelism = builder.parallelism;
     }
 
     /**
@@ -98,6 +102,11 @@ public final class GraphSONWriter implements GraphWriter {
      */
     @Override
     public void writeVertices(final OutputStream outputStream, final Iterator<Vertex> vertexIterator, final Direction direction) throws IOException {
+        if (parallelism > 1) {
+            writeVerticesInParallel(outputStream, vertexIterator, direction);
+            return;
+        }
+
         final BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(outputStream));
         try (final ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
             if (wrapAdjacencyList) writer.write("{\"" + GraphSONTokens.VERTICES + "\":[");
@@ -118,6 +127,32 @@ public final class GraphSONWriter implements GraphWriter {
         writer.flush();
     }
 
+    /**
+     * Same output as the single threaded {@link #writeVertices(OutputStream, Iterator, Direction)}.  The
+     * {@link StarGraph} of each vertex is still built on the calling thread, so that the {@link Graph} is only read
+     * from one thread, but it is serialized to JSON on a {@code ForkJoinPool} and written out in the original order.
+     */
+    private void writeVerticesInParallel(final OutputStream outputStream, final Iterator<Vertex> vertexIterator, final Direction direction) throws IOException {
+        final BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(outputStream));
+        try (final OrderedParallelIterator<StarGraphGraphSONSerializer.DirectionalStarGraph, String> lines = new OrderedParallelIterator<>(
+                IteratorUtils.map(vertexIterator, v -> new StarGraphGraphSONSerializer.DirectionalStarGraph(StarGraph.of(v), direction)),
+                FunctionUtils.wrapFunction(starGraph -> new String(mapper.writeValueAsBytes(starGraph))), parallelism)) {
+            if (wrapAdjacencyList) writer.write("{\"" + GraphSONTokens.VERTICES + "\":[");
+            while (lines.hasNext()) {
+                writer.write(lines.next());
+                if (wrapAdjacencyList) {
+                    if (lines.hasNext())
+                        writer.write(",");
+                } else {
+                    writer.newLine();
+                }
+            }
+            if (wrapAdjacencyList) writer.write("]}");
+        }
+
+        writer.flush();
+    }
+
     /**
      * Writes a list of vertices without edges.
      *
@@ -187,6 +222,7 @@ public final class GraphSONWriter implements GraphWriter {
 
         private Mapper<ObjectMapper> mapper = GraphSONMapper.build().create();
         private boolean wrapAdjacencyList = false;
+        private int parallelism = 1;
 
         private Builder() { }
 
@@ -217,6 +253,18 @@ public final class GraphSONWriter implements GraphWriter {
             return this;
         }
 
+        /**
+         * Number of threads to serialize vertices with when using {@link #writeGraph(OutputStream, Graph)},
+         * {@link #writeVertices(OutputStream, Iterator)} and {@link #writeVertices(OutputStream, Iterator, Direction)}.
+         * Vertices are still read from the {@link Graph} and written to the stream on the calling thread in their
+         * original order.  By default vertices are serialized on the calling thread.
+         */
+        public Builder parallelism(final int parallelism) {
+            if (parallelism < 1) throw new IllegalArgumentException("parallelism must be greater than zero");
+            this.parallelism = parallelism;
+            return this;
+        }
+
         public GraphSONWriter create() {
             return new GraphSONWriter(this);
         }
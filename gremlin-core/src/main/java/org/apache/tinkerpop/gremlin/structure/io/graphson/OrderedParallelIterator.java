@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.structure.io.graphson;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+
+/**
+ * An {@code Iterator} that applies a function to the items of another {@code Iterator} on a {@code ForkJoinPool} and
+ * returns the results in the order of the source items.  The source is only iterated by the thread calling
+ * {@link #hasNext()} and {@link #next()} and at most {@code window} items are read ahead of the consumer so that
+ * memory stays bounded on large inputs.  The pool is shutdown once the source is exhausted or the function fails,
+ * and otherwise must be released with {@link #close()} by callers that stop iterating early.
+ *
+ * @author agent (agent@local)
+ */
+final class OrderedParallelIterator<S, E> implements Iterator<E>, AutoCloseable {
+    private final Iterator<S> source;
+    private final Function<S, E> function;
+    private final ForkJoinPool pool;
+    private final int window;
+    private final Deque<ForkJoinTask<E>> pending = new ArrayDeque<>();
+
+    OrderedParallelIterator(final Iterator<S> source, final Function<S, E> function, final int parallelism) {
+        this.source = source;
+        this.function = function;
+        this.pool = new ForkJoinPool(parallelism);
+        this.window = parallelism * 64;
+    }
+
+    @Override
+    public boolean hasNext() {
+        fill();
+        return !this.pending.isEmpty();
+    }
+
+    @Override
+    public E next() {
+        fill();
+        final ForkJoinTask<E> task = this.pending.poll();
+        if (null == task) throw new NoSuchElementException();
+        try {
+            return task.join();
+        } catch (RuntimeException ex) {
+            close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Cancels any work that has not yet been picked up and shuts down the pool.  Calling this method more than once
+     * or after the source is exhausted has no further effect.
+     */
+    @Override
+    public void close() {
+        this.pending.forEach(task -> task.cancel(true));
+        this.pending.clear();
+        this.pool.shutdownNow();
+    }
+
+    boolean isShutdown() {
+        return this.pool.isShutdown();
+    }
+
+    private void fill() {
+        // nothing more is read once closed
+        if (this.pool.isShutdown()) return;
+        while (this.pending.size() < this.window && this.source.hasNext()) {
+            final S item = this.source.next();
+            this.pending.add(this.pool.submit(() -> this.function.apply(item)));
+        }
+        if (this.pending.isEmpty()) this.pool.shutdown();
+    }
+}
@@ -46,17 +46,32 @@ import java.io.OutputStream;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * The {@link GraphReader} for the Gremlin Structure serialization format based on Kryo.  The format is meant to be
  * non-lossy in terms of Gremlin Structure to Gremlin Structure migrations (assuming both structure implementations
  * support the same graph features).
  * <p/>
- * This implementation is not thread-safe.  Have one {@code GryoReader} instance per thread.
+ * This implementation is not thread-safe.  Have one {@code GryoReader} instance per thread.  When configured with
+ * more than one {@link Builder#workers(int) worker}, {@link #readGraph(InputStream, Graph)} still decodes the stream
+ * on the calling thread but adds the vertices and edges to the {@link Graph} from a pool of worker threads.
  *
  * @author Stephen Mallette (http://stephen.genoprime.com)
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -66,10 +81,12 @@ public final class GryoReader implements GraphReader {
     private final Map<GraphFilter, StarGraphGryoSerializer> graphFilterCache = new HashMap<>();
 
     private final long batchSize;
+    private final int workers;
 
-    private GryoReader(final long batchSize, final Mapper<Kryo> gryoMapper) {
+    private GryoReader(final long batchSize, final int workers, final Mapper<Kryo> gryoMapper) {
         this.kryo = gryoMapper.createMapper();
         this.batchSize = batchSize;
+        this.workers = workers;
     }
 
     /**
@@ -83,6 +100,11 @@ public final class GryoReader implements GraphReader {
      */
     @Override
     public void readGraph(final InputStream inputStream, final Graph graphToWriteTo) throws IOException {
+        if (this.workers > 1) {
+            readGraphInParallel(inputStream, graphToWriteTo);
+            return;
+        }
+
         // dual pass - create all vertices and store to cache the ids.  then create edges.  as long as we don't
         // have vertex labels in the output we can't do this single pass
         final Map<StarGraph.StarVertex, Vertex> cache = new HashMap<>();
@@ -112,6 +134,146 @@ public final class GryoReader implements GraphReader {
         if (supportsTx) graphToWriteTo.tx().commit();
     }
 
+    /**
+     * Reads the stream in a single pass spread over the worker pool.  The stream is decoded on the calling thread and
+     * handed to the workers through a bounded queue so that decoding and element creation overlap, and each worker
+     * commits its own transaction every {@code batchSize} mutations.  An edge is written by both of its vertices so
+     * it is added by whichever of the two is created second.  Until then only its id is remembered, and a created
+     * vertex is only kept (by the id it was written with) while some of its edges are still waiting on their other
+     * vertex, so memory grows with the number of unresolved edges rather than with the size of the graph.  As two
+     * workers may add edges to the same vertex at once, both of the vertices of an edge are locked (by id stripe, in a
+     * fixed order) while the edge is added.
+     */
+    private void readGraphInParallel(final InputStream inputStream, final Graph graphToWriteTo) throws IOException {
+        final Map<Object, PendingVertex> cache = new ConcurrentHashMap<>();
+        final Map<Object, Boolean> halfResolvedEdges = new ConcurrentHashMap<>();
+        final Object[] locks = IntStream.range(0, this.workers * 16).mapToObj(i -> new Object()).toArray();
+
+        final Graph.Features.EdgeFeatures edgeFeatures = graphToWriteTo.features().edge();
+        final boolean supportsTx = graphToWriteTo.features().graph().supportsTransactions();
+
+        final AtomicInteger threadCounter = new AtomicInteger(0);
+        final ExecutorService executor = Executors.newFixedThreadPool(this.workers, r -> {
+            final Thread thread = new Thread(r, "gryo-reader-" + threadCounter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            final Input input = new Input(inputStream);
+            final Iterator<StarGraph.StarVertex> decoder = new Iterator<StarGraph.StarVertex>() {
+                @Override
+                public boolean hasNext() {
+                    return !input.eof();
+                }
+
+                @Override
+                public StarGraph.StarVertex next() {
+                    try {
+                        readHeader(input);
+                        final StarGraph starGraph = kryo.readObject(input, StarGraph.class);
+                        // read the terminator
+                        kryo.readClassAndObject(input);
+                        return starGraph.getStarVertex();
+                    } catch (IOException ex) {
+                        throw new RuntimeException(ex);
+                    }
+                }
+            };
+
+            runWorkers(executor, decoder, graphToWriteTo, supportsTx, starVertex -> {
+                final Vertex vertex = starVertex.attach(Attachable.Method.create(graphToWriteTo));
+                final long degree = IteratorUtils.count(starVertex.edges(Direction.BOTH));
+                if (0 == degree) return;
+
+                // the vertex must be cached before any of its edges are offered so that a worker that resolves
+                // one of them finds it
+                cache.put(starVertex.id(), new PendingVertex(vertex, degree));
+                starVertex.edges(Direction.BOTH).forEachRemaining(e -> {
+                    // the first of the two vertices of the edge to get here marks it and the second one adds it. a
+                    // self-loop is only written once so it is added straight away.
+                    final Object outId = e.outVertex().id();
+                    final Object inId = e.inVertex().id();
+                    final boolean selfLoop = outId.equals(inId);
+                    if (!selfLoop && null != halfResolvedEdges.compute(e.id(), (id, marked) -> null == marked ? Boolean.TRUE : null))
+                        return;
+
+                    final PendingVertex cachedOutV = cache.get(outId);
+                    final PendingVertex cachedInV = cache.get(inId);
+                    final int outStripe = Math.abs(outId.hashCode() % locks.length);
+                    final int inStripe = Math.abs(inId.hashCode() % locks.length);
+                    synchronized (locks[Math.min(outStripe, inStripe)]) {
+                        synchronized (locks[Math.max(outStripe, inStripe)]) {
+                            final Edge newEdge = edgeFeatures.willAllowId(e.id()) ?
+                                    cachedOutV.vertex.addEdge(e.label(), cachedInV.vertex, T.id, e.id()) :
+                                    cachedOutV.vertex.addEdge(e.label(), cachedInV.vertex);
+                            e.properties().forEachRemaining(p -> newEdge.property(p.key(), p.value()));
+                        }
+                    }
+                    if (cachedOutV.resolve()) cache.remove(outId);
+                    if (!selfLoop && cachedInV.resolve()) cache.remove(inId);
+                });
+            });
+
+            if (!halfResolvedEdges.isEmpty())
+                throw new IllegalStateException(String.format(
+                        "The stream contains %s edges whose other vertex is not in the stream", halfResolvedEdges.size()));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Feed the items of the {@code source} to the {@code consumer} on each of the {@link #workers} and wait for them
+     * all to finish.  Each worker commits every {@link #batchSize} items and once more when it is done.
+     */
+    private <T> void runWorkers(final ExecutorService executor, final Iterator<T> source, final Graph graphToWriteTo,
+                                final boolean supportsTx, final Consumer<T> consumer) throws IOException {
+        final Object end = new Object();
+        final BlockingQueue<Object> queue = new LinkedBlockingQueue<>(this.workers * 1024);
+        final List<Future<?>> futures = IntStream.range(0, this.workers).mapToObj(i -> executor.submit(() -> {
+            long counter = 0;
+            try {
+                Object item;
+                while ((item = queue.take()) != end) {
+                    consumer.accept((T) item);
+                    if (supportsTx && ++counter % batchSize == 0)
+                        graphToWriteTo.tx().commit();
+                }
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(ie);
+            }
+            if (supportsTx) graphToWriteTo.tx().commit();
+            return null;
+        })).collect(Collectors.toList());
+
+        try {
+            while (source.hasNext()) {
+                final T item = source.next();
+                // a worker that failed will stop taking from the queue so check on them rather than block forever
+                while (!queue.offer(item, 100, TimeUnit.MILLISECONDS)) {
+                    for (final Future<?> future : futures) {
+                        if (future.isDone()) future.get();
+                    }
+                }
+            }
+            for (int i = 0; i < this.workers; i++) {
+                queue.put(end);
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IOException(ie);
+        } catch (ExecutionException ee) {
+            if (ee.getCause() instanceof RuntimeException) throw (RuntimeException) ee.getCause();
+            throw new IOException(ee.getCause());
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
     @Override
     public Optional<Vertex> readVertex(final InputStream inputStream, final GraphFilter graphFilter) throws IOException {
         StarGraphGryoSerializer serializer = this.graphFilterCache.get(graphFilter);
@@ -269,6 +431,7 @@ public final class GryoReader implements GraphReader {
     public final static class Builder implements ReaderBuilder<GryoReader> {
 
         private long batchSize = 10000;
+        private int workers = 1;
         /**
          * Always use the most recent gryo version by default
          */
@@ -286,6 +449,18 @@ public final class GryoReader implements GraphReader {
             return this;
         }
 
+        /**
+         * Number of threads to add vertices and edges with when using {@link GryoReader#readGraph(InputStream, Graph)}.
+         * The stream is always decoded on the calling thread.  Values greater than one require a {@link Graph} that
+         * can be mutated from several threads at once and, for transactional graphs, {@code batchSize} then applies
+         * to the transaction of each thread.  By default the graph is read on the calling thread only.
+         */
+        public Builder workers(final int workers) {
+            if (workers < 1) throw new IllegalArgumentException("workers must be greater than zero");
+            this.workers = workers;
+            return this;
+        }
+
         /**
          * Supply a mapper {@link GryoMapper} instance to use as the serializer for the {@code KryoWriter}.
          */
@@ -295,7 +470,7 @@ public final class GryoReader implements GraphReader {
         }
 
         public GryoReader create() {
-            return new GryoReader(batchSize, this.gryoMapper);
+            return new GryoReader(batchSize, workers, this.gryoMapper);
         }
 
     }
@@ -330,4 +505,25 @@ public final class GryoReader implements GraphReader {
             }
         }
     }
+
+    /**
+     * A vertex created by {@link #readGraphInParallel(InputStream, Graph)} along with the number of its edges that have
+     * not been added yet.
+     */
+    private static final class PendingVertex {
+        private final Vertex vertex;
+        private final AtomicLong unresolvedEdges;
+
+        private PendingVertex(final Vertex vertex, final long unresolvedEdges) {
+            this.vertex = vertex;
+            this.unresolvedEdges = new AtomicLong(unresolvedEdges);
+        }
+
+        /**
+         * Marks one of the edges of the vertex as added and returns {@code true} when it was the last one.
+         */
+        private boolean resolve() {
+            return 0 == this.unresolvedEdges.decrementAndGet();
+        }
+    }
 }
@@ -38,6 +38,7 @@ import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -52,7 +53,9 @@ import java.util.stream.Stream;
  * A {@code StarGraph} is a form of {@link Attachable} (though the {@link Graph} implementation does not implement
  * that interface itself).  It is a very limited {@link Graph} implementation that holds a single {@link Vertex}
  * and its related properties and edges (and their properties).  It is designed to be an efficient memory
- * representation of this data structure, thus making it good for network and disk-based serialization.
+ * representation of this data structure, thus making it good for network and disk-based serialization.  To that
+ * end, the edges of the {@link StarVertex} are held per label and direction in parallel arrays and
+ * {@link StarEdge} objects are only created as edges are iterated.
  *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
@@ -66,8 +69,6 @@ public final class StarGraph implements Graph, Serializable {
 
     protected Long nextId = 0l;
     protected StarVertex starVertex = null;
-    protected Map<Object, Map<String, Object>> edgeProperties = null;
-    protected Map<Object, Map<String, Object>> metaProperties = null;
 
     private StarGraph() {
     }
@@ -136,10 +137,7 @@ public final class StarGraph implements Graph, Serializable {
     public Iterator<Edge> edges(final Object... edgeIds) {
         return null == this.starVertex ?
                 Collections.emptyIterator() :
-                Stream.concat(
-                        null == this.starVertex.inEdges ? Stream.empty() : this.starVertex.inEdges.values().stream(),
-                        null == this.starVertex.outEdges ? Stream.empty() : this.starVertex.outEdges.values().stream())
-                        .flatMap(List::stream)
+                IteratorUtils.stream(this.starVertex.edges(Direction.BOTH))
                         .filter(edge -> {
                             // todo: kinda fishy - need to better nail down how stuff should work here - none of these feel consistent right now.
                             if (edgeIds.length > 0 && edgeIds[0] instanceof Edge)
@@ -275,8 +273,8 @@ public final class StarGraph implements Graph, Serializable {
 
     public final class StarVertex extends StarElement<Vertex> implements Vertex {
 
-        protected Map<String, List<Edge>> outEdges = null;
-        protected Map<String, List<Edge>> inEdges = null;
+        protected Map<String, StarEdgeColumn> outEdges = null;
+        protected Map<String, StarEdgeColumn> inEdges = null;
         protected Map<String, List<VertexProperty>> vertexProperties = null;
 
         public StarVertex(final Object id, final String label) {
@@ -334,14 +332,10 @@ public final class StarGraph implements Graph, Serializable {
             ElementHelper.legalPropertyKeyValueArray(keyValues);
             if (null == this.outEdges)
                 this.outEdges = new HashMap<>();
-            List<Edge> outE = this.outEdges.get(label);
-            if (null == outE) {
-                outE = new ArrayList<>();
-                this.outEdges.put(label, outE);
-            }
-            final StarEdge outEdge = new StarOutEdge(ElementHelper.getIdValue(keyValues).orElse(nextId()), label, inVertex.id());
+            final StarEdgeColumn column = this.outEdges.computeIfAbsent(label.intern(), k -> new StarEdgeColumn());
+            final int index = column.add(ElementHelper.getIdValue(keyValues).orElse(nextId()), inVertex.id());
+            final StarEdge outEdge = new StarOutEdge(column, index, label);
             ElementHelper.attachProperties(outEdge, keyValues);
-            outE.add(outEdge);
             return outEdge;
         }
 
@@ -350,14 +344,10 @@ public final class StarGraph implements Graph, Serializable {
             ElementHelper.legalPropertyKeyValueArray(keyValues);
             if (null == this.inEdges)
                 this.inEdges = new HashMap<>();
-            List<Edge> inE = this.inEdges.get(label);
-            if (null == inE) {
-                inE = new ArrayList<>();
-                this.inEdges.put(label, inE);
-            }
-            final StarEdge inEdge = new StarInEdge(ElementHelper.getIdValue(keyValues).orElse(nextId()), label, outVertex.id());
+            final StarEdgeColumn column = this.inEdges.computeIfAbsent(label.intern(), k -> new StarEdgeColumn());
+            final int index = column.add(ElementHelper.getIdValue(keyValues).orElse(nextId()), outVertex.id());
+            final StarEdge inEdge = new StarInEdge(column, index, label);
             ElementHelper.attachProperties(inEdge, keyValues);
-            inE.add(inEdge);
             return inEdge;
         }
 
@@ -376,26 +366,42 @@ public final class StarGraph implements Graph, Serializable {
 
         @Override
         public Iterator<Edge> edges(final Direction direction, final String... edgeLabels) {
-            if (direction.equals(Direction.OUT)) {
-                return null == this.outEdges ? Collections.emptyIterator() : edgeLabels.length == 0 ?
-                        IteratorUtils.flatMap(this.outEdges.values().iterator(), List::iterator) :
-                        this.outEdges.entrySet().stream()
-                                .filter(entry -> ElementHelper.keyExists(entry.getKey(), edgeLabels))
-                                .map(Map.Entry::getValue)
-                                .flatMap(List::stream)
-                                .iterator();
-            } else if (direction.equals(Direction.IN)) {
-                return null == this.inEdges ? Collections.emptyIterator() : edgeLabels.length == 0 ?
-                        IteratorUtils.flatMap(this.inEdges.values().iterator(), List::iterator) :
-                        this.inEdges.entrySet().stream()
-                                .filter(entry -> ElementHelper.keyExists(entry.getKey(), edgeLabels))
-                                .map(Map.Entry::getValue)
-                                .flatMap(List::stream)
-                                .iterator();
-            } else
+            if (direction.equals(Direction.OUT))
+                return this.edges(this.outEdges, true, edgeLabels);
+            else if (direction.equals(Direction.IN))
+                return this.edges(this.inEdges, false, edgeLabels);
+            else
                 return IteratorUtils.concat(this.edges(Direction.IN, edgeLabels), this.edges(Direction.OUT, edgeLabels));
         }
 
+        private Iterator<Edge> edges(final Map<String, StarEdgeColumn> columns, final boolean out, final String... edgeLabels) {
+            if (null == columns)
+                return Collections.emptyIterator();
+            final Iterator<Map.Entry<String, StarEdgeColumn>> entries = edgeLabels.length == 0 ?
+                    columns.entrySet().iterator() :
+                    IteratorUtils.filter(columns.entrySet().iterator(), entry -> ElementHelper.keyExists(entry.getKey(), edgeLabels));
+            return IteratorUtils.flatMap(entries, entry -> {
+                final String label = entry.getKey();
+                final StarEdgeColumn column = entry.getValue();
+                final int size = column.size;
+                return new Iterator<Edge>() {
+                    private int index = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return this.index < size;
+                    }
+
+                    @Override
+                    public Edge next() {
+                        if (this.index >= size) throw new NoSuchElementException();
+                        final int i = this.index++;
+                        return out ? new StarOutEdge(column, i, label) : new StarInEdge(column, i, label);
+                    }
+                };
+            });
+        }
+
         @Override
         public Iterator<Vertex> vertices(final Direction direction, final String... edgeLabels) {
             if (direction.equals(Direction.OUT))
@@ -455,24 +461,13 @@ public final class StarGraph implements Graph, Serializable {
                                 this.dropEdges(Direction.IN, key);
                         }
                     if (null != this.inEdges || null != this.outEdges) {
-                        final Map<String, List<Edge>> outEdges = new HashMap<>();
-                        final Map<String, List<Edge>> inEdges = new HashMap<>();
+                        // edges created before this point keep referring to the columns that are replaced here
+                        final Map<String, StarEdgeColumn> outEdges = new HashMap<>();
+                        final Map<String, StarEdgeColumn> inEdges = new HashMap<>();
                         graphFilter.legalEdges(this).forEachRemaining(edge -> {
-                            if (edge instanceof StarGraph.StarOutEdge) {
-                                List<Edge> edges = outEdges.get(edge.label());
-                                if (null == edges) {
-                                    edges = new ArrayList<>();
-                                    outEdges.put(edge.label(), edges);
-                                }
-                                edges.add(edge);
-                            } else {
-                                List<Edge> edges = inEdges.get(edge.label());
-                                if (null == edges) {
-                                    edges = new ArrayList<>();
-                                    inEdges.put(edge.label(), edges);
-                                }
-                                edges.add(edge);
-                            }
+                            final StarEdge starEdge = (StarEdge) edge;
+                            final Map<String, StarEdgeColumn> columns = edge instanceof StarGraph.StarOutEdge ? outEdges : inEdges;
+                            columns.computeIfAbsent(edge.label(), k -> new StarEdgeColumn()).add(starEdge.column, starEdge.index);
                         });
 
                         if (outEdges.isEmpty())
@@ -500,6 +495,7 @@ public final class StarGraph implements Graph, Serializable {
     public final class StarVertexProperty<V> extends StarElement<VertexProperty<V>> implements VertexProperty<V> {
 
         private final V value;
+        private Object[] properties = null;
 
         private StarVertexProperty(final Object id, final String key, final V value) {
             super(id, key);
@@ -534,39 +530,26 @@ public final class StarGraph implements Graph, Serializable {
 
         @Override
         public <U> Iterator<Property<U>> properties(final String... propertyKeys) {
-            final Map<String, Object> properties = null == metaProperties ? null : metaProperties.get(this.id);
-            if (null == properties || properties.isEmpty())
-                return Collections.emptyIterator();
-            else if (propertyKeys.length == 0)
-                return (Iterator) properties.entrySet().stream()
-                        .map(entry -> new StarProperty<>(entry.getKey(), entry.getValue(), this))
-                        .iterator();
-            else if (propertyKeys.length == 1) {
-                final Object v = properties.get(propertyKeys[0]);
-                return null == v ?
-                        Collections.emptyIterator() :
-                        (Iterator) IteratorUtils.of(new StarProperty<>(propertyKeys[0], v, this));
-            } else {
-                return (Iterator) properties.entrySet().stream()
-                        .filter(entry -> ElementHelper.keyExists(entry.getKey(), propertyKeys))
-                        .map(entry -> new StarProperty<>(entry.getKey(), entry.getValue(), this))
-                        .iterator();
-            }
+            return StarGraph.this.properties(this.properties, this, propertyKeys);
         }
 
         @Override
         public <U> Property<U> property(final String key, final U value) {
-            if (null == metaProperties)
-                metaProperties = new HashMap<>();
-            Map<String, Object> properties = metaProperties.get(this.id);
-            if (null == properties) {
-                properties = new HashMap<>();
-                metaProperties.put(this.id, properties);
-            }
-            properties.put(key, value);
+            this.properties = StarEdgeColumn.setProperty(this.properties, key, value);
             return new StarProperty<>(key, value, this);
         }
 
+        /**
+         * The meta-properties of this vertex property as alternating keys and values or {@code null} if there are none.
+         */
+        Object[] getPropertyKeyValues() {
+            return this.properties;
+        }
+
+        void setPropertyKeyValues(final Object[] keyValues) {
+            this.properties = keyValues;
+        }
+
         @Override
         public String toString() {
             return StringFactory.propertyString(this);
@@ -659,49 +642,33 @@ public final class StarGraph implements Graph, Serializable {
     //// STAR EDGE ////
     ///////////////////
 
+    /**
+     * An {@link Edge} view over a position of a {@code StarEdgeColumn}.  Properties read from and written to the
+     * edge go to the column so any number of {@code StarEdge} objects may exist for the same edge.
+     */
     public abstract class StarEdge extends StarElement<Edge> implements Edge {
 
         protected final Object otherId;
+        private final StarEdgeColumn column;
+        private final int index;
 
-        private StarEdge(final Object id, final String label, final Object otherId) {
-            super(id, label);
-            this.otherId = otherId;
+        private StarEdge(final StarEdgeColumn column, final int index, final String label) {
+            super(column.ids[index], label);
+            this.otherId = column.adjacentIds[index];
+            this.column = column;
+            this.index = index;
         }
 
         @Override
         public <V> Property<V> property(final String key, final V value) {
             ElementHelper.validateProperty(key, value);
-            if (null == edgeProperties)
-                edgeProperties = new HashMap<>();
-            Map<String, Object> properties = edgeProperties.get(this.id);
-            if (null == properties) {
-                properties = new HashMap<>();
-                edgeProperties.put(this.id, properties);
-            }
-            properties.put(key, value);
+            this.column.setProperty(this.index, key, value);
             return new StarProperty<>(key, value, this);
         }
 
         @Override
         public <V> Iterator<Property<V>> properties(final String... propertyKeys) {
-            Map<String, Object> properties = null == edgeProperties ? null : edgeProperties.get(this.id);
-            if (null == properties || properties.isEmpty())
-                return Collections.emptyIterator();
-            else if (propertyKeys.length == 0)
-                return (Iterator) properties.entrySet().stream()
-                        .map(entry -> new StarProperty<>(entry.getKey(), entry.getValue(), this))
-                        .iterator();
-            else if (propertyKeys.length == 1) {
-                final Object v = properties.get(propertyKeys[0]);
-                return null == v ?
-                        Collections.emptyIterator() :
-                        (Iterator) IteratorUtils.of(new StarProperty<>(propertyKeys[0], v, this));
-            } else {
-                return (Iterator) properties.entrySet().stream()
-                        .filter(entry -> ElementHelper.keyExists(entry.getKey(), propertyKeys))
-                        .map(entry -> new StarProperty<>(entry.getKey(), entry.getValue(), this))
-                        .iterator();
-            }
+            return StarGraph.this.properties(this.column.getPropertyKeyValues(this.index), this, propertyKeys);
         }
 
         @Override
@@ -727,8 +694,8 @@ public final class StarGraph implements Graph, Serializable {
 
     public final class StarOutEdge extends StarEdge {
 
-        private StarOutEdge(final Object id, final String label, final Object otherId) {
-            super(id, label, otherId);
+        private StarOutEdge(final StarEdgeColumn column, final int index, final String label) {
+            super(column, index, label);
         }
 
         @Override
@@ -744,8 +711,8 @@ public final class StarGraph implements Graph, Serializable {
 
     public final class StarInEdge extends StarEdge {
 
-        private StarInEdge(final Object id, final String label, final Object otherId) {
-            super(id, label, otherId);
+        private StarInEdge(final StarEdgeColumn column, final int index, final String label) {
+            super(column, index, label);
         }
 
         @Override
@@ -759,6 +726,110 @@ public final class StarGraph implements Graph, Serializable {
         }
     }
 
+    private <V> Iterator<Property<V>> properties(final Object[] keyValues, final Element element, final String... propertyKeys) {
+        if (null == keyValues)
+            return Collections.emptyIterator();
+        final List<Property<V>> properties = new ArrayList<>(keyValues.length / 2);
+        for (int i = 0; i < keyValues.length; i = i + 2) {
+            if (propertyKeys.length == 0 || ElementHelper.keyExists((String) keyValues[i], propertyKeys))
+                properties.add(new StarProperty<>((String) keyValues[i], (V) keyValues[i + 1], element));
+        }
+        return properties.iterator();
+    }
+
+    ///////////////////////////
+    //// STAR EDGE COLUMN ////
+    //////////////////////////
+
+    /**
+     * The edges of a {@link StarVertex} for one label in one direction.  Edge ids, adjacent vertex ids and edge
+     * properties are held in parallel arrays rather than as one object (and one property map) per edge.  The
+     * properties of an edge are a flat array of alternating interned keys and values.
+     */
+    static final class StarEdgeColumn {
+
+        private static final Object[] EMPTY = new Object[0];
+
+        private Object[] ids = EMPTY;
+        private Object[] adjacentIds = EMPTY;
+        private Object[][] properties = null;
+        private int size = 0;
+
+        /**
+         * The number of edges in the column.
+         */
+        int size() {
+            return this.size;
+        }
+
+        Object getId(final int index) {
+            return this.ids[index];
+        }
+
+        Object getAdjacentId(final int index) {
+            return this.adjacentIds[index];
+        }
+
+        /**
+         * The properties of the edge at the index as alternating keys and values or {@code null} if there are none.
+         */
+        Object[] getPropertyKeyValues(final int index) {
+            return null == this.properties ? null : this.properties[index];
+        }
+
+        int add(final Object id, final Object adjacentId) {
+            if (this.size == this.ids.length) {
+                final int capacity = this.size < 4 ? this.size + 2 : this.size + (this.size >> 1);
+                this.ids = Arrays.copyOf(this.ids, capacity);
+                this.adjacentIds = Arrays.copyOf(this.adjacentIds, capacity);
+                if (null != this.properties)
+                    this.properties = Arrays.copyOf(this.properties, capacity);
+            }
+            this.ids[this.size] = id;
+            this.adjacentIds[this.size] = adjacentId;
+            return this.size++;
+        }
+
+        /**
+         * Copy the edge at the index of another column into this column.
+         */
+        void add(final StarEdgeColumn column, final int index) {
+            final int i = this.add(column.ids[index], column.adjacentIds[index]);
+            final Object[] keyValues = column.getPropertyKeyValues(index);
+            if (null != keyValues)
+                this.setPropertyKeyValues(i, keyValues);
+        }
+
+        void setProperty(final int index, final String key, final Object value) {
+            this.setPropertyKeyValues(index, setProperty(this.getPropertyKeyValues(index), key, value));
+        }
+
+        void setPropertyKeyValues(final int index, final Object[] keyValues) {
+            if (null == this.properties)
+                this.properties = new Object[this.ids.length][];
+            this.properties[index] = keyValues;
+        }
+
+        /**
+         * Sets a key to a value in a flat array of alternating keys and values, returning a new array if the key was
+         * not already present.
+         */
+        static Object[] setProperty(final Object[] keyValues, final String key, final Object value) {
+            if (null == keyValues)
+                return new Object[]{key.intern(), value};
+            for (int i = 0; i < keyValues.length; i = i + 2) {
+                if (keyValues[i].equals(key)) {
+                    keyValues[i + 1] = value;
+                    return keyValues;
+                }
+            }
+            final Object[] grown = Arrays.copyOf(keyValues, keyValues.length + 2);
+            grown[keyValues.length] = key.intern();
+            grown[keyValues.length + 1] = value;
+            return grown;
+        }
+    }
+
     ////////////////////////
     //// STAR PROPERTY ////
     ///////////////////////
@@ -127,7 +127,7 @@ public class StarGraphGraphSONSerializer extends StdSerializer<StarGraphGraphSON
         // the direction being serialized by the format
         final StarGraph starGraph = directionalStarGraph.getStarGraphToSerialize();
         final Direction edgeDirectionToSerialize = directionalStarGraph.getDirection();
-        final Map<String, List<Edge>> starEdges = direction.equals(Direction.OUT) ? starGraph.starVertex.outEdges : starGraph.starVertex.inEdges;
+        final Map<String, StarGraph.StarEdgeColumn> starEdges = direction.equals(Direction.OUT) ? starGraph.starVertex.outEdges : starGraph.starVertex.inEdges;
         final boolean writeEdges = null != starEdges && edgeDirectionToSerialize != null
                 && (edgeDirectionToSerialize == direction || edgeDirectionToSerialize == Direction.BOTH);
         if (writeEdges) {
@@ -135,7 +135,7 @@ public class StarGraphGraphSONSerializer extends StdSerializer<StarGraphGraphSON
             if (typeSerializer != null) jsonGenerator.writeStringField(GraphSONTokens.CLASS, HashMap.class.getName());
             final Set<String> keys = normalize ? new TreeSet<>(starEdges.keySet()) : starEdges.keySet();
             for (final String k : keys) {
-                final List<Edge> edges = starEdges.get(k);
+                final List<Edge> edges = IteratorUtils.list(starGraph.starVertex.edges(direction, k));
                 jsonGenerator.writeArrayFieldStart(k);
                 if (typeSerializer != null) {
                     jsonGenerator.writeString(ArrayList.class.getName());
@@ -38,6 +38,11 @@ import java.util.Map;
  * the correct deserialization mechanism.  The limitation is that this versioning won't help with backward
  * compatibility for custom serializers from vendors.  Vendors should be encouraged to write their serializers
  * with backward compatibility in mind.
+ * <p/>
+ * Version 2 writes the edges of each label as they are held by the {@link StarGraph}: each edge id and adjacent
+ * vertex id is followed by the properties of that edge.  Meta-properties follow their vertex property in the same
+ * way.  Version 1 instead wrote all edge properties and meta-properties as maps keyed by element id.  It can still
+ * be read.
  *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  * @author Stephen Mallette (http://stephen.genoprime.com)
@@ -50,6 +55,7 @@ public final class StarGraphGryoSerializer extends Serializer<StarGraph> {
     private GraphFilter graphFilter = new GraphFilter(); // will allow all vertices/edges
 
     private final static byte VERSION_1 = Byte.MIN_VALUE;
+    private final static byte VERSION_2 = Byte.MIN_VALUE + 1;
 
     static {
         CACHE.put(Direction.BOTH, new StarGraphGryoSerializer(Direction.BOTH));
@@ -78,22 +84,21 @@ public final class StarGraphGryoSerializer extends Serializer<StarGraph> {
 
     @Override
     public void write(final Kryo kryo, final Output output, final StarGraph starGraph) {
-        output.writeByte(VERSION_1);
-        kryo.writeObjectOrNull(output, starGraph.edgeProperties, HashMap.class);
-        kryo.writeObjectOrNull(output, starGraph.metaProperties, HashMap.class);
+        output.writeByte(VERSION_2);
         kryo.writeClassAndObject(output, starGraph.starVertex.id);
-        kryo.writeObject(output, starGraph.starVertex.label);
+        output.writeString(starGraph.starVertex.label);
         writeEdges(kryo, output, starGraph, Direction.IN);
         writeEdges(kryo, output, starGraph, Direction.OUT);
-        kryo.writeObject(output, null != starGraph.starVertex.vertexProperties);
+        output.writeBoolean(null != starGraph.starVertex.vertexProperties);
         if (null != starGraph.starVertex.vertexProperties) {
-            kryo.writeObject(output, starGraph.starVertex.vertexProperties.size());
+            output.writeVarInt(starGraph.starVertex.vertexProperties.size(), true);
             for (final Map.Entry<String, List<VertexProperty>> vertexProperties : starGraph.starVertex.vertexProperties.entrySet()) {
-                kryo.writeObject(output, vertexProperties.getKey());
-                kryo.writeObject(output, vertexProperties.getValue().size());
+                output.writeString(vertexProperties.getKey());
+                output.writeVarInt(vertexProperties.getValue().size(), true);
                 for (final VertexProperty vertexProperty : vertexProperties.getValue()) {
                     kryo.writeClassAndObject(output, vertexProperty.id());
                     kryo.writeClassAndObject(output, vertexProperty.value());
+                    writeProperties(kryo, output, ((StarGraph.StarVertexProperty) vertexProperty).getPropertyKeyValues());
                 }
             }
         }
@@ -105,21 +110,24 @@ public final class StarGraphGryoSerializer extends Serializer<StarGraph> {
     @Override
     public StarGraph read(final Kryo kryo, final Input input, final Class<StarGraph> aClass) {
         final StarGraph starGraph = StarGraph.open();
-        input.readByte();  // version field ignored for now - for future use with backward compatibility
-        starGraph.edgeProperties = kryo.readObjectOrNull(input, HashMap.class);
-        starGraph.metaProperties = kryo.readObjectOrNull(input, HashMap.class);
-        starGraph.addVertex(T.id, kryo.readClassAndObject(input), T.label, kryo.readObject(input, String.class));
-        readEdges(kryo, input, starGraph, Direction.IN);
-        readEdges(kryo, input, starGraph, Direction.OUT);
-        if (kryo.readObject(input, Boolean.class)) {
-            final int numberOfUniqueKeys = kryo.readObject(input, Integer.class);
-            for (int i = 0; i < numberOfUniqueKeys; i++) {
-                final String vertexPropertyKey = kryo.readObject(input, String.class);
-                final int numberOfVertexPropertiesWithKey = kryo.readObject(input, Integer.class);
-                for (int j = 0; j < numberOfVertexPropertiesWithKey; j++) {
-                    final Object id = kryo.readClassAndObject(input);
-                    final Object value = kryo.readClassAndObject(input);
-                    starGraph.starVertex.property(VertexProperty.Cardinality.list, vertexPropertyKey, value, T.id, id);
+        final byte version = input.readByte();
+        if (VERSION_1 == version)
+            readVersion1(kryo, input, starGraph);
+        else {
+            starGraph.addVertex(T.id, kryo.readClassAndObject(input), T.label, input.readString());
+            readEdges(kryo, input, starGraph, Direction.IN);
+            readEdges(kryo, input, starGraph, Direction.OUT);
+            if (input.readBoolean()) {
+                final int numberOfUniqueKeys = input.readVarInt(true);
+                for (int i = 0; i < numberOfUniqueKeys; i++) {
+                    final String vertexPropertyKey = input.readString();
+                    final int numberOfVertexPropertiesWithKey = input.readVarInt(true);
+                    for (int j = 0; j < numberOfVertexPropertiesWithKey; j++) {
+                        final Object id = kryo.readClassAndObject(input);
+                        final Object value = kryo.readClassAndObject(input);
+                        final VertexProperty<?> vertexProperty = starGraph.starVertex.property(VertexProperty.Cardinality.list, vertexPropertyKey, value, T.id, id);
+                        ((StarGraph.StarVertexProperty) vertexProperty).setPropertyKeyValues(readProperties(kryo, input));
+                    }
                 }
             }
         }
@@ -129,24 +137,109 @@ public final class StarGraphGryoSerializer extends Serializer<StarGraph> {
     private void writeEdges(final Kryo kryo, final Output output, final StarGraph starGraph, final Direction direction) {
         // only write edges if there are some AND if the user requested them to be serialized AND if they match
         // the direction being serialized by the format
-        final Map<String, List<Edge>> starEdges = direction.equals(Direction.OUT) ? starGraph.starVertex.outEdges : starGraph.starVertex.inEdges;
+        final Map<String, StarGraph.StarEdgeColumn> starEdges = direction.equals(Direction.OUT) ? starGraph.starVertex.outEdges : starGraph.starVertex.inEdges;
         final boolean writeEdges = null != starEdges && edgeDirectionToSerialize != null
                 && (edgeDirectionToSerialize == direction || edgeDirectionToSerialize == Direction.BOTH);
-        kryo.writeObject(output, writeEdges);
+        output.writeBoolean(writeEdges);
         if (writeEdges) {
-            kryo.writeObject(output, starEdges.size());
-            for (final Map.Entry<String, List<Edge>> edges : starEdges.entrySet()) {
-                kryo.writeObject(output, edges.getKey());
-                kryo.writeObject(output, edges.getValue().size());
-                for (final Edge edge : edges.getValue()) {
-                    kryo.writeClassAndObject(output, edge.id());
-                    kryo.writeClassAndObject(output, direction.equals(Direction.OUT) ? edge.inVertex().id() : edge.outVertex().id());
+            output.writeVarInt(starEdges.size(), true);
+            for (final Map.Entry<String, StarGraph.StarEdgeColumn> edges : starEdges.entrySet()) {
+                final StarGraph.StarEdgeColumn column = edges.getValue();
+                output.writeString(edges.getKey());
+                output.writeVarInt(column.size(), true);
+                for (int i = 0; i < column.size(); i++) {
+                    kryo.writeClassAndObject(output, column.getId(i));
+                    kryo.writeClassAndObject(output, column.getAdjacentId(i));
+                    writeProperties(kryo, output, column.getPropertyKeyValues(i));
                 }
             }
         }
     }
 
     private void readEdges(final Kryo kryo, final Input input, final StarGraph starGraph, final Direction direction) {
+        if (input.readBoolean()) {
+            final int numberOfUniqueLabels = input.readVarInt(true);
+            for (int i = 0; i < numberOfUniqueLabels; i++) {
+                final String edgeLabel = input.readString();
+                final boolean legal = this.graphFilter.checkEdgeLegality(direction, edgeLabel).positive();
+                final int numberOfEdgesWithLabel = input.readVarInt(true);
+                for (int j = 0; j < numberOfEdgesWithLabel; j++) {
+                    final Object edgeId = kryo.readClassAndObject(input);
+                    final Object adjacentVertexId = kryo.readClassAndObject(input);
+                    final Object[] properties = readProperties(kryo, input);
+                    if (legal)
+                        addEdge(starGraph, direction, edgeLabel, edgeId, adjacentVertexId, properties);
+                }
+            }
+        }
+    }
+
+    private static void addEdge(final StarGraph starGraph, final Direction direction, final String edgeLabel,
+                                final Object edgeId, final Object adjacentVertexId, final Object[] properties) {
+        final Map<String, StarGraph.StarEdgeColumn> columns;
+        if (direction.equals(Direction.OUT)) {
+            if (null == starGraph.starVertex.outEdges) starGraph.starVertex.outEdges = new HashMap<>();
+            columns = starGraph.starVertex.outEdges;
+        } else {
+            if (null == starGraph.starVertex.inEdges) starGraph.starVertex.inEdges = new HashMap<>();
+            columns = starGraph.starVertex.inEdges;
+        }
+        final StarGraph.StarEdgeColumn column = columns.computeIfAbsent(edgeLabel.intern(), k -> new StarGraph.StarEdgeColumn());
+        final int index = column.add(edgeId, adjacentVertexId);
+        if (null != properties) column.setPropertyKeyValues(index, properties);
+    }
+
+    private static void writeProperties(final Kryo kryo, final Output output, final Object[] keyValues) {
+        if (null == keyValues) {
+            output.writeVarInt(0, true);
+        } else {
+            output.writeVarInt(keyValues.length / 2, true);
+            for (int i = 0; i < keyValues.length; i = i + 2) {
+                output.writeString((String) keyValues[i]);
+                kryo.writeClassAndObject(output, keyValues[i + 1]);
+            }
+        }
+    }
+
+    private static Object[] readProperties(final Kryo kryo, final Input input) {
+        final int numberOfProperties = input.readVarInt(true);
+        if (0 == numberOfProperties) return null;
+        final Object[] keyValues = new Object[numberOfProperties * 2];
+        for (int i = 0; i < keyValues.length; i = i + 2) {
+            keyValues[i] = input.readString().intern();
+            keyValues[i + 1] = kryo.readClassAndObject(input);
+        }
+        return keyValues;
+    }
+
+    /**
+     * Reads the original layout where edge properties and meta-properties were written as maps keyed by element id
+     * ahead of the vertex.
+     */
+    private void readVersion1(final Kryo kryo, final Input input, final StarGraph starGraph) {
+        final Map<Object, Map<String, Object>> edgeProperties = kryo.readObjectOrNull(input, HashMap.class);
+        final Map<Object, Map<String, Object>> metaProperties = kryo.readObjectOrNull(input, HashMap.class);
+        starGraph.addVertex(T.id, kryo.readClassAndObject(input), T.label, kryo.readObject(input, String.class));
+        readEdgesVersion1(kryo, input, starGraph, Direction.IN, edgeProperties);
+        readEdgesVersion1(kryo, input, starGraph, Direction.OUT, edgeProperties);
+        if (kryo.readObject(input, Boolean.class)) {
+            final int numberOfUniqueKeys = kryo.readObject(input, Integer.class);
+            for (int i = 0; i < numberOfUniqueKeys; i++) {
+                final String vertexPropertyKey = kryo.readObject(input, String.class);
+                final int numberOfVertexPropertiesWithKey = kryo.readObject(input, Integer.class);
+                for (int j = 0; j < numberOfVertexPropertiesWithKey; j++) {
+                    final Object id = kryo.readClassAndObject(input);
+                    final Object value = kryo.readClassAndObject(input);
+                    final VertexProperty<?> vertexProperty = starGraph.starVertex.property(VertexProperty.Cardinality.list, vertexPropertyKey, value, T.id, id);
+                    if (null != metaProperties && metaProperties.containsKey(id))
+                        metaProperties.get(id).forEach(vertexProperty::property);
+                }
+            }
+        }
+    }
+
+    private void readEdgesVersion1(final Kryo kryo, final Input input, final StarGraph starGraph, final Direction direction,
+                                   final Map<Object, Map<String, Object>> edgeProperties) {
         if (kryo.readObject(input, Boolean.class)) {
             final int numberOfUniqueLabels = kryo.readObject(input, Integer.class);
             for (int i = 0; i < numberOfUniqueLabels; i++) {
@@ -156,15 +249,16 @@ public final class StarGraphGryoSerializer extends Serializer<StarGraph> {
                     final Object edgeId = kryo.readClassAndObject(input);
                     final Object adjacentVertexId = kryo.readClassAndObject(input);
                     if (this.graphFilter.checkEdgeLegality(direction, edgeLabel).positive()) {
-                        if (direction.equals(Direction.OUT))
-                            starGraph.starVertex.addOutEdge(edgeLabel, starGraph.addVertex(T.id, adjacentVertexId), T.id, edgeId);
-                        else
-                            starGraph.starVertex.addInEdge(edgeLabel, starGraph.addVertex(T.id, adjacentVertexId), T.id, edgeId);
-                    } else if (null != starGraph.edgeProperties) {
-                        starGraph.edgeProperties.remove(edgeId);
+                        Object[] properties = null;
+                        if (null != edgeProperties && edgeProperties.containsKey(edgeId)) {
+                            for (final Map.Entry<String, Object> property : edgeProperties.get(edgeId).entrySet()) {
+                                properties = StarGraph.StarEdgeColumn.setProperty(properties, property.getKey(), property.getValue());
+                            }
+                        }
+                        addEdge(starGraph, direction, edgeLabel, edgeId, adjacentVertexId, properties);
                     }
                 }
             }
         }
     }
-}
\ No newline at end of file
+}
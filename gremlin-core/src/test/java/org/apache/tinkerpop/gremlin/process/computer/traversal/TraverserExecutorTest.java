@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.computer.traversal;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.B_O_Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserSet;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.util.detached.DetachedEdge;
+import org.apache.tinkerpop.gremlin.structure.util.detached.DetachedProperty;
+import org.apache.tinkerpop.gremlin.structure.util.detached.DetachedVertex;
+import org.apache.tinkerpop.gremlin.structure.util.detached.DetachedVertexProperty;
+import org.javatuples.Pair;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author agent (agent@local)
+ */
+public class TraverserExecutorTest {
+
+    @Test
+    public void shouldRouteActiveTraversersToTheirHostingVertex() {
+        final Vertex marko = new DetachedVertex(1, "person", Collections.emptyMap());
+        final Vertex josh = new DetachedVertex(4, "person", Collections.emptyMap());
+        final Edge knows = new DetachedEdge(8, "knows", Collections.emptyMap(), Pair.with(1, "person"), Pair.with(4, "person"));
+        final VertexProperty<String> name = new DetachedVertexProperty<>(0, "name", "josh", Collections.emptyMap(), josh);
+        final Property<Integer> since = new DetachedProperty<>("since", 2010, name);
+
+        final TraverserSet<Object> activeTraversers = new TraverserSet<>();
+        activeTraversers.add(new B_O_Traverser<>(marko, 1l));
+        activeTraversers.add(new B_O_Traverser<>(josh, 1l));
+        activeTraversers.add(new B_O_Traverser<>(knows, 1l));
+        activeTraversers.add(new B_O_Traverser<>(name, 1l));
+        activeTraversers.add(new B_O_Traverser<>(since, 1l));
+
+        final Map<Object, List<Traverser.Admin<Object>>> routed = TraverserExecutor.routeActiveTraversers(activeTraversers);
+        assertEquals(2, routed.size());
+
+        // an edge is hosted by its out vertex and a property by the vertex that hosts its element
+        assertEquals(Arrays.asList(marko, knows), objects(routed.get(1)));
+        assertEquals(Arrays.asList(josh, name, since), objects(routed.get(4)));
+    }
+
+    @Test
+    public void shouldRouteNoActiveTraversers() {
+        assertTrue(TraverserExecutor.routeActiveTraversers(new TraverserSet<>()).isEmpty());
+    }
+
+    private static List<Object> objects(final List<Traverser.Admin<Object>> traversers) {
+        return traversers.stream().map(Traverser::get).collect(Collectors.toList());
+    }
+}
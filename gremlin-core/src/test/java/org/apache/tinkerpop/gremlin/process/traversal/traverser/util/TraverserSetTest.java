@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.traverser.util;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.traverser.B_O_Traverser;
+import org.apache.tinkerpop.gremlin.util.Serializer;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author agent (agent@local)
+ */
+public class TraverserSetTest {
+
+    @Test
+    public void shouldMergeBulkAndMaintainInsertionOrder() {
+        final TraverserSet<String> set = new TraverserSet<>();
+        assertTrue(set.add(new B_O_Traverser<>("marko", 1l)));
+        assertTrue(set.add(new B_O_Traverser<>("josh", 2l)));
+        assertFalse(set.add(new B_O_Traverser<>("marko", 3l)));
+        assertTrue(set.add(new B_O_Traverser<>("peter", 1l)));
+        assertEquals(3, set.size());
+        assertEquals(7l, set.bulkSize());
+        assertEquals(4l, set.get(new B_O_Traverser<>("marko", 1l)).bulk());
+        final Iterator<Traverser.Admin<String>> iterator = set.iterator();
+        assertEquals("marko", iterator.next().get());
+        assertEquals("josh", iterator.next().get());
+        assertEquals("peter", iterator.next().get());
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void shouldBehaveAsQueue() {
+        final TraverserSet<Integer> set = new TraverserSet<>();
+        for (int i = 0; i < 100; i++) {
+            set.offer(new B_O_Traverser<>(i, 1l));
+        }
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, set.peek().get().intValue());
+            assertEquals(i, set.poll().get().intValue());
+            assertEquals(99 - i, set.size());
+            assertEquals(99 - i, set.bulkSize());
+        }
+        // interleave adds with removes so that removed slots are reclaimed
+        for (int i = 0; i < 1000; i++) {
+            set.offer(new B_O_Traverser<>(i, 1l));
+            set.offer(new B_O_Traverser<>(i + 1, 1l));
+            assertEquals(i, set.poll().get().intValue());
+        }
+        assertEquals(1, set.size());
+        assertEquals(1000, set.poll().get().intValue());
+        set.offer(new B_O_Traverser<>(1, 1l));
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertEquals(0l, set.bulkSize());
+        assertNull(set.poll());
+        assertTrue(set.add(new B_O_Traverser<>(1, 1l)));
+        assertEquals(1, set.size());
+    }
+
+    @Test
+    public void shouldRemoveThroughSetAndIterator() {
+        final TraverserSet<Integer> set = new TraverserSet<>();
+        final List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            set.add(new B_O_Traverser<>(i, 2l));
+            if (i % 3 != 0) expected.add(i);
+        }
+        for (int i = 0; i < 1000; i += 3) {
+            assertTrue(set.remove(new B_O_Traverser<>(i, 1l)));
+            assertFalse(set.contains(new B_O_Traverser<>(i, 1l)));
+        }
+        assertFalse(set.remove(new B_O_Traverser<>(0, 1l)));
+        assertEquals(expected.size(), set.size());
+        assertEquals(expected.size() * 2l, set.bulkSize());
+        final List<Integer> actual = new ArrayList<>();
+        set.forEach(traverser -> actual.add(traverser.get()));
+        assertEquals(expected, actual);
+
+        final Iterator<Traverser.Admin<Integer>> iterator = set.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().get() % 2 == 0) iterator.remove();
+        }
+        expected.removeIf(i -> i % 2 == 0);
+        actual.clear();
+        set.forEach(traverser -> actual.add(traverser.get()));
+        assertEquals(expected, actual);
+        assertEquals(expected.size() * 2l, set.bulkSize());
+        expected.forEach(i -> assertTrue(set.contains(new B_O_Traverser<>(i, 1l))));
+    }
+
+    @Test
+    public void shouldSortAndShuffle() {
+        final TraverserSet<Integer> set = new TraverserSet<>();
+        final Random random = new Random(1234l);
+        for (int i = 0; i < 500; i++) {
+            set.add(new B_O_Traverser<>(random.nextInt(100), 1l));
+        }
+        set.remove(set.peek());
+        final long bulkSize = set.bulkSize();
+        final int size = set.size();
+        set.sort((a, b) -> a.get().compareTo(b.get()));
+        assertEquals(size, set.size());
+        assertEquals(bulkSize, set.bulkSize());
+        int last = Integer.MIN_VALUE;
+        for (final Traverser.Admin<Integer> traverser : set) {
+            assertTrue(traverser.get() > last);
+            last = traverser.get();
+            assertTrue(set.contains(traverser));
+        }
+        set.shuffle();
+        assertEquals(size, set.size());
+        assertEquals(bulkSize, set.bulkSize());
+        set.forEach(traverser -> assertTrue(set.contains(traverser)));
+    }
+
+    @Test
+    public void shouldSerializeWithJavaSerialization() throws Exception {
+        final TraverserSet<String> set = new TraverserSet<>();
+        set.add(new B_O_Traverser<>("marko", 2l));
+        set.add(new B_O_Traverser<>("josh", 1l));
+        set.add(new B_O_Traverser<>("peter", 1l));
+        set.remove();
+        final TraverserSet<String> copy = (TraverserSet<String>) Serializer.deserializeObject(Serializer.serializeObject(set));
+        assertEquals(2, copy.size());
+        assertEquals(2l, copy.bulkSize());
+        assertTrue(copy.contains(new B_O_Traverser<>("peter", 1l)));
+        assertFalse(copy.add(new B_O_Traverser<>("josh", 1l)));
+        assertEquals(3l, copy.bulkSize());
+    }
+}
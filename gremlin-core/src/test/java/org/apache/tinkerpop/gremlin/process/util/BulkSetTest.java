@@ -19,13 +19,23 @@
 package org.apache.tinkerpop.gremlin.process.util;
 
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.BulkSet;
+import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoMapper;
+import org.apache.tinkerpop.gremlin.util.Serializer;
+import org.apache.tinkerpop.shaded.kryo.Kryo;
+import org.apache.tinkerpop.shaded.kryo.io.Input;
+import org.apache.tinkerpop.shaded.kryo.io.Output;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.Random;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -64,4 +74,80 @@ public class BulkSetTest {
         }
         assertEquals(11, set.size());
     }
+
+    @Test
+    public void shouldMaintainCountsThroughRemoval() {
+        final BulkSet<Integer> set = new BulkSet<>();
+        for (int i = 0; i < 1000; i++) {
+            set.add(i % 100, i);
+        }
+        assertEquals(100, set.uniqueSize());
+        assertEquals(499500l, set.longSize());
+        for (int i = 0; i < 100; i += 2) {
+            assertTrue(set.remove(i));
+        }
+        assertFalse(set.remove(0));
+        assertFalse(set.contains(0));
+        assertEquals(50, set.uniqueSize());
+        assertEquals(250000l, set.longSize());
+        assertEquals(4510l, set.get(1));
+        assertEquals(0l, set.get(2));
+        for (int i = 0; i < 100; i++) {
+            set.add(1000 + i);
+        }
+        assertEquals(150, set.uniqueSize());
+        assertEquals(250100l, set.longSize());
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertEquals(0l, set.longSize());
+        set.add(null, 2);
+        assertEquals(2l, set.get(null));
+        assertEquals(Arrays.asList(null, null), Arrays.asList(set.toArray()));
+    }
+
+    @Test
+    public void shouldBeEqualWithSameBulks() {
+        final BulkSet<String> a = new BulkSet<>();
+        a.add("marko", 2);
+        a.add("josh");
+        final BulkSet<String> b = new BulkSet<>();
+        b.add("josh");
+        b.add("marko");
+        assertNotEquals(a, b);
+        b.add("marko");
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertEquals("{marko=2, josh=1}", a.toString());
+    }
+
+    @Test
+    public void shouldSerializeWithJavaSerialization() throws Exception {
+        final BulkSet<String> set = new BulkSet<>();
+        set.add("marko", 3);
+        set.add(null);
+        set.add("josh", 2);
+        set.remove("josh");
+        final BulkSet<String> copy = (BulkSet<String>) Serializer.deserializeObject(Serializer.serializeObject(set));
+        assertEquals(set, copy);
+        assertEquals(4l, copy.longSize());
+        assertEquals(1l, copy.get(null));
+        copy.add("marko");
+        assertEquals(4l, copy.get("marko"));
+    }
+
+    @Test
+    public void shouldSerializeWithGryoAsCollection() {
+        final Kryo kryo = GryoMapper.build().create().createMapper();
+        final BulkSet<String> set = new BulkSet<>();
+        set.add("marko", 3);
+        set.add("josh");
+        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        final Output output = new Output(stream);
+        kryo.writeObject(output, set);
+        output.close();
+        final BulkSet<String> copy = kryo.readObject(new Input(stream.toByteArray()), BulkSet.class);
+        assertEquals(set, copy);
+        assertEquals(3l, copy.get("marko"));
+        assertEquals(4l, copy.longSize());
+    }
 }
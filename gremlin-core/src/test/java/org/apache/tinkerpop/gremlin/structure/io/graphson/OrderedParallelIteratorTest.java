@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.structure.io.graphson;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author agent (agent@local)
+ */
+public class OrderedParallelIteratorTest {
+
+    private static final List<Integer> ITEMS = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+
+    @Test
+    public void shouldReturnResultsInSourceOrder() {
+        final OrderedParallelIterator<Integer, String> iterator = new OrderedParallelIterator<>(ITEMS.iterator(), String::valueOf, 4);
+        final List<String> results = new ArrayList<>();
+        iterator.forEachRemaining(results::add);
+
+        assertEquals(ITEMS.stream().map(String::valueOf).collect(Collectors.toList()), results);
+        assertTrue(iterator.isShutdown());
+    }
+
+    @Test
+    public void shouldShutdownWhenClosedBeforeSourceIsExhausted() {
+        final OrderedParallelIterator<Integer, String> iterator = new OrderedParallelIterator<>(ITEMS.iterator(), String::valueOf, 4);
+        assertEquals("0", iterator.next());
+        assertFalse(iterator.isShutdown());
+
+        iterator.close();
+        assertTrue(iterator.isShutdown());
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void shouldShutdownWhenFunctionFails() {
+        final OrderedParallelIterator<Integer, String> iterator = new OrderedParallelIterator<>(ITEMS.iterator(), i -> {
+            if (i == 10) throw new IllegalStateException("failed on " + i);
+            return String.valueOf(i);
+        }, 4);
+
+        try {
+            while (iterator.hasNext()) {
+                iterator.next();
+            }
+            fail("The failure of the function should have been thrown");
+        } catch (IllegalStateException ise) {
+            // the pool rethrows the failure wrapped in an exception of the same type
+            assertTrue(ise.getMessage().endsWith("failed on 10"));
+        }
+        assertTrue(iterator.isShutdown());
+    }
+}
@@ -37,6 +37,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
@@ -84,6 +85,15 @@ public abstract class Client {
      */
     protected abstract Connection chooseConnection(final RequestMessage msg) throws TimeoutException, ConnectionException;
 
+    /**
+     * Chooses a {@link Connection} to write the message to where the returned future may complete at some point
+     * after the call when the {@link Connection} is not immediately available.  By default, this method simply
+     * wraps the result of {@link #chooseConnection(RequestMessage)}.
+     */
+    protected CompletableFuture<Connection> chooseConnectionAsync(final RequestMessage msg) throws TimeoutException, ConnectionException {
+        return CompletableFuture.completedFuture(chooseConnection(msg));
+    }
+
     /**
      * Asynchronous close of the {@code Client}.
      */
@@ -278,9 +288,28 @@ public abstract class Client {
         final CompletableFuture<ResultSet> future = new CompletableFuture<>();
         Connection connection = null;
         try {
+            final CompletableFuture<Connection> connectionFuture = chooseConnectionAsync(msg);
+
+            // a non-blocking pool may not have a connection available yet in which case write the message when it
+            // does. the executor is used so that the thread returning the connection isn't left doing the write.
+            if (!connectionFuture.isDone()) {
+                connectionFuture.whenCompleteAsync((c, t) -> {
+                    if (t != null)
+                        future.completeExceptionally(t instanceof CompletionException ? t.getCause() : t);
+                    else {
+                        try {
+                            c.write(msg, future);
+                        } catch (Exception ex) {
+                            future.completeExceptionally(ex);
+                        }
+                    }
+                }, cluster.executor());
+                return future;
+            }
+
             // the connection is returned to the pool once the response has been completed...see Connection.write()
             // the connection may be returned to the pool with the host being marked as "unavailable"
-            connection = chooseConnection(msg);
+            connection = getNow(connectionFuture);
             connection.write(msg, future);
             return future;
         } catch (TimeoutException toe) {
@@ -296,6 +325,16 @@ public abstract class Client {
         }
     }
 
+    private static Connection getNow(final CompletableFuture<Connection> connectionFuture) throws TimeoutException, ConnectionException {
+        try {
+            return connectionFuture.join();
+        } catch (CompletionException ce) {
+            if (ce.getCause() instanceof TimeoutException) throw (TimeoutException) ce.getCause();
+            if (ce.getCause() instanceof ConnectionException) throw (ConnectionException) ce.getCause();
+            throw ce;
+        }
+    }
+
     /**
      * Closes the client by making a synchronous call to {@link #closeAsync()}.
      */
@@ -453,6 +492,19 @@ public abstract class Client {
          */
         @Override
         protected Connection chooseConnection(final RequestMessage msg) throws TimeoutException, ConnectionException {
+            return choosePool(msg).borrowConnection(cluster.connectionPoolSettings().maxWaitForConnection, TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * Uses a {@link LoadBalancingStrategy} to choose the best {@link Host} and then borrows a connection from that
+         * host's connection pool without blocking if the pool supports it.
+         */
+        @Override
+        protected CompletableFuture<Connection> chooseConnectionAsync(final RequestMessage msg) throws TimeoutException, ConnectionException {
+            return choosePool(msg).borrowConnectionAsync(cluster.connectionPoolSettings().maxWaitForConnection, TimeUnit.MILLISECONDS);
+        }
+
+        private ConnectionPool choosePool(final RequestMessage msg) throws TimeoutException {
             final Iterator<Host> possibleHosts = this.cluster.loadBalancingStrategy().select(msg);
 
             // you can get no possible hosts in more than a few situations. perhaps the servers are just all down.
@@ -461,8 +513,7 @@ public abstract class Client {
                 throw new TimeoutException("Timed out while waiting for an available host - check the client configuration and connectivity to the server if this message persists");
 
             final Host bestHost = possibleHosts.next();
-            final ConnectionPool pool = hostConnectionPools.get(bestHost);
-            return pool.borrowConnection(cluster.connectionPoolSettings().maxWaitForConnection, TimeUnit.MILLISECONDS);
+            return hostConnectionPools.get(bestHost);
         }
 
         /**
@@ -473,7 +524,7 @@ public abstract class Client {
             cluster.allHosts().forEach(host -> {
                 try {
                     // hosts that don't initialize connection pools will come up as a dead host
-                    hostConnectionPools.put(host, new ConnectionPool(host, this));
+                    hostConnectionPools.put(host, ConnectionPool.create(host, this, Optional.empty(), Optional.empty()));
 
                     // added a new host to the cluster so let the load-balancer know
                     this.cluster.loadBalancingStrategy().onNew(host);
@@ -576,6 +627,15 @@ public abstract class Client {
             return client.chooseConnection(msg);
         }
 
+        /**
+         * Delegates to the underlying {@link org.apache.tinkerpop.gremlin.driver.Client.ClusteredClient}.
+         */
+        @Override
+        protected CompletableFuture<Connection> chooseConnectionAsync(final RequestMessage msg) throws TimeoutException, ConnectionException {
+            if (close.isDone()) throw new IllegalStateException("Client is closed");
+            return client.chooseConnectionAsync(msg);
+        }
+
         /**
          * Prevents messages from being sent from this {@code Client}. Note that calling this method does not call
          * close on the {@code Client} that created it.
@@ -645,6 +705,14 @@ public abstract class Client {
             return connectionPool.borrowConnection(cluster.connectionPoolSettings().maxWaitForConnection, TimeUnit.MILLISECONDS);
         }
 
+        /**
+         * Since the session is bound to a single host, simply borrow a connection from that pool.
+         */
+        @Override
+        protected CompletableFuture<Connection> chooseConnectionAsync(final RequestMessage msg) throws TimeoutException, ConnectionException {
+            return connectionPool.borrowConnectionAsync(cluster.connectionPoolSettings().maxWaitForConnection, TimeUnit.MILLISECONDS);
+        }
+
         /**
          * Randomly choose an available {@link Host} to bind the session too and initialize the {@link ConnectionPool}.
          */
@@ -655,7 +723,7 @@ public abstract class Client {
                     .stream().filter(Host::isAvailable).collect(Collectors.toList());
             Collections.shuffle(hosts);
             final Host host = hosts.get(0);
-            connectionPool = new ConnectionPool(host, this, Optional.of(1), Optional.of(1));
+            connectionPool = ConnectionPool.create(host, this, Optional.of(1), Optional.of(1));
         }
 
         /**
@@ -164,9 +164,11 @@ public final class Cluster {
                 .reconnectInterval(settings.connectionPool.reconnectInterval)
                 .reconnectIntialDelay(settings.connectionPool.reconnectInitialDelay)
                 .resultIterationBatchSize(settings.connectionPool.resultIterationBatchSize)
+                .maxResultQueueSize(settings.connectionPool.maxResultQueueSize)
                 .channelizer(settings.connectionPool.channelizer)
                 .maxContentLength(settings.connectionPool.maxContentLength)
                 .maxWaitForConnection(settings.connectionPool.maxWaitForConnection)
+                .nonBlockingConnectionPool(settings.connectionPool.nonBlocking)
                 .maxInProcessPerConnection(settings.connectionPool.maxInProcessPerConnection)
                 .minInProcessPerConnection(settings.connectionPool.minInProcessPerConnection)
                 .maxSimultaneousUsagePerConnection(settings.connectionPool.maxSimultaneousUsagePerConnection)
@@ -300,11 +302,13 @@ public final class Cluster {
         private int maxInProcessPerConnection = Connection.MAX_IN_PROCESS;
         private int minInProcessPerConnection = Connection.MIN_IN_PROCESS;
         private int maxWaitForConnection = Connection.MAX_WAIT_FOR_CONNECTION;
+        private boolean nonBlockingConnectionPool = false;
         private int maxWaitForSessionClose = Connection.MAX_WAIT_FOR_SESSION_CLOSE;
         private int maxContentLength = Connection.MAX_CONTENT_LENGTH;
         private int reconnectInitialDelay = Connection.RECONNECT_INITIAL_DELAY;
         private int reconnectInterval = Connection.RECONNECT_INTERVAL;
         private int resultIterationBatchSize = Connection.RESULT_ITERATION_BATCH_SIZE;
+        private int maxResultQueueSize = Connection.MAX_RESULT_QUEUE_SIZE;
         private String channelizer = Channelizer.WebSocketChannelizer.class.getName();
         private boolean enableSsl = false;
         private String trustCertChainFile = null;
@@ -456,6 +460,16 @@ public final class Cluster {
             return this;
         }
 
+        /**
+         * The maximum number of results to hold on the client for a single request before the connection stops
+         * reading from the server.  Reading resumes once the results are consumed down to half this number.  The
+         * default value is 0 which means that results are buffered without limit.
+         */
+        public Builder maxResultQueueSize(final int size) {
+            this.maxResultQueueSize = size;
+            return this;
+        }
+
         /**
          * The maximum amount of time to wait for a connection to be borrowed from the connection pool.
          */
@@ -464,6 +478,16 @@ public final class Cluster {
             return this;
         }
 
+        /**
+         * Borrow connections from a pool that selects the less busy of two randomly chosen connections and that
+         * does not block the thread submitting a request while waiting for a connection to become available.  The
+         * default value is false.
+         */
+        public Builder nonBlockingConnectionPool(final boolean nonBlocking) {
+            this.nonBlockingConnectionPool = nonBlocking;
+            return this;
+        }
+
         /**
          * If the connection is using a "session" this setting represents the amount of time in milliseconds to wait
          * for that session to close before timing out where the default value is 3000. Note that the server will
@@ -602,11 +626,13 @@ public final class Cluster {
             connectionPoolSettings.maxSize = this.maxConnectionPoolSize;
             connectionPoolSettings.minSize = this.minConnectionPoolSize;
             connectionPoolSettings.maxWaitForConnection = this.maxWaitForConnection;
+            connectionPoolSettings.nonBlocking = this.nonBlockingConnectionPool;
             connectionPoolSettings.maxWaitForSessionClose = this.maxWaitForSessionClose;
             connectionPoolSettings.maxContentLength = this.maxContentLength;
             connectionPoolSettings.reconnectInitialDelay = this.reconnectInitialDelay;
             connectionPoolSettings.reconnectInterval = this.reconnectInterval;
             connectionPoolSettings.resultIterationBatchSize = this.resultIterationBatchSize;
+            connectionPoolSettings.maxResultQueueSize = this.maxResultQueueSize;
             connectionPoolSettings.enableSsl = this.enableSsl;
             connectionPoolSettings.trustCertChainFile = this.trustCertChainFile;
             connectionPoolSettings.channelizer = this.channelizer;
@@ -63,6 +63,7 @@ final class Connection {
     public static final int RECONNECT_INITIAL_DELAY = 1000;
     public static final int RECONNECT_INTERVAL = 1000;
     public static final int RESULT_ITERATION_BATCH_SIZE = 64;
+    public static final int MAX_RESULT_QUEUE_SIZE = 0;
 
     /**
      * When a {@code Connection} is borrowed from the pool, this number is incremented to indicate the number of
@@ -75,6 +76,19 @@ final class Connection {
     private volatile boolean isDead = false;
     private final int maxInProcess;
 
+    /**
+     * The number of {@link ResultQueue} instances that have reached their maximum size and need reads from the
+     * channel to stop until they are consumed.
+     */
+    private int suspendedReads = 0;
+
+    /**
+     * The number of {@link ResultQueue} instances with a caller waiting on results that have not arrived.  Those
+     * results may be queued on the channel behind the ones for a full {@link ResultQueue}, so reading continues
+     * while there is any such caller regardless of {@link #suspendedReads}.
+     */
+    private int demandedReads = 0;
+
     private final String connectionLabel;
 
     private final Channelizer channelizer;
@@ -178,9 +192,12 @@ final class Connection {
         // once there is a completed write, then create a traverser for the result set and complete
         // the promise so that the client knows that that it can start checking for results.
         final Connection thisConnection = this;
+        final Host host = null == pool ? null : pool.host;
+        final long start = System.nanoTime();
         final ChannelPromise promise = channel.newPromise()
                 .addListener(f -> {
                     if (!f.isSuccess()) {
+                        if (host != null) host.requestFailed();
                         if (logger.isDebugEnabled())
                             logger.debug(String.format("Write on connection %s failed", thisConnection.getConnectionInfo()), f.cause());
                         thisConnection.isDead = true;
@@ -190,6 +207,10 @@ final class Connection {
                         final LinkedBlockingQueue<Result> resultLinkedBlockingQueue = new LinkedBlockingQueue<>();
                         final CompletableFuture<Void> readCompleted = new CompletableFuture<>();
 
+                        // a server-side error is still a response so it counts toward the latency of the host
+                        if (host != null)
+                            readCompleted.whenComplete((v, t) -> host.responseReceived(System.nanoTime() - start));
+
                         // the callback for when the read was successful, meaning that ResultQueue.markComplete()
                         // was called
                         readCompleted.thenAcceptAsync(v -> {
@@ -222,16 +243,59 @@ final class Connection {
                             return null;
                         });
 
-                        final ResultQueue handler = new ResultQueue(resultLinkedBlockingQueue, readCompleted);
+                        final ResultQueue handler = new ResultQueue(resultLinkedBlockingQueue, readCompleted,
+                                cluster.connectionPoolSettings().maxResultQueueSize,
+                                thisConnection::suspendRead, thisConnection::resumeRead,
+                                thisConnection::demandRead, thisConnection::releaseRead);
                         pending.put(requestMessage.getRequestId(), handler);
                         future.complete(new ResultSet(handler, cluster.executor(), readCompleted));
                     }
                 });
+        if (host != null) host.requestSent();
         channel.writeAndFlush(requestMessage, promise);
 
         return promise;
     }
 
+    /**
+     * Stops reading responses from the channel until each caller has called {@link #resumeRead()}, unless a read
+     * is demanded with {@link #demandRead()}.
+     */
+    synchronized void suspendRead() {
+        suspendedReads++;
+        updateAutoRead();
+    }
+
+    synchronized void resumeRead() {
+        suspendedReads--;
+        updateAutoRead();
+    }
+
+    /**
+     * Reads responses from the channel, even if reading is suspended, until the caller calls {@link #releaseRead()}.
+     */
+    synchronized void demandRead() {
+        demandedReads++;
+        updateAutoRead();
+    }
+
+    synchronized void releaseRead() {
+        demandedReads--;
+        updateAutoRead();
+    }
+
+    /**
+     * Determines if a {@link ResultQueue} on this connection is full, in which case a new request sent on it may
+     * not receive its results until that queue is consumed.
+     */
+    synchronized boolean isReadSuspended() {
+        return suspendedReads > 0;
+    }
+
+    private void updateAutoRead() {
+        channel.config().setAutoRead(suspendedReads == 0 || demandedReads > 0);
+    }
+
     public void returnToPool() {
         try {
             if (pool != null) pool.returnConnection(this);
@@ -40,9 +40,12 @@ import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
+ * A pool of {@link Connection} objects to a single {@link Host}.  Borrowing selects the least used connection and
+ * blocks the calling thread when none are available.
+ *
  * @author Stephen Mallette (http://stephen.genoprime.com)
  */
-final class ConnectionPool {
+class ConnectionPool {
     private static final Logger logger = LoggerFactory.getLogger(ConnectionPool.class);
 
     public static final int MIN_POOL_SIZE = 2;
@@ -51,19 +54,19 @@ final class ConnectionPool {
     public static final int MAX_SIMULTANEOUS_USAGE_PER_CONNECTION = 16;
 
     public final Host host;
-    private final Cluster cluster;
+    final Cluster cluster;
     private final Client client;
-    private final List<Connection> connections;
+    final List<Connection> connections;
     private final AtomicInteger open;
     private final Set<Connection> bin = new CopyOnWriteArraySet<>();
-    private final int minPoolSize;
-    private final int maxPoolSize;
+    final int minPoolSize;
+    final int maxPoolSize;
     private final int minSimultaneousUsagePerConnection;
-    private final int maxSimultaneousUsagePerConnection;
+    final int maxSimultaneousUsagePerConnection;
     private final int minInProcess;
     private final String poolLabel;
 
-    private final AtomicInteger scheduledForCreation = new AtomicInteger();
+    final AtomicInteger scheduledForCreation = new AtomicInteger();
 
     private final AtomicReference<CompletableFuture<Void>> closeFuture = new AtomicReference<>();
 
@@ -106,6 +109,16 @@ final class ConnectionPool {
         logger.info("Opening connection pool on {} with core size of {}", host, minPoolSize);
     }
 
+    /**
+     * Creates the type of pool configured by {@link Settings.ConnectionPoolSettings#nonBlocking}.
+     */
+    static ConnectionPool create(final Host host, final Client client, final Optional<Integer> overrideMinPoolSize,
+                                 final Optional<Integer> overrideMaxPoolSize) {
+        return client.cluster.connectionPoolSettings().nonBlocking ?
+                new NonBlockingConnectionPool(host, client, overrideMinPoolSize, overrideMaxPoolSize) :
+                new ConnectionPool(host, client, overrideMinPoolSize, overrideMaxPoolSize);
+    }
+
     public Settings.ConnectionPoolSettings settings() {
         return cluster.connectionPoolSettings();
     }
@@ -170,6 +183,20 @@ final class ConnectionPool {
         }
     }
 
+    /**
+     * Borrows a connection without blocking for one to become available where the pool supports it.  This pool
+     * borrows with {@link #borrowConnection(long, TimeUnit)} so the returned future is always complete.
+     */
+    public CompletableFuture<Connection> borrowConnectionAsync(final long timeout, final TimeUnit unit) {
+        final CompletableFuture<Connection> future = new CompletableFuture<>();
+        try {
+            future.complete(borrowConnection(timeout, unit));
+        } catch (TimeoutException | ConnectionException ex) {
+            future.completeExceptionally(ex);
+        }
+        return future;
+    }
+
     public void returnConnection(final Connection connection) throws ConnectionException {
         logger.debug("Attempting to return {} on {}", connection, host);
         if (isClosed()) throw new ConnectionException(host.getHostUri(), host.getAddress(), "Pool is shutdown");
@@ -256,7 +283,7 @@ final class ConnectionPool {
         definitelyDestroyConnection(connection);
     }
 
-    private void considerNewConnection() {
+    void considerNewConnection() {
         logger.debug("Considering new connection on {} where pool size is {}", host, connections.size());
         while (true) {
             int inCreation = scheduledForCreation.get();
@@ -273,7 +300,7 @@ final class ConnectionPool {
         newConnection();
     }
 
-    private void newConnection() {
+    void newConnection() {
         cluster.executor().submit(() -> {
             addConnectionIfUnderMaximum();
             scheduledForCreation.decrementAndGet();
@@ -382,7 +409,7 @@ final class ConnectionPool {
         throw new TimeoutException();
     }
 
-    private void considerUnavailable() {
+    void considerUnavailable() {
         // called when a connection is "dead" such that a "dead" connection means the host itself is basically
         // "dead".  that's probably ok for now, but this decision should likely be more flexible.
         host.makeUnavailable(this::tryReconnect);
@@ -420,7 +447,7 @@ final class ConnectionPool {
         }
     }
 
-    private void announceAvailableConnection() {
+    void announceAvailableConnection() {
         logger.debug("Announce connection available on {}", host);
 
         if (waiter == 0)
@@ -434,13 +461,22 @@ final class ConnectionPool {
         }
     }
 
-    private Connection selectLeastUsed() {
+    /**
+     * Selects the connection with the fewest borrows, preferring connections that are not holding back reads for a
+     * full {@link ResultQueue} as a request sent on one of those would wait on that queue to be consumed.
+     */
+    Connection selectLeastUsed() {
         int minInFlight = Integer.MAX_VALUE;
+        boolean leastBusySuspended = true;
         Connection leastBusy = null;
         for (Connection connection : connections) {
-            int inFlight = connection.borrowed.get();
-            if (!connection.isDead() && inFlight < minInFlight) {
+            if (connection.isDead()) continue;
+
+            final int inFlight = connection.borrowed.get();
+            final boolean suspended = connection.isReadSuspended();
+            if ((leastBusySuspended && !suspended) || (suspended == leastBusySuspended && inFlight < minInFlight)) {
                 minInFlight = inFlight;
+                leastBusySuspended = suspended;
                 leastBusy = connection;
             }
         }
@@ -460,7 +496,7 @@ final class ConnectionPool {
         }
     }
 
-    private void announceAllAvailableConnection() {
+    void announceAllAvailableConnection() {
         if (waiter == 0)
             return;
 
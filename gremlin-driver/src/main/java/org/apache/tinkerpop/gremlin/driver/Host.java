@@ -26,6 +26,7 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 
@@ -36,6 +37,13 @@ import java.util.function.Function;
  */
 public final class Host {
     private static final Logger logger = LoggerFactory.getLogger(Host.class);
+
+    /**
+     * The time over which the weight of a latency sample decays, such that older responses count for less than
+     * recent ones and a host that has been idle for a while is gradually considered fast again.
+     */
+    private static final double LATENCY_DECAY_NANOS = TimeUnit.SECONDS.toNanos(10);
+
     private final InetSocketAddress address;
     private final URI hostUri;
     private volatile boolean isAvailable;
@@ -45,6 +53,16 @@ public final class Host {
     final AtomicReference<Boolean> retryInProgress = new AtomicReference<>(Boolean.FALSE);
     ScheduledFuture<?> retryThread = null;
 
+    private final AtomicInteger inFlight = new AtomicInteger(0);
+    private volatile boolean responded = false;
+    private double latency = 0.0d;
+
+    /**
+     * The time of the last response or, if there were none since, of the last time the host went from idle to having
+     * requests in flight or back.  Guarded by the {@code Host} instance along with {@link #latency}.
+     */
+    private long lastLatencyUpdate = System.nanoTime();
+
     Host(final InetSocketAddress address, final Cluster cluster) {
         this.cluster = cluster;
         this.address = address;
@@ -64,6 +82,60 @@ public final class Host {
         return isAvailable;
     }
 
+    /**
+     * Gets the number of requests that have been sent to this host and have not yet been fully responded to.
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Determines if this host has fully responded to at least one request.
+     */
+    public boolean hasResponded() {
+        return responded;
+    }
+
+    /**
+     * Gets an exponentially weighted moving average of the time in milliseconds it took this host to fully respond
+     * to a request.  The average moves straight to a sample that is higher than it, so that a host that slows down
+     * is noticed immediately, and decays toward zero while the host is idle.  While requests are in flight the
+     * average does not decay and is no less than the time since the host last responded, so that a host that stops
+     * responding is considered slower the longer it goes without a response.  Returns zero if no requests have been
+     * sent.
+     */
+    public synchronized double getLatency() {
+        final long now = System.nanoTime();
+        final double current = inFlight.get() > 0 ? Math.max(latency, now - lastLatencyUpdate) : latency * decay(now);
+        return current / 1000000d;
+    }
+
+    synchronized void requestSent() {
+        if (inFlight.getAndIncrement() == 0) {
+            // the time spent idle decays the average, after which it holds until the host responds
+            final long now = System.nanoTime();
+            latency *= decay(now);
+            lastLatencyUpdate = now;
+        }
+    }
+
+    synchronized void requestFailed() {
+        if (inFlight.decrementAndGet() == 0) lastLatencyUpdate = System.nanoTime();
+    }
+
+    synchronized void responseReceived(final long elapsedNanos) {
+        inFlight.decrementAndGet();
+        final long now = System.nanoTime();
+        final double decay = decay(now);
+        latency = elapsedNanos > latency ? elapsedNanos : latency * decay + elapsedNanos * (1d - decay);
+        lastLatencyUpdate = now;
+        responded = true;
+    }
+
+    private double decay(final long now) {
+        return Math.exp(-Math.max(now - lastLatencyUpdate, 0) / LATENCY_DECAY_NANOS);
+    }
+
     void makeAvailable() {
         isAvailable = true;
     }
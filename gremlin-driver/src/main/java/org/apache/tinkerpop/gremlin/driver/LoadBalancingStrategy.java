@@ -22,10 +22,12 @@ import org.apache.tinkerpop.gremlin.driver.message.RequestMessage;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -116,4 +118,87 @@ public interface LoadBalancingStrategy extends Host.Listener {
             onUnavailable(host);
         }
     }
+
+    /**
+     * A strategy that favors the {@link Host} that is responding fastest given its current load.  The load of a
+     * host is its {@link Host#getLatency()} multiplied by one more than its {@link Host#getInFlight()} requests, so
+     * a host that slows down or builds up a backlog of requests is sent less of the traffic.  Rather than always
+     * choosing the least loaded host, which would send every request to the same host until its numbers catch up,
+     * two hosts are picked at random and the less loaded of the two is selected first.  The remaining hosts follow
+     * from least to most loaded.  A host that has requests in flight but has never responded to one has no latency
+     * to go by, so it follows the hosts that have responded, ordered by the number of requests it has in flight.
+     */
+    public static class LatencyAware implements LoadBalancingStrategy {
+
+        private final CopyOnWriteArrayList<Host> availableHosts = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void initialize(final Cluster cluster, final Collection<Host> hosts) {
+            this.availableHosts.addAll(hosts);
+        }
+
+        @Override
+        public Iterator<Host> select(final RequestMessage msg) {
+            final List<Host> hosts = new ArrayList<>();
+
+            // a host could be marked as dead in which case we dont need to send messages to it - just skip it for
+            // now. it might come back online later
+            availableHosts.iterator().forEachRemaining(host -> {
+                if (host.isAvailable()) hosts.add(host);
+            });
+
+            if (hosts.size() < 2) return hosts.iterator();
+
+            // take a snapshot of the load so that the ordering is consistent while sorting
+            final int size = hosts.size();
+            final boolean[] unresponsive = new boolean[size];
+            final int[] inFlight = new int[size];
+            final double[] loads = new double[size];
+            final List<Integer> order = new ArrayList<>(size);
+            for (int ix = 0; ix < size; ix++) {
+                final Host host = hosts.get(ix);
+                inFlight[ix] = host.getInFlight();
+                unresponsive[ix] = inFlight[ix] > 0 && !host.hasResponded();
+                loads[ix] = host.getLatency() * (inFlight[ix] + 1);
+                order.add(ix);
+            }
+
+            final Comparator<Integer> byLoad = Comparator.<Integer, Boolean>comparing(ix -> unresponsive[ix])
+                    .thenComparingInt(ix -> unresponsive[ix] ? inFlight[ix] : 0)
+                    .thenComparingDouble(ix -> loads[ix]);
+
+            final ThreadLocalRandom random = ThreadLocalRandom.current();
+            final int first = random.nextInt(size);
+            final int second = (first + 1 + random.nextInt(size - 1)) % size;
+            final int chosen = byLoad.compare(first, second) <= 0 ? first : second;
+
+            order.remove(Integer.valueOf(chosen));
+            order.sort(byLoad);
+
+            final List<Host> selected = new ArrayList<>(size);
+            selected.add(hosts.get(chosen));
+            order.forEach(ix -> selected.add(hosts.get(ix)));
+            return selected.iterator();
+        }
+
+        @Override
+        public void onAvailable(final Host host) {
+            this.availableHosts.addIfAbsent(host);
+        }
+
+        @Override
+        public void onUnavailable(final Host host) {
+            this.availableHosts.remove(host);
+        }
+
+        @Override
+        public void onNew(final Host host) {
+            onAvailable(host);
+        }
+
+        @Override
+        public void onRemove(final Host host) {
+            onUnavailable(host);
+        }
+    }
 }
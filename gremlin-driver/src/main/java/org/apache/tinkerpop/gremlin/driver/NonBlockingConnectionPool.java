@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.driver;
+
+import org.apache.tinkerpop.gremlin.driver.exception.ConnectionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A {@link ConnectionPool} that never blocks the thread borrowing a {@link Connection}.  A connection is selected
+ * by comparing two connections chosen at random and taking the less used of the pair (rather than scanning all of
+ * them) and when no connection is available the borrower is handed a future that is completed as soon as one is
+ * returned to the pool.  Enabled with {@link Cluster.Builder#nonBlockingConnectionPool(boolean)}.
+ *
+ * @author agent (agent@local)
+ */
+final class NonBlockingConnectionPool extends ConnectionPool {
+    private static final Logger logger = LoggerFactory.getLogger(NonBlockingConnectionPool.class);
+
+    private final Queue<CompletableFuture<Connection>> waiters = new ConcurrentLinkedQueue<>();
+
+    public NonBlockingConnectionPool(final Host host, final Client client, final Optional<Integer> overrideMinPoolSize,
+                                     final Optional<Integer> overrideMaxPoolSize) {
+        super(host, client, overrideMinPoolSize, overrideMaxPoolSize);
+    }
+
+    @Override
+    public Connection borrowConnection(final long timeout, final TimeUnit unit) throws TimeoutException, ConnectionException {
+        try {
+            return borrowConnectionAsync(timeout, unit).get();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new ConnectionException(host.getHostUri(), host.getAddress(), "Interrupted while waiting for connection");
+        } catch (ExecutionException ee) {
+            if (ee.getCause() instanceof TimeoutException) throw (TimeoutException) ee.getCause();
+            if (ee.getCause() instanceof ConnectionException) throw (ConnectionException) ee.getCause();
+            throw new RuntimeException(ee.getCause());
+        }
+    }
+
+    @Override
+    public CompletableFuture<Connection> borrowConnectionAsync(final long timeout, final TimeUnit unit) {
+        logger.debug("Borrowing connection asynchronously from pool on {} - timeout in {} {}", host, timeout, unit);
+
+        final CompletableFuture<Connection> future = new CompletableFuture<>();
+        if (isClosed()) {
+            future.completeExceptionally(new ConnectionException(host.getHostUri(), host.getAddress(), "Pool is shutdown"));
+            return future;
+        }
+
+        if (connections.isEmpty()) {
+            logger.debug("Tried to borrow connection but the pool was empty for {} - scheduling pool creation", host);
+            for (int i = 0; i < minPoolSize; i++) {
+                scheduledForCreation.incrementAndGet();
+                newConnection();
+            }
+        } else {
+            final Connection connection = tryBorrow();
+            if (connection != null) {
+                if (connection.borrowed.get() >= maxSimultaneousUsagePerConnection && connections.size() < maxPoolSize)
+                    considerNewConnection();
+                future.complete(connection);
+                return future;
+            }
+        }
+
+        waiters.add(future);
+        final ScheduledFuture<?> timeoutTask = cluster.executor().schedule(() -> {
+            if (waiters.remove(future)) {
+                logger.debug("Timed-out waiting for connection on {} - possibly unavailable", host);
+                future.completeExceptionally(new TimeoutException());
+
+                // as with the blocking pool, a timeout might mean the host is dead
+                considerUnavailable();
+            }
+        }, timeout, unit);
+        future.whenComplete((c, t) -> timeoutTask.cancel(false));
+
+        // a connection may have been returned between the attempt to borrow and adding the waiter
+        announceAvailableConnection();
+        return future;
+    }
+
+    /**
+     * Hands available connections to waiting borrowers in the order that they started waiting.
+     */
+    @Override
+    void announceAvailableConnection() {
+        CompletableFuture<Connection> waiter;
+        while ((waiter = waiters.peek()) != null) {
+            final Connection connection = tryBorrow();
+            if (null == connection) return;
+
+            // the waiter may have been handed a connection by another thread or timed-out in the meantime in which
+            // case the connection is given back and the next waiter is tried
+            if (!waiters.remove(waiter) || !waiter.complete(connection))
+                connection.borrowed.decrementAndGet();
+        }
+    }
+
+    @Override
+    void announceAllAvailableConnection() {
+        CompletableFuture<Connection> waiter;
+        while ((waiter = waiters.poll()) != null) {
+            waiter.completeExceptionally(new ConnectionException(host.getHostUri(), host.getAddress(), "Pool is shutdown"));
+        }
+    }
+
+    /**
+     * Increments the borrowed count of a connection that has capacity or returns {@code null} if there is none.
+     */
+    private Connection tryBorrow() {
+        while (true) {
+            Connection connection = selectOfTwo();
+            if (null == connection || connection.borrowed.get() >= connection.availableInProcess()) {
+                // both choices were busy but the pool might not be
+                connection = selectLeastUsed();
+                if (null == connection || connection.borrowed.get() >= connection.availableInProcess()) return null;
+            }
+
+            final int borrowed = connection.borrowed.get();
+            if (borrowed < connection.availableInProcess() && connection.borrowed.compareAndSet(borrowed, borrowed + 1))
+                return connection;
+        }
+    }
+
+    /**
+     * Selects the less used of two randomly chosen connections.
+     */
+    private Connection selectOfTwo() {
+        final int size = connections.size();
+        if (0 == size) return null;
+
+        final Connection first;
+        final Connection second;
+        try {
+            final ThreadLocalRandom random = ThreadLocalRandom.current();
+            first = connections.get(random.nextInt(size));
+            second = size == 1 ? first : connections.get(random.nextInt(size));
+        } catch (IndexOutOfBoundsException ioobe) {
+            // the pool shrank since its size was read
+            return null;
+        }
+
+        if (first.isDead()) return second.isDead() ? null : second;
+        if (second.isDead()) return first;
+        return first.borrowed.get() <= second.borrowed.get() ? first : second;
+    }
+}
@@ -35,6 +35,9 @@ import java.util.concurrent.atomic.AtomicReference;
 /**
  * A queue of incoming {@link ResponseMessage} objects.  The queue is updated by the
  * {@link Handler.GremlinResponseHandler} until a response terminator is identified.
+ * <p/>
+ * The queue may be bounded, in which case it signals that reading from the server should stop once it holds the
+ * maximum number of results and that reading may resume once it has been consumed down to half that number.
  *
  * @author Stephen Mallette (http://stephen.genoprime.com)
  */
@@ -54,24 +57,73 @@ final class ResultQueue {
      */
     private final AtomicBoolean flushed = new AtomicBoolean(false);
 
+    /**
+     * The number of results at which reading is suspended, where zero means the queue is unbounded.
+     */
+    private final int maxSize;
+
+    private final Runnable suspendRead;
+    private final Runnable resumeRead;
+    private final Runnable demandRead;
+    private final Runnable releaseRead;
+
+    /**
+     * Determines if reading is suspended for this queue.  Guarded by the {@code ResultQueue} instance so that
+     * suspend and resume calls are made in the same order as the state changes.
+     */
+    private boolean suspended = false;
+
+    /**
+     * Determines if this queue has demanded reads for a caller that waits on results it does not hold.  Guarded by
+     * the {@code ResultQueue} instance.
+     */
+    private boolean demanding = false;
+
     public ResultQueue(final LinkedBlockingQueue<Result> resultLinkedBlockingQueue, final CompletableFuture<Void> readComplete) {
+        this(resultLinkedBlockingQueue, readComplete, 0, () -> {}, () -> {}, () -> {}, () -> {});
+    }
+
+    /**
+     * Creates a queue that calls {@code suspendRead} when it holds {@code maxSize} results and {@code resumeRead}
+     * when it is consumed down to half of that or the read is complete.  A {@code maxSize} of zero means the queue
+     * is unbounded.  While a caller waits on results that the queue does not hold it calls {@code demandRead}, and
+     * {@code releaseRead} once that caller is answered, as the connection is shared with other requests and a full
+     * queue for one of them must not hold back the results of another.
+     */
+    ResultQueue(final LinkedBlockingQueue<Result> resultLinkedBlockingQueue, final CompletableFuture<Void> readComplete,
+                final int maxSize, final Runnable suspendRead, final Runnable resumeRead,
+                final Runnable demandRead, final Runnable releaseRead) {
         this.resultLinkedBlockingQueue = resultLinkedBlockingQueue;
         this.readComplete = readComplete;
+        this.maxSize = maxSize;
+        this.suspendRead = suspendRead;
+        this.resumeRead = resumeRead;
+        this.demandRead = demandRead;
+        this.releaseRead = releaseRead;
     }
 
     public void add(final Result result) {
         this.resultLinkedBlockingQueue.offer(result);
 
         final Pair<CompletableFuture<List<Result>>, Integer> nextWaiting = waiting.peek();
-        if (nextWaiting != null && (resultLinkedBlockingQueue.size() >= nextWaiting.getValue1() || readComplete.isDone())) {
+        if (nextWaiting != null && (resultLinkedBlockingQueue.size() >= threshold(nextWaiting.getValue1()) || readComplete.isDone())
+                && waiting.remove(nextWaiting)) {
             internalDrain(nextWaiting.getValue1(), nextWaiting.getValue0(), resultLinkedBlockingQueue);
-            waiting.remove(nextWaiting);
+        }
+
+        if (maxSize > 0) {
+            checkFull();
+            releaseDemand();
         }
     }
 
+    /**
+     * Completes when the number of items specified are available or the read is complete.  A bounded queue never
+     * holds more than its maximum size so it completes with that many items if more are requested.
+     */
     public CompletableFuture<List<Result>> await(final int items) {
         final CompletableFuture<List<Result>> result = new CompletableFuture<>();
-        if (size() >= items || readComplete.isDone()) {
+        if (size() >= threshold(items) || readComplete.isDone()) {
             // items are present so just drain to requested size if possible then complete it
             internalDrain(items, result, resultLinkedBlockingQueue);
         } else {
@@ -82,7 +134,17 @@ final class ResultQueue {
                 // just drain since we've flushed already
                 internalDrain(items, result, resultLinkedBlockingQueue);
             } else {
-                waiting.add(Pair.with(result, items));
+                final Pair<CompletableFuture<List<Result>>, Integer> pair = Pair.with(result, items);
+                waiting.add(pair);
+
+                // the results may have arrived between the size check above and the add to "waiting", in which case
+                // the add() that would have completed this may have already happened.  a bounded queue that filled
+                // up will not receive another add() until it is consumed, so check again.  whichever of this and
+                // add() removes the pair from "waiting" is the one to drain to it.
+                if ((size() >= threshold(items) || readComplete.isDone()) && waiting.remove(pair))
+                    internalDrain(items, result, resultLinkedBlockingQueue);
+                else if (maxSize > 0)
+                    demand();
             }
         }
 
@@ -102,17 +164,71 @@ final class ResultQueue {
     public void drainTo(final Collection<Result> collection) {
         if (error.get() != null) throw new RuntimeException(error.get());
         resultLinkedBlockingQueue.drainTo(collection);
+        if (maxSize > 0) checkDrained();
+    }
+
+    /**
+     * Gets the number of results at which reading is suspended, where zero means the queue is unbounded.
+     */
+    int getMaxSize() {
+        return maxSize;
     }
 
     void markComplete() {
         this.readComplete.complete(null);
         this.flushWaiting();
+        if (maxSize > 0) {
+            checkDrained();
+            releaseDemand();
+        }
     }
 
     void markError(final Throwable throwable) {
         error.set(throwable);
         this.readComplete.completeExceptionally(throwable);
         this.flushWaiting();
+        if (maxSize > 0) {
+            checkDrained();
+            releaseDemand();
+        }
+    }
+
+    private int threshold(final int items) {
+        return maxSize > 0 ? Math.min(items, maxSize) : items;
+    }
+
+    private synchronized void checkFull() {
+        if (!suspended && !readComplete.isDone() && resultLinkedBlockingQueue.size() >= maxSize) {
+            suspended = true;
+            suspendRead.run();
+        }
+    }
+
+    /**
+     * Reads from the connection regardless of whether this or any other queue on it is full, as there is a caller
+     * waiting on more results and they may be behind those of another request.
+     */
+    private synchronized void demand() {
+        if (!demanding && !waiting.isEmpty()) {
+            demanding = true;
+            demandRead.run();
+        }
+    }
+
+    private synchronized void releaseDemand() {
+        if (demanding && waiting.isEmpty()) {
+            demanding = false;
+            releaseRead.run();
+        }
+    }
+
+    private synchronized void checkDrained() {
+        // once the read is complete there is nothing left to read for this queue so reading is no longer held up
+        // by it whether or not it is consumed
+        if (suspended && (readComplete.isDone() || resultLinkedBlockingQueue.size() <= maxSize / 2)) {
+            suspended = false;
+            resumeRead.run();
+        }
     }
 
     private void flushWaiting() {
@@ -126,8 +242,9 @@ final class ResultQueue {
 
     private void internalDrain(final int items, final CompletableFuture<List<Result>> result,
                                       final LinkedBlockingQueue<Result> resultLinkedBlockingQueue) {
-        final List<Result> results = new ArrayList<>(items);
+        final List<Result> results = new ArrayList<>(threshold(items));
         resultLinkedBlockingQueue.drainTo(results, items);
+        if (maxSize > 0) checkDrained();
 
         // it's important to check for error here because a future may have already been queued in "waiting" prior
         // to the first response back from the server. if that happens, any "waiting" futures should be completed
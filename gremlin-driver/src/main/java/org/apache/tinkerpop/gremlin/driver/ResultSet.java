@@ -86,7 +86,8 @@ public final class ResultSet implements Iterable<Result> {
     /**
      * The returned {@link CompletableFuture} completes when the number of items specified are available.  The
      * number returned will be equal to or less than that number.  They will only be less if the stream is
-     * completed and there are less than that number specified available.
+     * completed and there are less than that number specified available, or if the number specified is greater than
+     * the {@link Settings.ConnectionPoolSettings#maxResultQueueSize} in which case that many are returned.
      */
     public CompletableFuture<List<Result>> some(final int items) {
         return resultQueue.await(items);
@@ -99,6 +100,14 @@ public final class ResultSet implements Iterable<Result> {
      * {@link Iterator} or {@link Stream} options, as the results will be held in memory at once.
      */
     public CompletableFuture<List<Result>> all() {
+        // a bounded queue stops reading from the server when it is full so it has to be consumed as results arrive
+        // rather than once the read is complete
+        if (resultQueue.getMaxSize() > 0) {
+            final CompletableFuture<List<Result>> future = new CompletableFuture<>();
+            collect(new ArrayList<>(), resultQueue.getMaxSize(), future);
+            return future;
+        }
+
         return readCompleted.thenApplyAsync(it -> {
             final List<Result> list = new ArrayList<>();
             resultQueue.drainTo(list);
@@ -106,6 +115,22 @@ public final class ResultSet implements Iterable<Result> {
         }, executor);
     }
 
+    private void collect(final List<Result> list, final int batchSize, final CompletableFuture<List<Result>> future) {
+        resultQueue.await(batchSize).whenCompleteAsync((results, t) -> {
+            if (t != null) {
+                future.completeExceptionally(t);
+            } else {
+                list.addAll(results);
+
+                // fewer results than asked for means that the read is complete and the queue is empty
+                if (results.size() < batchSize)
+                    future.complete(list);
+                else
+                    collect(list, batchSize, future);
+            }
+        }, executor);
+    }
+
     /**
      * Stream items with a blocking iterator.
      */
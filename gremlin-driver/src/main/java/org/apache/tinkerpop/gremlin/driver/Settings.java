@@ -195,6 +195,9 @@ final class Settings {
             if (connectionPoolConf.containsKey("maxWaitForConnection"))
                 cpSettings.maxWaitForConnection = connectionPoolConf.getInt("maxWaitForConnection");
 
+            if (connectionPoolConf.containsKey("nonBlocking"))
+                cpSettings.nonBlocking = connectionPoolConf.getBoolean("nonBlocking");
+
             if (connectionPoolConf.containsKey("maxContentLength"))
                 cpSettings.maxContentLength = connectionPoolConf.getInt("maxContentLength");
 
@@ -207,6 +210,9 @@ final class Settings {
             if (connectionPoolConf.containsKey("resultIterationBatchSize"))
                 cpSettings.resultIterationBatchSize = connectionPoolConf.getInt("resultIterationBatchSize");
 
+            if (connectionPoolConf.containsKey("maxResultQueueSize"))
+                cpSettings.maxResultQueueSize = connectionPoolConf.getInt("maxResultQueueSize");
+
 
             settings.connectionPool = cpSettings;
         }
@@ -266,6 +272,12 @@ final class Settings {
          */
         public int maxWaitForConnection = Connection.MAX_WAIT_FOR_CONNECTION;
 
+        /**
+         * Determines if connections are borrowed from a pool that does not block the requesting thread while it
+         * waits for a connection to become available.  The default value is false.
+         */
+        public boolean nonBlocking = false;
+
         /**
          * If the connection is using a "session" this setting represents the amount of time in milliseconds to wait
          * for that session to close before timing out where the default value is 3000. Note that the server will
@@ -297,6 +309,18 @@ final class Settings {
          */
         public int resultIterationBatchSize = Connection.RESULT_ITERATION_BATCH_SIZE;
 
+        /**
+         * The maximum number of results to hold on the client for a single request before the connection stops
+         * reading from the server, which in turn stops the server from writing further results until the client
+         * catches up.  Reading resumes once the results are consumed down to half this number.  The limit is not
+         * exact as results already read from the network are still added to the queue.  Note that a connection is
+         * shared by several requests and reading applies to all of them, so while a caller waits on results for
+         * one {@link ResultSet} the connection keeps reading and a full queue for another request on it grows past
+         * this limit.  New requests are sent on connections without a full queue where the pool has one.  The
+         * default value is 0 which means that results are buffered without limit.
+         */
+        public int maxResultQueueSize = Connection.MAX_RESULT_QUEUE_SIZE;
+
         /**
          * The constructor for the channel that connects to the server. This value should be the fully qualified
          * class name of a Gremlin Driver {@link Channelizer} implementation.  By default this value is set to
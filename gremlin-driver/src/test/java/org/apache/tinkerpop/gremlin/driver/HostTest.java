@@ -22,8 +22,11 @@ import org.junit.Test;
 
 import java.net.InetSocketAddress;
 import java.net.URI;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author Stephen Mallette (http://stephen.genoprime.com)
@@ -38,4 +41,58 @@ public class HostTest {
         assertEquals("ws://localhost:8182/gremlin", webSocketUri.toString());
     }
 
+    @Test
+    public void shouldTrackInFlightRequestsAndLatency() {
+        final Host host = new Host(new InetSocketAddress("localhost", 8182), Cluster.open());
+        assertEquals(0, host.getInFlight());
+        assertEquals(0.0d, host.getLatency(), 0.0d);
+
+        host.requestSent();
+        host.requestSent();
+        host.requestSent();
+        assertEquals(3, host.getInFlight());
+
+        host.requestFailed();
+        assertEquals(2, host.getInFlight());
+
+        // a slower response is taken as the latency right away
+        host.responseReceived(TimeUnit.MILLISECONDS.toNanos(500));
+        assertEquals(1, host.getInFlight());
+        assertEquals(500.0d, host.getLatency(), 1.0d);
+
+        // a faster response only moves the average by the time that has passed since the last one
+        host.responseReceived(TimeUnit.MILLISECONDS.toNanos(10));
+        assertEquals(0, host.getInFlight());
+        assertTrue(host.getLatency() > 400.0d);
+    }
+
+    @Test
+    public void shouldNotDecayLatencyWhileRequestsAreInFlight() throws Exception {
+        final Host host = new Host(new InetSocketAddress("localhost", 8182), Cluster.open());
+        host.requestSent();
+        host.responseReceived(TimeUnit.MILLISECONDS.toNanos(500));
+        assertTrue(host.hasResponded());
+
+        // decaying over this time would take the average below 495
+        host.requestSent();
+        Thread.sleep(100);
+        assertEquals(1, host.getInFlight());
+        assertTrue(host.getLatency() > 499.0d);
+    }
+
+    @Test
+    public void shouldIncreaseLatencyOfHostWithRequestsInFlightAndNoResponses() throws Exception {
+        final Host host = new Host(new InetSocketAddress("localhost", 8182), Cluster.open());
+        host.requestSent();
+        host.requestSent();
+        assertFalse(host.hasResponded());
+
+        Thread.sleep(100);
+        final double latency = host.getLatency();
+        assertTrue(latency >= 100.0d);
+
+        Thread.sleep(100);
+        assertTrue(host.getLatency() >= latency + 100.0d);
+    }
+
 }
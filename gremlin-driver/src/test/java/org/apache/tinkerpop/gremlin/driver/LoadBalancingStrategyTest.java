@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.driver;
+
+import org.apache.tinkerpop.gremlin.driver.message.RequestMessage;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author agent (agent@local)
+ */
+public class LoadBalancingStrategyTest {
+
+    private final Cluster cluster = Cluster.open();
+    private final RequestMessage msg = RequestMessage.build("eval").create();
+
+    @Test
+    public void shouldPreferFasterHostWithLatencyAware() {
+        final Host fast = makeHost(8182);
+        final Host slow = makeHost(8183);
+        respond(fast, 10);
+        respond(slow, 500);
+
+        final LoadBalancingStrategy strategy = new LoadBalancingStrategy.LatencyAware();
+        strategy.initialize(cluster, Arrays.asList(fast, slow));
+
+        for (int ix = 0; ix < 100; ix++) {
+            final Iterator<Host> hosts = strategy.select(msg);
+            assertEquals(fast, hosts.next());
+            assertEquals(slow, hosts.next());
+            assertFalse(hosts.hasNext());
+        }
+    }
+
+    @Test
+    public void shouldPreferLessBusyHostWithLatencyAware() {
+        final Host busy = makeHost(8182);
+        final Host idle = makeHost(8183);
+        respond(busy, 100);
+        respond(idle, 100);
+        for (int ix = 0; ix < 4; ix++) {
+            busy.requestSent();
+        }
+
+        final LoadBalancingStrategy strategy = new LoadBalancingStrategy.LatencyAware();
+        strategy.initialize(cluster, Arrays.asList(busy, idle));
+
+        assertEquals(idle, strategy.select(msg).next());
+    }
+
+    @Test
+    public void shouldNotPreferHostThatHasNotRespondedWithLatencyAware() {
+        final Host waiting = makeHost(8182);
+        final Host slow = makeHost(8183);
+        waiting.requestSent();
+        respond(slow, 1000);
+
+        final LoadBalancingStrategy strategy = new LoadBalancingStrategy.LatencyAware();
+        strategy.initialize(cluster, Arrays.asList(waiting, slow));
+
+        assertEquals(slow, strategy.select(msg).next());
+    }
+
+    @Test
+    public void shouldOrderHostsThatHaveNotRespondedByInFlightWithLatencyAware() {
+        final Host fewer = makeHost(8182);
+        final Host more = makeHost(8183);
+        final Host slow = makeHost(8184);
+        fewer.requestSent();
+        for (int ix = 0; ix < 3; ix++) {
+            more.requestSent();
+        }
+        respond(slow, 1000);
+
+        final LoadBalancingStrategy strategy = new LoadBalancingStrategy.LatencyAware();
+        strategy.initialize(cluster, Arrays.asList(more, fewer, slow));
+
+        // the first host is the better of two picked at random so only the one with the most in flight is never first
+        for (int ix = 0; ix < 100; ix++) {
+            final Iterator<Host> hosts = strategy.select(msg);
+            final Host selected = hosts.next();
+            if (selected == slow) assertEquals(fewer, hosts.next());
+            else assertEquals(fewer, selected);
+            if (selected == fewer) assertEquals(slow, hosts.next());
+            assertEquals(more, hosts.next());
+            assertFalse(hosts.hasNext());
+        }
+    }
+
+    @Test
+    public void shouldSpreadRequestsAcrossIdleHostsWithLatencyAware() {
+        final Host first = makeHost(8182);
+        final Host second = makeHost(8183);
+        final Host third = makeHost(8184);
+
+        final LoadBalancingStrategy strategy = new LoadBalancingStrategy.LatencyAware();
+        strategy.initialize(cluster, Arrays.asList(first, second, third));
+
+        final Map<Host, Integer> counts = new HashMap<>();
+        for (int ix = 0; ix < 300; ix++) {
+            final Iterator<Host> hosts = strategy.select(msg);
+            counts.merge(hosts.next(), 1, Integer::sum);
+            assertTrue(hosts.hasNext());
+            hosts.next();
+            hosts.next();
+            assertFalse(hosts.hasNext());
+        }
+
+        assertEquals(3, counts.size());
+    }
+
+    @Test
+    public void shouldSkipUnavailableHostsWithLatencyAware() {
+        final Host available = makeHost(8182);
+        final Host unavailable = makeHost(8183);
+        unavailable.makeUnavailable(h -> false);
+
+        final LoadBalancingStrategy strategy = new LoadBalancingStrategy.LatencyAware();
+        strategy.initialize(cluster, Arrays.asList(available, unavailable));
+
+        final Iterator<Host> hosts = strategy.select(msg);
+        assertEquals(available, hosts.next());
+        assertFalse(hosts.hasNext());
+    }
+
+    private Host makeHost(final int port) {
+        final Host host = new Host(new InetSocketAddress("localhost", port), cluster);
+        host.makeAvailable();
+        return host;
+    }
+
+    private static void respond(final Host host, final long millis) {
+        host.requestSent();
+        host.responseReceived(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+}
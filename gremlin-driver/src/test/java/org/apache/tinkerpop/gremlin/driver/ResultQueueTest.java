@@ -25,8 +25,10 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -286,4 +288,121 @@ public class ResultQueueTest extends AbstractResultQueueTest {
             t.interrupt();
         }
     }
+
+    @Test
+    public void shouldSuspendAndResumeReadWhenBounded() throws Exception {
+        final AtomicInteger suspended = new AtomicInteger(0);
+        final AtomicInteger resumed = new AtomicInteger(0);
+        final ResultQueue bounded = new ResultQueue(new LinkedBlockingQueue<>(), new CompletableFuture<>(), 10,
+                suspended::incrementAndGet, resumed::incrementAndGet, () -> {}, () -> {});
+
+        for (int ix = 0; ix < 9; ix++) {
+            bounded.add(new Result("test-" + ix));
+        }
+        assertEquals(0, suspended.get());
+
+        bounded.add(new Result("test-9"));
+        bounded.add(new Result("test-10"));
+        assertEquals(1, suspended.get());
+        assertEquals(0, resumed.get());
+
+        assertEquals(4, bounded.await(4).get().size());
+        assertEquals(0, resumed.get());
+
+        assertEquals(2, bounded.await(2).get().size());
+        assertEquals(1, resumed.get());
+
+        assertEquals(1, suspended.get());
+    }
+
+    @Test
+    public void shouldResumeReadOnCompleteWhenBounded() throws Exception {
+        final AtomicInteger resumed = new AtomicInteger(0);
+        final ResultQueue bounded = new ResultQueue(new LinkedBlockingQueue<>(), new CompletableFuture<>(), 10,
+                () -> {}, resumed::incrementAndGet, () -> {}, () -> {});
+
+        for (int ix = 0; ix < 10; ix++) {
+            bounded.add(new Result("test-" + ix));
+        }
+        assertEquals(0, resumed.get());
+
+        bounded.markComplete();
+        assertEquals(1, resumed.get());
+        assertEquals(10, bounded.size());
+    }
+
+    @Test
+    public void shouldAwaitNoMoreThanMaxSizeWhenBounded() throws Exception {
+        final ResultQueue bounded = new ResultQueue(new LinkedBlockingQueue<>(), new CompletableFuture<>(), 10,
+                () -> {}, () -> {}, () -> {}, () -> {});
+
+        final CompletableFuture<List<Result>> future = bounded.await(100);
+        for (int ix = 0; ix < 10; ix++) {
+            assertThat(future.isDone(), is(false));
+            bounded.add(new Result("test-" + ix));
+        }
+
+        assertEquals(10, future.get(1000, TimeUnit.MILLISECONDS).size());
+    }
+
+    @Test
+    public void shouldDemandReadWhenWaitingOnMoreThanHeldWhenBounded() throws Exception {
+        final AtomicInteger resumed = new AtomicInteger(0);
+        final AtomicInteger demanded = new AtomicInteger(0);
+        final AtomicInteger released = new AtomicInteger(0);
+        final ResultQueue bounded = new ResultQueue(new LinkedBlockingQueue<>(), new CompletableFuture<>(), 10,
+                () -> {}, resumed::incrementAndGet, demanded::incrementAndGet, released::incrementAndGet);
+
+        for (int ix = 0; ix < 10; ix++) {
+            bounded.add(new Result("test-" + ix));
+        }
+        assertEquals(4, bounded.await(4).get().size());
+        assertEquals(0, resumed.get());
+
+        // six are held which is above the point where reading resumes, but the caller needs more than that
+        final CompletableFuture<List<Result>> future = bounded.await(10);
+        assertThat(future.isDone(), is(false));
+        assertEquals(1, demanded.get());
+        assertEquals(0, released.get());
+
+        for (int ix = 10; ix < 14; ix++) {
+            bounded.add(new Result("test-" + ix));
+        }
+        assertEquals(10, future.get(1000, TimeUnit.MILLISECONDS).size());
+        assertEquals(1, released.get());
+        assertEquals(1, resumed.get());
+    }
+
+    @Test
+    public void shouldReadForWaitingQueueWhileAnotherQueueOnConnectionIsFull() throws Exception {
+        // acts like the connection that both queues share
+        final AtomicInteger suspendedReads = new AtomicInteger(0);
+        final AtomicInteger demandedReads = new AtomicInteger(0);
+        final Supplier<Boolean> reading = () -> suspendedReads.get() == 0 || demandedReads.get() > 0;
+
+        final ResultQueue full = new ResultQueue(new LinkedBlockingQueue<>(), new CompletableFuture<>(), 10,
+                suspendedReads::incrementAndGet, suspendedReads::decrementAndGet,
+                demandedReads::incrementAndGet, demandedReads::decrementAndGet);
+        final ResultQueue waiting = new ResultQueue(new LinkedBlockingQueue<>(), new CompletableFuture<>(), 10,
+                suspendedReads::incrementAndGet, suspendedReads::decrementAndGet,
+                demandedReads::incrementAndGet, demandedReads::decrementAndGet);
+
+        for (int ix = 0; ix < 10; ix++) {
+            full.add(new Result("test-" + ix));
+        }
+        assertThat(reading.get(), is(false));
+
+        // the results for the waiting queue are behind those of the full one which nobody consumes
+        final CompletableFuture<List<Result>> future = waiting.await(1);
+        assertThat(reading.get(), is(true));
+
+        full.add(new Result("test-10"));
+        waiting.add(new Result("test-0"));
+        assertEquals(1, future.get(1000, TimeUnit.MILLISECONDS).size());
+        assertThat(reading.get(), is(false));
+
+        full.markComplete();
+        assertThat(reading.get(), is(true));
+        assertEquals(11, full.size());
+    }
 }
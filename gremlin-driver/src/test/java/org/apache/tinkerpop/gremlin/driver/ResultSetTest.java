@@ -25,6 +25,8 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
@@ -174,4 +176,43 @@ public class ResultSetTest extends AbstractResultQueueTest {
 
         assertEquals(100, counter.get());
     }
+
+    @Test
+    public void shouldReturnAllWhenBoundedWithoutExceedingMaxSize() throws Exception {
+        final AtomicBoolean suspended = new AtomicBoolean(false);
+        final AtomicBoolean demanded = new AtomicBoolean(false);
+        final AtomicInteger largest = new AtomicInteger(0);
+        final CompletableFuture<Void> boundedReadCompleted = new CompletableFuture<>();
+        final ResultQueue bounded = new ResultQueue(new LinkedBlockingQueue<>(), boundedReadCompleted, 16,
+                () -> suspended.set(true), () -> suspended.set(false),
+                () -> demanded.set(true), () -> demanded.set(false));
+        final ResultSet boundedResultSet = new ResultSet(bounded, pool, boundedReadCompleted);
+
+        // acts like the channel which does not read while suspended unless a read is demanded
+        final Thread t = new Thread(() -> {
+            for (int ix = 0; ix < 1000; ix++) {
+                while (suspended.get() && !demanded.get()) {
+                    try {
+                        Thread.sleep(1);
+                    } catch (InterruptedException ie) {
+                        return;
+                    }
+                }
+                bounded.add(new Result("test-" + ix));
+                largest.set(Math.max(largest.get(), bounded.size()));
+            }
+            bounded.markComplete();
+        });
+        t.start();
+
+        try {
+            final List<Result> results = boundedResultSet.all().get(30000, TimeUnit.MILLISECONDS);
+            assertEquals(1000, results.size());
+            assertEquals("test-0", results.get(0).getString());
+            assertEquals("test-999", results.get(999).getString());
+            assertThat(largest.get() <= 16, is(true));
+        } finally {
+            t.interrupt();
+        }
+    }
 }
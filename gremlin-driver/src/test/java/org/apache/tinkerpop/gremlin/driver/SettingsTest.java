@@ -53,10 +53,12 @@ public class SettingsTest {
         conf.setProperty("connectionPool.maxInProcessPerConnection", 500);
         conf.setProperty("connectionPool.minInProcessPerConnection", 600);
         conf.setProperty("connectionPool.maxWaitForConnection", 700);
+        conf.setProperty("connectionPool.nonBlocking", true);
         conf.setProperty("connectionPool.maxContentLength", 800);
         conf.setProperty("connectionPool.reconnectInterval", 900);
         conf.setProperty("connectionPool.reconnectInitialDelay", 1000);
         conf.setProperty("connectionPool.resultIterationBatchSize", 1100);
+        conf.setProperty("connectionPool.maxResultQueueSize", 1200);
         conf.setProperty("connectionPool.channelizer", "channelizer0");
 
         final Settings settings = Settings.from(conf);
@@ -79,10 +81,12 @@ public class SettingsTest {
         assertEquals(500, settings.connectionPool.maxInProcessPerConnection);
         assertEquals(600, settings.connectionPool.minInProcessPerConnection);
         assertEquals(700, settings.connectionPool.maxWaitForConnection);
+        assertEquals(true, settings.connectionPool.nonBlocking);
         assertEquals(800, settings.connectionPool.maxContentLength);
         assertEquals(900, settings.connectionPool.reconnectInterval);
         assertEquals(1000, settings.connectionPool.reconnectInitialDelay);
         assertEquals(1100, settings.connectionPool.resultIterationBatchSize);
+        assertEquals(1200, settings.connectionPool.maxResultQueueSize);
         assertEquals("channelizer0", settings.connectionPool.channelizer);
     }
 }
@@ -156,6 +156,13 @@ public class ScriptEngines implements AutoCloseable {
         return compilable.compile(script);
     }
 
+    /**
+     * Gets the {@code ScriptEngine} configured for a particular language.
+     */
+    public Optional<ScriptEngine> getScriptEngine(final String language) {
+        return Optional.ofNullable(scriptEngines.get(language));
+    }
+
     /**
      * Reload a {@code ScriptEngine} with fresh imports.  Waits for any existing script evaluations to complete but
      * then blocks other operations until complete.
@@ -392,8 +399,16 @@ public class ScriptEngines implements AutoCloseable {
                 }
             });
 
+            // the number of compiled scripts held by the engine before the least recently used are evicted
+            final int classCacheMaximumSize = ((Number) config.getOrDefault(
+                    "classCacheMaximumSize", GremlinGroovyScriptEngine.DEFAULT_CLASS_CACHE_MAXIMUM_SIZE)).intValue();
+
+            // lift literals from scripts into variables so that scripts differing only by them share a class
+            final boolean literalParameterization = (Boolean) config.getOrDefault("literalParameterization", false);
+
             final CompilerCustomizerProvider[] providerArray = new CompilerCustomizerProvider[providers.size()];
-            return Optional.of((ScriptEngine) new GremlinGroovyScriptEngine(providers.toArray(providerArray)));
+            return Optional.of((ScriptEngine) new GremlinGroovyScriptEngine(classCacheMaximumSize,
+                    literalParameterization, providers.toArray(providerArray)));
         } else {
             return Optional.ofNullable(SCRIPT_ENGINE_MANAGER.getEngineByName(language));
         }
@@ -19,6 +19,7 @@
 package org.apache.tinkerpop.gremlin.groovy.jsr223;
 
 import groovy.lang.GroovyClassLoader;
+import groovy.lang.GroovySystem;
 import org.codehaus.groovy.control.CompilerConfiguration;
 
 /**
@@ -35,4 +36,20 @@ class GremlinGroovyClassLoader extends GroovyClassLoader {
     protected void removeClassCacheEntry(final String name) {
         super.removeClassCacheEntry(name);
     }
+
+    /**
+     * Removes the class of a compiled script, along with the other classes compiled from the same script (e.g. its
+     * closures), from the class cache and the meta-class registry.  Each script is compiled by its own
+     * {@code InnerLoader}, so once these references are gone the classes can be unloaded with that loader when the
+     * script is no longer in use.
+     */
+    void releaseClasses(final Class scriptClass) {
+        final ClassLoader compiledBy = scriptClass.getClassLoader();
+        for (final Class clazz : getLoadedClasses()) {
+            if (clazz.getClassLoader() == compiledBy) {
+                removeClassCacheEntry(clazz.getName());
+                GroovySystem.getMetaClassRegistry().removeMetaClass(clazz);
+            }
+        }
+    }
 }
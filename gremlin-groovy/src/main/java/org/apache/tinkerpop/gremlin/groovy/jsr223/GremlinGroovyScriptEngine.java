@@ -23,7 +23,9 @@ import org.apache.tinkerpop.gremlin.groovy.DefaultImportCustomizerProvider;
 import org.apache.tinkerpop.gremlin.groovy.EmptyImportCustomizerProvider;
 import org.apache.tinkerpop.gremlin.groovy.ImportCustomizerProvider;
 import org.apache.tinkerpop.gremlin.groovy.NoImportCustomizerProvider;
+import org.apache.tinkerpop.gremlin.groovy.jsr223.customizer.CompileStaticCustomizerProvider;
 import org.apache.tinkerpop.gremlin.groovy.jsr223.customizer.InterpreterModeCustomizerProvider;
+import org.apache.tinkerpop.gremlin.groovy.jsr223.customizer.TypeCheckedCustomizerProvider;
 import org.apache.tinkerpop.gremlin.groovy.loaders.GremlinLoader;
 import org.apache.tinkerpop.gremlin.groovy.plugin.Artifact;
 import org.apache.tinkerpop.gremlin.groovy.plugin.GremlinPlugin;
@@ -52,6 +54,7 @@ import org.codehaus.groovy.util.ReferenceBundle;
 import javax.script.Bindings;
 import javax.script.CompiledScript;
 import javax.script.ScriptContext;
+import javax.script.ScriptEngine;
 import javax.script.ScriptEngineFactory;
 import javax.script.ScriptException;
 import javax.script.SimpleBindings;
@@ -63,13 +66,19 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.ServiceLoader;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -132,6 +141,11 @@ public class GremlinGroovyScriptEngine extends GroovyScriptEngineImpl implements
      */
     public static final String COLLECTED_BOUND_VARS_MAP_VARNAME = "gremlin_script_engine_collected_boundvars";
 
+    /**
+     * The number of compiled scripts held in the class cache when a maximum size is not given to the constructor.
+     */
+    public static final int DEFAULT_CLASS_CACHE_MAXIMUM_SIZE = 10000;
+
     private static final Pattern patternImportStatic = Pattern.compile("\\Aimport\\sstatic.*");
 
     public static final ThreadLocal<Map<String, Object>> COMPILE_OPTIONS = new ThreadLocal<Map<String, Object>>(){
@@ -142,9 +156,24 @@ public class GremlinGroovyScriptEngine extends GroovyScriptEngineImpl implements
     };
 
     /**
-     * Script to generated Class map.
+     * Script to generated Class map.  The map is bounded and evicts in least-recently-used order.  Values are
+     * futures so that concurrent requests for the same uncompiled script wait on a single compilation.  Access to
+     * the map must be synchronized on it as reads alter the access order.
+     */
+    private final Map<String, CompletableFuture<Class>> classMap;
+
+    private final LongAdder classCacheHits = new LongAdder();
+    private final LongAdder classCacheMisses = new LongAdder();
+    private final LongAdder classCacheEvictions = new LongAdder();
+    private final LongAdder classCacheCompilationTime = new LongAdder();
+
+    /**
+     * Script to {@link ParameterizedScript} map which saves parsing scripts that have been seen before when
+     * literal parameterization is enabled.  Access to the map must be synchronized on it.
      */
-    private ManagedConcurrentValueMap<String, Class> classMap = new ManagedConcurrentValueMap<>(ReferenceBundle.getSoftBundle());
+    private final Map<String, ParameterizedScript> parameterizedScripts;
+
+    private final LongAdder parameterizedScriptKeysSaved = new LongAdder();
 
     /**
      * Global closures map - this is used to simulate a single global functions namespace
@@ -172,6 +201,7 @@ public class GremlinGroovyScriptEngine extends GroovyScriptEngineImpl implements
 
     private final Set<Artifact> artifactsToUse = new HashSet<>();
     private final boolean interpreterModeEnabled;
+    private final boolean literalParameterizationEnabled;
 
     /**
      * Creates a new instance using the {@link DefaultImportCustomizerProvider}.
@@ -192,6 +222,32 @@ public class GremlinGroovyScriptEngine extends GroovyScriptEngineImpl implements
      * Creates a new instance with the specified {@link CompilerCustomizerProvider} objects.
      */
     public GremlinGroovyScriptEngine(final CompilerCustomizerProvider... compilerCustomizerProviders) {
+        this(DEFAULT_CLASS_CACHE_MAXIMUM_SIZE, compilerCustomizerProviders);
+    }
+
+    /**
+     * Creates a new instance with the specified {@link CompilerCustomizerProvider} objects that holds at most
+     * {@code classCacheMaximumSize} compiled scripts, evicting the least recently used beyond that.
+     */
+    public GremlinGroovyScriptEngine(final int classCacheMaximumSize,
+                                     final CompilerCustomizerProvider... compilerCustomizerProviders) {
+        this(classCacheMaximumSize, false, compilerCustomizerProviders);
+    }
+
+    /**
+     * Creates a new instance with the specified {@link CompilerCustomizerProvider} objects that holds at most
+     * {@code classCacheMaximumSize} compiled scripts.  When {@code literalParameterization} is enabled, string and
+     * numeric literals passed as method arguments are replaced with variables prior to compilation, so that scripts
+     * which only differ in those literals (e.g. {@code g.V(1).out('knows')} and {@code g.V(2).out('created')}) share
+     * a single compiled class.  Literal parameterization is ignored when combined with the
+     * {@link CompileStaticCustomizerProvider} or {@link TypeCheckedCustomizerProvider} as the variables introduced
+     * are not typed.
+     */
+    public GremlinGroovyScriptEngine(final int classCacheMaximumSize, final boolean literalParameterization,
+                                     final CompilerCustomizerProvider... compilerCustomizerProviders) {
+        if (classCacheMaximumSize < 1)
+            throw new IllegalArgumentException("The maximum size of the class cache must be greater than zero");
+
         final List<CompilerCustomizerProvider> providers = Arrays.asList(compilerCustomizerProviders);
 
         GremlinLoader.load();
@@ -205,6 +261,29 @@ public class GremlinGroovyScriptEngine extends GroovyScriptEngineImpl implements
         interpreterModeEnabled = providers.stream()
                 .anyMatch(p -> p.getClass().equals(InterpreterModeCustomizerProvider.class));
 
+        classMap = new LinkedHashMap<String, CompletableFuture<Class>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, CompletableFuture<Class>> eldest) {
+                final boolean evict = size() > classCacheMaximumSize;
+                if (evict) {
+                    classCacheEvictions.increment();
+                    releaseClasses(eldest.getValue());
+                }
+                return evict;
+            }
+        };
+
+        // the parameters introduced for literals are untyped so they can't be used with static compilation
+        literalParameterizationEnabled = literalParameterization &&
+                providers.stream().noneMatch(p -> p instanceof CompileStaticCustomizerProvider ||
+                                                  p instanceof TypeCheckedCustomizerProvider);
+        parameterizedScripts = new LinkedHashMap<String, ParameterizedScript>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, ParameterizedScript> eldest) {
+                return size() > classCacheMaximumSize;
+            }
+        };
+
         // remove used providers as the rest will be applied directly
         customizerProviders = providers.stream()
                 .filter(p -> p != null &&
@@ -319,6 +398,52 @@ public class GremlinGroovyScriptEngine extends GroovyScriptEngineImpl implements
         return loadedPlugins;
     }
 
+    /**
+     * Gets the number of times a script was found already compiled in the class cache (or was being compiled by
+     * another thread).
+     */
+    public long getClassCacheHitCount() {
+        return classCacheHits.sum();
+    }
+
+    /**
+     * Gets the number of times a script had to be compiled because it was not in the class cache.
+     */
+    public long getClassCacheMissCount() {
+        return classCacheMisses.sum();
+    }
+
+    /**
+     * Gets the number of compiled scripts removed from the class cache to keep it within its maximum size.
+     */
+    public long getClassCacheEvictionCount() {
+        return classCacheEvictions.sum();
+    }
+
+    /**
+     * Gets the total time in milliseconds spent compiling scripts that missed the class cache.
+     */
+    public long getClassCacheCompilationTime() {
+        return TimeUnit.NANOSECONDS.toMillis(classCacheCompilationTime.sum());
+    }
+
+    /**
+     * Gets the number of distinct scripts that reused a class already compiled for a script that differed only in
+     * its literals.  This count only increases when literal parameterization is enabled.
+     */
+    public long getParameterizedScriptKeysSaved() {
+        return parameterizedScriptKeysSaved.sum();
+    }
+
+    /**
+     * Gets the number of scripts currently held in the class cache.
+     */
+    public long getClassCacheSize() {
+        synchronized (classMap) {
+            return classMap.size();
+        }
+    }
+
     @Override
     public void close() throws Exception {
     }
@@ -345,7 +470,12 @@ public class GremlinGroovyScriptEngine extends GroovyScriptEngineImpl implements
 
         // must clear the local cache here because the the classloader has been reset.  therefore, classes previously
         // referenced before that might not have evaluated might cleanly evaluate now.
-        classMap.clear();
+        synchronized (classMap) {
+            classMap.clear();
+        }
+        synchronized (parameterizedScripts) {
+            parameterizedScripts.clear();
+        }
         globalClosures.clear();
 
         final Set<Artifact> toReuse = new HashSet<>(artifactsToUse);
@@ -382,9 +512,10 @@ public class GremlinGroovyScriptEngine extends GroovyScriptEngineImpl implements
 
         try {
             registerBindingTypes(context);
-            final Class clazz = getScriptClass(script);
+            final ParameterizedScript parameterizedScript = parameterize(script);
+            final Class clazz = getScriptClass(parameterizedScript.getScript());
             if (null == clazz) throw new ScriptException("Script class is null");
-            return eval(clazz, context);
+            return eval(clazz, context, parameterizedScript.getParameters());
         } catch (SyntaxException e) {
             throw new ScriptException(e.getMessage(), e.getSourceLocator(), e.getLine());
         } catch (Exception e) {
@@ -421,7 +552,21 @@ public class GremlinGroovyScriptEngine extends GroovyScriptEngineImpl implements
     @Override
     public CompiledScript compile(final String scriptSource) throws ScriptException {
         try {
-            return new GroovyCompiledScript(this, getScriptClass(scriptSource));
+            final ParameterizedScript parameterizedScript = parameterize(scriptSource);
+            final Class clazz = getScriptClass(parameterizedScript.getScript());
+            if (!parameterizedScript.isParameterized()) return new GroovyCompiledScript(this, clazz);
+
+            return new CompiledScript() {
+                @Override
+                public Object eval(final ScriptContext context) throws ScriptException {
+                    return GremlinGroovyScriptEngine.this.eval(clazz, context, parameterizedScript.getParameters());
+                }
+
+                @Override
+                public ScriptEngine getEngine() {
+                    return GremlinGroovyScriptEngine.this;
+                }
+            };
         } catch (SyntaxException e) {
             throw new ScriptException(e.getMessage(), e.getSourceLocator(), e.getLine());
         } catch (IOException | CompilationFailedException e) {
@@ -464,25 +609,120 @@ public class GremlinGroovyScriptEngine extends GroovyScriptEngineImpl implements
     }
 
     Class getScriptClass(final String script) throws SyntaxException, CompilationFailedException, IOException {
-        Class clazz = classMap.get(script);
-        if (clazz != null) return clazz;
+        final CompletableFuture<Class> compilation;
+        final CompletableFuture<Class> existing;
+        synchronized (classMap) {
+            existing = classMap.get(script);
+            if (null == existing) {
+                compilation = new CompletableFuture<>();
+                classMap.put(script, compilation);
+            } else {
+                compilation = existing;
+            }
+        }
+
+        if (existing != null) {
+            classCacheHits.increment();
+            try {
+                return existing.join();
+            } catch (CompletionException ce) {
+                // the thread that did the compilation has already removed the failed entry so just surface the
+                // same error here
+                final Throwable cause = ce.getCause();
+                if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+                if (cause instanceof Error) throw (Error) cause;
+                throw ce;
+            }
+        }
+
+        classCacheMisses.increment();
+        final long start = System.nanoTime();
+        try {
+            final Class clazz = loader.parseClass(script, generateScriptName());
+            compilation.complete(clazz);
+
+            // the entry may have been evicted while it was compiling in which case nothing else will release it
+            synchronized (classMap) {
+                if (classMap.get(script) != compilation) releaseClasses(compilation);
+            }
+            return clazz;
+        } catch (RuntimeException | Error e) {
+            // don't keep failures around as a reset of the engine (e.g. new imports) might allow the script to
+            // compile on a future attempt
+            synchronized (classMap) {
+                classMap.remove(script, compilation);
+            }
+            compilation.completeExceptionally(e);
+            throw e;
+        } finally {
+            classCacheCompilationTime.add(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Replaces the literals in the script with parameters if literal parameterization is enabled, otherwise the
+     * script is returned as-is.
+     */
+    ParameterizedScript parameterize(final String script) {
+        if (!literalParameterizationEnabled) return ParameterizedScript.of(script);
+
+        synchronized (parameterizedScripts) {
+            final ParameterizedScript parameterizedScript = parameterizedScripts.get(script);
+            if (parameterizedScript != null) return parameterizedScript;
+        }
+
+        final ParameterizedScript parameterizedScript = ParameterizedScript.parameterize(script);
+
+        // a new script text that maps to a class that is already compiled is a key saved in the class cache
+        if (parameterizedScript.isParameterized()) {
+            synchronized (classMap) {
+                if (classMap.containsKey(parameterizedScript.getScript())) parameterizedScriptKeysSaved.increment();
+            }
+        }
 
-        clazz = loader.parseClass(script, generateScriptName());
-        classMap.put(script, clazz);
-        return clazz;
+        synchronized (parameterizedScripts) {
+            parameterizedScripts.put(script, parameterizedScript);
+        }
+        return parameterizedScript;
+    }
+
+    /**
+     * Releases the classes of a compilation from the class loader so that they can be unloaded.  Compilations that
+     * are still in progress are released by the compiling thread once it finds that its entry is gone.
+     */
+    private void releaseClasses(final CompletableFuture<Class> compilation) {
+        if (compilation.isDone() && !compilation.isCompletedExceptionally())
+            loader.releaseClasses(compilation.join());
+    }
+
+    GremlinGroovyClassLoader getScriptClassLoader() {
+        return loader;
     }
 
     boolean isCached(final String script) {
-        return classMap.get(script) != null;
+        final CompletableFuture<Class> compilation;
+        synchronized (classMap) {
+            compilation = classMap.get(script);
+        }
+        return compilation != null && compilation.isDone() && !compilation.isCompletedExceptionally();
     }
 
     Object eval(final Class scriptClass, final ScriptContext context) throws ScriptException {
+        return eval(scriptClass, context, Collections.emptyMap());
+    }
+
+    /**
+     * Evaluates the script class where the {@code parameters} are available as variables to the script in addition
+     * to those of the {@code context}.
+     */
+    Object eval(final Class scriptClass, final ScriptContext context, final Map<String, Object> parameters) throws ScriptException {
         context.setAttribute("context", context, ScriptContext.ENGINE_SCOPE);
         final Writer writer = context.getWriter();
         context.setAttribute("out", writer instanceof PrintWriter ? writer : new PrintWriter(writer), ScriptContext.ENGINE_SCOPE);
         final Binding binding = new Binding() {
             @Override
             public Object getVariable(final String name) {
+                if (parameters.containsKey(name)) return parameters.get(name);
                 synchronized (context) {
                     final int scope = context.getAttributesScope(name);
                     if (scope != -1) {
@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.groovy.jsr223;
+
+import org.codehaus.groovy.ast.CodeVisitorSupport;
+import org.codehaus.groovy.ast.expr.ClosureExpression;
+import org.codehaus.groovy.ast.expr.ConstantExpression;
+import org.codehaus.groovy.ast.expr.ConstructorCallExpression;
+import org.codehaus.groovy.ast.expr.Expression;
+import org.codehaus.groovy.ast.expr.MethodCallExpression;
+import org.codehaus.groovy.ast.expr.TupleExpression;
+import org.codehaus.groovy.control.CompilationFailedException;
+import org.codehaus.groovy.control.CompilationUnit;
+import org.codehaus.groovy.control.Phases;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * A script where the string and numeric literals passed as method arguments have been replaced by variables, so
+ * that scripts like {@code g.V(1).out('knows')} and {@code g.V(2).out('created')} share the same text (and thus the
+ * same compiled class) and differ only by their parameters.  Literals within closures, class and method
+ * declarations are left in place as they may be resolved against something other than the script's binding.  Any
+ * literal whose text cannot be matched exactly to its value is also left in place.
+ *
+ * @author agent (agent@local)
+ */
+final class ParameterizedScript {
+
+    /**
+     * The prefix for the names of the variables that replace literals.
+     */
+    static final String PARAMETER_PREFIX = "_gremlin_literal_";
+
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("-?[0-9]+(\\.[0-9]+)?([eE][+-]?[0-9]+)?[lLiIdDfFgG]?");
+
+    private final String script;
+    private final Map<String, Object> parameters;
+
+    private ParameterizedScript(final String script, final Map<String, Object> parameters) {
+        this.script = script;
+        this.parameters = parameters;
+    }
+
+    /**
+     * A script with no parameters.
+     */
+    public static ParameterizedScript of(final String script) {
+        return new ParameterizedScript(script, Collections.emptyMap());
+    }
+
+    /**
+     * The script text with the literals replaced by variables.
+     */
+    public String getScript() {
+        return script;
+    }
+
+    /**
+     * The values of the replaced literals keyed by the variable names that replaced them.
+     */
+    public Map<String, Object> getParameters() {
+        return parameters;
+    }
+
+    public boolean isParameterized() {
+        return !parameters.isEmpty();
+    }
+
+    /**
+     * Parses the script and replaces its literals.  If the script cannot be parsed it is returned unchanged so that
+     * compilation reports the error against the original text.
+     */
+    public static ParameterizedScript parameterize(final String script) {
+        final List<ConstantExpression> literals = new ArrayList<>();
+        try {
+            final CompilationUnit unit = new CompilationUnit();
+            unit.addSource("ParameterizedScript.groovy", script);
+            unit.compile(Phases.CONVERSION);
+            unit.getAST().getModules().get(0).getStatementBlock().visit(new LiteralCollector(literals));
+        } catch (CompilationFailedException | IllegalArgumentException e) {
+            return of(script);
+        }
+
+        if (literals.isEmpty()) return of(script);
+
+        final int[] lineOffsets = lineOffsets(script);
+        final List<int[]> ranges = new ArrayList<>(literals.size());
+        final List<Object> values = new ArrayList<>(literals.size());
+        for (ConstantExpression literal : literals) {
+            final int start = offset(lineOffsets, literal.getLineNumber(), literal.getColumnNumber());
+            final int end = offset(lineOffsets, literal.getLastLineNumber(), literal.getLastColumnNumber());
+            if (start < 0 || end > script.length() || start >= end) continue;
+            if (!matches(script.substring(start, end), literal.getValue())) continue;
+            ranges.add(new int[]{start, end, values.size()});
+            values.add(literal.getValue());
+        }
+
+        if (ranges.isEmpty()) return of(script);
+
+        // number the parameters in the order they appear in the text so that equivalent scripts produce the
+        // same variable names
+        ranges.sort(Comparator.comparingInt(r -> r[0]));
+        final StringBuilder sb = new StringBuilder(script.length());
+        final Map<String, Object> parameters = new LinkedHashMap<>();
+        int position = 0;
+        for (int[] range : ranges) {
+            if (range[0] < position) return of(script);
+            final String name = PARAMETER_PREFIX + parameters.size();
+            sb.append(script, position, range[0]).append(name);
+            parameters.put(name, values.get(range[2]));
+            position = range[1];
+        }
+        sb.append(script, position, script.length());
+
+        return new ParameterizedScript(sb.toString(), parameters);
+    }
+
+    private static int[] lineOffsets(final String script) {
+        final List<Integer> offsets = new ArrayList<>();
+        offsets.add(0);
+        for (int i = 0; i < script.length(); i++) {
+            if (script.charAt(i) == '\n') offsets.add(i + 1);
+        }
+        return offsets.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int offset(final int[] lineOffsets, final int line, final int column) {
+        if (line < 1 || line > lineOffsets.length || column < 1) return -1;
+        return lineOffsets[line - 1] + column - 1;
+    }
+
+    /**
+     * Determines if the text of the literal in the script is a plain representation of its value.  Strings with
+     * escapes or interpolation, triple quotes, slashes and numbers in other radixes are not parameterized.
+     */
+    private static boolean matches(final String text, final Object value) {
+        if (value instanceof String) {
+            if (text.length() < 2 || text.indexOf('\\') >= 0) return false;
+            final char quote = text.charAt(0);
+            if ((quote != '\'' && quote != '"') || text.charAt(text.length() - 1) != quote) return false;
+            if (text.startsWith("'''") || text.startsWith("\"\"\"") || (quote == '"' && text.indexOf('$') >= 0))
+                return false;
+            return text.substring(1, text.length() - 1).equals(value);
+        } else
+            return value instanceof Number && NUMBER_LITERAL.matcher(text).matches();
+    }
+
+    private static class LiteralCollector extends CodeVisitorSupport {
+        private final List<ConstantExpression> literals;
+
+        LiteralCollector(final List<ConstantExpression> literals) {
+            this.literals = literals;
+        }
+
+        @Override
+        public void visitMethodCallExpression(final MethodCallExpression call) {
+            collect(call.getArguments());
+            super.visitMethodCallExpression(call);
+        }
+
+        @Override
+        public void visitConstructorCallExpression(final ConstructorCallExpression call) {
+            collect(call.getArguments());
+            super.visitConstructorCallExpression(call);
+        }
+
+        @Override
+        public void visitClosureExpression(final ClosureExpression expression) {
+            // closures may resolve variables against their delegate before the script binding so leave them be
+        }
+
+        private void collect(final Expression arguments) {
+            if (!(arguments instanceof TupleExpression)) return;
+            for (Expression argument : ((TupleExpression) arguments).getExpressions()) {
+                if (argument.getClass().equals(ConstantExpression.class)) {
+                    final Object value = ((ConstantExpression) argument).getValue();
+                    if (value instanceof String || value instanceof Number)
+                        literals.add((ConstantExpression) argument);
+                }
+            }
+        }
+    }
+}
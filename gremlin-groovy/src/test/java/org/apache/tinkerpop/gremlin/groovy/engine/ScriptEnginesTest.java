@@ -20,6 +20,7 @@ package org.apache.tinkerpop.gremlin.groovy.engine;
 
 import groovy.lang.MissingPropertyException;
 import org.apache.commons.lang.exception.ExceptionUtils;
+import org.apache.tinkerpop.gremlin.groovy.jsr223.GremlinGroovyScriptEngine;
 import org.apache.tinkerpop.gremlin.groovy.plugin.GremlinPlugin;
 import org.apache.tinkerpop.gremlin.groovy.plugin.IllegalEnvironmentException;
 import org.apache.tinkerpop.gremlin.groovy.plugin.PluginAcceptor;
@@ -66,6 +67,35 @@ public class ScriptEnginesTest {
         }
     }
 
+    @Test
+    public void shouldConfigureClassCacheMaximumSize() throws Exception {
+        final ScriptEngines engines = new ScriptEngines(se -> {});
+        engines.reload("gremlin-groovy", Collections.<String>emptySet(),
+                Collections.<String>emptySet(), Collections.singletonMap("classCacheMaximumSize", 2));
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(i, engines.eval(String.valueOf(i), new SimpleBindings(), "gremlin-groovy"));
+        }
+
+        final GremlinGroovyScriptEngine engine = (GremlinGroovyScriptEngine) engines.getScriptEngine("gremlin-groovy").get();
+        assertEquals(2, engine.getClassCacheSize());
+        assertEquals(1, engine.getClassCacheEvictionCount());
+    }
+
+    @Test
+    public void shouldConfigureLiteralParameterization() throws Exception {
+        final ScriptEngines engines = new ScriptEngines(se -> {});
+        engines.reload("gremlin-groovy", Collections.<String>emptySet(),
+                Collections.<String>emptySet(), Collections.singletonMap("literalParameterization", true));
+
+        assertEquals(3, engines.eval("Math.max(1, 3)", new SimpleBindings(), "gremlin-groovy"));
+        assertEquals(5, engines.eval("Math.max(5, 4)", new SimpleBindings(), "gremlin-groovy"));
+
+        final GremlinGroovyScriptEngine engine = (GremlinGroovyScriptEngine) engines.getScriptEngine("gremlin-groovy").get();
+        assertEquals(1, engine.getClassCacheSize());
+        assertEquals(1, engine.getParameterizedScriptKeysSaved());
+    }
+
     @Test
     public void shouldMergeBindingsFromLocalAndGlobal() throws Exception {
         final ScriptEngines engines = new ScriptEngines(se -> {});
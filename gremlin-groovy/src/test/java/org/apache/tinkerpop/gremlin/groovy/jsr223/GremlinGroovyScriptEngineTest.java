@@ -53,9 +53,11 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsInstanceOf.instanceOf;
 import static org.junit.Assert.assertEquals;
@@ -86,6 +88,117 @@ public class GremlinGroovyScriptEngineTest {
         assertFalse(engine.isCached(script));
     }
 
+    @Test
+    public void shouldCompileScriptOnceWhenEvaluatedConcurrently() throws Exception {
+        final GremlinGroovyScriptEngine engine = new GremlinGroovyScriptEngine();
+        final String script = "x + 1";
+        final int threads = 8;
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final List<Object> results = new CopyOnWriteArrayList<>();
+        IntStream.range(0, threads).forEach(i -> executor.submit(() -> {
+            try {
+                start.await();
+                final Bindings b = new SimpleBindings();
+                b.put("x", i);
+                results.add(engine.eval(script, b));
+            } catch (Exception ex) {
+                results.add(ex);
+            }
+        }));
+
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(threads, results.size());
+        assertTrue(results.stream().allMatch(r -> r instanceof Integer));
+        assertEquals(1, engine.getClassCacheMissCount());
+        assertEquals(threads - 1, engine.getClassCacheHitCount());
+        assertEquals(1, engine.getClassCacheSize());
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedScriptFromClassCache() throws Exception {
+        final GremlinGroovyScriptEngine engine = new GremlinGroovyScriptEngine(2);
+        assertEquals(1, engine.eval("1"));
+        assertEquals(2, engine.eval("2"));
+        assertEquals(1, engine.eval("1"));
+        assertEquals(3, engine.eval("3"));
+
+        assertEquals(2, engine.getClassCacheSize());
+        assertEquals(1, engine.getClassCacheEvictionCount());
+        assertTrue(engine.isCached("1"));
+        assertFalse(engine.isCached("2"));
+        assertTrue(engine.isCached("3"));
+        assertEquals(1, engine.getClassCacheHitCount());
+        assertEquals(3, engine.getClassCacheMissCount());
+    }
+
+    @Test
+    public void shouldReleaseClassesOfEvictedScriptsFromClassLoader() throws Exception {
+        final GremlinGroovyScriptEngine engine = new GremlinGroovyScriptEngine(2);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i, engine.eval(String.valueOf(i)));
+            assertThat(engine.getScriptClassLoader().getLoadedClasses().length, lessThanOrEqualTo(2));
+        }
+
+        // closures are compiled to classes of their own which must be released with their script
+        for (int i = 0; i < 10; i++) {
+            assertEquals(Arrays.asList(i + 1, i + 2), engine.eval("[1, 2].collect{it + " + i + "}"));
+        }
+        final Class[] loaded = engine.getScriptClassLoader().getLoadedClasses();
+        assertEquals(4, loaded.length);
+        assertEquals(2, Stream.of(loaded).map(Class::getClassLoader).distinct().count());
+        assertEquals(18, engine.getClassCacheEvictionCount());
+    }
+
+    @Test
+    public void shouldNotCacheScriptThatFailsToCompile() throws Exception {
+        final GremlinGroovyScriptEngine engine = new GremlinGroovyScriptEngine();
+        final String script = "1 +";
+        for (int i = 0; i < 2; i++) {
+            try {
+                engine.eval(script);
+                fail("Script should not have compiled");
+            } catch (ScriptException se) {
+                assertFalse(engine.isCached(script));
+            }
+        }
+
+        assertEquals(2, engine.getClassCacheMissCount());
+        assertEquals(0, engine.getClassCacheSize());
+    }
+
+    @Test
+    public void shouldShareCompiledClassForScriptsThatDifferByLiterals() throws Exception {
+        final GremlinGroovyScriptEngine engine = new GremlinGroovyScriptEngine(
+                GremlinGroovyScriptEngine.DEFAULT_CLASS_CACHE_MAXIMUM_SIZE, true);
+        assertEquals(3, engine.eval("Math.max(1, 3)"));
+        assertEquals(5, engine.eval("Math.max(5, 4)"));
+        assertEquals("xb", engine.eval("'x'.concat('b')"));
+        assertEquals("xd", engine.eval("'x'.concat(\"d\")"));
+        assertEquals(5, engine.eval("Math.max(5, 4)"));
+
+        assertEquals(2, engine.getClassCacheMissCount());
+        assertEquals(2, engine.getClassCacheSize());
+        assertEquals(2, engine.getParameterizedScriptKeysSaved());
+
+        // compiled scripts carry their literals with them
+        assertEquals(7, engine.compile("Math.max(7, 6)").eval());
+        assertEquals(2, engine.getClassCacheMissCount());
+    }
+
+    @Test
+    public void shouldNotParameterizeLiteralsUnlessEnabled() throws Exception {
+        final GremlinGroovyScriptEngine engine = new GremlinGroovyScriptEngine();
+        assertEquals(3, engine.eval("Math.max(1, 3)"));
+        assertEquals(5, engine.eval("Math.max(5, 4)"));
+
+        assertEquals(2, engine.getClassCacheMissCount());
+        assertEquals(0, engine.getParameterizedScriptKeysSaved());
+    }
+
     @Test
     public void shouldEvalWithNoBindings() throws Exception {
         final GremlinGroovyScriptEngine engine = new GremlinGroovyScriptEngine();
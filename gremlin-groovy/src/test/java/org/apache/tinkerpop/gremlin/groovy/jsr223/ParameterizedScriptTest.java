@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.groovy.jsr223;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author agent (agent@local)
+ */
+public class ParameterizedScriptTest {
+
+    @Test
+    public void shouldParameterizeMethodArguments() {
+        final ParameterizedScript first = ParameterizedScript.parameterize("g.V(123).out('knows').has(\"weight\", 0.5d)");
+        final ParameterizedScript second = ParameterizedScript.parameterize("g.V(456).out('created').has(\"weight\", 1.5d)");
+
+        assertEquals("g.V(_gremlin_literal_0).out(_gremlin_literal_1).has(_gremlin_literal_2, _gremlin_literal_3)", first.getScript());
+        assertEquals(first.getScript(), second.getScript());
+        assertEquals(Arrays.asList(123, "knows", "weight", 0.5d), Arrays.asList(first.getParameters().values().toArray()));
+        assertEquals(Arrays.asList(456, "created", "weight", 1.5d), Arrays.asList(second.getParameters().values().toArray()));
+    }
+
+    @Test
+    public void shouldParameterizeAcrossLines() {
+        final ParameterizedScript script = ParameterizedScript.parameterize("x = 1\n  g.V(-1L).\n\tvalues('name', 'age').limit(10.0)");
+        assertEquals("x = 1\n  g.V(_gremlin_literal_0).\n\tvalues(_gremlin_literal_1, _gremlin_literal_2).limit(_gremlin_literal_3)", script.getScript());
+        assertEquals(Arrays.asList(-1L, "name", "age", new BigDecimal("10.0")), Arrays.asList(script.getParameters().values().toArray()));
+    }
+
+    @Test
+    public void shouldNotParameterizeLiteralsThatAreNotPlainMethodArguments() {
+        final String script = "def x = 'a'; g.V().has('name', \"mar${x}\").map{it.get().value('name')}.is(\"a\\tb\").is('''c''')";
+        final ParameterizedScript parameterized = ParameterizedScript.parameterize(script);
+        assertEquals("def x = 'a'; g.V().has(_gremlin_literal_0, \"mar${x}\").map{it.get().value('name')}.is(\"a\\tb\").is('''c''')", parameterized.getScript());
+        assertEquals(1, parameterized.getParameters().size());
+    }
+
+    @Test
+    public void shouldNotParameterizeInvalidScript() {
+        final ParameterizedScript script = ParameterizedScript.parameterize("g.V(1).out('knows'");
+        assertFalse(script.isParameterized());
+        assertEquals("g.V(1).out('knows'", script.getScript());
+    }
+
+    @Test
+    public void shouldNotParameterizeMethodDeclarations() {
+        final ParameterizedScript script = ParameterizedScript.parameterize("def f() { g.V(1) }\nf().out('knows')");
+        assertTrue(script.isParameterized());
+        assertEquals("def f() { g.V(1) }\nf().out(_gremlin_literal_0)", script.getScript());
+    }
+}
@@ -36,6 +36,7 @@ public final class Context {
     private final GraphManager graphManager;
     private final GremlinExecutor gremlinExecutor;
     private final ScheduledExecutorService scheduledExecutorService;
+    private final long requestTimeMillis = System.currentTimeMillis();
 
     public Context(final RequestMessage requestMessage, final ChannelHandlerContext ctx,
                    final Settings settings, final GraphManager graphManager,
@@ -48,6 +49,14 @@ public final class Context {
         this.scheduledExecutorService = scheduledExecutorService;
     }
 
+    /**
+     * Gets the time at which the request was received, which is the start of the period allowed by the
+     * {@link Settings#scriptEvaluationTimeout}.
+     */
+    public long getRequestTimeMillis() {
+        return requestTimeMillis;
+    }
+
     public ScheduledExecutorService getScheduledExecutorService() {
         return scheduledExecutorService;
     }
@@ -116,6 +116,33 @@ public class Settings {
      */
     public int resultIterationBatchSize = 64;
 
+    /**
+     * The number of serialized bytes that a response frame should approach when batch sizes are adapted to the
+     * results.  When greater than zero, the number of items in each batch is recomputed after every frame from the
+     * size of the frames already written, within {@link #resultIterationBatchSizeMin} and
+     * {@link #resultIterationBatchSizeMax}, starting at {@link #resultIterationBatchSize}.  Requests that specify
+     * their own batch size are not adapted.  This value should stay well below the {@link #maxContentLength} of the
+     * clients.  Defaults to 0 which disables adaptive batching.
+     */
+    public int resultIterationFrameSizeTarget = 0;
+
+    /**
+     * Time in milliseconds that the serialization of a response frame should not exceed when batch sizes are
+     * adapted to the results (i.e. {@link #resultIterationFrameSizeTarget} is greater than zero).  Defaults to 0
+     * which adapts batch sizes to the serialized bytes alone.
+     */
+    public long resultIterationFrameTimeTarget = 0L;
+
+    /**
+     * The fewest number of items in a batch when batch sizes are adapted to the results.  Defaults to 8.
+     */
+    public int resultIterationBatchSizeMin = 8;
+
+    /**
+     * The greatest number of items in a batch when batch sizes are adapted to the results.  Defaults to 1024.
+     */
+    public int resultIterationBatchSizeMax = 1024;
+
     /**
      * The maximum length of the initial line (e.g. {@code "GET / HTTP/1.0"}) processed in a request, which essentially
      * controls the maximum length of the submitted URI. This setting ties to the Netty {@code HttpRequestDecoder}.
@@ -333,6 +360,14 @@ public class Settings {
          */
         public List<String> scripts = new ArrayList<>();
 
+        /**
+         * A list of scripts to compile (but not evaluate) when Gremlin Server starts so that the first requests
+         * for them do not pay the cost of compilation.  The scripts must match the text of incoming requests
+         * exactly to be of use and are only applicable to {@code ScriptEngine} implementations that cache compiled
+         * scripts.
+         */
+        public List<String> precompile = new ArrayList<>();
+
         /**
          * A Map of configuration settings for the {@code ScriptEngine}. These settings are dependent on the
          * {@code ScriptEngine} implementation being used.
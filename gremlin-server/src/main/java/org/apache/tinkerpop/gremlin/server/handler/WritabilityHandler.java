@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.server.handler;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Runs the callbacks registered with {@link #whenWritable(Channel, Runnable)} once the channel becomes writable
+ * again (or is closed).  This allows result iteration to stop when a slow client has filled the write buffer past
+ * the {@code writeBufferHighWaterMark} and to resume when the client catches up, without a thread waiting on the
+ * channel in the meantime.  Callbacks are run on the event loop so they should only hand work off to another
+ * executor.
+ *
+ * @author agent (agent@local)
+ */
+@ChannelHandler.Sharable
+public class WritabilityHandler extends ChannelInboundHandlerAdapter {
+
+    @Override
+    public void channelWritabilityChanged(final ChannelHandlerContext ctx) throws Exception {
+        if (ctx.channel().isWritable()) notifyListeners(ctx.channel());
+        ctx.fireChannelWritabilityChanged();
+    }
+
+    @Override
+    public void channelInactive(final ChannelHandlerContext ctx) throws Exception {
+        notifyListeners(ctx.channel());
+        ctx.fireChannelInactive();
+    }
+
+    /**
+     * Registers a callback to run once when the channel is next writable or is closed.  If the channel is already
+     * writable or closed the callback is run immediately in the calling thread.
+     */
+    public static void whenWritable(final Channel channel, final Runnable listener) {
+        Queue<Runnable> listeners = channel.attr(StateKey.WRITABILITY_LISTENERS).get();
+        if (null == listeners) {
+            final Queue<Runnable> newListeners = new ConcurrentLinkedQueue<>();
+            listeners = channel.attr(StateKey.WRITABILITY_LISTENERS).setIfAbsent(newListeners);
+            if (null == listeners) listeners = newListeners;
+        }
+        listeners.add(listener);
+
+        // writability may have changed before the listener was added in which case the event has already passed
+        if (channel.isWritable() || !channel.isActive()) notifyListeners(channel);
+    }
+
+    private static void notifyListeners(final Channel channel) {
+        final Queue<Runnable> listeners = channel.attr(StateKey.WRITABILITY_LISTENERS).get();
+        if (null == listeners) return;
+        Runnable listener;
+        while ((listener = listeners.poll()) != null) {
+            listener.run();
+        }
+    }
+}
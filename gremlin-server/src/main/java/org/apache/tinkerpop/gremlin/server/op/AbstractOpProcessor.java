@@ -18,6 +18,8 @@
  */
 package org.apache.tinkerpop.gremlin.server.op;
 
+import com.codahale.metrics.Histogram;
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import org.apache.commons.lang.time.StopWatch;
 import org.apache.tinkerpop.gremlin.driver.MessageSerializer;
@@ -26,12 +28,16 @@ import org.apache.tinkerpop.gremlin.driver.message.RequestMessage;
 import org.apache.tinkerpop.gremlin.driver.message.ResponseMessage;
 import org.apache.tinkerpop.gremlin.driver.message.ResponseStatusCode;
 import org.apache.tinkerpop.gremlin.driver.ser.MessageTextSerializer;
+import org.apache.tinkerpop.gremlin.groovy.engine.GremlinExecutor;
 import org.apache.tinkerpop.gremlin.server.Context;
 import org.apache.tinkerpop.gremlin.server.GraphManager;
+import org.apache.tinkerpop.gremlin.server.GremlinServer;
 import org.apache.tinkerpop.gremlin.server.OpProcessor;
 import org.apache.tinkerpop.gremlin.server.Settings;
 import org.apache.tinkerpop.gremlin.server.handler.Frame;
 import org.apache.tinkerpop.gremlin.server.handler.StateKey;
+import org.apache.tinkerpop.gremlin.server.handler.WritabilityHandler;
+import org.apache.tinkerpop.gremlin.server.util.MetricManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,14 +46,24 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.codahale.metrics.MetricRegistry.name;
 
 /**
  * @author Stephen Mallette (http://stephen.genoprime.com)
  */
 public abstract class AbstractOpProcessor implements OpProcessor {
     private static final Logger logger = LoggerFactory.getLogger(AbstractEvalOpProcessor.class);
+    static final Histogram frameBytesHistogram = MetricManager.INSTANCE.getHistogram(name(GremlinServer.class, "frames", "bytes"));
+    static final Histogram frameItemsHistogram = MetricManager.INSTANCE.getHistogram(name(GremlinServer.class, "frames", "items"));
 
     protected final boolean manageTransactions;
 
@@ -60,6 +76,13 @@ public abstract class AbstractOpProcessor implements OpProcessor {
      * {@link Settings#serializedResponseTimeout} configuration and break the serialization process if
      * it begins to take too long to do so, throwing a {@link java.util.concurrent.TimeoutException} in such
      * cases.
+     * <p/>
+     * If the client is not consuming results quickly enough then writes are paused until the channel becomes
+     * writable again.  For sessionless requests that hold no open transaction, iteration is suspended and later
+     * resumed on the {@link GremlinExecutor} so that no thread waits on the client - this method may therefore return
+     * before all results are written, in which case errors are written back to the client directly and the
+     * {@link Settings#scriptEvaluationTimeout} is enforced by the iteration itself.  Other requests hold their thread
+     * (and thus their transaction) until the client catches up.
      *
      * @param context The Gremlin Server {@link Context} object containing settings, request message, etc.
      * @param itty The result to iterator
@@ -69,9 +92,6 @@ public abstract class AbstractOpProcessor implements OpProcessor {
         final ChannelHandlerContext ctx = context.getChannelHandlerContext();
         final RequestMessage msg = context.getRequestMessage();
         final Settings settings = context.getSettings();
-        final MessageSerializer serializer = ctx.channel().attr(StateKey.SERIALIZER).get();
-        final boolean useBinary = ctx.channel().attr(StateKey.USE_BINARY).get();
-        boolean warnOnce = false;
 
         // sessionless requests are always transaction managed, but in-session requests are configurable.
         final boolean managedTransactionsForRequest = manageTransactions ?
@@ -88,94 +108,285 @@ public abstract class AbstractOpProcessor implements OpProcessor {
             return;
         }
 
+        new ResultIteration(context, itty, managedTransactionsForRequest).iterate();
+    }
+
+    /**
+     * Determines if the iteration of a result can be suspended and then resumed in a different thread. Sessions
+     * must keep to their own thread.  Otherwise, only the graphs that the request has used so far matter: graphs that
+     * support transactions typically bind them to the thread, so if the request has a transaction open in the
+     * current thread then iteration must remain in it.  This is checked each time iteration would be suspended as a
+     * resumed iteration may have opened a transaction in the thread it resumed in.
+     */
+    private boolean canSuspendIteration(final Context context) {
+        return manageTransactions && context.getGraphManager().getGraphs().values().stream()
+                .noneMatch(graph -> graph.features().graph().supportsTransactions() && graph.tx().isOpen());
+    }
+
+    /**
+     * The state of the iteration of a result set back to the client which is held so that iteration can be
+     * suspended while the client is lagging and resumed once it catches up.
+     */
+    private final class ResultIteration {
+        private final Context context;
+        private final Iterator itty;
+        private final ChannelHandlerContext ctx;
+        private final RequestMessage msg;
+        private final Settings settings;
+        private final MessageSerializer serializer;
+        private final boolean useBinary;
+        private final boolean managedTransactionsForRequest;
+        private final boolean adaptiveBatchSize;
+        private int resultIterationBatchSize;
+
         // timer for the total serialization time
-        final StopWatch stopWatch = new StopWatch();
-        stopWatch.start();
-
-        // the batch size can be overridden by the request
-        final int resultIterationBatchSize = (Integer) msg.optionalArgs(Tokens.ARGS_BATCH_SIZE)
-                .orElse(settings.resultIterationBatchSize);
-        List<Object> aggregate = new ArrayList<>(resultIterationBatchSize);
-
-        // use an external control to manage the loop as opposed to just checking hasNext() in the while.  this
-        // prevent situations where auto transactions create a new transaction after calls to commit() withing
-        // the loop on calls to hasNext().
-        boolean hasMore = itty.hasNext();
-
-        while (hasMore) {
-            if (Thread.interrupted()) throw new InterruptedException();
-
-            // have to check the aggregate size because it is possible that the channel is not writeable (below)
-            // so iterating next() if the message is not written and flushed would bump the aggregate size beyond
-            // the expected resultIterationBatchSize.  Total serialization time for the response remains in
-            // effect so if the client is "slow" it may simply timeout.
-            if (aggregate.size() < resultIterationBatchSize) aggregate.add(itty.next());
-
-            // send back a page of results if batch size is met or if it's the end of the results being iterated.
-            // also check writeability of the channel to prevent OOME for slow clients.
-            if (ctx.channel().isWritable()) {
+        private final StopWatch stopWatch = new StopWatch();
+
+        // the aggregate is serialized before it is written so the same list is reused for every batch
+        private final List<Object> aggregate;
+        private boolean warnOnce = false;
+
+        // once suspended the iteration is no longer covered by the timeout of the eval so it enforces it itself
+        private boolean suspended = false;
+
+        private ResultIteration(final Context context, final Iterator itty, final boolean managedTransactionsForRequest) {
+            this.context = context;
+            this.itty = itty;
+            this.ctx = context.getChannelHandlerContext();
+            this.msg = context.getRequestMessage();
+            this.settings = context.getSettings();
+            this.serializer = ctx.channel().attr(StateKey.SERIALIZER).get();
+            this.useBinary = ctx.channel().attr(StateKey.USE_BINARY).get();
+            this.managedTransactionsForRequest = managedTransactionsForRequest;
+
+            // the batch size can be overridden by the request, otherwise it may be adapted to the results
+            final Optional<Integer> requestedBatchSize = msg.optionalArgs(Tokens.ARGS_BATCH_SIZE);
+            this.adaptiveBatchSize = !requestedBatchSize.isPresent() && settings.resultIterationFrameSizeTarget > 0;
+            this.resultIterationBatchSize = requestedBatchSize.orElse(adaptiveBatchSize ?
+                    clampBatchSize(settings.resultIterationBatchSize) : settings.resultIterationBatchSize);
+            this.aggregate = new ArrayList<>(resultIterationBatchSize);
+            this.stopWatch.start();
+        }
+
+        /**
+         * Iterates the results until they are all written to the client or until the iteration is suspended to wait
+         * for the client to catch up.
+         */
+        private void iterate() throws TimeoutException, InterruptedException {
+            // use an external control to manage the loop as opposed to just checking hasNext() in the while.  this
+            // prevent situations where auto transactions create a new transaction after calls to commit() withing
+            // the loop on calls to hasNext().
+            boolean hasMore = true;
+
+            while (hasMore) {
+                if (Thread.interrupted()) throw new InterruptedException();
+                if (suspended && remainingEvaluationTime() <= 0)
+                    throw new TimeoutException(String.format("Script evaluation exceeded the configured 'scriptEvaluationTimeout' threshold of %s ms while writing results to a lagging client", settings.scriptEvaluationTimeout));
+
+                // have to check the aggregate size because it is possible that the channel is not writeable (below)
+                // so iterating next() if the message is not written and flushed would bump the aggregate size beyond
+                // the expected resultIterationBatchSize.  Total serialization time for the response remains in
+                // effect so if the client is "slow" it may simply timeout.
+                if (aggregate.size() < resultIterationBatchSize && itty.hasNext()) aggregate.add(itty.next());
+
+                // send back a page of results if batch size is met or if it's the end of the results being iterated.
+                // also check writeability of the channel to prevent OOME for slow clients.
                 if (aggregate.size() == resultIterationBatchSize || !itty.hasNext()) {
-                    final ResponseStatusCode code = itty.hasNext() ? ResponseStatusCode.PARTIAL_CONTENT : ResponseStatusCode.SUCCESS;
-
-                    // serialize here because in sessionless requests the serialization must occur in the same
-                    // thread as the eval.  as eval occurs in the GremlinExecutor there's no way to get back to the
-                    // thread that processed the eval of the script so, we have to push serialization down into that
-                    Frame frame;
-                    try {
-                        frame = makeFrame(ctx, msg, serializer, useBinary, aggregate, code);
-                    } catch (Exception ex) {
-                        // exception is handled in makeFrame() - serialization error gets written back to driver
-                        // at that point
-                        if (manageTransactions) attemptRollback(msg, context.getGraphManager(), settings.strictTransactionManagement);
-                        break;
-                    }
+                    if (ctx.channel().isWritable()) {
+                        final ResponseStatusCode code = itty.hasNext() ? ResponseStatusCode.PARTIAL_CONTENT : ResponseStatusCode.SUCCESS;
+
+                        // serialize here because in sessionless requests the serialization must occur in the thread
+                        // that holds the transaction of the eval.  as eval occurs in the GremlinExecutor there's no way
+                        // to get back to the thread that processed the eval of the script so, we have to push
+                        // serialization down into that.  an iteration is only suspended and resumed in another thread
+                        // when it holds no open transaction (see canSuspendIteration)
+                        Frame frame;
+                        final long serializationStart = System.nanoTime();
+                        try {
+                            frame = makeFrame(ctx, msg, serializer, useBinary, aggregate, code);
+                        } catch (Exception ex) {
+                            // exception is handled in makeFrame() - serialization error gets written back to driver
+                            // at that point
+                            if (manageTransactions) attemptRollback(msg, context.getGraphManager(), settings.strictTransactionManagement);
+                            break;
+                        }
 
-                    // only need to reset the aggregation list if there's more stuff to write
-                    if (itty.hasNext())
-                        aggregate = new ArrayList<>(resultIterationBatchSize);
-                    else {
-                        // iteration and serialization are both complete which means this finished successfully. note that
-                        // errors internal to script eval or timeout will rollback given GremlinServer's global configurations.
-                        // local errors will get rolledback below because the exceptions aren't thrown in those cases to be
-                        // caught by the GremlinExecutor for global rollback logic. this only needs to be committed if
-                        // there are no more items to iterate and serialization is complete
-                        if (managedTransactionsForRequest) attemptCommit(msg, context.getGraphManager(), settings.strictTransactionManagement);
-
-                        // exit the result iteration loop as there are no more results left.  using this external control
-                        // because of the above commit.  some graphs may open a new transaction on the call to
-                        // hasNext()
-                        hasMore = false;
+                        final int frameBytes = frameSize(frame);
+                        frameBytesHistogram.update(frameBytes);
+                        frameItemsHistogram.update(aggregate.size());
+
+                        // only need to reset the aggregation list if there's more stuff to write
+                        if (itty.hasNext()) {
+                            if (adaptiveBatchSize)
+                                adaptBatchSize(aggregate.size(), frameBytes, System.nanoTime() - serializationStart);
+                            aggregate.clear();
+                        } else {
+                            // iteration and serialization are both complete which means this finished successfully. note that
+                            // errors internal to script eval or timeout will rollback given GremlinServer's global configurations.
+                            // local errors will get rolledback below because the exceptions aren't thrown in those cases to be
+                            // caught by the GremlinExecutor for global rollback logic. this only needs to be committed if
+                            // there are no more items to iterate and serialization is complete
+                            if (managedTransactionsForRequest) attemptCommit(msg, context.getGraphManager(), settings.strictTransactionManagement);
+
+                            // exit the result iteration loop as there are no more results left.  using this external control
+                            // because of the above commit.  some graphs may open a new transaction on the call to
+                            // hasNext()
+                            hasMore = false;
+                        }
+
+                        // the flush is called after the commit has potentially occurred.  in this way, if a commit was
+                        // required then it will be 100% complete before the client receives it. the "frame" at this point
+                        // should have completely detached objects from the transaction (i.e. serialization has occurred)
+                        // so a new one should not be opened on the flush down the netty pipeline
+                        ctx.writeAndFlush(frame);
+                    } else {
+                        // don't keep triggering this warning over and over again for the same request
+                        if (!warnOnce) {
+                            logger.warn("Pausing response writing as writeBufferHighWaterMark exceeded on {} - writing will continue once client has caught up", msg);
+                            warnOnce = true;
+                        }
+
+                        // since the client is lagging, stop until it catches up. when suspended, another thread
+                        // picks up the iteration and this one is free to do other work.
+                        if (awaitWritable()) return;
                     }
+                }
 
-                    // the flush is called after the commit has potentially occurred.  in this way, if a commit was
-                    // required then it will be 100% complete before the client receives it. the "frame" at this point
-                    // should have completely detached objects from the transaction (i.e. serialization has occurred)
-                    // so a new one should not be opened on the flush down the netty pipeline
-                    ctx.writeAndFlush(frame);
+                stopWatch.split();
+                if (stopWatch.getSplitTime() > settings.serializedResponseTimeout) {
+                    final String timeoutMsg = String.format("Serialization of the entire response exceeded the 'serializeResponseTimeout' setting %s",
+                            warnOnce ? "[Gremlin Server paused writes to client as messages were not being consumed quickly enough]" : "");
+                    throw new TimeoutException(timeoutMsg.trim());
                 }
+
+                stopWatch.unsplit();
+            }
+
+            stopWatch.stop();
+        }
+
+        /**
+         * Waits for the channel to become writable.  Returns {@code true} if the iteration was suspended, in which
+         * case it will be resumed in another thread, and {@code false} if the calling thread waited.
+         */
+        private boolean awaitWritable() throws InterruptedException {
+            final long remaining = settings.serializedResponseTimeout - stopWatch.getTime();
+            if (remaining <= 0) return false;
+
+            if (canSuspendIteration(context)) {
+                final long remainingUntilTimeout = Math.min(remaining, remainingEvaluationTime());
+                if (remainingUntilTimeout <= 0) return false;
+                suspended = true;
+
+                final AtomicBoolean resumed = new AtomicBoolean(false);
+                final AtomicReference<ScheduledFuture<?>> timeout = new AtomicReference<>();
+                final Runnable resume = () -> {
+                    if (resumed.compareAndSet(false, true)) {
+                        final ScheduledFuture<?> scheduled = timeout.get();
+                        if (scheduled != null) scheduled.cancel(false);
+                        context.getGremlinExecutor().getExecutorService().submit(this::resume);
+                    }
+                };
+
+                // resume when the client catches up or, failing that, when the response times out
+                if (context.getScheduledExecutorService() != null)
+                    timeout.set(context.getScheduledExecutorService().schedule(resume, remainingUntilTimeout + 1, TimeUnit.MILLISECONDS));
+                WritabilityHandler.whenWritable(ctx.channel(), resume);
+                return true;
             } else {
-                // don't keep triggering this warning over and over again for the same request
-                if (!warnOnce) {
-                    logger.warn("Pausing response writing as writeBufferHighWaterMark exceeded on {} - writing will continue once client has caught up", msg);
-                    warnOnce = true;
+                // the thread must be kept so wait for the writability event rather than polling the channel
+                final CompletableFuture<Void> writable = new CompletableFuture<>();
+                WritabilityHandler.whenWritable(ctx.channel(), () -> writable.complete(null));
+                try {
+                    writable.get(remaining + 1, TimeUnit.MILLISECONDS);
+                } catch (ExecutionException | TimeoutException ignored) {
+                    // the response timeout is checked by the iteration loop
                 }
-
-                // since the client is lagging we can hold here for a period of time for the client to catch up.
-                // this isn't blocking the IO thread - just a worker.
-                TimeUnit.MILLISECONDS.sleep(10);
+                return false;
             }
+        }
+
+        /**
+         * The time left before the {@link Settings#scriptEvaluationTimeout} of the request expires, measured from the
+         * time it was received.
+         */
+        private long remainingEvaluationTime() {
+            return settings.scriptEvaluationTimeout > 0 ?
+                    context.getRequestTimeMillis() + settings.scriptEvaluationTimeout - System.currentTimeMillis() :
+                    Long.MAX_VALUE;
+        }
+
+        /**
+         * Sizes the next batch so that its frame approaches the {@link Settings#resultIterationFrameSizeTarget} (and
+         * serializes within the {@link Settings#resultIterationFrameTimeTarget}) given the size of the last frame.
+         * The batch size only moves halfway to the estimate so that a few unusually large or small results do not
+         * cause it to swing between extremes.
+         */
+        private void adaptBatchSize(final int items, final int frameBytes, final long serializationNanos) {
+            long estimate = (long) items * settings.resultIterationFrameSizeTarget / Math.max(1, frameBytes);
+            if (settings.resultIterationFrameTimeTarget > 0 && serializationNanos > 0)
+                estimate = Math.min(estimate, items * TimeUnit.MILLISECONDS.toNanos(settings.resultIterationFrameTimeTarget) / serializationNanos);
+            resultIterationBatchSize = clampBatchSize((resultIterationBatchSize + estimate) / 2);
+        }
+
+        private int clampBatchSize(final long batchSize) {
+            return (int) Math.max(Math.max(1, settings.resultIterationBatchSizeMin),
+                    Math.min(settings.resultIterationBatchSizeMax, batchSize));
+        }
 
-            stopWatch.split();
-            if (stopWatch.getSplitTime() > settings.serializedResponseTimeout) {
-                final String timeoutMsg = String.format("Serialization of the entire response exceeded the 'serializeResponseTimeout' setting %s",
-                        warnOnce ? "[Gremlin Server paused writes to client as messages were not being consumed quickly enough]" : "");
-                throw new TimeoutException(timeoutMsg.trim());
+        private void resume() {
+            if (!ctx.channel().isActive()) {
+                logger.debug("Abandoning iteration of results for {} as the channel was closed", msg);
+                if (managedTransactionsForRequest) attemptRollback(msg, context.getGraphManager(), settings.strictTransactionManagement);
+                return;
             }
 
-            stopWatch.unsplit();
+            try {
+                iterate();
+            } catch (TimeoutException ex) {
+                final String errorMessage = String.format("Response iteration exceeded the configured threshold for request [%s] - %s", msg, ex.getMessage());
+                logger.warn(errorMessage);
+                ctx.writeAndFlush(ResponseMessage.build(msg).code(ResponseStatusCode.SERVER_ERROR_TIMEOUT).statusMessage(errorMessage).create());
+                if (managedTransactionsForRequest) attemptRollback(msg, context.getGraphManager(), settings.strictTransactionManagement);
+            } catch (Exception ex) {
+                logger.warn(String.format("Exception iterating results on request [%s].", msg), ex);
+                ctx.writeAndFlush(ResponseMessage.build(msg).code(ResponseStatusCode.SERVER_ERROR).statusMessage(ex.getMessage()).create());
+                if (managedTransactionsForRequest) attemptRollback(msg, context.getGraphManager(), settings.strictTransactionManagement);
+            }
         }
+    }
 
-        stopWatch.stop();
+    /**
+     * Gets the number of bytes the frame takes on the wire, where a text frame is sent as UTF-8.
+     */
+    static int frameSize(final Frame frame) {
+        final Object msg = frame.getMsg();
+        if (msg instanceof ByteBuf)
+            return ((ByteBuf) msg).readableBytes();
+        else if (msg instanceof String)
+            return utf8Length((String) msg);
+        else
+            return 0;
+    }
+
+    /**
+     * Counts the bytes of the UTF-8 encoding of the string without encoding it.
+     */
+    private static int utf8Length(final String s) {
+        final int length = s.length();
+        int bytes = length;
+        for (int ix = 0; ix < length; ix++) {
+            final char c = s.charAt(ix);
+            if (c >= 0x800) {
+                // three bytes for the char, or four for a surrogate pair which covers both of its chars
+                bytes += 2;
+                if (Character.isHighSurrogate(c) && ix + 1 < length && Character.isLowSurrogate(s.charAt(ix + 1)))
+                    ix++;
+            } else if (c >= 0x80) {
+                bytes++;
+            }
+        }
+        return bytes;
     }
 
     protected static Frame makeFrame(final ChannelHandlerContext ctx, final RequestMessage msg,
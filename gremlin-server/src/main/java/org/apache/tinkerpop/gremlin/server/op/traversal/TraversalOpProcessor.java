@@ -18,6 +18,7 @@
  */
 package org.apache.tinkerpop.gremlin.server.op.traversal;
 
+import com.codahale.metrics.Meter;
 import io.netty.channel.ChannelHandlerContext;
 import org.apache.tinkerpop.gremlin.driver.Tokens;
 import org.apache.tinkerpop.gremlin.driver.message.RequestMessage;
@@ -26,29 +27,42 @@ import org.apache.tinkerpop.gremlin.driver.message.ResponseStatusCode;
 import org.apache.tinkerpop.gremlin.process.computer.util.VertexProgramHelper;
 import org.apache.tinkerpop.gremlin.process.remote.traversal.strategy.RemoteStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalSideEffects;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.LambdaHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Mutating;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
 import org.apache.tinkerpop.gremlin.server.Context;
 import org.apache.tinkerpop.gremlin.server.GraphManager;
+import org.apache.tinkerpop.gremlin.server.GremlinServer;
 import org.apache.tinkerpop.gremlin.server.OpProcessor;
+import org.apache.tinkerpop.gremlin.server.Settings;
 import org.apache.tinkerpop.gremlin.server.op.AbstractEvalOpProcessor;
 import org.apache.tinkerpop.gremlin.server.op.AbstractOpProcessor;
 import org.apache.tinkerpop.gremlin.server.op.OpProcessorException;
+import org.apache.tinkerpop.gremlin.server.util.MetricManager;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory;
 import org.apache.tinkerpop.gremlin.util.Serializer;
+import org.apache.tinkerpop.gremlin.util.function.ConstantSupplier;
 import org.apache.tinkerpop.gremlin.util.function.ThrowingConsumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
 
+import static com.codahale.metrics.MetricRegistry.name;
+
 /**
  * Simple {@link OpProcessor} implementation that iterates remotely submitted serialized {@link Traversal} objects.
  *
@@ -58,6 +72,39 @@ public class TraversalOpProcessor extends AbstractOpProcessor {
     private static final Logger logger = LoggerFactory.getLogger(TraversalOpProcessor.class);
     public static final String OP_PROCESSOR_NAME = "traversal";
 
+    /**
+     * Configuration setting for the number of compiled traversals to hold in the cache.  A value of zero or less
+     * disables the cache.
+     */
+    public static final String CONFIG_CACHE_SIZE = "cacheSize";
+
+    /**
+     * Default number of compiled traversals to hold in the cache, which is zero so that the cache is disabled unless
+     * configured.  The cache matches requests on the exact bytes of the serialized traversal and does not bind new
+     * arguments into a cached traversal, so it only pays off when clients submit the same traversals repeatedly.
+     */
+    public static final int DEFAULT_CACHE_SIZE = 0;
+
+    static final Settings.ProcessorSettings DEFAULT_SETTINGS = new Settings.ProcessorSettings();
+
+    static {
+        DEFAULT_SETTINGS.className = TraversalOpProcessor.class.getCanonicalName();
+        DEFAULT_SETTINGS.config = new HashMap<String, Object>() {{
+            put(CONFIG_CACHE_SIZE, DEFAULT_CACHE_SIZE);
+        }};
+    }
+
+    private static final Meter cacheHitMeter = MetricManager.INSTANCE.getMeter(name(GremlinServer.class, "op", "traversal", "cache", "hits"));
+    private static final Meter cacheMissMeter = MetricManager.INSTANCE.getMeter(name(GremlinServer.class, "op", "traversal", "cache", "misses"));
+
+    /**
+     * Compiled traversals (i.e. strategies applied) keyed by the graph they were compiled for and the serialized
+     * form they were received in.  Requests for a cached traversal get a clone of it, which avoids the costs of
+     * deserialization and strategy application.  Initialized on the first request as that is when the
+     * {@link Settings} are first available and left {@code null} if the cache is disabled.
+     */
+    private Map<PlanKey, Traversal.Admin<?, ?>> plans = null;
+    private volatile boolean plansConfigured = false;
 
     public TraversalOpProcessor() {
         super(true);
@@ -126,36 +173,52 @@ public class TraversalOpProcessor extends AbstractOpProcessor {
         // earlier validation in selection of this op method should free us to cast this without worry
         final Map<String,String> aliases = (Map<String,String>) msg.optionalArgs(Tokens.ARGS_ALIASES).get();
 
+        final String graphName = aliases.entrySet().iterator().next().getValue();
+        final Map<PlanKey, Traversal.Admin<?, ?>> plans = getPlans(context.getSettings());
+        final PlanKey planKey = new PlanKey(graphName, serializedTraversal);
+        final Traversal.Admin<?, ?> plan = null == plans ? null : getPlan(plans, planKey);
+
         final Traversal traversal;
-        try {
-            traversal = (Traversal) Serializer.deserializeObject(serializedTraversal);
-        } catch (Exception ex) {
-            throw new OpProcessorException("Could not deserialize the Traversal instance",
-                    ResponseMessage.build(msg).code(ResponseStatusCode.SERVER_ERROR_SERIALIZATION)
-                            .statusMessage(ex.getMessage()).create());
-        }
+        if (null != plan) {
+            cacheHitMeter.mark();
+            traversal = plan.clone();
+        } else {
+            if (null != plans) cacheMissMeter.mark();
+            try {
+                traversal = (Traversal) Serializer.deserializeObject(serializedTraversal);
+            } catch (Exception ex) {
+                throw new OpProcessorException("Could not deserialize the Traversal instance",
+                        ResponseMessage.build(msg).code(ResponseStatusCode.SERVER_ERROR_SERIALIZATION)
+                                .statusMessage(ex.getMessage()).create());
+            }
 
-        if (traversal.asAdmin().isLocked())
-            throw new OpProcessorException("Locked Traversals cannot be processed by the server",
-                    ResponseMessage.build(msg).code(ResponseStatusCode.SERVER_ERROR_SERIALIZATION)
-                            .statusMessage("Locked Traversals cannot be processed by the server").create());
+            if (traversal.asAdmin().isLocked())
+                throw new OpProcessorException("Locked Traversals cannot be processed by the server",
+                        ResponseMessage.build(msg).code(ResponseStatusCode.SERVER_ERROR_SERIALIZATION)
+                                .statusMessage("Locked Traversals cannot be processed by the server").create());
+        }
 
         try {
             final ChannelHandlerContext ctx = context.getChannelHandlerContext();
             final GraphManager graphManager = context.getGraphManager();
-            final String graphName = aliases.entrySet().iterator().next().getValue();
             final Graph graph = graphManager.getGraphs().get(graphName);
             final boolean supportsTransactions = graph.features().graph().supportsTransactions();
 
-            configureTraversal(traversal, graph);
+            // a cached plan is already configured and compiled
+            if (null == plan) configureTraversal(traversal, graph);
 
             context.getGremlinExecutor().getExecutorService().submit(() -> {
                 try {
                     if (supportsTransactions && graph.tx().isOpen()) graph.tx().rollback();
 
                     try {
-                        // compile the traversal - without it getEndStep() has nothing in it
-                        traversal.asAdmin().applyStrategies();
+                        // compile the traversal - without it getEndStep() has nothing in it.  the compiled traversal
+                        // is cached before it is iterated so that later requests can start from a clean copy of it
+                        if (!traversal.asAdmin().isLocked()) {
+                            traversal.asAdmin().applyStrategies();
+                            if (null != plans && isCacheable(traversal.asAdmin()))
+                                putPlan(plans, planKey, traversal.asAdmin().clone());
+                        }
                         handleIterator(context, new DetachingIterator(traversal.asAdmin().getEndStep()));
                     } catch (TimeoutException ex) {
                         final String errorMessage = String.format("Response iteration exceeded the configured threshold for request [%s] - %s", msg.getRequestId(), ex.getMessage());
@@ -184,6 +247,67 @@ public class TraversalOpProcessor extends AbstractOpProcessor {
         }
     }
 
+    private Map<PlanKey, Traversal.Admin<?, ?>> getPlans(final Settings settings) {
+        if (!plansConfigured) {
+            synchronized (this) {
+                if (!plansConfigured) {
+                    final Settings.ProcessorSettings processorSettings = settings.processors.stream()
+                            .filter(p -> p.className.equals(TraversalOpProcessor.class.getCanonicalName()))
+                            .findAny().orElse(TraversalOpProcessor.DEFAULT_SETTINGS);
+                    final int cacheSize = Integer.parseInt(processorSettings.config.getOrDefault(CONFIG_CACHE_SIZE, DEFAULT_CACHE_SIZE).toString());
+                    if (cacheSize > 0) {
+                        plans = new LinkedHashMap<PlanKey, Traversal.Admin<?, ?>>(16, 0.75f, true) {
+                            @Override
+                            protected boolean removeEldestEntry(final Map.Entry<PlanKey, Traversal.Admin<?, ?>> eldest) {
+                                return size() > cacheSize;
+                            }
+                        };
+                    }
+                    plansConfigured = true;
+                }
+            }
+        }
+
+        return plans;
+    }
+
+    private static Traversal.Admin<?, ?> getPlan(final Map<PlanKey, Traversal.Admin<?, ?>> plans, final PlanKey planKey) {
+        synchronized (plans) {
+            return plans.get(planKey);
+        }
+    }
+
+    private static void putPlan(final Map<PlanKey, Traversal.Admin<?, ?>> plans, final PlanKey planKey, final Traversal.Admin<?, ?> plan) {
+        synchronized (plans) {
+            plans.put(planKey, plan);
+        }
+    }
+
+    /**
+     * Determines if a compiled traversal can be cached and cloned for later requests.  Cloning a traversal clones
+     * its steps but not everything they refer to, so a traversal is not cached if a clone would share an object that
+     * may hold state between requests:
+     * <ul>
+     *     <li>lambdas, which are shared by every clone of the step that holds them and may capture state,</li>
+     *     <li>steps that mutate the graph, which also carry the callbacks registered for their events,</li>
+     *     <li>side-effects and sacks with a constant initial value, which hand the same object to every clone.</li>
+     * </ul>
+     */
+    static boolean isCacheable(final Traversal.Admin<?, ?> traversal) {
+        if (TraversalHelper.hasStepOfAssignableClassRecursively(Arrays.<Class>asList(LambdaHolder.class, Mutating.class), traversal))
+            return false;
+        final TraversalSideEffects sideEffects = traversal.getSideEffects();
+        if (sideEffects.getSackInitialValue() instanceof ConstantSupplier) return false;
+        for (final String key : sideEffects.keys()) {
+            try {
+                if (sideEffects.getSupplier(key) instanceof ConstantSupplier) return false;
+            } catch (IllegalArgumentException iae) {
+                // no initial value for the key so nothing to share
+            }
+        }
+        return true;
+    }
+
     private static void configureTraversal(final Traversal traversal, final Graph graph) {
         traversal.asAdmin().setGraph(graph);
         traversal.asAdmin().getStrategies().removeStrategies(RemoteStrategy.class);
@@ -193,6 +317,38 @@ public class TraversalOpProcessor extends AbstractOpProcessor {
         traversal.asAdmin().getStrategies().addStrategies(arrayOfStrategies);
     }
 
+    /**
+     * Identifies a compiled traversal by the name of the graph it was compiled for and the bytes of its serialized
+     * form.  Traversals that serialize identically have the same steps with the same arguments and therefore compile
+     * to the same plan.  Serialized traversals carry no parameters, so the arguments are part of the key and cannot be
+     * bound into a cached plan.
+     */
+    static final class PlanKey {
+        private final String graphName;
+        private final byte[] serializedTraversal;
+        private final int hashCode;
+
+        PlanKey(final String graphName, final byte[] serializedTraversal) {
+            this.graphName = graphName;
+            this.serializedTraversal = serializedTraversal;
+            this.hashCode = 31 * graphName.hashCode() + Arrays.hashCode(serializedTraversal);
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (this == other) return true;
+            if (!(other instanceof PlanKey)) return false;
+            final PlanKey otherKey = (PlanKey) other;
+            return this.hashCode == otherKey.hashCode && this.graphName.equals(otherKey.graphName) &&
+                    Arrays.equals(this.serializedTraversal, otherKey.serializedTraversal);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+    }
+
     static class DetachingIterator implements Iterator<Traverser> {
 
         private Iterator<Traverser> inner;
@@ -19,6 +19,7 @@
 package org.apache.tinkerpop.gremlin.server.util;
 
 import org.apache.tinkerpop.gremlin.groovy.engine.GremlinExecutor;
+import org.apache.tinkerpop.gremlin.groovy.jsr223.GremlinGroovyScriptEngine;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalSource;
 import org.apache.tinkerpop.gremlin.server.Channelizer;
 import org.apache.tinkerpop.gremlin.server.GraphManager;
@@ -32,13 +33,17 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
 
+import static com.codahale.metrics.MetricRegistry.name;
+
 /**
  * The core of script execution in Gremlin Server.  Given {@link Settings} and optionally other arguments, this
  * class will construct a {@link GremlinExecutor} to be used by Gremlin Server.  A typical usage would be to
@@ -137,6 +142,11 @@ public class ServerGremlinExecutor<T extends ScheduledExecutorService> {
 
         logger.info("Initialized GremlinExecutor and configured ScriptEngines.");
 
+        settings.scriptEngines.forEach((k, v) -> {
+            precompileScripts(k, v.precompile);
+            registerClassCacheMetrics(k);
+        });
+
         // script engine init may have altered the graph bindings or maybe even created new ones - need to
         // re-apply those references back
         gremlinExecutor.getGlobalBindings().entrySet().stream()
@@ -159,6 +169,50 @@ public class ServerGremlinExecutor<T extends ScheduledExecutorService> {
                 .collect(Collectors.toList());
     }
 
+    private void precompileScripts(final String language, final List<String> scripts) {
+        if (null == scripts || scripts.isEmpty()) return;
+
+        int compiled = 0;
+        for (String script : scripts) {
+            try {
+                if (gremlinExecutor.compile(script, Optional.of(language)).isPresent()) compiled++;
+            } catch (Exception ex) {
+                logger.warn(String.format("Could not precompile script for %s: %s", language, script), ex);
+            }
+        }
+
+        logger.info("Precompiled {} of {} scripts for {}", compiled, scripts.size(), language);
+    }
+
+    /**
+     * Exposes the class cache statistics of a {@link GremlinGroovyScriptEngine} as gauges.  The engine is looked up
+     * on each read as it may be replaced by a reload.
+     */
+    private void registerClassCacheMetrics(final String language) {
+        if (!gremlinExecutor.getScriptEngines().getScriptEngine(language)
+                .filter(se -> se instanceof GremlinGroovyScriptEngine).isPresent())
+            return;
+
+        registerClassCacheGauge(language, "hit-count", GremlinGroovyScriptEngine::getClassCacheHitCount);
+        registerClassCacheGauge(language, "miss-count", GremlinGroovyScriptEngine::getClassCacheMissCount);
+        registerClassCacheGauge(language, "eviction-count", GremlinGroovyScriptEngine::getClassCacheEvictionCount);
+        registerClassCacheGauge(language, "compilation-time", GremlinGroovyScriptEngine::getClassCacheCompilationTime);
+        registerClassCacheGauge(language, "size", GremlinGroovyScriptEngine::getClassCacheSize);
+        registerClassCacheGauge(language, "parameterized-keys-saved", GremlinGroovyScriptEngine::getParameterizedScriptKeysSaved);
+    }
+
+    private void registerClassCacheGauge(final String language, final String stat,
+                                         final ToLongFunction<GremlinGroovyScriptEngine> f) {
+        final String metricName = name(GremlinServer.class, "engine", language, "class-cache", stat);
+
+        // a previous server in the same jvm may have registered the gauge so replace it with one for this executor
+        MetricManager.INSTANCE.getRegistry().remove(metricName);
+        MetricManager.INSTANCE.getGuage(() -> gremlinExecutor.getScriptEngines().getScriptEngine(language)
+                .filter(se -> se instanceof GremlinGroovyScriptEngine)
+                .map(se -> f.applyAsLong((GremlinGroovyScriptEngine) se))
+                .orElse(0L), metricName);
+    }
+
     public void addHostOption(final String key, final Object value) {
         hostOptions.put(key, value);
     }
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.server;
+
+import com.carrotsearch.junitbenchmarks.BenchmarkOptions;
+import com.carrotsearch.junitbenchmarks.BenchmarkRule;
+import com.carrotsearch.junitbenchmarks.annotation.AxisRange;
+import com.carrotsearch.junitbenchmarks.annotation.BenchmarkHistoryChart;
+import com.carrotsearch.junitbenchmarks.annotation.BenchmarkMethodChart;
+import com.carrotsearch.junitbenchmarks.annotation.LabelType;
+import org.apache.tinkerpop.gremlin.driver.Client;
+import org.apache.tinkerpop.gremlin.driver.Cluster;
+import org.apache.tinkerpop.gremlin.driver.ResultSet;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares the default blocking connection pool with the non-blocking one by having many threads share a single
+ * client that each submit bursts of small requests.
+ *
+ * @author agent (agent@local)
+ */
+@AxisRange(min = 0, max = 1)
+@BenchmarkMethodChart(filePrefix = "gremlin-driver-connection-pool")
+@BenchmarkHistoryChart(labelWith = LabelType.CUSTOM_KEY, maxRuns = 20, filePrefix = "hx-gremlin-driver-connection-pool")
+public class GremlinDriverConnectionPoolPerformanceTest extends AbstractGremlinServerPerformanceTest {
+
+    public final static int DEFAULT_CONCURRENT_BENCHMARK_ROUNDS = 500;
+    public final static int DEFAULT_CONCURRENT_WARMUP_ROUNDS = 10;
+
+    private final static int REQUESTS_PER_ROUND = 64;
+
+    private final static Cluster blockingCluster = Cluster.build("localhost").maxWaitForConnection(30000).create();
+    private final static Cluster nonBlockingCluster = Cluster.build("localhost").maxWaitForConnection(30000)
+            .nonBlockingConnectionPool(true).create();
+    private final static AtomicReference<Client> blockingClient = new AtomicReference<>();
+    private final static AtomicReference<Client> nonBlockingClient = new AtomicReference<>();
+
+    @Rule
+    public TestRule benchmarkRun = new BenchmarkRule();
+
+    @BenchmarkOptions(benchmarkRounds = DEFAULT_CONCURRENT_BENCHMARK_ROUNDS, warmupRounds = DEFAULT_CONCURRENT_WARMUP_ROUNDS, concurrency = BenchmarkOptions.CONCURRENCY_AVAILABLE_CORES)
+    @Test
+    public void blockingConnectionPoolConcurrent() throws Exception {
+        submitBurst(blockingClient.get());
+    }
+
+    @BenchmarkOptions(benchmarkRounds = DEFAULT_CONCURRENT_BENCHMARK_ROUNDS, warmupRounds = DEFAULT_CONCURRENT_WARMUP_ROUNDS, concurrency = BenchmarkOptions.CONCURRENCY_AVAILABLE_CORES)
+    @Test
+    public void nonBlockingConnectionPoolConcurrent() throws Exception {
+        submitBurst(nonBlockingClient.get());
+    }
+
+    @BeforeClass
+    public static void before() {
+        // good to call init here ahead of performance tracking
+        blockingCluster.init();
+        nonBlockingCluster.init();
+        blockingClient.compareAndSet(null, blockingCluster.connect());
+        nonBlockingClient.compareAndSet(null, nonBlockingCluster.connect());
+    }
+
+    @AfterClass
+    public static void after() {
+        blockingCluster.close();
+        nonBlockingCluster.close();
+    }
+
+    private void submitBurst(final Client client) throws Exception {
+        final List<CompletableFuture<ResultSet>> futures = new ArrayList<>(REQUESTS_PER_ROUND);
+        for (int ix = 0; ix < REQUESTS_PER_ROUND; ix++) {
+            futures.add(client.submitAsync("1+1"));
+        }
+
+        for (CompletableFuture<ResultSet> future : futures) {
+            assertEquals(2, future.get().one().getInt());
+        }
+    }
+}
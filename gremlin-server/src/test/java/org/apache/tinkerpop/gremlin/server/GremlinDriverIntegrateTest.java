@@ -23,6 +23,7 @@ import org.apache.tinkerpop.gremlin.TestHelper;
 import org.apache.tinkerpop.gremlin.driver.Channelizer;
 import org.apache.tinkerpop.gremlin.driver.Client;
 import org.apache.tinkerpop.gremlin.driver.Cluster;
+import org.apache.tinkerpop.gremlin.driver.LoadBalancingStrategy;
 import org.apache.tinkerpop.gremlin.driver.Result;
 import org.apache.tinkerpop.gremlin.driver.ResultSet;
 import org.apache.tinkerpop.gremlin.driver.exception.ConnectionException;
@@ -53,6 +54,7 @@ import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -65,6 +67,7 @@ import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.endsWith;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
@@ -154,6 +157,55 @@ public class GremlinDriverIntegrateTest extends AbstractGremlinServerIntegration
         cluster.close();
     }
 
+    @Test
+    public void shouldNotBlockSubmitWhileWaitingOnNonBlockingConnectionPool() throws Exception {
+        final Cluster cluster = Cluster.build().nonBlockingConnectionPool(true)
+                .minConnectionPoolSize(1).maxConnectionPoolSize(1)
+                .minSimultaneousUsagePerConnection(1).maxSimultaneousUsagePerConnection(1)
+                .minInProcessPerConnection(1).maxInProcessPerConnection(1).create();
+        final Client client = cluster.connect();
+
+        try {
+            // requests are served one at a time by the single connection so later ones have to wait for it but
+            // the submitting thread does not
+            final List<CompletableFuture<ResultSet>> futures = new ArrayList<>();
+            for (int ix = 0; ix < 10; ix++) {
+                futures.add(client.submitAsync("Thread.sleep(100);" + ix));
+            }
+            assertFalse(futures.get(9).isDone());
+
+            for (int ix = 0; ix < 10; ix++) {
+                assertEquals(ix, futures.get(ix).get(30, TimeUnit.SECONDS).one().getInt());
+            }
+        } finally {
+            cluster.close();
+        }
+    }
+
+    @Test
+    public void shouldTimeoutWaitingForConnectionOnNonBlockingConnectionPool() throws Exception {
+        final Cluster cluster = Cluster.build().nonBlockingConnectionPool(true).maxWaitForConnection(500)
+                .minConnectionPoolSize(1).maxConnectionPoolSize(1)
+                .minSimultaneousUsagePerConnection(1).maxSimultaneousUsagePerConnection(1)
+                .minInProcessPerConnection(1).maxInProcessPerConnection(1).create();
+        final Client client = cluster.connect();
+
+        try {
+            final CompletableFuture<ResultSet> slow = client.submitAsync("Thread.sleep(3000);'slow'");
+            final CompletableFuture<ResultSet> waiting = client.submitAsync("1+1");
+            try {
+                waiting.get(30, TimeUnit.SECONDS);
+                fail("Should have timed out waiting for a connection");
+            } catch (ExecutionException ex) {
+                assertThat(ex.getCause(), instanceOf(TimeoutException.class));
+            }
+
+            assertEquals("slow", slow.get(30, TimeUnit.SECONDS).one().getString());
+        } finally {
+            cluster.close();
+        }
+    }
+
     @Test
     public void shouldEventuallySucceedWithRoundRobin() throws Exception {
         final String noGremlinServer = "74.125.225.19";
@@ -170,6 +222,74 @@ public class GremlinDriverIntegrateTest extends AbstractGremlinServerIntegration
         cluster.close();
     }
 
+    @Test
+    public void shouldEventuallySucceedWithLatencyAware() throws Exception {
+        final String noGremlinServer = "74.125.225.19";
+        final Cluster cluster = Cluster.build(noGremlinServer).addContactPoint("localhost")
+                .loadBalancingStrategy(new LoadBalancingStrategy.LatencyAware()).create();
+        final Client client = cluster.connect();
+
+        // the first host is dead on init.  request should succeed on localhost
+        for (int ix = 0; ix < 5; ix++) {
+            assertEquals(2, client.submit("1+1").all().join().get(0).getInt());
+        }
+
+        cluster.close();
+    }
+
+    @Test
+    public void shouldStreamResultsWithBoundedResultQueue() throws Exception {
+        final Cluster cluster = Cluster.build().maxResultQueueSize(100).create();
+        final Client client = cluster.connect();
+
+        try {
+            final ResultSet streamed = client.submit("(1..20000)");
+
+            // without a bound the whole result would arrive while nothing is consumed. the bound is approximate as
+            // results that were already read from the network are still queued
+            Thread.sleep(2000);
+            assertFalse(streamed.allItemsAvailable());
+            assertThat(streamed.getAvailableItemCount(), lessThan(20000));
+
+            final AtomicInteger counter = new AtomicInteger(0);
+            streamed.stream().forEach(r -> assertEquals(counter.incrementAndGet(), r.getInt()));
+            assertEquals(20000, counter.get());
+
+            // a second request on the same connection proves that reading was resumed
+            final List<Result> all = client.submit("(1..20000)").all().get(30, TimeUnit.SECONDS);
+            assertEquals(20000, all.size());
+            assertEquals(20000, all.get(19999).getInt());
+        } finally {
+            cluster.close();
+        }
+    }
+
+    @Test
+    public void shouldReadConcurrentRequestsOnOneConnectionWithBoundedResultQueue() throws Exception {
+        final Cluster cluster = Cluster.build().maxResultQueueSize(100)
+                .minConnectionPoolSize(1).maxConnectionPoolSize(1).create();
+        final Client client = cluster.connect();
+
+        try {
+            final ResultSet first = client.submit("(1..20000)");
+            while (first.getAvailableItemCount() < 100) {
+                Thread.sleep(10);
+            }
+
+            // the first request has a full queue that is not consumed, so the results of the second are behind
+            // its results on the one connection
+            final List<Result> second = client.submit("(1..20000)").all().get(30, TimeUnit.SECONDS);
+            assertEquals(20000, second.size());
+            assertEquals(20000, second.get(19999).getInt());
+
+            final List<Result> all = first.all().get(30, TimeUnit.SECONDS);
+            assertEquals(20000, all.size());
+            assertEquals(20000, all.get(19999).getInt());
+        } finally {
+            cluster.close();
+        }
+    }
+
     @Test
     public void shouldHandleResultsOfAllSizes() throws Exception {
         final Cluster cluster = Cluster.open();
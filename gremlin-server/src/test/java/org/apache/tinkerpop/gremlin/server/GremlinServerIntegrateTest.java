@@ -35,9 +35,13 @@ import org.apache.tinkerpop.gremlin.groovy.jsr223.customizer.CompileStaticCustom
 import org.apache.tinkerpop.gremlin.groovy.jsr223.customizer.InterpreterModeCustomizerProvider;
 import org.apache.tinkerpop.gremlin.groovy.jsr223.customizer.SimpleSandboxExtension;
 import org.apache.tinkerpop.gremlin.groovy.jsr223.customizer.TimedInterruptCustomizerProvider;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
 import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.util.empty.EmptyGraph;
 import org.apache.tinkerpop.gremlin.server.channel.NioChannelizer;
 import org.apache.tinkerpop.gremlin.server.op.session.SessionOpProcessor;
+import org.apache.tinkerpop.gremlin.server.op.traversal.TraversalOpProcessor;
+import org.apache.tinkerpop.gremlin.server.util.MetricManager;
 import org.apache.tinkerpop.gremlin.structure.util.detached.DetachedVertex;
 import org.apache.tinkerpop.gremlin.util.Log4jRecordingAppender;
 import org.hamcrest.CoreMatchers;
@@ -47,12 +51,17 @@ import org.junit.Test;
 
 import java.nio.channels.ClosedChannelException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -60,6 +69,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import static com.codahale.metrics.MetricRegistry.name;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.core.IsInstanceOf.instanceOf;
@@ -114,6 +124,14 @@ public class GremlinServerIntegrateTest extends AbstractGremlinServerIntegration
             case "shouldBatchResultsByTwos":
                 settings.resultIterationBatchSize = 2;
                 break;
+            case "shouldAdaptBatchSizeToFrameSize":
+                settings.resultIterationBatchSize = 2;
+                settings.resultIterationBatchSizeMin = 2;
+                settings.resultIterationFrameSizeTarget = 4096;
+                break;
+            case "shouldUsePrecompiledScripts":
+                settings.scriptEngines.get("gremlin-groovy").precompile = Collections.singletonList("1000 + 1");
+                break;
             case "shouldWorkOverNioTransport":
                 settings.channelizer = NioChannelizer.class.getName();
                 break;
@@ -132,6 +150,14 @@ public class GremlinServerIntegrateTest extends AbstractGremlinServerIntegration
                 processorSettings.config.put(SessionOpProcessor.CONFIG_SESSION_TIMEOUT, 3000L);
                 settings.processors.add(processorSettings);
                 break;
+            case "shouldReuseCompiledTraversalsAcrossRequests":
+            case "shouldReuseCompiledTraversalsConcurrently":
+                final Settings.ProcessorSettings traversalProcessorSettings = new Settings.ProcessorSettings();
+                traversalProcessorSettings.className = TraversalOpProcessor.class.getCanonicalName();
+                traversalProcessorSettings.config = new HashMap<>();
+                traversalProcessorSettings.config.put(TraversalOpProcessor.CONFIG_CACHE_SIZE, 100);
+                settings.processors.add(traversalProcessorSettings);
+                break;
             case "shouldExecuteInSessionAndSessionlessWithoutOpeningTransactionWithSingleClient":
             case "shouldExecuteInSessionWithTransactionManagement":
                 deleteDirectory(new File("/tmp/neo4j"));
@@ -415,6 +441,105 @@ public class GremlinServerIntegrateTest extends AbstractGremlinServerIntegration
         }
     }
 
+    @Test
+    public void shouldReuseCompiledTraversalsAcrossRequests() throws Exception {
+        final Cluster cluster = Cluster.open();
+        try {
+            cluster.connect().submit("graph.addVertex('name','marko');graph.addVertex('name','josh')").all().get();
+
+            final Client client = cluster.connect().alias("graph");
+            final GraphTraversalSource g = EmptyGraph.instance().traversal();
+            final long hits = traversalCacheHits();
+            for (int i = 0; i < 3; i++) {
+                assertEquals(2l, client.submit(g.V().count()).one().getLong());
+                assertEquals("josh", client.submit(g.V().has("name", "josh").values("name")).one().getString());
+            }
+            assertEquals(hits + 4, traversalCacheHits());
+
+            // a side-effect with a constant initial value must not be shared between requests
+            for (int i = 0; i < 3; i++) {
+                assertEquals(2, client.submit(g.withSideEffect("a", new ArrayList<>()).V().aggregate("a").cap("a")).one().get(Collection.class).size());
+            }
+            assertEquals(hits + 4, traversalCacheHits());
+        } finally {
+            cluster.close();
+        }
+    }
+
+    @Test
+    public void shouldReuseCompiledTraversalsConcurrently() throws Exception {
+        final Cluster cluster = Cluster.open();
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            cluster.connect().submit("graph.addVertex('name','marko');graph.addVertex('name','josh')").all().get();
+
+            final Client client = cluster.connect().alias("graph");
+            final GraphTraversalSource g = EmptyGraph.instance().traversal();
+            final List<Future<?>> futures = IntStream.range(0, 8).mapToObj(t -> executor.submit(() -> {
+                for (int i = 0; i < 25; i++) {
+                    assertEquals(2l, client.submit(g.V().count()).one().getLong());
+                    assertEquals(Arrays.asList("josh", "marko"), client.submit(g.V().values("name").order()).all().get()
+                            .stream().map(Result::getString).collect(Collectors.toList()));
+                    assertEquals(2, client.submit(g.V().aggregate("a").cap("a")).one().get(Collection.class).size());
+                }
+                return null;
+            })).collect(Collectors.toList());
+
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+            cluster.close();
+        }
+    }
+
+    private static long traversalCacheHits() {
+        return MetricManager.INSTANCE.getMeter(name(GremlinServer.class, "op", "traversal", "cache", "hits")).getCount();
+    }
+
+    @Test
+    public void shouldUsePrecompiledScripts() throws Exception {
+        final long misses = classCacheStat("miss-count");
+        final long hits = classCacheStat("hit-count");
+
+        final Cluster cluster = Cluster.open();
+        try {
+            assertEquals(1001, cluster.connect().submit("1000 + 1").one().getInt());
+        } finally {
+            cluster.close();
+        }
+
+        assertEquals(misses, classCacheStat("miss-count"));
+        assertEquals(hits + 1, classCacheStat("hit-count"));
+    }
+
+    private static long classCacheStat(final String stat) {
+        return (Long) MetricManager.INSTANCE.getRegistry().getGauges()
+                .get(name(GremlinServer.class, "engine", "gremlin-groovy", "class-cache", stat)).getValue();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldAdaptBatchSizeToFrameSize() throws Exception {
+        try (SimpleClient client = new WebSocketClient()) {
+            final RequestMessage request = RequestMessage.build(Tokens.OPS_EVAL)
+                    .addArg(Tokens.ARGS_GREMLIN, "(0..<1000)").create();
+
+            // small results grow the batches well beyond the starting size of two
+            final List<ResponseMessage> msgs = client.submit(request);
+            assertTrue(msgs.size() < 100);
+            final List<Integer> results = msgs.stream().flatMap(m -> ((List<Integer>) m.getResult().getData()).stream()).collect(Collectors.toList());
+            assertEquals(IntStream.range(0, 1000).boxed().collect(Collectors.toList()), results);
+
+            // a batch size on the request is not adapted
+            final RequestMessage requestWithBatchSize = RequestMessage.build(Tokens.OPS_EVAL)
+                    .addArg(Tokens.ARGS_BATCH_SIZE, 100)
+                    .addArg(Tokens.ARGS_GREMLIN, "(0..<1000)").create();
+            assertEquals(10, client.submit(requestWithBatchSize).size());
+        }
+    }
+
     @Test
     @SuppressWarnings("unchecked")
     public void shouldBatchResultsByTwos() throws Exception {
@@ -0,0 +1,231 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.server.op;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.apache.tinkerpop.gremlin.driver.Tokens;
+import org.apache.tinkerpop.gremlin.driver.message.RequestMessage;
+import org.apache.tinkerpop.gremlin.driver.message.ResponseMessage;
+import org.apache.tinkerpop.gremlin.driver.message.ResponseStatusCode;
+import org.apache.tinkerpop.gremlin.driver.ser.GraphSONMessageSerializerV1d0;
+import org.apache.tinkerpop.gremlin.groovy.engine.GremlinExecutor;
+import org.apache.tinkerpop.gremlin.server.Context;
+import org.apache.tinkerpop.gremlin.server.GraphManager;
+import org.apache.tinkerpop.gremlin.server.Settings;
+import org.apache.tinkerpop.gremlin.server.handler.Frame;
+import org.apache.tinkerpop.gremlin.server.handler.StateKey;
+import org.apache.tinkerpop.gremlin.server.handler.WritabilityHandler;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.apache.tinkerpop.gremlin.util.function.ThrowingConsumer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author agent (agent@local)
+ */
+public class AbstractOpProcessorTest {
+
+    private final AbstractOpProcessor processor = new AbstractOpProcessor(true) {
+        @Override
+        public String getName() {
+            return "test";
+        }
+
+        @Override
+        public ThrowingConsumer<Context> select(final Context ctx) throws OpProcessorException {
+            return null;
+        }
+
+        @Override
+        public void close() throws Exception {
+        }
+    };
+
+    private final Settings settings = new Settings();
+    private ExecutorService executor;
+    private ScheduledThreadPoolExecutor scheduler;
+    private EmbeddedChannel channel;
+    private Context context;
+
+    @Before
+    public void setup() {
+        settings.resultIterationBatchSize = 2;
+        executor = Executors.newSingleThreadExecutor();
+        scheduler = new ScheduledThreadPoolExecutor(1);
+        scheduler.setRemoveOnCancelPolicy(true);
+
+        final GremlinExecutor gremlinExecutor = mock(GremlinExecutor.class);
+        when(gremlinExecutor.getExecutorService()).thenReturn(executor);
+        final GraphManager graphManager = new GraphManager(settings);
+        graphManager.getGraphs().put("graph", TinkerGraph.open());
+
+        final WritabilityHandler writabilityHandler = new WritabilityHandler();
+        channel = new EmbeddedChannel(writabilityHandler);
+        channel.attr(StateKey.SERIALIZER).set(new GraphSONMessageSerializerV1d0());
+        channel.attr(StateKey.USE_BINARY).set(false);
+        final ChannelHandlerContext ctx = channel.pipeline().context(writabilityHandler);
+
+        final RequestMessage msg = RequestMessage.build(Tokens.OPS_EVAL).addArg(Tokens.ARGS_GREMLIN, "1..10").create();
+        context = new Context(msg, ctx, settings, graphManager, gremlinExecutor, scheduler);
+    }
+
+    @After
+    public void teardown() {
+        executor.shutdownNow();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void shouldResumeIterationWhenSlowClientCatchesUp() throws Exception {
+        final CountingIterator itty = new CountingIterator(10);
+        setWritable(false);
+        processor.handleIterator(context, itty);
+
+        // the iteration is suspended with the first batch held back and a timeout scheduled
+        assertEquals(0, channel.outboundMessages().size());
+        assertEquals(2, itty.count.get());
+        assertEquals(1, scheduler.getQueue().size());
+
+        setWritable(true);
+        awaitExecutor();
+
+        final List<Object> responses = new ArrayList<>(channel.outboundMessages());
+        assertEquals(5, responses.size());
+        assertTrue(responses.stream().allMatch(r -> r instanceof Frame));
+        assertThat((String) ((Frame) responses.get(4)).getMsg(), containsString("\"code\":" + ResponseStatusCode.SUCCESS.getValue()));
+        assertEquals(10, itty.count.get());
+
+        // resuming cancels the scheduled timeout
+        assertEquals(0, scheduler.getQueue().size());
+    }
+
+    @Test
+    public void shouldTimeoutWhileSuspended() throws Exception {
+        settings.serializedResponseTimeout = 200;
+        final CountingIterator itty = new CountingIterator(10);
+        setWritable(false);
+        processor.handleIterator(context, itty);
+        assertEquals(0, channel.outboundMessages().size());
+
+        // the client never catches up so the scheduled timeout resumes the iteration which then fails
+        awaitResponse(ResponseStatusCode.SERVER_ERROR_TIMEOUT);
+        assertThat(lastResponse().getStatus().getMessage(), containsString("serializeResponseTimeout"));
+        assertEquals(2, itty.count.get());
+    }
+
+    @Test
+    public void shouldTimeoutOnScriptEvaluationTimeoutWhileSuspended() throws Exception {
+        settings.scriptEvaluationTimeout = 200;
+        final CountingIterator itty = new CountingIterator(10);
+        setWritable(false);
+        processor.handleIterator(context, itty);
+        assertEquals(0, channel.outboundMessages().size());
+
+        // a suspended iteration is no longer covered by the eval so it has to respect the timeout itself
+        awaitResponse(ResponseStatusCode.SERVER_ERROR_TIMEOUT);
+        assertThat(lastResponse().getStatus().getMessage(), containsString("scriptEvaluationTimeout"));
+    }
+
+    @Test
+    public void shouldAbandonIterationWhenChannelClosesWhileSuspended() throws Exception {
+        final CountingIterator itty = new CountingIterator(10);
+        setWritable(false);
+        processor.handleIterator(context, itty);
+        assertEquals(1, scheduler.getQueue().size());
+
+        channel.close();
+        awaitExecutor();
+
+        assertEquals(0, channel.outboundMessages().size());
+        assertEquals(2, itty.count.get());
+        assertEquals(0, scheduler.getQueue().size());
+    }
+
+    @Test
+    public void shouldMeasureTextFrameInUtf8Bytes() throws Exception {
+        final String text = "a\u00e9\u20ac\ud83d\ude00";
+        assertEquals(text.getBytes(StandardCharsets.UTF_8).length, AbstractOpProcessor.frameSize(new Frame(text)));
+        assertEquals(10, AbstractOpProcessor.frameSize(new Frame(text)));
+        assertEquals(3, AbstractOpProcessor.frameSize(new Frame(Unpooled.wrappedBuffer(new byte[]{1, 2, 3}))));
+    }
+
+    private void setWritable(final boolean writable) {
+        channel.unsafe().outboundBuffer().setUserDefinedWritability(1, writable);
+        channel.runPendingTasks();
+    }
+
+    private void awaitExecutor() throws InterruptedException {
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5000, TimeUnit.MILLISECONDS));
+    }
+
+    private void awaitResponse(final ResponseStatusCode code) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline && channel.outboundMessages().isEmpty()) {
+            Thread.sleep(10);
+        }
+        assertEquals(code, lastResponse().getStatus().getCode());
+    }
+
+    private ResponseMessage lastResponse() {
+        final Object[] responses = channel.outboundMessages().toArray();
+        return (ResponseMessage) responses[responses.length - 1];
+    }
+
+    private static class CountingIterator implements Iterator<Integer> {
+        private final Iterator<Integer> itty;
+        private final AtomicInteger count = new AtomicInteger(0);
+
+        private CountingIterator(final int size) {
+            this.itty = IntStream.range(0, size).iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return itty.hasNext();
+        }
+
+        @Override
+        public Integer next() {
+            count.incrementAndGet();
+            return itty.next();
+        }
+    }
+}
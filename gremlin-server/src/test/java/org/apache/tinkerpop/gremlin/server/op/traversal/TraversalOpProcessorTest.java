@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.server.op.traversal;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.structure.util.empty.EmptyGraph;
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author agent (agent@local)
+ */
+public class TraversalOpProcessorTest {
+
+    private final GraphTraversalSource g = EmptyGraph.instance().traversal();
+
+    @Test
+    public void shouldCacheTraversalsWithoutSharedState() {
+        assertTrue(isCacheable(g.V().count()));
+        assertTrue(isCacheable(g.V().has("name", "josh").out().values("name")));
+        assertTrue(isCacheable(g.V().aggregate("a").cap("a")));
+        assertTrue(isCacheable(g.V().where(__.out().count().is(2))));
+    }
+
+    @Test
+    public void shouldNotCacheTraversalsWithLambdas() {
+        assertFalse(isCacheable(g.V().filter(t -> true)));
+        assertFalse(isCacheable(g.V().where(__.map(t -> t.get()))));
+    }
+
+    @Test
+    public void shouldNotCacheTraversalsThatMutate() {
+        assertFalse(isCacheable(g.addV("person")));
+        assertFalse(isCacheable(g.V().property("name", "marko")));
+        assertFalse(isCacheable(g.V().local(__.drop())));
+    }
+
+    @Test
+    public void shouldNotCacheTraversalsWithConstantSideEffects() {
+        assertFalse(isCacheable(g.withSideEffect("a", new ArrayList<>()).V().aggregate("a")));
+        assertFalse(isCacheable(g.withSack(new ArrayList<>()).V()));
+    }
+
+    private static boolean isCacheable(final Traversal<?, ?> traversal) {
+        // the processor decides on a traversal once its strategies are applied
+        traversal.asAdmin().applyStrategies();
+        return TraversalOpProcessor.isCacheable(traversal.asAdmin());
+    }
+}
@@ -23,6 +23,8 @@ import org.apache.tinkerpop.gremlin.AbstractGremlinTest;
 import org.apache.tinkerpop.gremlin.FeatureRequirement;
 import org.apache.tinkerpop.gremlin.LoadGraphWith;
 import org.apache.tinkerpop.gremlin.TestHelper;
+import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Graph;
@@ -31,16 +33,24 @@ import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
 import org.apache.tinkerpop.gremlin.structure.io.IoCore;
+import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoMapper;
 import org.apache.tinkerpop.gremlin.structure.util.Attachable;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+import org.apache.tinkerpop.shaded.kryo.Kryo;
+import org.apache.tinkerpop.shaded.kryo.Serializer;
+import org.apache.tinkerpop.shaded.kryo.io.Input;
+import org.apache.tinkerpop.shaded.kryo.io.Output;
 import org.javatuples.Pair;
 import org.junit.Test;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 import java.util.UUID;
@@ -161,6 +171,124 @@ public class StarGraphTest extends AbstractGremlinTest {
         TestHelper.validateEquality(starVertex, createdVertex);
     }
 
+    @Test
+    @LoadGraphWith(LoadGraphWith.GraphData.MODERN)
+    public void shouldKeepEdgePropertiesWrittenThroughAnyEdgeInstance() {
+        final StarGraph starGraph = StarGraph.of(g.V(convertToVertexId("marko")).next());
+        // edges are created as they are iterated so property writes must land in the star graph itself
+        starGraph.getStarVertex().edges(Direction.OUT, "knows").forEachRemaining(edge -> edge.property("weight", 0.0d));
+        starGraph.getStarVertex().edges(Direction.OUT, "created").next().property("year", 2009);
+
+        for (final StarGraph toValidate : Arrays.asList(starGraph, serializeDeserialize(starGraph).getValue0())) {
+            toValidate.getStarVertex().edges(Direction.OUT, "knows").forEachRemaining(edge -> {
+                assertEquals(0.0d, edge.<Double>value("weight"), 0.0d);
+                assertEquals(1, IteratorUtils.count(edge.properties()));
+            });
+            final Edge created = toValidate.getStarVertex().edges(Direction.OUT, "created").next();
+            assertEquals(0.4d, created.<Double>value("weight"), 0.0d);
+            assertEquals(2009, (int) created.<Integer>value("year"));
+        }
+
+        final GraphFilter graphFilter = new GraphFilter();
+        graphFilter.setEdgeFilter(__.outE("knows"));
+        final StarGraph filtered = serializeDeserialize(starGraph).getValue0().applyGraphFilter(graphFilter).get();
+        assertEquals(2, IteratorUtils.count(filtered.getStarVertex().edges(Direction.BOTH)));
+        filtered.getStarVertex().edges(Direction.OUT).forEachRemaining(edge -> {
+            assertEquals("knows", edge.label());
+            assertEquals(0.0d, edge.<Double>value("weight"), 0.0d);
+        });
+    }
+
+    @Test
+    public void shouldReadVersion1SerializationWithEdgePropertiesAndMetaProperties() {
+        final Map<Object, Map<String, Object>> edgeProperties = new HashMap<>();
+        edgeProperties.put(7, new HashMap<>());
+        edgeProperties.get(7).put("weight", 0.5d);
+        edgeProperties.put(9, new HashMap<>());
+        edgeProperties.get(9).put("weight", 0.4d);
+        edgeProperties.get(9).put("year", 2009);
+        final Map<Object, Map<String, Object>> metaProperties = new HashMap<>();
+        metaProperties.put(100, new HashMap<>());
+        metaProperties.get(100).put("startTime", 1997);
+        metaProperties.get(100).put("endTime", 2001);
+
+        // the layout written by the version 1 serializer: a version byte, then the edge properties and
+        // meta-properties keyed by element id, then the vertex with its in edges, out edges and vertex properties.
+        // it is written from within a serializer, as it was originally, so that kryo tracks references the same way
+        // on both sides.
+        final Kryo kryo = GryoMapper.build().create().createMapper();
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final Output output = new Output(outputStream);
+        kryo.writeObject(output, StarGraph.open(), new Serializer<StarGraph>() {
+            @Override
+            public void write(final Kryo kryo, final Output out, final StarGraph starGraph) {
+                out.writeByte(Byte.MIN_VALUE);
+                kryo.writeObjectOrNull(out, edgeProperties, HashMap.class);
+                kryo.writeObjectOrNull(out, metaProperties, HashMap.class);
+                kryo.writeClassAndObject(out, 1);
+                kryo.writeObject(out, "person");
+                kryo.writeObject(out, true);
+                kryo.writeObject(out, 1);
+                kryo.writeObject(out, "knows");
+                kryo.writeObject(out, 1);
+                kryo.writeClassAndObject(out, 7);
+                kryo.writeClassAndObject(out, 2);
+                kryo.writeObject(out, true);
+                kryo.writeObject(out, 1);
+                kryo.writeObject(out, "created");
+                kryo.writeObject(out, 2);
+                kryo.writeClassAndObject(out, 9);
+                kryo.writeClassAndObject(out, 3);
+                kryo.writeClassAndObject(out, 10);
+                kryo.writeClassAndObject(out, 4);
+                kryo.writeObject(out, true);
+                kryo.writeObject(out, 1);
+                kryo.writeObject(out, "location");
+                kryo.writeObject(out, 2);
+                kryo.writeClassAndObject(out, 100);
+                kryo.writeClassAndObject(out, "santa fe");
+                kryo.writeClassAndObject(out, 101);
+                kryo.writeClassAndObject(out, "brussels");
+            }
+
+            @Override
+            public StarGraph read(final Kryo kryo, final Input input, final Class<StarGraph> starGraphClass) {
+                throw new UnsupportedOperationException();
+            }
+        });
+        output.flush();
+
+        final StarGraph starGraph = kryo.readObject(new Input(outputStream.toByteArray()), StarGraph.class);
+        final StarGraph.StarVertex starVertex = starGraph.getStarVertex();
+        assertEquals(1, starVertex.id());
+        assertEquals("person", starVertex.label());
+
+        final Edge knows = starVertex.edges(Direction.IN, "knows").next();
+        assertEquals(7, knows.id());
+        assertEquals(2, knows.outVertex().id());
+        assertEquals(0.5d, knows.<Double>value("weight"), 0.0d);
+        assertEquals(1, IteratorUtils.count(knows.properties()));
+
+        final List<Edge> created = IteratorUtils.list(starVertex.edges(Direction.OUT, "created"));
+        assertEquals(2, created.size());
+        assertEquals(9, created.get(0).id());
+        assertEquals(3, created.get(0).inVertex().id());
+        assertEquals(0.4d, created.get(0).<Double>value("weight"), 0.0d);
+        assertEquals(2009, (int) created.get(0).<Integer>value("year"));
+        assertEquals(10, created.get(1).id());
+        assertEquals(4, created.get(1).inVertex().id());
+        assertEquals(0, IteratorUtils.count(created.get(1).properties()));
+
+        final List<VertexProperty<String>> locations = IteratorUtils.list(starVertex.properties("location"));
+        assertEquals(2, locations.size());
+        assertEquals("santa fe", locations.get(0).value());
+        assertEquals(1997, (int) locations.get(0).<Integer>value("startTime"));
+        assertEquals(2001, (int) locations.get(0).<Integer>value("endTime"));
+        assertEquals(2, IteratorUtils.count(locations.get(0).properties()));
+        assertEquals("brussels", locations.get(1).value());
+        assertEquals(0, IteratorUtils.count(locations.get(1).properties()));
+    }
+
     private Pair<StarGraph, Integer> serializeDeserialize(final StarGraph starGraph) {
         final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
         try {
@@ -37,7 +37,10 @@ public final class Constants {
     public static final String GREMLIN_HADOOP_GRAPH_WRITER = "gremlin.hadoop.graphWriter";
     public static final String GREMLIN_HADOOP_GRAPH_READER_HAS_EDGES = "gremlin.hadoop.graphReader.hasEdges";
     public static final String GREMLIN_HADOOP_GRAPH_WRITER_HAS_EDGES = "gremlin.hadoop.graphWriter.hasEdges";
+    public static final String GREMLIN_HADOOP_GRAPH_WRITER_VERTEX_INDEX = "gremlin.hadoop.graphWriter.vertexIndex";
     public static final String GREMLIN_HADOOP_GRAPH_FILTER = "gremlin.hadoop.graphFilter";
+    public static final String GREMLIN_HADOOP_GRYO_BLOCK_SIZE = "gremlin.hadoop.gryo.blockSize";
+    public static final String GREMLIN_HADOOP_GRYO_BLOCK_CODEC = "gremlin.hadoop.gryo.blockCodec";
     public static final String GREMLIN_HADOOP_DEFAULT_GRAPH_COMPUTER = "gremlin.hadoop.defaultGraphComputer";
 
     public static final String GREMLIN_HADOOP_JARS_IN_DISTRIBUTED_CACHE = "gremlin.hadoop.jarsInDistributedCache";
@@ -26,6 +26,7 @@ import org.apache.tinkerpop.gremlin.hadoop.Constants;
 import org.apache.tinkerpop.gremlin.hadoop.process.computer.AbstractHadoopGraphComputer;
 import org.apache.tinkerpop.gremlin.hadoop.structure.io.HadoopEdgeIterator;
 import org.apache.tinkerpop.gremlin.hadoop.structure.io.HadoopVertexIterator;
+import org.apache.tinkerpop.gremlin.hadoop.structure.io.gryo.GryoVertexIndex;
 import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Graph;
@@ -287,7 +288,10 @@ public final class HadoopGraph implements Graph {
                     final Class<?> firstClass = vertexIds[0].getClass();
                     if (!Stream.of(vertexIds).map(Object::getClass).allMatch(firstClass::equals))
                         throw Graph.Exceptions.idArgsMustBeEitherIdOrElement();     // todo: change exception to be ids of the same type
-                    return IteratorUtils.filter(new HadoopVertexIterator(this), vertex -> ElementHelper.idExists(vertex.id(), vertexIds));
+                    final Optional<Iterator<Vertex>> indexed = GryoVertexIndex.vertices(this, vertexIds);
+                    return indexed.isPresent() ?
+                            indexed.get() :
+                            IteratorUtils.filter(new HadoopVertexIterator(this), vertex -> ElementHelper.idExists(vertex.id(), vertexIds));
                 }
             }
         } catch (final IOException e) {
@@ -315,7 +319,10 @@ public final class HadoopGraph implements Graph {
                     final Class<?> firstClass = edgeIds[0].getClass();
                     if (!Stream.of(edgeIds).map(Object::getClass).allMatch(firstClass::equals))
                         throw Graph.Exceptions.idArgsMustBeEitherIdOrElement();     // todo: change exception to be ids of the same type
-                    return IteratorUtils.filter(new HadoopEdgeIterator(this), vertex -> ElementHelper.idExists(vertex.id(), edgeIds));
+                    final Optional<Iterator<Edge>> indexed = GryoVertexIndex.edges(this, edgeIds);
+                    return indexed.isPresent() ?
+                            indexed.get() :
+                            IteratorUtils.filter(new HadoopEdgeIterator(this), vertex -> ElementHelper.idExists(vertex.id(), edgeIds));
                 }
             }
         } catch (final IOException e) {
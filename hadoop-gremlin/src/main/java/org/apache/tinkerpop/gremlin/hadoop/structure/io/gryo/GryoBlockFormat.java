@@ -0,0 +1,216 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.hadoop.structure.io.gryo;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.io.DataOutputBuffer;
+import org.apache.hadoop.io.IOUtils;
+import org.apache.hadoop.io.compress.CompressionCodec;
+import org.apache.hadoop.io.compress.CompressionOutputStream;
+import org.apache.hadoop.util.ReflectionUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * The layout of the block container written by {@link GryoBlockOutputFormat} and read by {@link GryoBlockInputFormat}.
+ * A file is a header followed by blocks of vertices and a block index footer:
+ * <pre>
+ * header: "GRYB" | version (byte) | codec (UTF) | sync marker (16 bytes)
+ * block:  sync marker | vertex count (int) | compressed (byte) | raw length (int) | stored length (int) | data
+ * footer: sync marker | -1 (int) | block count (int) | (block offset (long) | vertex count (int))* |
+ *         footer offset (long) | "GRYB"
+ * </pre>
+ * The raw data of a block is a sequence of length prefixed (int) Gryo serialized vertices.  Each block is compressed
+ * with the codec named in the header unless compression does not make it smaller, in which case it is stored as is.
+ * The sync marker is unique to the file and allows a reader to find the next block from any offset, while the footer
+ * allows splits to be aligned on block boundaries without scanning.
+ *
+ * @author agent (agent@local)
+ */
+final class GryoBlockFormat {
+
+    static final byte[] MAGIC = {'G', 'R', 'Y', 'B'};
+    static final byte VERSION = 1;
+    static final int SYNC_SIZE = 16;
+    static final int FOOTER_MARKER = -1;
+    static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+    static final String NONE = "none";
+    static final String DEFLATE = "deflate";
+
+    /**
+     * The length of the trailing footer offset and magic bytes.
+     */
+    private static final int FOOTER_TAIL_SIZE = 8 + MAGIC.length;
+
+    private GryoBlockFormat() {
+    }
+
+    static void writeHeader(final DataOutput output, final String codec, final byte[] sync) throws IOException {
+        output.write(MAGIC);
+        output.writeByte(VERSION);
+        output.writeUTF(codec);
+        output.write(sync);
+    }
+
+    /**
+     * Reads the header from the start of the file, leaving the stream positioned at the end of it.
+     */
+    static Header readHeader(final FSDataInputStream input, final Configuration configuration) throws IOException {
+        input.seek(0);
+        final byte[] magic = new byte[MAGIC.length];
+        input.readFully(magic);
+        if (!Arrays.equals(MAGIC, magic))
+            throw new IOException("The file is not a Gryo block file as it does not start with the expected header");
+        final byte version = input.readByte();
+        if (version != VERSION)
+            throw new IOException("Unsupported Gryo block file version: " + version);
+        final BlockCodec codec = BlockCodec.of(input.readUTF(), configuration);
+        final byte[] sync = new byte[SYNC_SIZE];
+        input.readFully(sync);
+        return new Header(codec, sync, input.getPos());
+    }
+
+    /**
+     * Reads the offsets of the blocks from the footer, where the last offset is that of the footer itself, or returns
+     * {@code null} if the file has no footer (e.g. the writer did not close).
+     */
+    static long[] readBlockOffsets(final FSDataInputStream input, final long fileLength) throws IOException {
+        if (fileLength < FOOTER_TAIL_SIZE) return null;
+        input.seek(fileLength - FOOTER_TAIL_SIZE);
+        final long footerOffset = input.readLong();
+        final byte[] magic = new byte[MAGIC.length];
+        input.readFully(magic);
+        if (!Arrays.equals(MAGIC, magic) || footerOffset < 0 || footerOffset >= fileLength) return null;
+
+        input.seek(footerOffset + SYNC_SIZE);
+        if (input.readInt() != FOOTER_MARKER) return null;
+        final int blockCount = input.readInt();
+        final long[] offsets = new long[blockCount + 1];
+        for (int i = 0; i < blockCount; i++) {
+            offsets[i] = input.readLong();
+            input.readInt();
+        }
+        offsets[blockCount] = footerOffset;
+        return offsets;
+    }
+
+    static final class Header {
+        final BlockCodec codec;
+        final byte[] sync;
+        final long length;
+
+        private Header(final BlockCodec codec, final byte[] sync, final long length) {
+            this.codec = codec;
+            this.sync = sync;
+            this.length = length;
+        }
+    }
+
+    /**
+     * Compresses and decompresses the data of a block with {@code java.util.zip} for "deflate" or with the named
+     * Hadoop {@link CompressionCodec} (e.g. Snappy or LZ4 where the native libraries are available).
+     */
+    static final class BlockCodec {
+        private final String name;
+        private final CompressionCodec codec;
+
+        private BlockCodec(final String name, final CompressionCodec codec) {
+            this.name = name;
+            this.codec = codec;
+        }
+
+        static BlockCodec of(final String name, final Configuration configuration) {
+            if (NONE.equals(name) || DEFLATE.equals(name))
+                return new BlockCodec(name, null);
+            try {
+                return new BlockCodec(name, (CompressionCodec) ReflectionUtils.newInstance(Class.forName(name), configuration));
+            } catch (final ClassNotFoundException e) {
+                throw new IllegalArgumentException("The Gryo block codec could not be found: " + name, e);
+            }
+        }
+
+        String getName() {
+            return name;
+        }
+
+        /**
+         * Compresses the data to the buffer and returns {@code false} if no compression is configured.
+         */
+        boolean compress(final byte[] data, final int length, final DataOutputBuffer compressed) throws IOException {
+            compressed.reset();
+            if (NONE.equals(name)) {
+                return false;
+            } else if (DEFLATE.equals(name)) {
+                final Deflater deflater = new Deflater();
+                try {
+                    deflater.setInput(data, 0, length);
+                    deflater.finish();
+                    final byte[] buffer = new byte[8192];
+                    while (!deflater.finished()) {
+                        compressed.write(buffer, 0, deflater.deflate(buffer));
+                    }
+                } finally {
+                    deflater.end();
+                }
+            } else {
+                final CompressionOutputStream out = codec.createOutputStream(compressed);
+                out.write(data, 0, length);
+                out.finish();
+                out.close();
+            }
+            return true;
+        }
+
+        byte[] decompress(final byte[] data, final int length, final int rawLength) throws IOException {
+            final byte[] raw = new byte[rawLength];
+            if (DEFLATE.equals(name)) {
+                final Inflater inflater = new Inflater();
+                try {
+                    inflater.setInput(data, 0, length);
+                    int read = 0;
+                    while (read < rawLength && !inflater.finished()) {
+                        final int n = inflater.inflate(raw, read, rawLength - read);
+                        if (0 == n && inflater.needsInput())
+                            throw new IOException("The Gryo block ended before its raw length was read");
+                        read = read + n;
+                    }
+                } catch (final DataFormatException e) {
+                    throw new IOException("The Gryo block could not be inflated", e);
+                } finally {
+                    inflater.end();
+                }
+            } else if (null != codec) {
+                try (final InputStream in = codec.createInputStream(new ByteArrayInputStream(data, 0, length))) {
+                    IOUtils.readFully(in, raw, 0, rawLength);
+                }
+            } else {
+                throw new IOException("The Gryo block is compressed but the file has no codec");
+            }
+            return raw;
+        }
+    }
+}
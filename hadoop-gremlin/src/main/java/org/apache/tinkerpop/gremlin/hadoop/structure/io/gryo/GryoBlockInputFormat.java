@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.hadoop.structure.io.gryo;
+
+import org.apache.hadoop.fs.BlockLocation;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.JobContext;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.tinkerpop.gremlin.hadoop.structure.io.CommonFileInputFormat;
+import org.apache.tinkerpop.gremlin.hadoop.structure.io.VertexWritable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the compressed block container written by {@link GryoBlockOutputFormat}.  Splits are made from the block
+ * index in the footer of each file so that they start and end on block boundaries.  Files without a footer are split
+ * by size and the {@link GryoBlockRecordReader} finds the first block of each split by its sync marker.  A file that
+ * is not {@link #isSplitable(JobContext, Path) splitable} is given a single split, as {@code FileInputFormat} does,
+ * and it is then up to the {@link GryoBlockRecordReader} to reject a file compressed as a whole by a Hadoop codec.
+ *
+ * @author agent (agent@local)
+ */
+public final class GryoBlockInputFormat extends CommonFileInputFormat {
+
+    @Override
+    public RecordReader<NullWritable, VertexWritable> createRecordReader(final InputSplit split, final TaskAttemptContext context) throws IOException, InterruptedException {
+        final RecordReader<NullWritable, VertexWritable> reader = new GryoBlockRecordReader();
+        reader.initialize(split, context);
+        return reader;
+    }
+
+    @Override
+    public List<InputSplit> getSplits(final JobContext job) throws IOException {
+        final long minSize = Math.max(getFormatMinSplitSize(), getMinSplitSize(job));
+        final long maxSize = getMaxSplitSize(job);
+        final List<InputSplit> splits = new ArrayList<>();
+        for (final FileStatus file : listStatus(job)) {
+            final Path path = file.getPath();
+            final long length = file.getLen();
+            if (0 == length) continue;
+
+            final FileSystem fs = path.getFileSystem(job.getConfiguration());
+            final BlockLocation[] locations = fs.getFileBlockLocations(file, 0, length);
+            if (!isSplitable(job, path)) {
+                // a file compressed by a hadoop codec can only be read from its start
+                splits.add(makeSplit(path, 0, length, locations[0].getHosts()));
+                continue;
+            }
+
+            final long splitSize = computeSplitSize(file.getBlockSize(), minSize, maxSize);
+            final long[] offsets;
+            try (final FSDataInputStream inputStream = fs.open(path)) {
+                offsets = GryoBlockFormat.readBlockOffsets(inputStream, length);
+            }
+
+            if (null == offsets) {
+                // no block index so split by size and let the reader find the blocks by their sync markers
+                for (long start = 0; start < length; start = start + splitSize) {
+                    final long splitLength = Math.min(splitSize, length - start);
+                    splits.add(makeSplit(path, start, splitLength, locations[getBlockIndex(locations, start)].getHosts()));
+                }
+            } else {
+                // group whole blocks into splits, where the last offset is that of the footer
+                long start = 0;
+                for (int i = 1; i < offsets.length; i++) {
+                    if (offsets[i] - start >= splitSize || i == offsets.length - 1) {
+                        splits.add(makeSplit(path, start, offsets[i] - start, locations[getBlockIndex(locations, start)].getHosts()));
+                        start = offsets[i];
+                    }
+                }
+            }
+        }
+        return splits;
+    }
+}
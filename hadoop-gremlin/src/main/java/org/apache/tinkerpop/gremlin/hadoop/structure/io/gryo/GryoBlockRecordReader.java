@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.hadoop.structure.io.gryo;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.io.compress.CompressionCodecFactory;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.lib.input.FileSplit;
+import org.apache.tinkerpop.gremlin.hadoop.Constants;
+import org.apache.tinkerpop.gremlin.hadoop.structure.io.HadoopPools;
+import org.apache.tinkerpop.gremlin.hadoop.structure.io.VertexWritable;
+import org.apache.tinkerpop.gremlin.hadoop.structure.util.ConfUtil;
+import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
+import org.apache.tinkerpop.gremlin.process.computer.util.VertexProgramHelper;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Reads the vertices of the blocks whose sync marker starts within the split.  The split is not required to start on
+ * a block boundary as the reader moves forward to the next sync marker, but splits from
+ * {@link GryoBlockInputFormat#getSplits} always do.  Each block is read and decompressed in one go and its vertices
+ * are then deserialized from memory.
+ *
+ * @author agent (agent@local)
+ */
+public final class GryoBlockRecordReader extends RecordReader<NullWritable, VertexWritable> {
+
+    private FSDataInputStream inputStream;
+    private GryoBlockFormat.Header header;
+
+    private GryoReader gryoReader;
+    private final VertexWritable vertexWritable = new VertexWritable();
+    private GraphFilter graphFilter = new GraphFilter();
+
+    private long start;
+    private long end;
+    private long nextBlock;
+
+    private byte[] block = new byte[0];
+    private int blockPosition = 0;
+    private int blockVerticesRemaining = 0;
+
+    public GryoBlockRecordReader() {
+
+    }
+
+    @Override
+    public void initialize(final InputSplit genericSplit, final TaskAttemptContext context) throws IOException {
+        final FileSplit split = (FileSplit) genericSplit;
+        final Configuration configuration = context.getConfiguration();
+        if (configuration.get(Constants.GREMLIN_HADOOP_GRAPH_FILTER, null) != null)
+            this.graphFilter = VertexProgramHelper.deserialize(ConfUtil.makeApacheConfiguration(configuration), Constants.GREMLIN_HADOOP_GRAPH_FILTER);
+        HadoopPools.initialize(configuration);
+        this.gryoReader = HadoopPools.getGryoPool().takeReader();
+        final Path file = split.getPath();
+        if (null != new CompressionCodecFactory(configuration).getCodec(file)) {
+            throw new IllegalStateException("Compression is applied per block for the Gryo block format and not to the whole file");
+        }
+        this.inputStream = file.getFileSystem(configuration).open(file);
+        this.header = GryoBlockFormat.readHeader(this.inputStream, configuration);
+        this.start = Math.max(split.getStart(), this.header.length);
+        this.end = split.getStart() + split.getLength();
+        this.nextBlock = this.start < this.end ? seekToSync(this.start) : -1;
+    }
+
+    /**
+     * Finds the offset of the first sync marker at or after the given offset, reading the file a buffer at a time,
+     * and returns -1 if there is none.
+     */
+    private long seekToSync(final long offset) throws IOException {
+        final byte[] sync = this.header.sync;
+        final byte[] buffer = new byte[65536];
+        long bufferOffset = offset;
+        int length = 0;
+        this.inputStream.seek(offset);
+        while (true) {
+            final int read = this.inputStream.read(buffer, length, buffer.length - length);
+            if (read < 0) return -1;
+            length = length + read;
+            for (int i = 0; i + sync.length <= length; i++) {
+                if (buffer[i] == sync[0] && Arrays.equals(sync, Arrays.copyOfRange(buffer, i, i + sync.length)))
+                    return bufferOffset + i;
+            }
+            // keep the tail of the buffer in case a marker straddles the next read
+            final int keep = Math.min(length, sync.length - 1);
+            System.arraycopy(buffer, length - keep, buffer, 0, keep);
+            bufferOffset = bufferOffset + length - keep;
+            length = keep;
+        }
+    }
+
+    private boolean readBlock() throws IOException {
+        if (this.nextBlock < 0 || this.nextBlock >= this.end)
+            return false;
+        this.inputStream.seek(this.nextBlock);
+        final byte[] sync = new byte[GryoBlockFormat.SYNC_SIZE];
+        this.inputStream.readFully(sync);
+        if (!Arrays.equals(this.header.sync, sync))
+            throw new IllegalStateException("Expected a sync marker at the start of the block at " + this.nextBlock);
+        final int vertexCount = this.inputStream.readInt();
+        if (GryoBlockFormat.FOOTER_MARKER == vertexCount) {
+            this.nextBlock = -1;
+            return false;
+        }
+        final boolean compressed = this.inputStream.readBoolean();
+        final int rawLength = this.inputStream.readInt();
+        final int storedLength = this.inputStream.readInt();
+        final byte[] stored = new byte[storedLength];
+        this.inputStream.readFully(stored);
+        this.block = compressed ? this.header.codec.decompress(stored, storedLength, rawLength) : stored;
+        this.blockPosition = 0;
+        this.blockVerticesRemaining = vertexCount;
+        this.nextBlock = this.inputStream.getPos();
+        return true;
+    }
+
+    @Override
+    public boolean nextKeyValue() throws IOException {
+        while (true) {
+            while (this.blockVerticesRemaining > 0) {
+                final int length = ((this.block[this.blockPosition] & 0xFF) << 24) |
+                        ((this.block[this.blockPosition + 1] & 0xFF) << 16) |
+                        ((this.block[this.blockPosition + 2] & 0xFF) << 8) |
+                        (this.block[this.blockPosition + 3] & 0xFF);
+                final int offset = this.blockPosition + 4;
+                this.blockPosition = offset + length;
+                this.blockVerticesRemaining--;
+                final Optional<Vertex> vertex = this.gryoReader.readVertex(new ByteArrayInputStream(this.block, offset, length), this.graphFilter);
+                if (vertex.isPresent()) {
+                    this.vertexWritable.set(vertex.get());
+                    return true;
+                }
+            }
+            if (!readBlock())
+                return false;
+        }
+    }
+
+    @Override
+    public NullWritable getCurrentKey() {
+        return NullWritable.get();
+    }
+
+    @Override
+    public VertexWritable getCurrentValue() {
+        return this.vertexWritable;
+    }
+
+    @Override
+    public float getProgress() throws IOException {
+        if (this.nextBlock < 0 || this.end <= this.start) return 1.0f;
+        return Math.min(1.0f, (float) (this.nextBlock - this.start) / (float) (this.end - this.start));
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        this.inputStream.close();
+        if (null != this.gryoReader) {
+            HadoopPools.getGryoPool().offerReader(this.gryoReader);
+            this.gryoReader = null;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.hadoop.structure.io.gryo;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.io.DataOutputBuffer;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapreduce.RecordWriter;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.tinkerpop.gremlin.hadoop.Constants;
+import org.apache.tinkerpop.gremlin.hadoop.structure.io.HadoopPools;
+import org.apache.tinkerpop.gremlin.hadoop.structure.io.VertexWritable;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoWriter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes vertices to the block container described by {@link GryoBlockFormat}.  Vertices are buffered until the
+ * raw size of the block reaches {@link Constants#GREMLIN_HADOOP_GRYO_BLOCK_SIZE} and are then compressed with the
+ * {@link Constants#GREMLIN_HADOOP_GRYO_BLOCK_CODEC} and written out as one block.
+ *
+ * @author agent (agent@local)
+ */
+public final class GryoBlockRecordWriter extends RecordWriter<NullWritable, VertexWritable> {
+
+    private final FSDataOutputStream outputStream;
+    private final boolean hasEdges;
+    private final int blockSize;
+    private final GryoBlockFormat.BlockCodec codec;
+    private final byte[] sync;
+    private GryoWriter gryoWriter;
+
+    private final DataOutputBuffer vertexBuffer = new DataOutputBuffer();
+    private final DataOutputBuffer blockBuffer = new DataOutputBuffer();
+    private final DataOutputBuffer compressedBuffer = new DataOutputBuffer();
+    private int blockVertexCount = 0;
+
+    private final List<Long> blockOffsets = new ArrayList<>();
+    private final List<Integer> blockVertexCounts = new ArrayList<>();
+
+    public GryoBlockRecordWriter(final FSDataOutputStream outputStream, final Configuration configuration) throws IOException {
+        this.outputStream = outputStream;
+        this.hasEdges = configuration.getBoolean(Constants.GREMLIN_HADOOP_GRAPH_WRITER_HAS_EDGES, true);
+        this.blockSize = configuration.getInt(Constants.GREMLIN_HADOOP_GRYO_BLOCK_SIZE, GryoBlockFormat.DEFAULT_BLOCK_SIZE);
+        this.codec = GryoBlockFormat.BlockCodec.of(configuration.get(Constants.GREMLIN_HADOOP_GRYO_BLOCK_CODEC, GryoBlockFormat.DEFLATE), configuration);
+        final UUID uuid = UUID.randomUUID();
+        this.sync = ByteBuffer.allocate(GryoBlockFormat.SYNC_SIZE).putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits()).array();
+        HadoopPools.initialize(configuration);
+        this.gryoWriter = HadoopPools.getGryoPool().takeWriter();
+        GryoBlockFormat.writeHeader(this.outputStream, this.codec.getName(), this.sync);
+    }
+
+    @Override
+    public void write(final NullWritable key, final VertexWritable vertex) throws IOException {
+        if (null != vertex) {
+            this.vertexBuffer.reset();
+            if (this.hasEdges)
+                gryoWriter.writeVertex(this.vertexBuffer, vertex.get(), Direction.BOTH);
+            else
+                gryoWriter.writeVertex(this.vertexBuffer, vertex.get());
+            this.blockBuffer.writeInt(this.vertexBuffer.getLength());
+            this.blockBuffer.write(this.vertexBuffer.getData(), 0, this.vertexBuffer.getLength());
+            this.blockVertexCount++;
+            if (this.blockBuffer.getLength() >= this.blockSize)
+                writeBlock();
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        if (0 == this.blockVertexCount) return;
+        this.blockOffsets.add(this.outputStream.getPos());
+        this.blockVertexCounts.add(this.blockVertexCount);
+
+        final int rawLength = this.blockBuffer.getLength();
+        final boolean compressed = this.codec.compress(this.blockBuffer.getData(), rawLength, this.compressedBuffer) &&
+                this.compressedBuffer.getLength() < rawLength;
+        final DataOutputBuffer stored = compressed ? this.compressedBuffer : this.blockBuffer;
+
+        this.outputStream.write(this.sync);
+        this.outputStream.writeInt(this.blockVertexCount);
+        this.outputStream.writeBoolean(compressed);
+        this.outputStream.writeInt(rawLength);
+        this.outputStream.writeInt(stored.getLength());
+        this.outputStream.write(stored.getData(), 0, stored.getLength());
+
+        this.blockBuffer.reset();
+        this.blockVertexCount = 0;
+    }
+
+    private void writeFooter() throws IOException {
+        final long footerOffset = this.outputStream.getPos();
+        this.outputStream.write(this.sync);
+        this.outputStream.writeInt(GryoBlockFormat.FOOTER_MARKER);
+        this.outputStream.writeInt(this.blockOffsets.size());
+        for (int i = 0; i < this.blockOffsets.size(); i++) {
+            this.outputStream.writeLong(this.blockOffsets.get(i));
+            this.outputStream.writeInt(this.blockVertexCounts.get(i));
+        }
+        this.outputStream.writeLong(footerOffset);
+        this.outputStream.write(GryoBlockFormat.MAGIC);
+    }
+
+    @Override
+    public synchronized void close(final TaskAttemptContext context) throws IOException {
+        if (null != this.gryoWriter) {
+            writeBlock();
+            writeFooter();
+            HadoopPools.getGryoPool().offerWriter(this.gryoWriter);
+            this.gryoWriter = null;
+        }
+        this.outputStream.close();
+    }
+}
@@ -18,9 +18,13 @@
  */
 package org.apache.tinkerpop.gremlin.hadoop.structure.io.gryo;
 
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.NullWritable;
 import org.apache.hadoop.mapreduce.RecordWriter;
 import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.tinkerpop.gremlin.hadoop.Constants;
 import org.apache.tinkerpop.gremlin.hadoop.structure.io.CommonFileOutputFormat;
 import org.apache.tinkerpop.gremlin.hadoop.structure.io.HadoopPoolsConfigurable;
 import org.apache.tinkerpop.gremlin.hadoop.structure.io.VertexWritable;
@@ -34,7 +38,15 @@ public final class GryoOutputFormat extends CommonFileOutputFormat implements Ha
 
     @Override
     public RecordWriter<NullWritable, VertexWritable> getRecordWriter(final TaskAttemptContext job) throws IOException, InterruptedException {
-        return new GryoRecordWriter(getDataOutputStream(job), job.getConfiguration());
+        final Configuration configuration = job.getConfiguration();
+        // offsets into a compressed file can't be seeked to so there is no index in that case
+        if (configuration.getBoolean(Constants.GREMLIN_HADOOP_GRAPH_WRITER_VERTEX_INDEX, false) && !getCompressOutput(job)) {
+            final Path file = super.getDefaultWorkFile(job, "");
+            final FileSystem fs = file.getFileSystem(configuration);
+            final boolean hasEdges = configuration.getBoolean(Constants.GREMLIN_HADOOP_GRAPH_WRITER_HAS_EDGES, true);
+            return new GryoRecordWriter(fs.create(file, false), configuration, new GryoVertexIndex.Writer(fs, file, hasEdges));
+        }
+        return new GryoRecordWriter(getDataOutputStream(job), configuration);
     }
 
 }
\ No newline at end of file
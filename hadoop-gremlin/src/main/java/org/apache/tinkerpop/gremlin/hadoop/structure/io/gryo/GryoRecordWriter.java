@@ -19,6 +19,7 @@
 package org.apache.tinkerpop.gremlin.hadoop.structure.io.gryo;
 
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataOutputStream;
 import org.apache.hadoop.io.NullWritable;
 import org.apache.hadoop.mapreduce.RecordWriter;
 import org.apache.hadoop.mapreduce.TaskAttemptContext;
@@ -39,9 +40,19 @@ public final class GryoRecordWriter extends RecordWriter<NullWritable, VertexWri
     private final DataOutputStream outputStream;
     private final boolean hasEdges;
     private GryoWriter gryoWriter;
+    private final GryoVertexIndex.Writer indexWriter;
 
     public GryoRecordWriter(final DataOutputStream outputStream, final Configuration configuration) {
+        this(outputStream, configuration, null);
+    }
+
+    /**
+     * Creates a writer that adds each vertex to the {@link GryoVertexIndex} at its position in the output stream,
+     * which must then be a {@code FSDataOutputStream}.
+     */
+    GryoRecordWriter(final DataOutputStream outputStream, final Configuration configuration, final GryoVertexIndex.Writer indexWriter) {
         this.outputStream = outputStream;
+        this.indexWriter = indexWriter;
         this.hasEdges = configuration.getBoolean(Constants.GREMLIN_HADOOP_GRAPH_WRITER_HAS_EDGES, true);
         HadoopPools.initialize(configuration);
         this.gryoWriter = HadoopPools.getGryoPool().takeWriter();
@@ -50,6 +61,8 @@ public final class GryoRecordWriter extends RecordWriter<NullWritable, VertexWri
     @Override
     public void write(final NullWritable key, final VertexWritable vertex) throws IOException {
         if (null != vertex) {
+            if (null != this.indexWriter)
+                this.indexWriter.add(vertex.get(), ((FSDataOutputStream) this.outputStream).getPos());
             if (this.hasEdges)
                 gryoWriter.writeVertex(this.outputStream, vertex.get(), Direction.BOTH);
             else
@@ -60,6 +73,8 @@ public final class GryoRecordWriter extends RecordWriter<NullWritable, VertexWri
     @Override
     public synchronized void close(final TaskAttemptContext context) throws IOException {
         this.outputStream.close();
+        if (null != this.indexWriter)
+            this.indexWriter.close();
         if (null != this.gryoWriter) {
             HadoopPools.getGryoPool().offerWriter(this.gryoWriter);
             this.gryoWriter = null;
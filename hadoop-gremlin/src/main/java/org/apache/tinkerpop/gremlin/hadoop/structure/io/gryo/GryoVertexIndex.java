@@ -0,0 +1,252 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.hadoop.structure.io.gryo;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.tinkerpop.gremlin.hadoop.Constants;
+import org.apache.tinkerpop.gremlin.hadoop.structure.HadoopEdge;
+import org.apache.tinkerpop.gremlin.hadoop.structure.HadoopGraph;
+import org.apache.tinkerpop.gremlin.hadoop.structure.HadoopVertex;
+import org.apache.tinkerpop.gremlin.hadoop.structure.io.FileSystemStorage;
+import org.apache.tinkerpop.gremlin.hadoop.structure.io.HadoopPools;
+import org.apache.tinkerpop.gremlin.hadoop.structure.io.HiddenFileFilter;
+import org.apache.tinkerpop.gremlin.hadoop.structure.util.ConfUtil;
+import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoReader;
+import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * A sidecar index to the files written by {@link GryoOutputFormat} that allows {@link HadoopGraph#vertices} and
+ * {@link HadoopGraph#edges} to seek to the vertices with the requested ids rather than reading every input split.
+ * It is written when {@link Constants#GREMLIN_HADOOP_GRAPH_WRITER_VERTEX_INDEX} is {@code true} and the output is
+ * not compressed.  For each data file there is a hidden vertex index (and an edge index when edges are written)
+ * of fixed width entries of the hash of the {@code toString()} of an id and the offset of the vertex in the data
+ * file, sorted by hash.  An edge is indexed to the offset of its out vertex.  A lookup binary searches the hash and
+ * then compares the id of the vertices it reads as different ids may share a hash.
+ *
+ * @author agent (agent@local)
+ */
+public final class GryoVertexIndex {
+
+    private static final String VERTEX_INDEX_EXTENSION = ".vindex";
+    private static final String EDGE_INDEX_EXTENSION = ".eindex";
+    private static final int ENTRY_SIZE = 4 + 8;
+
+    private GryoVertexIndex() {
+    }
+
+    /**
+     * Gets the vertices with the given ids from the index or returns {@link Optional#empty()} if the input of the
+     * graph is not indexed, in which case the vertices need to be found by reading all of the input.
+     */
+    public static Optional<Iterator<Vertex>> vertices(final HadoopGraph graph, final Object... vertexIds) throws IOException {
+        final Optional<List<Path>> dataFiles = getIndexedDataFiles(graph);
+        if (!dataFiles.isPresent()) return Optional.empty();
+
+        final Configuration configuration = ConfUtil.makeHadoopConfiguration(graph.configuration());
+        final List<Vertex> vertices = new ArrayList<>();
+        for (final Path dataFile : dataFiles.get()) {
+            for (final Vertex vertex : readVertices(configuration, dataFile, VERTEX_INDEX_EXTENSION, vertexIds)) {
+                if (ElementHelper.idExists(vertex.id(), vertexIds))
+                    vertices.add(new HadoopVertex(vertex, graph));
+            }
+        }
+        return Optional.of(vertices.iterator());
+    }
+
+    /**
+     * Gets the edges with the given ids from the index or returns {@link Optional#empty()} if the input of the graph
+     * is not indexed or has no edge index, in which case the edges need to be found by reading all of the input.
+     */
+    public static Optional<Iterator<Edge>> edges(final HadoopGraph graph, final Object... edgeIds) throws IOException {
+        final Optional<List<Path>> dataFiles = getIndexedDataFiles(graph);
+        if (!dataFiles.isPresent()) return Optional.empty();
+
+        final Configuration configuration = ConfUtil.makeHadoopConfiguration(graph.configuration());
+        for (final Path dataFile : dataFiles.get()) {
+            if (!dataFile.getFileSystem(configuration).exists(indexPath(dataFile, EDGE_INDEX_EXTENSION)))
+                return Optional.empty();
+        }
+
+        final List<Edge> edges = new ArrayList<>();
+        for (final Path dataFile : dataFiles.get()) {
+            for (final Vertex vertex : readVertices(configuration, dataFile, EDGE_INDEX_EXTENSION, edgeIds)) {
+                vertex.edges(Direction.OUT).forEachRemaining(edge -> {
+                    if (ElementHelper.idExists(edge.id(), edgeIds))
+                        edges.add(new HadoopEdge(edge, graph));
+                });
+            }
+        }
+        return Optional.of(edges.iterator());
+    }
+
+    /**
+     * Gets the data files of the input location if the graph is read with {@link GryoInputFormat} and every data
+     * file has a vertex index.
+     */
+    private static Optional<List<Path>> getIndexedDataFiles(final HadoopGraph graph) throws IOException {
+        if (!graph.configuration().containsKey(Constants.GREMLIN_HADOOP_INPUT_LOCATION))
+            return Optional.empty();
+        final Configuration configuration = ConfUtil.makeHadoopConfiguration(graph.configuration());
+        if (!GryoInputFormat.class.equals(configuration.getClass(Constants.GREMLIN_HADOOP_GRAPH_READER, Object.class)))
+            return Optional.empty();
+        final Optional<String> location = Constants.getSearchGraphLocation(graph.configuration().getInputLocation(), FileSystemStorage.open(configuration));
+        if (!location.isPresent())
+            return Optional.empty();
+
+        final Path path = new Path(location.get());
+        final FileSystem fs = path.getFileSystem(configuration);
+        final List<Path> dataFiles = new ArrayList<>();
+        for (final FileStatus status : fs.listStatus(path, HiddenFileFilter.instance())) {
+            if (!fs.exists(indexPath(status.getPath(), VERTEX_INDEX_EXTENSION)))
+                return Optional.empty();
+            dataFiles.add(status.getPath());
+        }
+        return dataFiles.isEmpty() ? Optional.empty() : Optional.of(dataFiles);
+    }
+
+    /**
+     * Reads the vertices at the offsets of the index entries that match the hash of any of the ids.
+     */
+    private static List<Vertex> readVertices(final Configuration configuration, final Path dataFile,
+                                             final String extension, final Object... ids) throws IOException {
+        final FileSystem fs = dataFile.getFileSystem(configuration);
+        final SortedSet<Long> offsets = new TreeSet<>();
+        try (final FSDataInputStream index = fs.open(indexPath(dataFile, extension))) {
+            final long entries = fs.getFileStatus(indexPath(dataFile, extension)).getLen() / ENTRY_SIZE;
+            for (final Object id : ids) {
+                final int hash = hash(id);
+                long low = 0;
+                long high = entries;
+                while (low < high) {
+                    final long middle = (low + high) >>> 1;
+                    index.seek(middle * ENTRY_SIZE);
+                    if (index.readInt() < hash)
+                        low = middle + 1;
+                    else
+                        high = middle;
+                }
+                for (long i = low; i < entries; i++) {
+                    index.seek(i * ENTRY_SIZE);
+                    if (index.readInt() != hash) break;
+                    offsets.add(index.readLong());
+                }
+            }
+        }
+
+        final List<Vertex> vertices = new ArrayList<>(offsets.size());
+        if (offsets.isEmpty()) return vertices;
+        HadoopPools.initialize(configuration);
+        final GryoReader gryoReader = HadoopPools.getGryoPool().takeReader();
+        try (final FSDataInputStream data = fs.open(dataFile)) {
+            for (final long offset : offsets) {
+                data.seek(offset);
+                gryoReader.readVertex(data, new GraphFilter()).ifPresent(vertices::add);
+            }
+        } finally {
+            HadoopPools.getGryoPool().offerReader(gryoReader);
+        }
+        return vertices;
+    }
+
+    private static Path indexPath(final Path dataFile, final String extension) {
+        return new Path(dataFile.getParent(), "_" + dataFile.getName() + extension);
+    }
+
+    private static int hash(final Object id) {
+        // ids are compared by their string form (see ElementHelper.idExists()) so the hash has to be as well
+        return id.toString().hashCode();
+    }
+
+    /**
+     * Collects the index entries of the vertices written to a data file and writes the sorted index files when
+     * closed.
+     */
+    static final class Writer {
+        private final FileSystem fs;
+        private final Path dataFile;
+        private final boolean hasEdges;
+        private final Entries vertexEntries = new Entries();
+        private final Entries edgeEntries = new Entries();
+
+        Writer(final FileSystem fs, final Path dataFile, final boolean hasEdges) {
+            this.fs = fs;
+            this.dataFile = dataFile;
+            this.hasEdges = hasEdges;
+        }
+
+        void add(final Vertex vertex, final long offset) {
+            this.vertexEntries.add(hash(vertex.id()), offset);
+            if (this.hasEdges)
+                vertex.edges(Direction.OUT).forEachRemaining(edge -> this.edgeEntries.add(hash(edge.id()), offset));
+        }
+
+        void close() throws IOException {
+            this.vertexEntries.write(this.fs.create(indexPath(this.dataFile, VERTEX_INDEX_EXTENSION), false));
+            if (this.hasEdges)
+                this.edgeEntries.write(this.fs.create(indexPath(this.dataFile, EDGE_INDEX_EXTENSION), false));
+        }
+    }
+
+    private static final class Entries {
+        // the hash in the high bits and the position in the offsets array in the low bits, so that sorting orders
+        // by hash and then by offset as offsets are added in increasing order
+        private long[] keys = new long[1024];
+        private long[] offsets = new long[1024];
+        private int size = 0;
+
+        void add(final int hash, final long offset) {
+            if (this.size == this.keys.length) {
+                this.keys = Arrays.copyOf(this.keys, this.size * 2);
+                this.offsets = Arrays.copyOf(this.offsets, this.size * 2);
+            }
+            this.keys[this.size] = ((long) hash << 32) | this.size;
+            this.offsets[this.size++] = offset;
+        }
+
+        void write(final FSDataOutputStream output) throws IOException {
+            try {
+                Arrays.sort(this.keys, 0, this.size);
+                for (int i = 0; i < this.size; i++) {
+                    output.writeInt((int) (this.keys[i] >> 32));
+                    output.writeLong(this.offsets[(int) this.keys[i]]);
+                }
+            } finally {
+                output.close();
+            }
+        }
+    }
+}
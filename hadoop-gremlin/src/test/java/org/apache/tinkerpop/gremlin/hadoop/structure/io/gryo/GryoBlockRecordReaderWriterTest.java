@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.hadoop.structure.io.gryo;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.LocalFileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.Job;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.RecordWriter;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.apache.hadoop.mapreduce.TaskType;
+import org.apache.hadoop.mapreduce.lib.input.FileInputFormat;
+import org.apache.hadoop.mapreduce.lib.input.FileSplit;
+import org.apache.hadoop.mapreduce.task.TaskAttemptContextImpl;
+import org.apache.tinkerpop.gremlin.TestHelper;
+import org.apache.tinkerpop.gremlin.hadoop.Constants;
+import org.apache.tinkerpop.gremlin.hadoop.HadoopGraphProvider;
+import org.apache.tinkerpop.gremlin.hadoop.structure.io.VertexWritable;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author agent (agent@local)
+ */
+public class GryoBlockRecordReaderWriterTest {
+
+    @Test
+    public void shouldWriteAndReadDeflatedBlocks() throws Exception {
+        final File blockFile = writeBlockFile(GryoBlockFormat.DEFLATE);
+        assertTrue(blockFile.length() < new File(HadoopGraphProvider.PATHS.get("grateful-dead.kryo")).length());
+        validateByteSplits(blockFile);
+        validateFormatSplits(blockFile);
+    }
+
+    @Test
+    public void shouldWriteAndReadUncompressedBlocks() throws Exception {
+        final File blockFile = writeBlockFile(GryoBlockFormat.NONE);
+        validateByteSplits(blockFile);
+        validateFormatSplits(blockFile);
+    }
+
+    @Test
+    public void shouldNotSplitFileThatIsNotSplitable() throws Exception {
+        // the extension of a hadoop compression codec makes the file unsplitable
+        final File blockFile = writeBlockFile(GryoBlockFormat.NONE);
+        final File unsplitableFile = new File(blockFile.getParentFile(), blockFile.getName() + ".deflate");
+        Files.copy(blockFile.toPath(), unsplitableFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+        final Job job = Job.getInstance(configure());
+        FileInputFormat.setInputPaths(job, new Path(unsplitableFile.getAbsoluteFile().toURI().toString()));
+        FileInputFormat.setMaxInputSplitSize(job, 16384);
+        final List<InputSplit> splits = new GryoBlockInputFormat().getSplits(job);
+        assertEquals(1, splits.size());
+        assertEquals(0, ((FileSplit) splits.get(0)).getStart());
+        assertEquals(unsplitableFile.length(), splits.get(0).getLength());
+    }
+
+    private File writeBlockFile(final String codec) throws Exception {
+        final File outputDirectory = TestHelper.makeTestDataPath(GryoBlockRecordReaderWriterTest.class, "gryo-block-" + codec);
+        final Configuration configuration = configure();
+        configuration.set("mapreduce.output.fileoutputformat.outputdir", "file:///" + outputDirectory.getAbsolutePath());
+        configuration.setInt(Constants.GREMLIN_HADOOP_GRYO_BLOCK_SIZE, 4096);
+        configuration.set(Constants.GREMLIN_HADOOP_GRYO_BLOCK_CODEC, codec);
+        final TaskAttemptContext job = new TaskAttemptContextImpl(configuration, new TaskAttemptID(UUID.randomUUID().toString(), 0, TaskType.MAP, 0, 0));
+
+        final File inputFile = new File(HadoopGraphProvider.PATHS.get("grateful-dead.kryo"));
+        final RecordReader<NullWritable, VertexWritable> reader = new GryoInputFormat().createRecordReader(
+                new FileSplit(new Path(inputFile.getAbsoluteFile().toURI().toString()), 0, inputFile.length(), null), job);
+        final RecordWriter<NullWritable, VertexWritable> writer = new GryoBlockOutputFormat().getRecordWriter(job);
+        while (reader.nextKeyValue()) {
+            writer.write(NullWritable.get(), reader.getCurrentValue());
+        }
+        reader.close();
+        writer.close(job);
+
+        return new File(outputDirectory.getAbsoluteFile() + "/_temporary/0/_temporary/" + job.getTaskAttemptID().getTaskID().toString().replace("task", "attempt") + "_0" + "/part-m-00000");
+    }
+
+    private static void validateByteSplits(final File file) throws Exception {
+        for (int numberOfSplits = 1; numberOfSplits < 10; numberOfSplits++) {
+            final List<InputSplit> splits = new ArrayList<>();
+            final long splitLength = file.length() / numberOfSplits + 1;
+            for (long start = 0; start < file.length(); start = start + splitLength) {
+                splits.add(new FileSplit(new Path(file.getAbsoluteFile().toURI().toString()), start, splitLength, null));
+            }
+            validateSplits(splits);
+        }
+    }
+
+    private static void validateFormatSplits(final File file) throws Exception {
+        final Job job = Job.getInstance(configure());
+        FileInputFormat.setInputPaths(job, new Path(file.getAbsoluteFile().toURI().toString()));
+        FileInputFormat.setMaxInputSplitSize(job, 16384);
+        final List<InputSplit> splits = new GryoBlockInputFormat().getSplits(job);
+        assertTrue(splits.size() > 1);
+        validateSplits(splits);
+    }
+
+    private static void validateSplits(final List<InputSplit> splits) throws Exception {
+        final TaskAttemptContext job = new TaskAttemptContextImpl(configure(), new TaskAttemptID(UUID.randomUUID().toString(), 0, TaskType.MAP, 0, 0));
+        int vertexCount = 0;
+        int outEdgeCount = 0;
+        int inEdgeCount = 0;
+        boolean foundKeyValue = false;
+        for (final InputSplit split : splits) {
+            final RecordReader<NullWritable, VertexWritable> reader = new GryoBlockInputFormat().createRecordReader(split, job);
+            float lastProgress = -1f;
+            while (reader.nextKeyValue()) {
+                final float progress = reader.getProgress();
+                assertTrue(progress >= lastProgress);
+                final Vertex vertex = reader.getCurrentValue().get();
+                vertexCount++;
+                outEdgeCount = outEdgeCount + (int) IteratorUtils.count(vertex.edges(Direction.OUT));
+                inEdgeCount = inEdgeCount + (int) IteratorUtils.count(vertex.edges(Direction.IN));
+                if (vertex.value("name").equals("SUGAR MAGNOLIA")) {
+                    foundKeyValue = true;
+                    assertEquals(92, IteratorUtils.count(vertex.edges(Direction.OUT)));
+                    assertEquals(77, IteratorUtils.count(vertex.edges(Direction.IN)));
+                }
+                lastProgress = progress;
+            }
+            reader.close();
+        }
+
+        assertEquals(808, vertexCount);
+        assertEquals(8049, outEdgeCount);
+        assertEquals(8049, inEdgeCount);
+        assertTrue(foundKeyValue);
+    }
+
+    private static Configuration configure() {
+        final Configuration configuration = new Configuration(false);
+        configuration.set("fs.file.impl", LocalFileSystem.class.getName());
+        configuration.set("fs.defaultFS", "file:///");
+        return configuration;
+    }
+}
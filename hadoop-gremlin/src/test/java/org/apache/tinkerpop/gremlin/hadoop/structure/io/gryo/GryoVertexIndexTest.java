@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.hadoop.structure.io.gryo;
+
+import org.apache.commons.configuration.BaseConfiguration;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.LocalFileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.NullWritable;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.RecordWriter;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.apache.hadoop.mapreduce.TaskType;
+import org.apache.hadoop.mapreduce.lib.input.FileSplit;
+import org.apache.hadoop.mapreduce.task.TaskAttemptContextImpl;
+import org.apache.tinkerpop.gremlin.TestHelper;
+import org.apache.tinkerpop.gremlin.hadoop.Constants;
+import org.apache.tinkerpop.gremlin.hadoop.HadoopGraphProvider;
+import org.apache.tinkerpop.gremlin.hadoop.structure.HadoopGraph;
+import org.apache.tinkerpop.gremlin.hadoop.structure.io.VertexWritable;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author agent (agent@local)
+ */
+public class GryoVertexIndexTest {
+
+    @Test
+    public void shouldLookupVerticesAndEdgesByIdWithIndex() throws Exception {
+        final HadoopGraph indexed = HadoopGraph.open(configure(writeGraph(true)));
+        final HadoopGraph scanned = HadoopGraph.open(configure(writeGraph(false)));
+
+        assertTrue(GryoVertexIndex.vertices(indexed, 1).isPresent());
+        assertTrue(GryoVertexIndex.edges(indexed, 1L).isPresent());
+        assertFalse(GryoVertexIndex.vertices(scanned, 1).isPresent());
+
+        for (final Object[] ids : new Object[][]{{1}, {89}, {808}, {1, 89, 808}, {"89"}, {100000}}) {
+            final List<Vertex> expected = IteratorUtils.list(scanned.vertices(ids));
+            final List<Vertex> actual = IteratorUtils.list(indexed.vertices(ids));
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).id(), actual.get(i).id());
+                assertEquals(expected.get(i).<String>value("name"), actual.get(i).value("name"));
+                assertEquals(IteratorUtils.count(expected.get(i).edges(Direction.BOTH)), IteratorUtils.count(actual.get(i).edges(Direction.BOTH)));
+            }
+        }
+
+        final List<Edge> someEdges = IteratorUtils.list(IteratorUtils.limit(scanned.edges(), 3));
+        final Object[] edgeIds = someEdges.stream().map(Edge::id).toArray();
+        final List<Edge> actual = IteratorUtils.list(indexed.edges(edgeIds));
+        assertEquals(3, actual.size());
+        for (final Edge edge : someEdges) {
+            assertTrue(actual.stream().anyMatch(e -> e.id().equals(edge.id()) &&
+                    e.outVertex().id().equals(edge.outVertex().id()) &&
+                    e.inVertex().id().equals(edge.inVertex().id())));
+        }
+        assertEquals(0, IteratorUtils.count(indexed.edges(-1L)));
+    }
+
+    private static File writeGraph(final boolean index) throws Exception {
+        final File outputDirectory = TestHelper.makeTestDataPath(GryoVertexIndexTest.class, "gryo-vertex-index-" + index);
+        final Configuration configuration = new Configuration(false);
+        configuration.set("fs.file.impl", LocalFileSystem.class.getName());
+        configuration.set("fs.defaultFS", "file:///");
+        configuration.set("mapreduce.output.fileoutputformat.outputdir", "file:///" + outputDirectory.getAbsolutePath());
+        configuration.setBoolean(Constants.GREMLIN_HADOOP_GRAPH_WRITER_VERTEX_INDEX, index);
+        final TaskAttemptContext job = new TaskAttemptContextImpl(configuration, new TaskAttemptID(UUID.randomUUID().toString(), 0, TaskType.MAP, 0, 0));
+
+        final File inputFile = new File(HadoopGraphProvider.PATHS.get("grateful-dead.kryo"));
+        final RecordReader<NullWritable, VertexWritable> reader = new GryoInputFormat().createRecordReader(
+                new FileSplit(new Path(inputFile.getAbsoluteFile().toURI().toString()), 0, inputFile.length(), null), job);
+        final RecordWriter<NullWritable, VertexWritable> writer = new GryoOutputFormat().getRecordWriter(job);
+        while (reader.nextKeyValue()) {
+            writer.write(NullWritable.get(), reader.getCurrentValue());
+        }
+        reader.close();
+        writer.close(job);
+
+        return new File(outputDirectory.getAbsoluteFile() + "/_temporary/0/_temporary/" + job.getTaskAttemptID().getTaskID().toString().replace("task", "attempt") + "_0");
+    }
+
+    private static org.apache.commons.configuration.Configuration configure(final File inputLocation) {
+        final BaseConfiguration configuration = new BaseConfiguration();
+        configuration.setProperty(Constants.GREMLIN_HADOOP_GRAPH_READER, GryoInputFormat.class.getName());
+        configuration.setProperty(Constants.GREMLIN_HADOOP_INPUT_LOCATION, inputLocation.getAbsolutePath());
+        configuration.setProperty(Constants.GREMLIN_HADOOP_JARS_IN_DISTRIBUTED_CACHE, false);
+        return configuration;
+    }
+}
@@ -33,16 +33,17 @@ import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -56,7 +57,6 @@ public final class TinkerGraphComputer implements GraphComputer {
     private VertexProgram<?> vertexProgram;
     private final TinkerGraph graph;
     private TinkerMemory memory;
-    private final TinkerMessageBoard messageBoard = new TinkerMessageBoard();
     private boolean executed = false;
     private final Set<MapReduce> mapReducers = new HashSet<>();
     private int workers = Runtime.getRuntime().availableProcessors();
@@ -138,28 +138,34 @@ public final class TinkerGraphComputer implements GraphComputer {
             final long time = System.currentTimeMillis();
             final TinkerGraphComputerView view;
             try (final TinkerWorkerPool workers = new TinkerWorkerPool(this.workers)) {
+                view = TinkerHelper.createGraphComputerView(this.graph, this.graphFilter, null != this.vertexProgram ? this.vertexProgram.getVertexComputeKeys() : Collections.emptySet());
+                // vertices can not be added or removed during the computation so the (filtered) vertices are gathered once
+                final Vertex[] allVertices = IteratorUtils.list(this.graph.vertices()).toArray(new Vertex[0]);
                 if (null != this.vertexProgram) {
-                    view = TinkerHelper.createGraphComputerView(this.graph, this.graphFilter, this.vertexProgram.getVertexComputeKeys());
+                    final TinkerMessageBoard messageBoard = new TinkerMessageBoard(allVertices, this.vertexProgram.getMessageCombiner());
                     // execute the vertex program
                     this.vertexProgram.setup(this.memory);
                     while (true) {
                         this.memory.completeSubRound();
                         workers.setVertexProgram(this.vertexProgram);
-                        final SynchronizedIterator<Vertex> vertices = new SynchronizedIterator<>(this.graph.vertices());
+                        final ChunkedRange vertices = new ChunkedRange(allVertices.length, this.workers);
                         workers.executeVertexProgram(vertexProgram -> {
                             vertexProgram.workerIterationStart(this.memory.asImmutable());
-                            while (true) {
-                                final Vertex vertex = vertices.next();
-                                if (null == vertex) break;
-                                vertexProgram.execute(
-                                        ComputerGraph.vertexProgram(vertex, vertexProgram),
-                                        new TinkerMessenger<>(vertex, this.messageBoard, vertexProgram.getMessageCombiner()),
-                                        this.memory
-                                );
+                            int start;
+                            while (-1 != (start = vertices.claim())) {
+                                final int end = vertices.end(start);
+                                for (int i = start; i < end; i++) {
+                                    final Vertex vertex = allVertices[i];
+                                    vertexProgram.execute(
+                                            ComputerGraph.vertexProgram(vertex, vertexProgram),
+                                            new TinkerMessenger<>(vertex, i, messageBoard),
+                                            this.memory
+                                    );
+                                }
                             }
                             vertexProgram.workerIterationEnd(this.memory.asImmutable());
                         });
-                        this.messageBoard.completeIteration();
+                        messageBoard.completeIteration();
                         this.memory.completeSubRound();
                         if (this.vertexProgram.terminate(this.memory)) {
                             this.memory.incrIteration();
@@ -169,22 +175,21 @@ public final class TinkerGraphComputer implements GraphComputer {
                         }
                     }
                     view.complete(); // drop all transient vertex compute keys
-                } else {
-                    // MapReduce only
-                    view = TinkerHelper.createGraphComputerView(this.graph, this.graphFilter, Collections.emptySet());
                 }
 
                 // execute mapreduce jobs
                 for (final MapReduce mapReduce : mapReducers) {
                     final TinkerMapEmitter<?, ?> mapEmitter = new TinkerMapEmitter<>(mapReduce.doStage(MapReduce.Stage.REDUCE));
-                    final SynchronizedIterator<Vertex> vertices = new SynchronizedIterator<>(this.graph.vertices());
+                    final ChunkedRange vertices = new ChunkedRange(allVertices.length, this.workers);
                     workers.setMapReduce(mapReduce);
                     workers.executeMapReduce(workerMapReduce -> {
                         workerMapReduce.workerStart(MapReduce.Stage.MAP);
-                        while (true) {
-                            final Vertex vertex = vertices.next();
-                            if (null == vertex) break;
-                            workerMapReduce.map(ComputerGraph.mapReduce(vertex), mapEmitter);
+                        int start;
+                        while (-1 != (start = vertices.claim())) {
+                            final int end = vertices.end(start);
+                            for (int i = start; i < end; i++) {
+                                workerMapReduce.map(ComputerGraph.mapReduce(allVertices[i]), mapEmitter);
+                            }
                         }
                         workerMapReduce.workerEnd(MapReduce.Stage.MAP);
                     });
@@ -194,13 +199,16 @@ public final class TinkerGraphComputer implements GraphComputer {
                     // no need to run combiners as this is single machine
                     if (mapReduce.doStage(MapReduce.Stage.REDUCE)) {
                         final TinkerReduceEmitter<?, ?> reduceEmitter = new TinkerReduceEmitter<>();
-                        final SynchronizedIterator<Map.Entry<?, Queue<?>>> keyValues = new SynchronizedIterator((Iterator) mapEmitter.reduceMap.entrySet().iterator());
+                        final Map.Entry<?, Queue<?>>[] allKeyValues = mapEmitter.reduceMap.entrySet().toArray(new Map.Entry[0]);
+                        final ChunkedRange keyValues = new ChunkedRange(allKeyValues.length, this.workers);
                         workers.executeMapReduce(workerMapReduce -> {
                             workerMapReduce.workerStart(MapReduce.Stage.REDUCE);
-                            while (true) {
-                                final Map.Entry<?, Queue<?>> entry = keyValues.next();
-                                if (null == entry) break;
-                                workerMapReduce.reduce(entry.getKey(), entry.getValue().iterator(), reduceEmitter);
+                            int start;
+                            while (-1 != (start = keyValues.claim())) {
+                                final int end = keyValues.end(start);
+                                for (int i = start; i < end; i++) {
+                                    workerMapReduce.reduce(allKeyValues[i].getKey(), allKeyValues[i].getValue().iterator(), reduceEmitter);
+                                }
                             }
                             workerMapReduce.workerEnd(MapReduce.Stage.REDUCE);
                         });
@@ -229,16 +237,39 @@ public final class TinkerGraphComputer implements GraphComputer {
         return StringFactory.graphComputerString(this);
     }
 
-    private static class SynchronizedIterator<V> {
+    /**
+     * Hands out the indices of an array to workers in chunks where a chunk is claimed with a single atomic increment.
+     * Workers never contend on a lock and, as a worker claims its next chunk as soon as it finishes the last, the
+     * chunks balance themselves across workers when the cost of processing the elements is uneven.
+     */
+    private static final class ChunkedRange {
+
+        private static final int CHUNKS_PER_WORKER = 16;
+        private static final int MAX_CHUNK_SIZE = 1024;
 
-        private final Iterator<V> iterator;
+        private final int length;
+        private final int chunkSize;
+        private final AtomicInteger claimed = new AtomicInteger(0);
+
+        public ChunkedRange(final int length, final int workers) {
+            this.length = length;
+            this.chunkSize = Math.max(1, Math.min(MAX_CHUNK_SIZE, length / (Math.max(1, workers) * CHUNKS_PER_WORKER)));
+        }
 
-        public SynchronizedIterator(final Iterator<V> iterator) {
-            this.iterator = iterator;
+        /**
+         * Claim the next chunk and return its first index or {@code -1} if the array is exhausted.
+         */
+        public int claim() {
+            if (this.claimed.get() >= this.length) return -1;
+            final int start = this.claimed.getAndAdd(this.chunkSize);
+            return start < this.length ? start : -1;
         }
 
-        public synchronized V next() {
-            return this.iterator.hasNext() ? this.iterator.next() : null;
+        /**
+         * Get the index after the last index of the chunk that starts at the specified index.
+         */
+        public int end(final int start) {
+            return Math.min(this.length, start + this.chunkSize);
         }
     }
 
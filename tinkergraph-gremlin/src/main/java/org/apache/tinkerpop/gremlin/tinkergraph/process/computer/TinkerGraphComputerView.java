@@ -22,7 +22,6 @@ import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
 import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
 import org.apache.tinkerpop.gremlin.process.computer.VertexComputeKey;
 import org.apache.tinkerpop.gremlin.structure.Edge;
-import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Property;
 import org.apache.tinkerpop.gremlin.structure.T;
@@ -34,26 +33,38 @@ import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerVertex;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerVertexProperty;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
+ * Holds the values of the {@link VertexComputeKey}s written during a {@link TinkerGraphComputer} job.  Every vertex is
+ * given a dense slot when the view is created and each compute key is stored column-wise in arrays indexed by that
+ * slot, where {@code double} and {@code long} values are kept unboxed.  {@link VertexProperty} objects are only
+ * created when a property is read (or returned from a write) and their ids are only generated when requested.
+ *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 public final class TinkerGraphComputerView {
 
+    private static final byte EMPTY = 0;
+    private static final byte DOUBLE = 1;
+    private static final byte LONG = 2;
+    private static final byte OBJECT = 3;
+    private static final byte PROPERTIES = 4;
+
     private final TinkerGraph graph;
     protected final Map<String, VertexComputeKey> computeKeys;
-    private Map<Element, Map<String, List<VertexProperty<?>>>> computeProperties;
+    private final Map<String, ComputeColumn> computeColumns;
+    private final Map<Object, Integer> slots;
+    private final TinkerVertex[] vertices;
     private final Set<Object> legalVertices = new HashSet<>();
     private final Map<Object, Set<Object>> legalEdges = new HashMap<>();
     private final GraphFilter graphFilter;
@@ -62,10 +73,17 @@ public final class TinkerGraphComputerView {
         this.graph = graph;
         this.computeKeys = new HashMap<>();
         computeKeys.forEach(key -> this.computeKeys.put(key.getKey(), key));
-        this.computeProperties = new ConcurrentHashMap<>();
+        final List<Vertex> allVertices = IteratorUtils.list(graph.vertices());
+        this.vertices = allVertices.toArray(new TinkerVertex[allVertices.size()]);
+        this.slots = new HashMap<>(this.vertices.length * 4 / 3 + 1);
+        for (int i = 0; i < this.vertices.length; i++) {
+            this.slots.put(this.vertices[i].id(), i);
+        }
+        this.computeColumns = new HashMap<>();
+        this.computeKeys.keySet().forEach(key -> this.computeColumns.put(key, new ComputeColumn(key, this.vertices.length)));
         this.graphFilter = graphFilter;
         if (this.graphFilter.hasFilter()) {
-            graph.vertices().forEachRemaining(vertex -> {
+            for (final Vertex vertex : this.vertices) {
                 boolean legalVertex = false;
                 if (this.graphFilter.hasVertexFilter() && this.graphFilter.legalVertex(vertex)) {
                     this.legalVertices.add(vertex.id());
@@ -76,21 +94,36 @@ public final class TinkerGraphComputerView {
                     this.legalEdges.put(vertex.id(), edges);
                     this.graphFilter.legalEdges(vertex).forEachRemaining(edge -> edges.add(edge.id()));
                 }
-            });
+            }
         }
     }
 
     public <V> Property<V> addProperty(final TinkerVertex vertex, final String key, final V value) {
         ElementHelper.validateProperty(key, value);
         if (isComputeKey(key)) {
-            final TinkerVertexProperty<V> property = new TinkerVertexProperty<V>((TinkerVertex) vertex, key, value) {
-                @Override
-                public void remove() {
-                    removeProperty(vertex, key, this);
-                }
-            };
-            this.addValue(vertex, key, property);
-            return property;
+            return this.computeColumns.get(key).add(vertex, this.slots.get(vertex.id()), value);
+        } else {
+            throw GraphComputer.Exceptions.providedKeyIsNotAnElementComputeKey(key);
+        }
+    }
+
+    /**
+     * Replace all values of the compute key on the vertex with the provided value which is the equivalent of
+     * writing the property with {@link VertexProperty.Cardinality#single} but without first reading and removing
+     * the existing properties.
+     */
+    public <V> VertexProperty<V> setProperty(final TinkerVertex vertex, final String key, final V value) {
+        ElementHelper.validateProperty(key, value);
+        if (isComputeKey(key)) {
+            final int slot = this.slots.get(vertex.id());
+            final ComputeColumn column = this.computeColumns.get(key);
+            // a pre-existing property of the same key is replaced just as it would be by a single cardinality write
+            final List<VertexProperty> existing = TinkerHelper.getProperties(vertex, key);
+            if (!existing.isEmpty()) new ArrayList<>(existing).forEach(VertexProperty::remove);
+            // clearing the slot first gives the replacement property an identifier of its own
+            column.clear(slot);
+            column.set(slot, value);
+            return column.newProperty(vertex, slot, value, true);
         } else {
             throw GraphComputer.Exceptions.providedKeyIsNotAnElementComputeKey(key);
         }
@@ -98,27 +131,33 @@ public final class TinkerGraphComputerView {
 
     public List<VertexProperty<?>> getProperty(final TinkerVertex vertex, final String key) {
         // if the vertex property is already on the vertex, use that.
-        final List<VertexProperty<?>> vertexProperty = this.getValue(vertex, key);
-        return vertexProperty.isEmpty() ? (List) TinkerHelper.getProperties(vertex).getOrDefault(key, Collections.emptyList()) : vertexProperty;
-        //return isComputeKey(key) ? this.getValue(vertex, key) : (List) TinkerHelper.getProperties(vertex).getOrDefault(key, Collections.emptyList());
+        final ComputeColumn column = this.computeColumns.get(key);
+        final List<VertexProperty<?>> vertexProperty = null == column ? Collections.emptyList() : column.get(vertex, this.slots.get(vertex.id()));
+        return vertexProperty.isEmpty() ? (List) TinkerHelper.getProperties(vertex, key) : vertexProperty;
     }
 
     public List<Property> getProperties(final TinkerVertex vertex) {
-        final Stream<Property> a = TinkerHelper.getProperties(vertex).values().stream().flatMap(list -> list.stream());
-        final Stream<Property> b = this.computeProperties.containsKey(vertex) ?
-                this.computeProperties.get(vertex).values().stream().flatMap(list -> list.stream()) :
-                Stream.empty();
-        return Stream.concat(a, b).collect(Collectors.toList());
+        final List<Property> properties = new ArrayList<>();
+        TinkerHelper.getProperties(vertex).values().forEach(properties::addAll);
+        final int slot = this.slots.get(vertex.id());
+        for (final ComputeColumn column : this.computeColumns.values()) {
+            properties.addAll(column.get(vertex, slot));
+        }
+        return properties;
     }
 
     public void removeProperty(final TinkerVertex vertex, final String key, final VertexProperty property) {
         if (isComputeKey(key)) {
-            this.removeValue(vertex, key, property);
+            this.computeColumns.get(key).remove(this.slots.get(vertex.id()), property);
         } else {
             throw GraphComputer.Exceptions.providedKeyIsNotAnElementComputeKey(key);
         }
     }
 
+    public boolean isComputeKey(final String key) {
+        return this.computeKeys.containsKey(key);
+    }
+
     public boolean legalVertex(final Vertex vertex) {
         return !this.graphFilter.hasVertexFilter() || this.legalVertices.contains(vertex.id());
     }
@@ -130,10 +169,8 @@ public final class TinkerGraphComputerView {
     protected void complete() {
         // remove all transient properties from the vertices
         for (final VertexComputeKey computeKey : this.computeKeys.values()) {
-            if (computeKey.isTransient()) {
-                final List<VertexProperty<?>> toRemove = this.computeProperties.values().stream().flatMap(map -> map.getOrDefault(computeKey.getKey(), Collections.emptyList()).stream()).collect(Collectors.toList());
-                toRemove.forEach(VertexProperty::remove);
-            }
+            if (computeKey.isTransient())
+                this.computeColumns.get(computeKey.getKey()).clear();
         }
     }
 
@@ -191,45 +228,209 @@ public final class TinkerGraphComputerView {
 
     private void addPropertiesToOriginalGraph() {
         TinkerHelper.dropGraphComputerView(this.graph);
-        this.computeProperties.forEach((element, properties) -> {
-            properties.forEach((key, vertexProperties) -> {
-                vertexProperties.forEach(vertexProperty -> {
-                    final VertexProperty<?> newVertexProperty = ((Vertex) element).property(VertexProperty.Cardinality.list, vertexProperty.key(), vertexProperty.value(), T.id, vertexProperty.id());
+        for (final ComputeColumn column : this.computeColumns.values()) {
+            for (int slot = 0; slot < this.vertices.length; slot++) {
+                if (EMPTY == column.kinds[slot]) continue;
+                final TinkerVertex vertex = this.vertices[slot];
+                column.get(vertex, slot).forEach(vertexProperty -> {
+                    final VertexProperty<?> newVertexProperty = vertex.property(VertexProperty.Cardinality.list, vertexProperty.key(), vertexProperty.value(), T.id, vertexProperty.id());
                     vertexProperty.properties().forEachRemaining(property -> {
                         newVertexProperty.property(property.key(), property.value());
                     });
                 });
-            });
-        });
-        this.computeProperties.clear();
+            }
+            column.clear();
+        }
     }
 
     //////////////////////
 
-    private boolean isComputeKey(final String key) {
-        return this.computeKeys.containsKey(key);
-    }
+    /**
+     * The values of a single compute key for all vertices.  The kind of value in a slot determines where it is
+     * stored: {@code double} (as raw bits) and {@code long} values go to a primitive array, any other single value
+     * goes to an object array and multiple values (or values with meta-properties) are held as a list of
+     * {@link VertexProperty} in the object array.  As the {@link VertexProperty} of a single value is created anew each
+     * time it is read, its identifier is kept in a further lazily allocated array so that it is the same on every read.
+     * A slot is only ever written by the worker executing its vertex, so the arrays themselves need no synchronization
+     * and only their lazy creation is guarded.
+     */
+    private final class ComputeColumn {
 
-    private void addValue(final Vertex vertex, final String key, final VertexProperty property) {
-        final Map<String, List<VertexProperty<?>>> elementProperties = this.computeProperties.computeIfAbsent(vertex, k -> new ConcurrentHashMap<>());
-        elementProperties.compute(key, (k, v) -> {
-            if (null == v) v = Collections.synchronizedList(new ArrayList<>());
-            v.add(property);
-            return v;
-        });
-    }
+        private final String key;
+        private final byte[] kinds;
+        private volatile long[] primitives;
+        private volatile Object[] objects;
+        private volatile Object[] ids;
 
-    private void removeValue(final Vertex vertex, final String key, final VertexProperty property) {
-        this.computeProperties.computeIfPresent(vertex, (k, v) -> {
-            v.computeIfPresent(key, (k1, v1) -> {
-                v1.remove(property);
-                return v1;
-            });
-            return v;
-        });
-    }
+        private ComputeColumn(final String key, final int size) {
+            this.key = key;
+            this.kinds = new byte[size];
+        }
+
+        public <V> void set(final int slot, final V value) {
+            if (value instanceof Double) {
+                this.primitives()[slot] = Double.doubleToRawLongBits((Double) value);
+                this.kinds[slot] = DOUBLE;
+                if (null != this.objects) this.objects[slot] = null;
+            } else if (value instanceof Long) {
+                this.primitives()[slot] = (Long) value;
+                this.kinds[slot] = LONG;
+                if (null != this.objects) this.objects[slot] = null;
+            } else {
+                this.objects()[slot] = value;
+                this.kinds[slot] = OBJECT;
+            }
+        }
+
+        public <V> VertexProperty<V> add(final TinkerVertex vertex, final int slot, final V value) {
+            if (EMPTY == this.kinds[slot]) {
+                this.set(slot, value);
+                return this.newProperty(vertex, slot, value, true);
+            } else {
+                final VertexProperty<V> property = this.newProperty(vertex, slot, value, false);
+                this.toProperties(vertex, slot).add(property);
+                return property;
+            }
+        }
+
+        public List<VertexProperty<?>> get(final TinkerVertex vertex, final int slot) {
+            switch (this.kinds[slot]) {
+                case EMPTY:
+                    return Collections.emptyList();
+                case PROPERTIES:
+                    // copy as callers commonly remove the properties they iterate
+                    return new ArrayList<>((List<VertexProperty<?>>) this.objects[slot]);
+                default:
+                    return Collections.singletonList(this.newProperty(vertex, slot, this.value(slot), true));
+            }
+        }
+
+        public void remove(final int slot, final VertexProperty<?> property) {
+            if (PROPERTIES == this.kinds[slot]) {
+                final List<VertexProperty<?>> properties = (List<VertexProperty<?>>) this.objects[slot];
+                if (!properties.remove(property)) {
+                    for (int i = 0; i < properties.size(); i++) {
+                        if (properties.get(i).value().equals(property.value())) {
+                            properties.remove(i);
+                            break;
+                        }
+                    }
+                }
+                if (properties.isEmpty()) this.clear(slot);
+            } else if (EMPTY != this.kinds[slot] && this.value(slot).equals(property.value())) {
+                this.clear(slot);
+            }
+        }
+
+        public void clear() {
+            Arrays.fill(this.kinds, EMPTY);
+            this.primitives = null;
+            this.objects = null;
+            this.ids = null;
+        }
+
+        private void clear(final int slot) {
+            this.kinds[slot] = EMPTY;
+            if (null != this.objects) this.objects[slot] = null;
+            if (null != this.ids) this.ids[slot] = null;
+        }
+
+        /**
+         * Get the identifier of the single value in the slot, drawing one from the graph the first time it is needed.
+         */
+        private Object id(final int slot) {
+            final Object[] ids = this.ids();
+            if (null == ids[slot]) ids[slot] = TinkerHelper.getNextVertexPropertyId(graph);
+            return ids[slot];
+        }
+
+        private Object value(final int slot) {
+            switch (this.kinds[slot]) {
+                case DOUBLE:
+                    return Double.longBitsToDouble(this.primitives[slot]);
+                case LONG:
+                    return this.primitives[slot];
+                default:
+                    return this.objects[slot];
+            }
+        }
+
+        private List<VertexProperty<?>> toProperties(final TinkerVertex vertex, final int slot) {
+            if (PROPERTIES != this.kinds[slot]) {
+                final List<VertexProperty<?>> properties = new ArrayList<>(2);
+                if (EMPTY != this.kinds[slot])
+                    properties.add(this.newProperty(vertex, slot, this.value(slot), true));
+                this.objects()[slot] = properties;
+                this.kinds[slot] = PROPERTIES;
+            }
+            return (List<VertexProperty<?>>) this.objects[slot];
+        }
 
-    private List<VertexProperty<?>> getValue(final Vertex vertex, final String key) {
-        return this.computeProperties.getOrDefault(vertex, Collections.emptyMap()).getOrDefault(key, Collections.emptyList());
+        /**
+         * Create the {@link VertexProperty} of a value in the slot.  The property of the single value of a slot takes
+         * the identifier of the slot, while a further value added to the slot gets its own identifier and is kept in
+         * the list of properties of the slot from then on.
+         */
+        private <V> VertexProperty<V> newProperty(final TinkerVertex vertex, final int slot, final V value, final boolean slotId) {
+            return new TinkerVertexProperty<V>(null, vertex, this.key, value) {
+                private Object lazyId = null;
+
+                @Override
+                public Object id() {
+                    if (null == this.lazyId)
+                        this.lazyId = slotId ? ComputeColumn.this.id(slot) : TinkerHelper.getNextVertexPropertyId(graph);
+                    return this.lazyId;
+                }
+
+                @Override
+                public <U> Property<U> property(final String key, final U value) {
+                    // meta-properties can not be held in the primitive or object arrays so keep this property itself
+                    final List<VertexProperty<?>> properties = toProperties(vertex, slot);
+                    if (!properties.contains(this)) {
+                        properties.removeIf(p -> p.value().equals(this.value()) && p.keys().isEmpty());
+                        properties.add(this);
+                    }
+                    return super.property(key, value);
+                }
+
+                @Override
+                public void remove() {
+                    ComputeColumn.this.remove(slot, this);
+                }
+            };
+        }
+
+        private long[] primitives() {
+            long[] primitives = this.primitives;
+            if (null == primitives) {
+                synchronized (this) {
+                    if (null == (primitives = this.primitives))
+                        this.primitives = primitives = new long[this.kinds.length];
+                }
+            }
+            return primitives;
+        }
+
+        private Object[] ids() {
+            Object[] ids = this.ids;
+            if (null == ids) {
+                synchronized (this) {
+                    if (null == (ids = this.ids))
+                        this.ids = ids = new Object[this.kinds.length];
+                }
+            }
+            return ids;
+        }
+
+        private Object[] objects() {
+            Object[] objects = this.objects;
+            if (null == objects) {
+                synchronized (this) {
+                    if (null == (objects = this.objects))
+                        this.objects = objects = new Object[this.kinds.length];
+                }
+            }
+            return objects;
+        }
     }
-}
\ No newline at end of file
+}
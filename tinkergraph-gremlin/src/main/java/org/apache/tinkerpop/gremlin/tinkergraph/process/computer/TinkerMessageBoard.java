@@ -18,29 +18,100 @@
  */
 package org.apache.tinkerpop.gremlin.tinkergraph.process.computer;
 
+import org.apache.tinkerpop.gremlin.process.computer.MessageCombiner;
 import org.apache.tinkerpop.gremlin.process.computer.MessageScope;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
+ * Holds the messages sent between vertices during a {@link TinkerGraphComputer} job.  Each vertex is assigned a
+ * dense integer slot for the duration of the job and messages are stored in arrays indexed by slot.  When the
+ * {@link org.apache.tinkerpop.gremlin.process.computer.VertexProgram} provides a {@link MessageCombiner}, a slot
+ * holds the single combined message which is updated in place under one of a fixed set of striped locks, otherwise
+ * it holds a queue of the messages received.  The send and receive arrays are swapped at the end of each iteration
+ * rather than reallocated.
+ *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 final class TinkerMessageBoard<M> {
 
-    public Map<Vertex, Queue<M>> sendMessages = new ConcurrentHashMap<>();
-    public Map<Vertex, Queue<M>> receiveMessages = new ConcurrentHashMap<>();
-    public Set<MessageScope> previousMessageScopes = new HashSet<>();
-    public Set<MessageScope> currentMessageScopes = new HashSet<>();
+    private static final int LOCKS = 256;
+
+    private final Map<Object, Integer> slots;
+    private final MessageCombiner<M> combiner;
+    private final Object[] locks = new Object[LOCKS];
+    private AtomicReferenceArray<Object> sendMessages;
+    private AtomicReferenceArray<Object> receiveMessages;
+    public Set<MessageScope> previousMessageScopes = Collections.emptySet();
+    public Set<MessageScope> currentMessageScopes = ConcurrentHashMap.newKeySet();
+
+    public TinkerMessageBoard(final Vertex[] vertices, final Optional<MessageCombiner<M>> combiner) {
+        this.slots = new HashMap<>(vertices.length * 4 / 3 + 1);
+        for (int i = 0; i < vertices.length; i++) {
+            this.slots.put(vertices[i].id(), i);
+        }
+        this.combiner = combiner.orElse(null);
+        for (int i = 0; i < LOCKS; i++) {
+            this.locks[i] = new Object();
+        }
+        this.sendMessages = new AtomicReferenceArray<>(vertices.length);
+        this.receiveMessages = new AtomicReferenceArray<>(vertices.length);
+    }
+
+    /**
+     * Get the slot of the vertex or {@code -1} if the vertex is not part of the computation.
+     */
+    public int slot(final Vertex vertex) {
+        final Integer slot = this.slots.get(vertex.id());
+        return null == slot ? -1 : slot;
+    }
+
+    public void sendMessage(final int slot, final M message) {
+        if (-1 == slot) return; // the vertex is not part of the computation so it would never receive the message
+        if (null != this.combiner) {
+            // combiners may mutate the message they combine into (e.g. a TraverserSet) so combining must be exclusive
+            synchronized (this.locks[slot & (LOCKS - 1)]) {
+                final Object current = this.sendMessages.get(slot);
+                this.sendMessages.set(slot, null == current ? message : this.combiner.combine((M) current, message));
+            }
+        } else {
+            Queue<M> queue = (Queue<M>) this.sendMessages.get(slot);
+            if (null == queue) {
+                this.sendMessages.compareAndSet(slot, null, new ConcurrentLinkedQueue<M>());
+                queue = (Queue<M>) this.sendMessages.get(slot);
+            }
+            queue.add(message);
+        }
+    }
+
+    public Iterator<M> receiveMessages(final int slot) {
+        if (-1 == slot) return Collections.emptyIterator();
+        final Object messages = this.receiveMessages.get(slot);
+        if (null == messages)
+            return Collections.emptyIterator();
+        else
+            return null != this.combiner ? IteratorUtils.of((M) messages) : ((Queue<M>) messages).iterator();
+    }
 
     public void completeIteration() {
+        final AtomicReferenceArray<Object> temp = this.receiveMessages;
         this.receiveMessages = this.sendMessages;
-        this.sendMessages = new ConcurrentHashMap<>();
+        this.sendMessages = temp;
+        for (int i = 0; i < temp.length(); i++) {
+            temp.lazySet(i, null);
+        }
         this.previousMessageScopes = this.currentMessageScopes;
-        this.currentMessageScopes = new HashSet<>();
+        this.currentMessageScopes = ConcurrentHashMap.newKeySet();
     }
 }
@@ -0,0 +1,299 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The adjacency and property storage of a {@link TinkerVertex} when {@link TinkerGraph} is configured with
+ * {@link TinkerGraph.VertexStorage#COMPACT}.  Incident edges are held in parallel arrays of interned label ids and
+ * edges (one pair per direction) and vertex properties are held in a single flat array, which avoids the nested
+ * {@code HashMap}/{@code HashSet} entries of the standard storage.  Lookups by label compare {@code int} ids and
+ * lookups by key scan the (typically short) property array.  The properties of a {@link TinkerEdge} in this mode are
+ * held in a flat array of alternating keys and values maintained through the static helpers of this class, and
+ * property keys are interned on both vertex properties and edges.
+ *
+ * @author agent (agent@local)
+ */
+final class TinkerCompactStorage {
+
+    private static final int[] EMPTY_LABELS = new int[0];
+    private static final TinkerEdge[] EMPTY_EDGES = new TinkerEdge[0];
+    private static final VertexProperty[] EMPTY_PROPERTIES = new VertexProperty[0];
+
+    private int[] outLabels = EMPTY_LABELS;
+    private TinkerEdge[] outEdges = EMPTY_EDGES;
+    private int outSize = 0;
+
+    private int[] inLabels = EMPTY_LABELS;
+    private TinkerEdge[] inEdges = EMPTY_EDGES;
+    private int inSize = 0;
+
+    private VertexProperty[] properties = EMPTY_PROPERTIES;
+    private int propertiesSize = 0;
+
+    ///////////// EDGES /////////////
+
+    public void addOutEdge(final int label, final TinkerEdge edge) {
+        if (this.outSize == this.outEdges.length) {
+            final int capacity = grow(this.outSize);
+            this.outLabels = Arrays.copyOf(this.outLabels, capacity);
+            this.outEdges = Arrays.copyOf(this.outEdges, capacity);
+        }
+        this.outLabels[this.outSize] = label;
+        this.outEdges[this.outSize++] = edge;
+    }
+
+    public void addInEdge(final int label, final TinkerEdge edge) {
+        if (this.inSize == this.inEdges.length) {
+            final int capacity = grow(this.inSize);
+            this.inLabels = Arrays.copyOf(this.inLabels, capacity);
+            this.inEdges = Arrays.copyOf(this.inEdges, capacity);
+        }
+        this.inLabels[this.inSize] = label;
+        this.inEdges[this.inSize++] = edge;
+    }
+
+    public void removeOutEdge(final TinkerEdge edge) {
+        for (int i = 0; i < this.outSize; i++) {
+            if (this.outEdges[i] == edge) {
+                // move the last entry into the freed slot as adjacency order is not significant
+                this.outSize--;
+                this.outLabels[i] = this.outLabels[this.outSize];
+                this.outEdges[i] = this.outEdges[this.outSize];
+                this.outEdges[this.outSize] = null;
+                return;
+            }
+        }
+    }
+
+    public void removeInEdge(final TinkerEdge edge) {
+        for (int i = 0; i < this.inSize; i++) {
+            if (this.inEdges[i] == edge) {
+                this.inSize--;
+                this.inLabels[i] = this.inLabels[this.inSize];
+                this.inEdges[i] = this.inEdges[this.inSize];
+                this.inEdges[this.inSize] = null;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Add the incident edges in the given direction to the {@code edges} list.  A {@code null} label array means
+     * all labels.
+     */
+    public void edges(final Direction direction, final int[] labels, final List<Edge> edges) {
+        if (direction.equals(Direction.OUT) || direction.equals(Direction.BOTH)) {
+            for (int i = 0; i < this.outSize; i++) {
+                if (null == labels || contains(labels, this.outLabels[i]))
+                    edges.add(this.outEdges[i]);
+            }
+        }
+        if (direction.equals(Direction.IN) || direction.equals(Direction.BOTH)) {
+            for (int i = 0; i < this.inSize; i++) {
+                if (null == labels || contains(labels, this.inLabels[i]))
+                    edges.add(this.inEdges[i]);
+            }
+        }
+    }
+
+    /**
+     * Add the adjacent vertices in the given direction to the {@code vertices} list.  A {@code null} label array
+     * means all labels.
+     */
+    public void vertices(final Direction direction, final int[] labels, final List<Vertex> vertices) {
+        if (direction.equals(Direction.OUT) || direction.equals(Direction.BOTH)) {
+            for (int i = 0; i < this.outSize; i++) {
+                if (null == labels || contains(labels, this.outLabels[i]))
+                    vertices.add(this.outEdges[i].inVertex);
+            }
+        }
+        if (direction.equals(Direction.IN) || direction.equals(Direction.BOTH)) {
+            for (int i = 0; i < this.inSize; i++) {
+                if (null == labels || contains(labels, this.inLabels[i]))
+                    vertices.add(this.inEdges[i].outVertex);
+            }
+        }
+    }
+
+    ///////////// PROPERTIES /////////////
+
+    public void addProperty(final VertexProperty property) {
+        if (this.propertiesSize == this.properties.length)
+            this.properties = Arrays.copyOf(this.properties, grow(this.propertiesSize));
+        this.properties[this.propertiesSize++] = property;
+    }
+
+    public void removeProperty(final VertexProperty property) {
+        for (int i = 0; i < this.propertiesSize; i++) {
+            if (this.properties[i] == property) {
+                // properties keep their insertion order so shift rather than swap
+                System.arraycopy(this.properties, i + 1, this.properties, i, this.propertiesSize - i - 1);
+                this.properties[--this.propertiesSize] = null;
+                return;
+            }
+        }
+    }
+
+    public void clearProperties() {
+        this.properties = EMPTY_PROPERTIES;
+        this.propertiesSize = 0;
+    }
+
+    public boolean hasProperty(final String key) {
+        for (int i = 0; i < this.propertiesSize; i++) {
+            if (this.properties[i].key().equals(key))
+                return true;
+        }
+        return false;
+    }
+
+    public List<VertexProperty> getProperties(final String key) {
+        List<VertexProperty> list = Collections.emptyList();
+        for (int i = 0; i < this.propertiesSize; i++) {
+            if (this.properties[i].key().equals(key)) {
+                if (list.isEmpty())
+                    list = Collections.singletonList(this.properties[i]);
+                else {
+                    if (list.size() == 1) list = new ArrayList<>(list);
+                    list.add(this.properties[i]);
+                }
+            }
+        }
+        return list;
+    }
+
+    public List<VertexProperty> getProperties(final String... keys) {
+        final List<VertexProperty> list = new ArrayList<>();
+        for (int i = 0; i < this.propertiesSize; i++) {
+            if (keys.length == 0 || contains(keys, this.properties[i].key()))
+                list.add(this.properties[i]);
+        }
+        return list;
+    }
+
+    public Map<String, List<VertexProperty>> getPropertyMap() {
+        if (0 == this.propertiesSize) return Collections.emptyMap();
+        final Map<String, List<VertexProperty>> map = new LinkedHashMap<>();
+        for (int i = 0; i < this.propertiesSize; i++) {
+            map.computeIfAbsent(this.properties[i].key(), k -> new ArrayList<>()).add(this.properties[i]);
+        }
+        return map;
+    }
+
+    public Set<String> keys() {
+        if (0 == this.propertiesSize) return Collections.emptySet();
+        final Set<String> keys = new LinkedHashSet<>();
+        for (int i = 0; i < this.propertiesSize; i++) {
+            keys.add(this.properties[i].key());
+        }
+        return keys;
+    }
+
+    ///////////// EDGE PROPERTIES /////////////
+
+    /**
+     * Get the value of the key in a flat array of alternating keys and values or {@code null} if it is not present.
+     */
+    public static Object getProperty(final Object[] keyValues, final String key) {
+        if (null == keyValues) return null;
+        for (int i = 0; i < keyValues.length; i = i + 2) {
+            if (keyValues[i].equals(key)) return keyValues[i + 1];
+        }
+        return null;
+    }
+
+    public static Set<String> getPropertyKeys(final Object[] keyValues) {
+        if (null == keyValues) return Collections.emptySet();
+        final Set<String> keys = new LinkedHashSet<>();
+        for (int i = 0; i < keyValues.length; i = i + 2) {
+            keys.add((String) keyValues[i]);
+        }
+        return keys;
+    }
+
+    /**
+     * Set the value of the key in a flat array of alternating keys and values, returning the array to use from
+     * then on.  The array is sized exactly to its entries and new keys are interned so that edges sharing a key
+     * share the {@code String}.
+     */
+    public static Object[] setProperty(final Object[] keyValues, final String key, final Object value) {
+        if (null == keyValues) return new Object[]{key.intern(), value};
+        for (int i = 0; i < keyValues.length; i = i + 2) {
+            if (keyValues[i].equals(key)) {
+                keyValues[i + 1] = value;
+                return keyValues;
+            }
+        }
+        final Object[] grown = Arrays.copyOf(keyValues, keyValues.length + 2);
+        grown[keyValues.length] = key.intern();
+        grown[keyValues.length + 1] = value;
+        return grown;
+    }
+
+    /**
+     * Remove the key from a flat array of alternating keys and values, returning the array to use from then on.
+     */
+    public static Object[] removeProperty(final Object[] keyValues, final String key) {
+        if (null == keyValues) return null;
+        for (int i = 0; i < keyValues.length; i = i + 2) {
+            if (keyValues[i].equals(key)) {
+                if (2 == keyValues.length) return null;
+                final Object[] shrunk = new Object[keyValues.length - 2];
+                System.arraycopy(keyValues, 0, shrunk, 0, i);
+                System.arraycopy(keyValues, i + 2, shrunk, i, keyValues.length - i - 2);
+                return shrunk;
+            }
+        }
+        return keyValues;
+    }
+
+    ///////////// HELPERS /////////////
+
+    private static int grow(final int size) {
+        return size < 4 ? size + 2 : size + (size >> 1);
+    }
+
+    private static boolean contains(final int[] labels, final int label) {
+        for (final int l : labels) {
+            if (l == label) return true;
+        }
+        return false;
+    }
+
+    private static boolean contains(final String[] keys, final String key) {
+        for (final String k : keys) {
+            if (k.equals(key)) return true;
+        }
+        return false;
+    }
+}
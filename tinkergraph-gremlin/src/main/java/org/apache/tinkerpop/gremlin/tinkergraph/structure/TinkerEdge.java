@@ -28,9 +28,11 @@ import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -41,9 +43,21 @@ import java.util.stream.Collectors;
 public final class TinkerEdge extends TinkerElement implements Edge {
 
     protected Map<String, Property> properties;
+
+    /**
+     * The properties of this edge as alternating interned keys and values when the graph is configured with
+     * {@link TinkerGraph.VertexStorage#COMPACT}, in which case {@link #properties} is not used.
+     */
+    protected Object[] compactProperties;
     protected final Vertex inVertex;
     protected final Vertex outVertex;
 
+    /**
+     * The offset of the properties of this edge in the {@link TinkerMappedStorage} of the graph or {@code -1} if
+     * they are held on the heap.
+     */
+    protected volatile long mappedOffset = -1L;
+
     protected TinkerEdge(final Object id, final Vertex outVertex, final String label, final Vertex inVertex) {
         super(id, label);
         this.outVertex = outVertex;
@@ -53,47 +67,105 @@ public final class TinkerEdge extends TinkerElement implements Edge {
 
     @Override
     public <V> Property<V> property(final String key, final V value) {
-        if (this.removed) throw elementAlreadyRemoved(Edge.class, id);
-        ElementHelper.validateProperty(key, value);
-        final Property oldProperty = super.property(key);
-        final Property<V> newProperty = new TinkerProperty<>(this, key, value);
-        if (null == this.properties) this.properties = new HashMap<>();
-        this.properties.put(key, newProperty);
-        TinkerHelper.autoUpdateIndex(this, key, value, oldProperty.isPresent() ? oldProperty.value() : null);
-        return newProperty;
-
+        TinkerHelper.beginMutation((TinkerGraph) this.graph());
+        try {
+            if (this.removed) throw elementAlreadyRemoved(Edge.class, id);
+            ElementHelper.validateProperty(key, value);
+            this.materialize();
+            final Property oldProperty = super.property(key);
+            final Property<V> newProperty = this.putProperty(key, value);
+            TinkerHelper.autoUpdateIndex(this, key, value, oldProperty.isPresent() ? oldProperty.value() : null);
+            final TinkerWriteAheadLog writeAheadLog = ((TinkerGraph) this.graph()).writeAheadLog;
+            if (null != writeAheadLog) writeAheadLog.setProperty(this, key, value);
+            return newProperty;
+        } finally {
+            TinkerHelper.endMutation((TinkerGraph) this.graph());
+        }
     }
 
     @Override
     public <V> Property<V> property(final String key) {
+        this.materialize();
+        if (this.isCompact()) {
+            final V value = (V) TinkerCompactStorage.getProperty(this.compactProperties, key);
+            return null == value ? Property.<V>empty() : new TinkerProperty<>(this, key, value);
+        }
         return null == this.properties ? Property.<V>empty() : this.properties.getOrDefault(key, Property.<V>empty());
     }
 
     @Override
     public Set<String> keys() {
+        this.materialize();
+        if (this.isCompact())
+            return TinkerCompactStorage.getPropertyKeys(this.compactProperties);
         return null == this.properties ? Collections.emptySet() : this.properties.keySet();
     }
 
+    /**
+     * Set the property value in the storage of the edge without updating indices or the write-ahead log.
+     */
+    <V> Property<V> putProperty(final String key, final V value) {
+        final Property<V> property = new TinkerProperty<>(this, key, value);
+        if (this.isCompact())
+            this.compactProperties = TinkerCompactStorage.setProperty(this.compactProperties, key, value);
+        else {
+            if (null == this.properties) this.properties = new HashMap<>();
+            this.properties.put(key, property);
+        }
+        return property;
+    }
+
+    /**
+     * Remove the property from the storage of the edge without updating indices or the write-ahead log.
+     */
+    void removeProperty(final String key) {
+        if (this.isCompact())
+            this.compactProperties = TinkerCompactStorage.removeProperty(this.compactProperties, key);
+        else if (null != this.properties)
+            this.properties.remove(key);
+    }
+
+    private boolean isCompact() {
+        return ((TinkerGraph) this.graph()).vertexStorage == TinkerGraph.VertexStorage.COMPACT;
+    }
+
     @Override
     public void remove() {
-        final TinkerVertex outVertex = (TinkerVertex) this.outVertex;
-        final TinkerVertex inVertex = (TinkerVertex) this.inVertex;
-
-        if (null != outVertex && null != outVertex.outEdges) {
-            final Set<Edge> edges = outVertex.outEdges.get(this.label());
-            if (null != edges)
-                edges.remove(this);
-        }
-        if (null != inVertex && null != inVertex.inEdges) {
-            final Set<Edge> edges = inVertex.inEdges.get(this.label());
-            if (null != edges)
-                edges.remove(this);
+        TinkerHelper.beginMutation((TinkerGraph) this.graph());
+        try {
+            final TinkerVertex outVertex = (TinkerVertex) this.outVertex;
+            final TinkerVertex inVertex = (TinkerVertex) this.inVertex;
+
+            if (null != outVertex && null != outVertex.compactStorage)
+                outVertex.compactStorage.removeOutEdge(this);
+            else if (null != outVertex && null != outVertex.outEdges) {
+                final Set<Edge> edges = outVertex.outEdges.get(this.label());
+                if (null != edges)
+                    edges.remove(this);
+            }
+            if (null != inVertex && null != inVertex.compactStorage)
+                inVertex.compactStorage.removeInEdge(this);
+            else if (null != inVertex && null != inVertex.inEdges) {
+                final Set<Edge> edges = inVertex.inEdges.get(this.label());
+                if (null != edges)
+                    edges.remove(this);
+            }
+
+            TinkerHelper.removeElementIndex(this);
+            ((TinkerGraph) this.graph()).edges.remove(this.id());
+            this.properties = null;
+            this.compactProperties = null;
+            this.mappedOffset = -1L;
+            this.removed = true;
+            final TinkerWriteAheadLog writeAheadLog = ((TinkerGraph) this.graph()).writeAheadLog;
+            if (null != writeAheadLog) writeAheadLog.removeEdge(this);
+        } finally {
+            TinkerHelper.endMutation((TinkerGraph) this.graph());
         }
+    }
 
-        TinkerHelper.removeElementIndex(this);
-        ((TinkerGraph) this.graph()).edges.remove(this.id());
-        this.properties = null;
-        this.removed = true;
+    void materialize() {
+        if (-1L != this.mappedOffset) ((TinkerGraph) this.graph()).mappedStorage.materialize(this);
     }
 
     @Override
@@ -132,6 +204,17 @@ public final class TinkerEdge extends TinkerElement implements Edge {
 
     @Override
     public <V> Iterator<Property<V>> properties(final String... propertyKeys) {
+        this.materialize();
+        if (this.isCompact()) {
+            final Object[] keyValues = this.compactProperties;
+            if (null == keyValues) return Collections.emptyIterator();
+            final List<Property<V>> properties = new ArrayList<>();
+            for (int i = 0; i < keyValues.length; i = i + 2) {
+                if (ElementHelper.keyExists((String) keyValues[i], propertyKeys))
+                    properties.add(new TinkerProperty<>(this, (String) keyValues[i], (V) keyValues[i + 1]));
+            }
+            return properties.iterator();
+        }
         if (null == this.properties) return Collections.emptyIterator();
         if (propertyKeys.length == 1) {
             final Property<V> property = this.properties.get(propertyKeys[0]);
@@ -25,6 +25,7 @@ import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Transaction;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
@@ -39,8 +40,14 @@ import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optim
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -115,6 +122,10 @@ public final class TinkerGraph implements Graph {
     public static final String GREMLIN_TINKERGRAPH_DEFAULT_VERTEX_PROPERTY_CARDINALITY = "gremlin.tinkergraph.defaultVertexPropertyCardinality";
     public static final String GREMLIN_TINKERGRAPH_GRAPH_LOCATION = "gremlin.tinkergraph.graphLocation";
     public static final String GREMLIN_TINKERGRAPH_GRAPH_FORMAT = "gremlin.tinkergraph.graphFormat";
+    public static final String GREMLIN_TINKERGRAPH_VERTEX_STORAGE = "gremlin.tinkergraph.vertexStorage";
+    public static final String GREMLIN_TINKERGRAPH_WRITE_AHEAD_LOG = "gremlin.tinkergraph.writeAheadLog";
+    public static final String GREMLIN_TINKERGRAPH_CHECKPOINT_INTERVAL = "gremlin.tinkergraph.checkpointInterval";
+    public static final String GREMLIN_TINKERGRAPH_WRITE_AHEAD_LOG_SYNC = "gremlin.tinkergraph.writeAheadLogSync";
 
     private final TinkerGraphFeatures features = new TinkerGraphFeatures();
 
@@ -131,6 +142,10 @@ public final class TinkerGraph implements Graph {
     protected final IdManager<?> edgeIdManager;
     protected final IdManager<?> vertexPropertyIdManager;
     protected final VertexProperty.Cardinality defaultVertexPropertyCardinality;
+    protected final VertexStorage vertexStorage;
+    protected final Map<String, Integer> edgeLabelIds = new ConcurrentHashMap<>();
+    protected volatile TinkerMappedStorage mappedStorage = null;
+    protected TinkerWriteAheadLog writeAheadLog = null;
 
     private final Configuration configuration;
     private final String graphLocation;
@@ -146,6 +161,8 @@ public final class TinkerGraph implements Graph {
         vertexPropertyIdManager = selectIdManager(configuration, GREMLIN_TINKERGRAPH_VERTEX_PROPERTY_ID_MANAGER, VertexProperty.class);
         defaultVertexPropertyCardinality = VertexProperty.Cardinality.valueOf(
                 configuration.getString(GREMLIN_TINKERGRAPH_DEFAULT_VERTEX_PROPERTY_CARDINALITY, VertexProperty.Cardinality.single.name()));
+        vertexStorage = VertexStorage.valueOf(
+                configuration.getString(GREMLIN_TINKERGRAPH_VERTEX_STORAGE, VertexStorage.STANDARD.name()));
 
         graphLocation = configuration.getString(GREMLIN_TINKERGRAPH_GRAPH_LOCATION, null);
         graphFormat = configuration.getString(GREMLIN_TINKERGRAPH_GRAPH_FORMAT, null);
@@ -154,7 +171,22 @@ public final class TinkerGraph implements Graph {
             throw new IllegalStateException(String.format("The %s and %s must both be specified if either is present",
                     GREMLIN_TINKERGRAPH_GRAPH_LOCATION, GREMLIN_TINKERGRAPH_GRAPH_FORMAT));
 
+        final boolean writeAheadLogEnabled = configuration.getBoolean(GREMLIN_TINKERGRAPH_WRITE_AHEAD_LOG, false);
+        if (writeAheadLogEnabled && null == graphLocation)
+            throw new IllegalStateException(String.format("The %s and %s must be specified if %s is enabled",
+                    GREMLIN_TINKERGRAPH_GRAPH_LOCATION, GREMLIN_TINKERGRAPH_GRAPH_FORMAT, GREMLIN_TINKERGRAPH_WRITE_AHEAD_LOG));
+
         if (graphLocation != null) loadGraph();
+
+        if (writeAheadLogEnabled) {
+            try {
+                writeAheadLog = TinkerWriteAheadLog.open(this, graphLocation,
+                        configuration.getLong(GREMLIN_TINKERGRAPH_CHECKPOINT_INTERVAL, 300000L),
+                        configuration.getBoolean(GREMLIN_TINKERGRAPH_WRITE_AHEAD_LOG_SYNC, false));
+            } catch (Exception ex) {
+                throw new RuntimeException(String.format("Could not replay the write-ahead log of the graph at %s", graphLocation), ex);
+            }
+        }
     }
 
     /**
@@ -190,22 +222,32 @@ public final class TinkerGraph implements Graph {
 
     @Override
     public Vertex addVertex(final Object... keyValues) {
-        ElementHelper.legalPropertyKeyValueArray(keyValues);
-        Object idValue = vertexIdManager.convert(ElementHelper.getIdValue(keyValues).orElse(null));
-        final String label = ElementHelper.getLabelValue(keyValues).orElse(Vertex.DEFAULT_LABEL);
-
-        if (null != idValue) {
-            if (this.vertices.containsKey(idValue))
-                throw Exceptions.vertexWithIdAlreadyExists(idValue);
-        } else {
-            idValue = vertexIdManager.getNextId(this);
-        }
+        TinkerHelper.beginMutation(this);
+        try {
+            ElementHelper.legalPropertyKeyValueArray(keyValues);
+            Object idValue = vertexIdManager.convert(ElementHelper.getIdValue(keyValues).orElse(null));
+            final String label = ElementHelper.getLabelValue(keyValues).orElse(Vertex.DEFAULT_LABEL);
+
+            // the check for an existing id and the put must be atomic as vertices may be added from several threads
+            final TinkerVertex vertex;
+            synchronized (this.vertices) {
+                if (null != idValue) {
+                    if (this.vertices.containsKey(idValue))
+                        throw Exceptions.vertexWithIdAlreadyExists(idValue);
+                } else {
+                    idValue = vertexIdManager.getNextId(this);
+                }
 
-        final Vertex vertex = new TinkerVertex(idValue, label, this);
-        this.vertices.put(vertex.id(), vertex);
+                vertex = new TinkerVertex(idValue, label, this);
+                this.vertices.put(vertex.id(), vertex);
+            }
+            if (null != this.writeAheadLog) this.writeAheadLog.addVertex(vertex);
 
-        ElementHelper.attachProperties(vertex, VertexProperty.Cardinality.list, keyValues);
-        return vertex;
+            ElementHelper.attachProperties(vertex, VertexProperty.Cardinality.list, keyValues);
+            return vertex;
+        } finally {
+            TinkerHelper.endMutation(this);
+        }
     }
 
     @Override
@@ -238,18 +280,38 @@ public final class TinkerGraph implements Graph {
     }
 
     public void clear() {
-        this.vertices.clear();
-        this.edges.clear();
-        this.variables = null;
-        this.currentId.set(-1l);
-        this.vertexIndex = null;
-        this.edgeIndex = null;
-        this.graphComputerView = null;
+        TinkerHelper.beginMutation(this);
+        try {
+            this.vertices.clear();
+            this.edges.clear();
+            this.variables = null;
+            this.currentId.set(-1l);
+            this.vertexIndex = null;
+            this.edgeIndex = null;
+            this.graphComputerView = null;
+            if (null != this.mappedStorage) this.mappedStorage.close();
+            this.mappedStorage = null;
+            if (null != this.writeAheadLog) this.writeAheadLog.clear();
+        } finally {
+            TinkerHelper.endMutation(this);
+        }
     }
 
+    /**
+     * If the write-ahead log is enabled, then closing the graph only needs to flush the log as the graph will be
+     * rebuilt from the last snapshot and the log when it is next opened.  Otherwise, the entire graph is written to
+     * the {@code graphLocation}.
+     */
     @Override
     public void close() {
-        if (graphLocation != null) saveGraph();
+        if (writeAheadLog != null) {
+            try {
+                writeAheadLog.close();
+            } catch (Exception ex) {
+                throw new RuntimeException(String.format("Could not close the write-ahead log of the graph at %s", graphLocation), ex);
+            }
+        } else if (graphLocation != null) saveGraph();
+        if (null != mappedStorage) mappedStorage.close();
     }
 
     @Override
@@ -282,6 +344,8 @@ public final class TinkerGraph implements Graph {
                     io(IoCore.graphson()).readGraph(graphLocation);
                 } else if (graphFormat.equals("gryo")) {
                     io(IoCore.gryo()).readGraph(graphLocation);
+                } else if (graphFormat.equals("mapped")) {
+                    mappedStorage = TinkerMappedStorage.open(this, graphLocation);
                 } else {
                     io(IoCore.createIoBuilder(graphFormat)).readGraph(graphLocation);
                 }
@@ -292,6 +356,15 @@ public final class TinkerGraph implements Graph {
     }
 
     private void saveGraph() {
+        if (graphFormat.equals("mapped")) {
+            try {
+                TinkerMappedStorage.save(this, graphLocation);
+            } catch (Exception ex) {
+                throw new RuntimeException(String.format("Could not save graph at %s with %s", graphLocation, graphFormat), ex);
+            }
+            return;
+        }
+
         final File f = new File(graphLocation);
         if (f.exists()) {
             f.delete();
@@ -303,20 +376,70 @@ public final class TinkerGraph implements Graph {
         }
 
         try {
-            if (graphFormat.equals("graphml")) {
-                io(IoCore.graphml()).writeGraph(graphLocation);
-            } else if (graphFormat.equals("graphson")) {
-                io(IoCore.graphson()).writeGraph(graphLocation);
-            } else if (graphFormat.equals("gryo")) {
-                io(IoCore.gryo()).writeGraph(graphLocation);
-            } else {
-                io(IoCore.createIoBuilder(graphFormat)).writeGraph(graphLocation);
-            }
+            writeGraph(this, graphLocation);
         } catch (Exception ex) {
             throw new RuntimeException(String.format("Could not save graph at %s with %s", graphLocation, graphFormat), ex);
         }
     }
 
+    /**
+     * Write the specified graph, which is either this graph or a {@link #copy()} of it, to a file beside the
+     * {@code graphLocation} and then move it over the {@code graphLocation} so that the previous snapshot remains
+     * intact if the write fails.  A graph in the "mapped" format is always saved from this graph as its mapping is
+     * replaced by one of the new file.
+     */
+    void saveSnapshot(final TinkerGraph source) throws Exception {
+        if (graphFormat.equals("mapped")) {
+            TinkerMappedStorage.save(this, graphLocation);
+        } else {
+            final File temp = new File(graphLocation + ".tmp");
+            if (temp.exists()) temp.delete();
+            writeGraph(source, temp.getPath());
+            Files.move(temp.toPath(), Paths.get(graphLocation), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    /**
+     * Determines if a snapshot of the graph can be written from a {@link #copy()} of it.
+     */
+    boolean canSnapshotCopy() {
+        return !graphFormat.equals("mapped");
+    }
+
+    /**
+     * Copy the elements of the graph with their identifiers, labels and properties into a new graph that is held only
+     * in memory, so that the copy can be written while this graph continues to be mutated.
+     */
+    TinkerGraph copy() {
+        final TinkerGraph copy = TinkerGraph.open();
+        vertices.values().forEach(vertex -> {
+            final Vertex copied = copy.addVertex(T.id, vertex.id(), T.label, vertex.label());
+            vertex.properties().forEachRemaining(vertexProperty -> {
+                final VertexProperty<?> copiedProperty = copied.property(VertexProperty.Cardinality.list,
+                        vertexProperty.key(), vertexProperty.value(), T.id, vertexProperty.id());
+                vertexProperty.properties().forEachRemaining(property -> copiedProperty.property(property.key(), property.value()));
+            });
+        });
+        edges.values().forEach(edge -> {
+            final Vertex outVertex = copy.vertices.get(edge.outVertex().id());
+            final Edge copied = outVertex.addEdge(edge.label(), copy.vertices.get(edge.inVertex().id()), T.id, edge.id());
+            edge.properties().forEachRemaining(property -> copied.property(property.key(), property.value()));
+        });
+        return copy;
+    }
+
+    private void writeGraph(final TinkerGraph source, final String location) throws Exception {
+        if (graphFormat.equals("graphml")) {
+            source.io(IoCore.graphml()).writeGraph(location);
+        } else if (graphFormat.equals("graphson")) {
+            source.io(IoCore.graphson()).writeGraph(location);
+        } else if (graphFormat.equals("gryo")) {
+            source.io(IoCore.gryo()).writeGraph(location);
+        } else {
+            source.io(IoCore.createIoBuilder(graphFormat)).writeGraph(location);
+        }
+    }
+
 
     private <T extends Element> Iterator<T> createElementIterator(final Class<T> clazz, final Map<Object, T> elements,
                                                                   final IdManager idManager,
@@ -488,12 +611,27 @@ public final class TinkerGraph implements Graph {
      * @param <E>          The type of the element class
      */
     public <E extends Element> void createIndex(final String key, final Class<E> elementClass) {
+        this.createIndex(key, elementClass, IndexType.HASH);
+    }
+
+    /**
+     * Create an index of the specified {@link IndexType} for said element class ({@link Vertex} or {@link Edge}) and
+     * said property key. A {@link IndexType#ORDERED} index will additionally be used for range lookups such as
+     * {@code gt()}, {@code lt()} and {@code between()}. Creating an ordered index for a key that already has a
+     * hash index will rebuild the index as ordered.
+     *
+     * @param key          the property key to index
+     * @param elementClass the element class to index
+     * @param indexType    the type of index to maintain for the key
+     * @param <E>          The type of the element class
+     */
+    public <E extends Element> void createIndex(final String key, final Class<E> elementClass, final IndexType indexType) {
         if (Vertex.class.isAssignableFrom(elementClass)) {
             if (null == this.vertexIndex) this.vertexIndex = new TinkerIndex<>(this, TinkerVertex.class);
-            this.vertexIndex.createKeyIndex(key);
+            this.vertexIndex.createKeyIndex(key, indexType == IndexType.ORDERED);
         } else if (Edge.class.isAssignableFrom(elementClass)) {
             if (null == this.edgeIndex) this.edgeIndex = new TinkerIndex<>(this, TinkerEdge.class);
-            this.edgeIndex.createKeyIndex(key);
+            this.edgeIndex.createKeyIndex(key, indexType == IndexType.ORDERED);
         } else {
             throw new IllegalArgumentException("Class is not indexable: " + elementClass);
         }
@@ -533,6 +671,114 @@ public final class TinkerGraph implements Graph {
         }
     }
 
+    /**
+     * Create a composite index for said element class ({@link Vertex} or {@link Edge}) over the ordered tuple of
+     * property keys. Elements are indexed by the combination of their values for all the keys and are only indexed
+     * if they have a value for each of them. The index is used when a traversal has equality or {@code within()}
+     * lookups on every key of the index and it is estimated to return fewer elements than any other index.
+     *
+     * @param elementClass the element class to index
+     * @param keys         the property keys to index which must number at least two
+     * @param <E>          The type of the element class
+     */
+    public <E extends Element> void createCompositeIndex(final Class<E> elementClass, final String... keys) {
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            if (null == this.vertexIndex) this.vertexIndex = new TinkerIndex<>(this, TinkerVertex.class);
+            this.vertexIndex.createCompositeIndex(Arrays.asList(keys));
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            if (null == this.edgeIndex) this.edgeIndex = new TinkerIndex<>(this, TinkerEdge.class);
+            this.edgeIndex.createCompositeIndex(Arrays.asList(keys));
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
+    /**
+     * Drop the composite index for the specified element class ({@link Vertex} or {@link Edge}) and keys.
+     *
+     * @param elementClass the element class of the index to drop
+     * @param keys         the property keys of the index in the order they were created with
+     * @param <E>          The type of the element class
+     */
+    public <E extends Element> void dropCompositeIndex(final Class<E> elementClass, final String... keys) {
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            if (null != this.vertexIndex) this.vertexIndex.dropCompositeIndex(Arrays.asList(keys));
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            if (null != this.edgeIndex) this.edgeIndex.dropCompositeIndex(Arrays.asList(keys));
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
+    /**
+     * Return the key tuples of all the composite indices for said element class ({@link Vertex} or {@link Edge}).
+     *
+     * @param elementClass the element class to get the composite indexed keys for
+     * @param <E>          The type of the element class
+     * @return the set of key tuples currently being indexed
+     */
+    public <E extends Element> Set<List<String>> getCompositeIndexedKeys(final Class<E> elementClass) {
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            return null == this.vertexIndex ? Collections.emptySet() : this.vertexIndex.getCompositeKeys();
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            return null == this.edgeIndex ? Collections.emptySet() : this.edgeIndex.getCompositeKeys();
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
+    /**
+     * Return all the keys currently being indexed with an {@link IndexType#ORDERED} index for said element class
+     * ({@link Vertex} or {@link Edge}).
+     *
+     * @param elementClass the element class to get the ordered indexed keys for
+     * @param <E>          The type of the element class
+     * @return the set of keys currently being indexed with an ordered index
+     */
+    public <E extends Element> Set<String> getOrderedIndexedKeys(final Class<E> elementClass) {
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            return null == this.vertexIndex ? Collections.emptySet() : this.vertexIndex.getOrderedKeys();
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            return null == this.edgeIndex ? Collections.emptySet() : this.edgeIndex.getOrderedKeys();
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
+    /**
+     * The types of index that TinkerGraph can maintain for a property key.
+     */
+    public enum IndexType {
+        /**
+         * A hash-based index that can only be used for equality and {@code within()} lookups.
+         */
+        HASH,
+
+        /**
+         * A sorted index that can be used for equality, {@code within()} and range lookups. Values are grouped by
+         * type where all {@link Number} values are considered to be of the same type.
+         */
+        ORDERED
+    }
+
+    /**
+     * The ways in which TinkerGraph can lay out the adjacency and properties of its vertices in memory, as selected
+     * by {@link #GREMLIN_TINKERGRAPH_VERTEX_STORAGE}.
+     */
+    public enum VertexStorage {
+        /**
+         * Incident edges are held in hash sets grouped by label and properties in lists grouped by key.
+         */
+        STANDARD,
+
+        /**
+         * Incident edges are held in flat arrays alongside interned label ids and properties in a single flat
+         * array. This reduces the per-vertex memory overhead and speeds up iteration of adjacent elements at the
+         * cost of linear time edge removal, which suits large graphs that are mostly loaded and then read.
+         */
+        COMPACT
+    }
+
     /**
      * Construct an {@link TinkerGraph.IdManager} from the TinkerGraph {@code Configuration}.
      */
@@ -20,6 +20,7 @@ package org.apache.tinkerpop.gremlin.tinkergraph.structure;
 
 import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
 import org.apache.tinkerpop.gremlin.process.computer.VertexComputeKey;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Graph;
@@ -48,29 +49,41 @@ public final class TinkerHelper {
     }
 
     protected static Edge addEdge(final TinkerGraph graph, final TinkerVertex outVertex, final TinkerVertex inVertex, final String label, final Object... keyValues) {
-        ElementHelper.validateLabel(label);
-        ElementHelper.legalPropertyKeyValueArray(keyValues);
+        TinkerHelper.beginMutation(graph);
+        try {
+            ElementHelper.validateLabel(label);
+            ElementHelper.legalPropertyKeyValueArray(keyValues);
 
-        Object idValue = graph.edgeIdManager.convert(ElementHelper.getIdValue(keyValues).orElse(null));
+            Object idValue = graph.edgeIdManager.convert(ElementHelper.getIdValue(keyValues).orElse(null));
 
-        final Edge edge;
-        if (null != idValue) {
-            if (graph.edges.containsKey(idValue))
-                throw Graph.Exceptions.edgeWithIdAlreadyExists(idValue);
-        } else {
-            idValue = graph.edgeIdManager.getNextId(graph);
-        }
-
-        edge = new TinkerEdge(idValue, outVertex, label, inVertex);
-        ElementHelper.attachProperties(edge, keyValues);
-        graph.edges.put(edge.id(), edge);
-        TinkerHelper.addOutEdge(outVertex, label, edge);
-        TinkerHelper.addInEdge(inVertex, label, edge);
-        return edge;
+            // the check for an existing id and the put must be atomic as edges may be added from several threads
+            final Edge edge;
+            synchronized (graph.edges) {
+                if (null != idValue) {
+                    if (graph.edges.containsKey(idValue))
+                        throw Graph.Exceptions.edgeWithIdAlreadyExists(idValue);
+                } else {
+                    idValue = graph.edgeIdManager.getNextId(graph);
+                }
 
+                edge = new TinkerEdge(idValue, outVertex, label, inVertex);
+                graph.edges.put(edge.id(), edge);
+            }
+            TinkerHelper.addOutEdge(outVertex, label, edge);
+            TinkerHelper.addInEdge(inVertex, label, edge);
+            if (null != graph.writeAheadLog) graph.writeAheadLog.addEdge((TinkerEdge) edge);
+            ElementHelper.attachProperties(edge, keyValues);
+            return edge;
+        } finally {
+            TinkerHelper.endMutation(graph);
+        }
     }
 
     protected static void addOutEdge(final TinkerVertex vertex, final String label, final Edge edge) {
+        if (null != vertex.compactStorage) {
+            vertex.compactStorage.addOutEdge(getEdgeLabelId((TinkerGraph) vertex.graph(), label), (TinkerEdge) edge);
+            return;
+        }
         if (null == vertex.outEdges) vertex.outEdges = new HashMap<>();
         Set<Edge> edges = vertex.outEdges.get(label);
         if (null == edges) {
@@ -81,6 +94,10 @@ public final class TinkerHelper {
     }
 
     protected static void addInEdge(final TinkerVertex vertex, final String label, final Edge edge) {
+        if (null != vertex.compactStorage) {
+            vertex.compactStorage.addInEdge(getEdgeLabelId((TinkerGraph) vertex.graph(), label), (TinkerEdge) edge);
+            return;
+        }
         if (null == vertex.inEdges) vertex.inEdges = new HashMap<>();
         Set<Edge> edges = vertex.inEdges.get(label);
         if (null == edges) {
@@ -90,6 +107,31 @@ public final class TinkerHelper {
         edges.add(edge);
     }
 
+    /**
+     * Get the interned id of an edge label for {@link TinkerGraph.VertexStorage#COMPACT} adjacency, assigning the
+     * next id if the label has not been seen before.
+     */
+    private static int getEdgeLabelId(final TinkerGraph graph, final String label) {
+        final Integer id = graph.edgeLabelIds.get(label);
+        if (null != id) return id;
+        synchronized (graph.edgeLabelIds) {
+            return graph.edgeLabelIds.computeIfAbsent(label, l -> graph.edgeLabelIds.size());
+        }
+    }
+
+    /**
+     * Get the interned ids of the edge labels to filter compact adjacency by, where labels that have never been
+     * used map to {@code -1} so that they match nothing.  Returns {@code null} if there are no labels to filter by.
+     */
+    private static int[] getEdgeLabelIds(final TinkerGraph graph, final String... edgeLabels) {
+        if (edgeLabels.length == 0) return null;
+        final int[] ids = new int[edgeLabels.length];
+        for (int i = 0; i < edgeLabels.length; i++) {
+            ids[i] = graph.edgeLabelIds.getOrDefault(edgeLabels[i], -1);
+        }
+        return ids;
+    }
+
     public static List<TinkerVertex> queryVertexIndex(final TinkerGraph graph, final String key, final Object value) {
         return null == graph.vertexIndex ? Collections.emptyList() : graph.vertexIndex.get(key, value);
     }
@@ -98,6 +140,34 @@ public final class TinkerHelper {
         return null == graph.edgeIndex ? Collections.emptyList() : graph.edgeIndex.get(key, value);
     }
 
+    /**
+     * Query the vertex indices with the predicates grouped by key.  Returns {@code null} if no index can answer the
+     * predicates, otherwise a superset of the vertices that satisfy them.
+     */
+    public static List<TinkerVertex> queryVertexIndex(final TinkerGraph graph, final Map<String, List<P<?>>> predicates) {
+        return null == graph.vertexIndex ? null : graph.vertexIndex.get(predicates);
+    }
+
+    /**
+     * Query the edge indices with the predicates grouped by key.  Returns {@code null} if no index can answer the
+     * predicates, otherwise a superset of the edges that satisfy them.
+     */
+    public static List<TinkerEdge> queryEdgeIndex(final TinkerGraph graph, final Map<String, List<P<?>>> predicates) {
+        return null == graph.edgeIndex ? null : graph.edgeIndex.get(predicates);
+    }
+
+    /**
+     * Mark the start of a mutation of the graph, which holds off a checkpoint of its write-ahead log (if enabled)
+     * until the matching {@link #endMutation(TinkerGraph)}.
+     */
+    protected static void beginMutation(final TinkerGraph graph) {
+        if (null != graph.writeAheadLog) graph.writeAheadLog.beginMutation();
+    }
+
+    protected static void endMutation(final TinkerGraph graph) {
+        if (null != graph.writeAheadLog) graph.writeAheadLog.endMutation();
+    }
+
     public static boolean inComputerMode(final TinkerGraph graph) {
         return null != graph.graphComputerView;
     }
@@ -106,6 +176,10 @@ public final class TinkerHelper {
         return graph.graphComputerView = new TinkerGraphComputerView(graph, graphFilter, computeKeys);
     }
 
+    public static Object getNextVertexPropertyId(final TinkerGraph graph) {
+        return graph.vertexPropertyIdManager.getNextId(graph);
+    }
+
     public static TinkerGraphComputerView getGraphComputerView(final TinkerGraph graph) {
         return graph.graphComputerView;
     }
@@ -115,9 +189,17 @@ public final class TinkerHelper {
     }
 
     public static Map<String, List<VertexProperty>> getProperties(final TinkerVertex vertex) {
+        vertex.materialize();
+        if (null != vertex.compactStorage) return vertex.compactStorage.getPropertyMap();
         return null == vertex.properties ? Collections.emptyMap() : vertex.properties;
     }
 
+    public static List<VertexProperty> getProperties(final TinkerVertex vertex, final String key) {
+        vertex.materialize();
+        if (null != vertex.compactStorage) return vertex.compactStorage.getProperties(key);
+        return null == vertex.properties ? Collections.emptyList() : vertex.properties.getOrDefault(key, Collections.emptyList());
+    }
+
     public static void autoUpdateIndex(final TinkerEdge edge, final String key, final Object newValue, final Object oldValue) {
         final TinkerGraph graph = (TinkerGraph) edge.graph();
         if (graph.edgeIndex != null)
@@ -156,6 +238,10 @@ public final class TinkerHelper {
 
     public static Iterator<TinkerEdge> getEdges(final TinkerVertex vertex, final Direction direction, final String... edgeLabels) {
         final List<Edge> edges = new ArrayList<>();
+        if (null != vertex.compactStorage) {
+            vertex.compactStorage.edges(direction, getEdgeLabelIds((TinkerGraph) vertex.graph(), edgeLabels), edges);
+            return (Iterator) edges.iterator();
+        }
         if (direction.equals(Direction.OUT) || direction.equals(Direction.BOTH)) {
             if (vertex.outEdges != null) {
                 if (edgeLabels.length == 0)
@@ -181,6 +267,10 @@ public final class TinkerHelper {
 
     public static Iterator<TinkerVertex> getVertices(final TinkerVertex vertex, final Direction direction, final String... edgeLabels) {
         final List<Vertex> vertices = new ArrayList<>();
+        if (null != vertex.compactStorage) {
+            vertex.compactStorage.vertices(direction, getEdgeLabelIds((TinkerGraph) vertex.graph(), edgeLabels), vertices);
+            return (Iterator) vertices.iterator();
+        }
         if (direction.equals(Direction.OUT) || direction.equals(Direction.BOTH)) {
             if (vertex.outEdges != null) {
                 if (edgeLabels.length == 0)
@@ -18,35 +18,72 @@
  */
 package org.apache.tinkerpop.gremlin.tinkergraph.structure;
 
+import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.Contains;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.util.AndP;
+import org.apache.tinkerpop.gremlin.process.traversal.util.OrP;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Property;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 /**
+ * An index of the elements of a {@link TinkerGraph} by property value.  Updates to the index are synchronized so that
+ * elements may be mutated from multiple threads, as when reading a graph with several workers.
+ *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 final class TinkerIndex<T extends Element> {
 
     protected Map<String, Map<Object, Set<T>>> index = new ConcurrentHashMap<>();
+    protected Map<String, NavigableMap<Object, Set<T>>> orderedIndex = new ConcurrentHashMap<>();
     protected final Class<T> indexClass;
     private final Set<String> indexedKeys = new HashSet<>();
+    private final Set<String> orderedKeys = new HashSet<>();
+    private final Map<List<String>, CompositeIndex> compositeIndices = new ConcurrentHashMap<>();
     private final TinkerGraph graph;
 
+    /**
+     * Composite lookups that would require probing more than this number of key tuples are not considered.
+     */
+    private static final int MAX_COMPOSITE_TUPLES = 1024;
+
     public TinkerIndex(final TinkerGraph graph, final Class<T> indexClass) {
         this.graph = graph;
         this.indexClass = indexClass;
     }
 
-    protected void put(final String key, final Object value, final T element) {
+    protected synchronized void put(final String key, final Object value, final T element) {
+        if (this.orderedKeys.contains(key) && isOrderable(value)) {
+            NavigableMap<Object, Set<T>> keyMap = this.orderedIndex.get(key);
+            if (null == keyMap) {
+                keyMap = new ConcurrentSkipListMap<>(ValueComparator.INSTANCE);
+                this.orderedIndex.put(key, keyMap);
+            }
+            Set<T> objects = keyMap.get(value);
+            if (null == objects) {
+                objects = new HashSet<>();
+                keyMap.put(value, objects);
+            }
+            objects.add(element);
+            return;
+        }
+
         Map<Object, Set<T>> keyMap = this.index.get(key);
         if (keyMap == null) {
             keyMap = new ConcurrentHashMap<>();
@@ -62,7 +99,9 @@ final class TinkerIndex<T extends Element> {
     }
 
     public List<T> get(final String key, final Object value) {
-        final Map<Object, Set<T>> keyMap = this.index.get(key);
+        final Map<Object, Set<T>> keyMap = this.orderedKeys.contains(key) && isOrderable(value) ?
+                this.orderedIndex.get(key) :
+                this.index.get(key);
         if (null == keyMap) {
             return Collections.emptyList();
         } else {
@@ -74,8 +113,124 @@ final class TinkerIndex<T extends Element> {
         }
     }
 
+    /**
+     * Gets the elements that may satisfy the conjunction of the provided predicates for the key. The returned
+     * list is a superset of the matching elements and thus must still be filtered by the caller.  If the index is
+     * not able to answer any of the predicates then {@code null} is returned and a full scan is required.
+     */
+    public List<T> get(final String key, final List<P<?>> predicates) {
+        if (!this.indexedKeys.contains(key))
+            return null;
+
+        // equality and within() lookups are the most selective and can be answered by either index type
+        for (final P<?> predicate : predicates) {
+            final Set<T> elements = this.getEqualities(key, predicate);
+            if (null != elements)
+                return new ArrayList<>(elements);
+        }
+
+        if (this.orderedKeys.contains(key)) {
+            final Set<T> elements = this.getRange(key, predicates);
+            if (null != elements)
+                return new ArrayList<>(elements);
+            for (final P<?> predicate : predicates) {
+                if (predicate instanceof OrP) {
+                    final Set<T> union = new HashSet<>();
+                    for (final P<?> p : ((OrP<?>) predicate).getPredicates()) {
+                        Set<T> branch = this.getEqualities(key, p);
+                        if (null == branch)
+                            branch = this.getRange(key, p instanceof AndP ?
+                                    ((AndP) p).getPredicates() :
+                                    Collections.<P<?>>singletonList(p));
+                        if (null == branch)
+                            return null;
+                        union.addAll(branch);
+                    }
+                    return new ArrayList<>(union);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the elements that may satisfy the provided predicates grouped by key using the most selective index
+     * available. Equality and {@code within()} lookups on single keys and composite keys are compared by the number
+     * of elements they would return and the smallest is chosen. If none of those are possible then a range lookup
+     * on an ordered key is attempted. The returned list is a superset of the matching elements and thus must still
+     * be filtered by the caller. If no index can be used then {@code null} is returned.
+     */
+    public List<T> get(final Map<String, List<P<?>>> predicates) {
+        final Map<String, Collection<?>> equalities = new HashMap<>();
+        for (final Map.Entry<String, List<P<?>>> entry : predicates.entrySet()) {
+            Collection<?> values = null;
+            for (final P<?> predicate : entry.getValue()) {
+                final Collection<?> candidates = getEqualityValues(predicate);
+                if (null != candidates && (null == values || candidates.size() < values.size()))
+                    values = candidates;
+            }
+            if (null != values)
+                equalities.put(entry.getKey(), values);
+        }
+
+        String bestKey = null;
+        CompositeIndex bestComposite = null;
+        long bestCount = Long.MAX_VALUE;
+        for (final Map.Entry<String, Collection<?>> entry : equalities.entrySet()) {
+            if (!this.indexedKeys.contains(entry.getKey()))
+                continue;
+            long count = 0;
+            for (final Object value : entry.getValue()) {
+                count = count + this.count(entry.getKey(), value);
+            }
+            if (count < bestCount) {
+                bestKey = entry.getKey();
+                bestCount = count;
+            }
+        }
+        for (final CompositeIndex compositeIndex : this.compositeIndices.values()) {
+            final List<List<Object>> tuples = compositeIndex.tuples(equalities);
+            if (null == tuples)
+                continue;
+            long count = 0;
+            for (final List<Object> tuple : tuples) {
+                count = count + compositeIndex.count(tuple);
+            }
+            if (count < bestCount) {
+                bestComposite = compositeIndex;
+                bestKey = null;
+                bestCount = count;
+            }
+        }
+
+        if (null != bestComposite) {
+            final Set<T> elements = new HashSet<>();
+            for (final List<Object> tuple : bestComposite.tuples(equalities)) {
+                elements.addAll(bestComposite.get(tuple));
+            }
+            return new ArrayList<>(elements);
+        } else if (null != bestKey) {
+            final Set<T> elements = new HashSet<>();
+            for (final Object value : equalities.get(bestKey)) {
+                elements.addAll(this.get(bestKey, value));
+            }
+            return new ArrayList<>(elements);
+        }
+
+        for (final Map.Entry<String, List<P<?>>> entry : predicates.entrySet()) {
+            if (this.orderedKeys.contains(entry.getKey())) {
+                final List<T> elements = this.get(entry.getKey(), entry.getValue());
+                if (null != elements)
+                    return elements;
+            }
+        }
+        return null;
+    }
+
     public long count(final String key, final Object value) {
-        final Map<Object, Set<T>> keyMap = this.index.get(key);
+        final Map<Object, Set<T>> keyMap = this.orderedKeys.contains(key) && isOrderable(value) ?
+                this.orderedIndex.get(key) :
+                this.index.get(key);
         if (null == keyMap) {
             return 0;
         } else {
@@ -87,8 +242,15 @@ final class TinkerIndex<T extends Element> {
         }
     }
 
-    public void remove(final String key, final Object value, final T element) {
-        final Map<Object, Set<T>> keyMap = this.index.get(key);
+    public synchronized void remove(final String key, final Object value, final T element) {
+        this.removeValue(key, value, element);
+        this.updateCompositeIndices(key, element);
+    }
+
+    private void removeValue(final String key, final Object value, final T element) {
+        final Map<Object, Set<T>> keyMap = this.orderedKeys.contains(key) && isOrderable(value) ?
+                this.orderedIndex.get(key) :
+                this.index.get(key);
         if (null != keyMap) {
             Set<T> objects = keyMap.get(value);
             if (null != objects) {
@@ -100,38 +262,58 @@ final class TinkerIndex<T extends Element> {
         }
     }
 
-    public void removeElement(final T element) {
+    public synchronized void removeElement(final T element) {
         if (this.indexClass.isAssignableFrom(element.getClass())) {
             for (Map<Object, Set<T>> map : index.values()) {
                 for (Set<T> set : map.values()) {
                     set.remove(element);
                 }
             }
+            for (Map<Object, Set<T>> map : orderedIndex.values()) {
+                for (Set<T> set : map.values()) {
+                    set.remove(element);
+                }
+            }
+            for (CompositeIndex compositeIndex : compositeIndices.values()) {
+                compositeIndex.remove(element);
+            }
         }
     }
 
-    public void autoUpdate(final String key, final Object newValue, final Object oldValue, final T element) {
+    public synchronized void autoUpdate(final String key, final Object newValue, final Object oldValue, final T element) {
         if (this.indexedKeys.contains(key)) {
             if (oldValue != null)
-                this.remove(key, oldValue, element);
+                this.removeValue(key, oldValue, element);
             this.put(key, newValue, element);
         }
+        this.updateCompositeIndices(key, element);
     }
 
-    public void autoRemove(final String key, final Object oldValue, final T element) {
+    public synchronized void autoRemove(final String key, final Object oldValue, final T element) {
         if (this.indexedKeys.contains(key))
-            this.remove(key, oldValue, element);
+            this.removeValue(key, oldValue, element);
+        this.updateCompositeIndices(key, element);
     }
 
     public void createKeyIndex(final String key) {
+        this.createKeyIndex(key, false);
+    }
+
+    public void createKeyIndex(final String key, final boolean ordered) {
         if (null == key)
             throw Graph.Exceptions.argumentCanNotBeNull("key");
         if (key.isEmpty())
             throw new IllegalArgumentException("The key for the index cannot be an empty string");
 
-        if (this.indexedKeys.contains(key))
-            return;
+        if (this.indexedKeys.contains(key)) {
+            if (!ordered || this.orderedKeys.contains(key))
+                return;
+            // an existing hash index is being upgraded to an ordered one so rebuild it from scratch
+            this.dropKeyIndex(key);
+        }
         this.indexedKeys.add(key);
+        if (ordered)
+            this.orderedKeys.add(key);
 
         (Vertex.class.isAssignableFrom(this.indexClass) ?
                 this.graph.vertices.values().<T>parallelStream() :
@@ -144,11 +326,270 @@ final class TinkerIndex<T extends Element> {
     public void dropKeyIndex(final String key) {
         if (this.index.containsKey(key))
             this.index.remove(key).clear();
+        if (this.orderedIndex.containsKey(key))
+            this.orderedIndex.remove(key).clear();
 
         this.indexedKeys.remove(key);
+        this.orderedKeys.remove(key);
     }
 
     public Set<String> getIndexedKeys() {
         return this.indexedKeys;
     }
+
+    public Set<String> getOrderedKeys() {
+        return this.orderedKeys;
+    }
+
+    public synchronized void createCompositeIndex(final List<String> keys) {
+        if (null == keys)
+            throw Graph.Exceptions.argumentCanNotBeNull("keys");
+        if (keys.size() < 2)
+            throw new IllegalArgumentException("A composite index requires at least two keys: " + keys);
+        for (final String key : keys) {
+            if (null == key)
+                throw Graph.Exceptions.argumentCanNotBeNull("key");
+            if (key.isEmpty())
+                throw new IllegalArgumentException("The key for the index cannot be an empty string");
+        }
+        if (new HashSet<>(keys).size() != keys.size())
+            throw new IllegalArgumentException("The keys of a composite index must be unique: " + keys);
+
+        final List<String> compositeKeys = Collections.unmodifiableList(new ArrayList<>(keys));
+        if (this.compositeIndices.containsKey(compositeKeys))
+            return;
+        final CompositeIndex compositeIndex = new CompositeIndex(compositeKeys);
+        this.compositeIndices.put(compositeKeys, compositeIndex);
+
+        (Vertex.class.isAssignableFrom(this.indexClass) ?
+                this.graph.vertices.values().<T>stream() :
+                this.graph.edges.values().<T>stream())
+                .forEach(e -> compositeIndex.update((T) e));
+    }
+
+    public void dropCompositeIndex(final List<String> keys) {
+        final CompositeIndex compositeIndex = this.compositeIndices.remove(keys);
+        if (null != compositeIndex)
+            compositeIndex.clear();
+    }
+
+    public Set<List<String>> getCompositeKeys() {
+        return this.compositeIndices.keySet();
+    }
+
+    private void updateCompositeIndices(final String key, final T element) {
+        if (this.compositeIndices.isEmpty())
+            return;
+        for (final CompositeIndex compositeIndex : this.compositeIndices.values()) {
+            if (compositeIndex.keys.contains(key))
+                compositeIndex.update(element);
+        }
+    }
+
+    private static Collection<?> getEqualityValues(final P<?> predicate) {
+        if (predicate.getBiPredicate() == Compare.eq && null != predicate.getValue())
+            return Collections.singletonList(predicate.getValue());
+        else if (predicate.getBiPredicate() == Contains.within && predicate.getValue() instanceof Collection &&
+                !((Collection<?>) predicate.getValue()).contains(null))
+            return (Collection<?>) predicate.getValue();
+        return null;
+    }
+
+    private Set<T> getEqualities(final String key, final P<?> predicate) {
+        if (predicate.getBiPredicate() == Compare.eq && null != predicate.getValue()) {
+            return new HashSet<>(this.get(key, predicate.getValue()));
+        } else if (predicate.getBiPredicate() == Contains.within && predicate.getValue() instanceof Collection) {
+            final Set<T> elements = new HashSet<>();
+            for (final Object value : (Collection<?>) predicate.getValue()) {
+                if (null != value)
+                    elements.addAll(this.get(key, value));
+            }
+            return elements;
+        }
+        return null;
+    }
+
+    /**
+     * Intersects all the {@link Compare} range predicates into a single bounded sub-map lookup.  Bounds are always
+     * inclusive as values of different numeric types may compare as equal in the index.
+     */
+    private Set<T> getRange(final String key, final List<P<?>> predicates) {
+        Object lower = null;
+        Object upper = null;
+        Class<?> type = null;
+        for (final P<?> predicate : predicates) {
+            final Object value = predicate.getValue();
+            if (!(predicate.getBiPredicate() instanceof Compare) || !isOrderable(value))
+                continue;
+            final Compare compare = (Compare) predicate.getBiPredicate();
+            if (compare == Compare.neq)
+                continue;
+            if (null == type)
+                type = typeOf(value);
+            else if (!type.equals(typeOf(value)))
+                return null;
+            if ((compare == Compare.gt || compare == Compare.gte || compare == Compare.eq) &&
+                    (null == lower || ValueComparator.INSTANCE.compare(value, lower) > 0))
+                lower = value;
+            if ((compare == Compare.lt || compare == Compare.lte || compare == Compare.eq) &&
+                    (null == upper || ValueComparator.INSTANCE.compare(value, upper) < 0))
+                upper = value;
+        }
+
+        if (null == type)
+            return null;
+
+        final Set<T> elements = new HashSet<>();
+        final NavigableMap<Object, Set<T>> keyMap = this.orderedIndex.get(key);
+        if (null == keyMap)
+            return elements;
+
+        final NavigableMap<Object, Set<T>> range;
+        if (null != lower && null != upper) {
+            if (ValueComparator.INSTANCE.compare(lower, upper) > 0)
+                return elements;
+            range = keyMap.subMap(lower, true, upper, true);
+        } else if (null != lower)
+            range = keyMap.tailMap(lower, true);
+        else
+            range = keyMap.descendingMap().tailMap(upper, true);
+
+        // values are grouped by type in the index so stop once the range walks into another type
+        for (final Map.Entry<Object, Set<T>> entry : range.entrySet()) {
+            if (!type.equals(typeOf(entry.getKey())))
+                break;
+            elements.addAll(entry.getValue());
+        }
+        return elements;
+    }
+
+    private static boolean isOrderable(final Object value) {
+        return value instanceof Comparable;
+    }
+
+    private static Class<?> typeOf(final Object value) {
+        return value instanceof Number ? Number.class : value.getClass();
+    }
+
+    /**
+     * Indexes elements by the tuple of values for an ordered list of keys. As the values that made up a tuple can
+     * not be recovered once a property is mutated, the tuples of each element are tracked so that they can be
+     * removed when the element changes.
+     */
+    private final class CompositeIndex {
+
+        private final List<String> keys;
+        private final Map<List<Object>, Set<T>> index = new ConcurrentHashMap<>();
+        private final Map<T, List<List<Object>>> elementTuples = new ConcurrentHashMap<>();
+
+        private CompositeIndex(final List<String> keys) {
+            this.keys = keys;
+        }
+
+        private void update(final T element) {
+            this.remove(element);
+            final List<List<Object>> tuples = new ArrayList<>();
+            tuples.add(Collections.emptyList());
+            for (final String key : this.keys) {
+                final List<Object> values = new ArrayList<>();
+                element.properties(key).forEachRemaining(property -> values.add(property.value()));
+                if (values.isEmpty())
+                    return;
+                final List<List<Object>> expanded = new ArrayList<>(tuples.size() * values.size());
+                for (final List<Object> tuple : tuples) {
+                    for (final Object value : values) {
+                        final List<Object> next = new ArrayList<>(tuple);
+                        next.add(value);
+                        expanded.add(next);
+                    }
+                }
+                tuples.clear();
+                tuples.addAll(expanded);
+            }
+            for (final List<Object> tuple : tuples) {
+                this.index.computeIfAbsent(tuple, t -> new HashSet<>()).add(element);
+            }
+            this.elementTuples.put(element, tuples);
+        }
+
+        private void remove(final T element) {
+            final List<List<Object>> tuples = this.elementTuples.remove(element);
+            if (null != tuples) {
+                for (final List<Object> tuple : tuples) {
+                    final Set<T> objects = this.index.get(tuple);
+                    if (null != objects) {
+                        objects.remove(element);
+                        if (objects.isEmpty())
+                            this.index.remove(tuple);
+                    }
+                }
+            }
+        }
+
+        private Set<T> get(final List<Object> tuple) {
+            return this.index.getOrDefault(tuple, Collections.emptySet());
+        }
+
+        private long count(final List<Object> tuple) {
+            return this.get(tuple).size();
+        }
+
+        /**
+         * Generates the tuples to look up given the equality values per key or {@code null} if not every key of
+         * the index has an equality value or too many tuples would need to be probed.
+         */
+        private List<List<Object>> tuples(final Map<String, Collection<?>> equalities) {
+            List<List<Object>> tuples = Collections.singletonList(Collections.emptyList());
+            for (final String key : this.keys) {
+                final Collection<?> values = equalities.get(key);
+                if (null == values || tuples.size() * values.size() > MAX_COMPOSITE_TUPLES)
+                    return null;
+                final List<List<Object>> expanded = new ArrayList<>(tuples.size() * values.size());
+                for (final List<Object> tuple : tuples) {
+                    for (final Object value : values) {
+                        final List<Object> next = new ArrayList<>(tuple);
+                        next.add(value);
+                        expanded.add(next);
+                    }
+                }
+                tuples = expanded;
+            }
+            return tuples;
+        }
+
+        private void clear() {
+            this.index.clear();
+            this.elementTuples.clear();
+        }
+    }
+
+    /**
+     * Orders values first by their type and then by their natural order.  All {@link Number} types are treated as a
+     * single type and are compared by value in the same manner as {@link Compare}.
+     */
+    private static final class ValueComparator implements Comparator<Object> {
+
+        private static final ValueComparator INSTANCE = new ValueComparator();
+
+        @Override
+        public int compare(final Object first, final Object second) {
+            final Class<?> firstType = typeOf(first);
+            final Class<?> secondType = typeOf(second);
+            if (!firstType.equals(secondType))
+                return firstType.getName().compareTo(secondType.getName());
+            if (first instanceof Number && !first.getClass().equals(second.getClass())) {
+                final Number a = (Number) first;
+                final Number b = (Number) second;
+                if (isSpecial(a) || isSpecial(b))
+                    return Double.compare(a.doubleValue(), b.doubleValue());
+                return new BigDecimal(a.toString()).compareTo(new BigDecimal(b.toString()));
+            }
+            return ((Comparable) first).compareTo(second);
+        }
+
+        private static boolean isSpecial(final Number number) {
+            return (number instanceof Double && (((Double) number).isNaN() || ((Double) number).isInfinite())) ||
+                    (number instanceof Float && (((Float) number).isNaN() || ((Float) number).isInfinite()));
+        }
+    }
 }
@@ -0,0 +1,458 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.io.IoCore;
+import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoMapper;
+import org.apache.tinkerpop.shaded.kryo.Kryo;
+import org.apache.tinkerpop.shaded.kryo.io.Input;
+import org.apache.tinkerpop.shaded.kryo.io.Output;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The {@code mapped} persistence format of {@link TinkerGraph}.  The file holds a region of property blobs (one per
+ * element that has properties) followed by a table of the vertices and edges, and ends with the offset of that table.
+ * Opening the file only reads the table to recreate the vertices and edges with their adjacency.  The blob region is
+ * memory-mapped and the properties of an element are only deserialized from the mapping the first time they are
+ * accessed, so a restart does not have to parse the properties of the whole graph and properties that are never read
+ * never occupy the heap.  When the graph is saved again, the blobs of elements whose properties were never read are
+ * copied straight from the mapping.
+ * <p/>
+ * Only the properties are kept off the heap and only until they are read.  The vertices and edges themselves, their
+ * adjacency and any indices are recreated on the heap when the file is opened, so the heap still grows with the size
+ * of the topology, and the properties of an element stay on the heap once they have been materialized.
+ * <p/>
+ * Saving the graph swaps the mapping of the old file for one of the new file: the old mapping is released before the
+ * new file is moved over it (which is required on platforms that do not allow a mapped file to be replaced) and the
+ * elements whose properties were never read are pointed at their blobs in the new file.  Elements that are read
+ * during the swap wait for it to finish and are then read through the replacement.
+ *
+ * @author agent (agent@local)
+ */
+final class TinkerMappedStorage {
+
+    private static final Logger logger = LoggerFactory.getLogger(TinkerMappedStorage.class);
+
+    private static final byte[] HEADER = Arrays.copyOf("tinkermapped".getBytes(), 16);
+    private static final int VERSION = 1;
+
+    /**
+     * The blob region is mapped in chunks of this size and a blob never spans two chunks.
+     */
+    private static final int CHUNK_SIZE = 1 << 30;
+
+    private final File file;
+    private final long blobsSize;
+    private final ThreadLocal<Kryo> kryo;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private MappedByteBuffer[] chunks;
+
+    /**
+     * The storage that took over the elements of this one when the graph was saved, or {@code null} if this storage
+     * is still current.
+     */
+    private TinkerMappedStorage replacement = null;
+
+    private TinkerMappedStorage(final File file, final long blobsSize, final GryoMapper mapper) throws IOException {
+        this.file = file;
+        this.blobsSize = blobsSize;
+        this.kryo = ThreadLocal.withInitial(mapper::createMapper);
+        this.chunks = map(file, blobsSize);
+    }
+
+    /**
+     * Open a file written by {@link #save(TinkerGraph, String)}, adding its vertices and edges to the graph.
+     */
+    public static TinkerMappedStorage open(final TinkerGraph graph, final String location) throws IOException {
+        final File file = new File(location);
+        final GryoMapper mapper = graph.io(IoCore.gryo()).mapper().create();
+        final Kryo kryo = mapper.createMapper();
+        try (final RandomAccessFile raf = new RandomAccessFile(file, "r");
+             final FileChannel channel = raf.getChannel()) {
+            final ByteBuffer header = ByteBuffer.allocate(HEADER.length + 4);
+            channel.read(header, 0);
+            header.flip();
+            final byte[] magic = new byte[HEADER.length];
+            header.get(magic);
+            if (!Arrays.equals(HEADER, magic) || header.getInt() != VERSION)
+                throw new IOException(String.format("%s is not a TinkerGraph mapped file", location));
+
+            final ByteBuffer trailer = ByteBuffer.allocate(8);
+            channel.read(trailer, channel.size() - 8);
+            trailer.flip();
+            final long tableOffset = trailer.getLong();
+
+            final TinkerMappedStorage storage = new TinkerMappedStorage(file, tableOffset, mapper);
+
+            channel.position(tableOffset);
+            final Input input = new Input(Channels.newInputStream(channel));
+            final long vertexCount = input.readLong();
+            for (long i = 0; i < vertexCount; i++) {
+                final Object id = kryo.readClassAndObject(input);
+                final TinkerVertex vertex = new TinkerVertex(id, input.readString(), graph);
+                vertex.mappedOffset = input.readLong();
+                graph.vertices.put(id, vertex);
+            }
+            final long edgeCount = input.readLong();
+            for (long i = 0; i < edgeCount; i++) {
+                final Object id = kryo.readClassAndObject(input);
+                final String label = input.readString();
+                final TinkerVertex outVertex = (TinkerVertex) graph.vertices.get(kryo.readClassAndObject(input));
+                final TinkerVertex inVertex = (TinkerVertex) graph.vertices.get(kryo.readClassAndObject(input));
+                final TinkerEdge edge = new TinkerEdge(id, outVertex, label, inVertex);
+                edge.mappedOffset = input.readLong();
+                graph.edges.put(id, edge);
+                TinkerHelper.addOutEdge(outVertex, label, edge);
+                TinkerHelper.addInEdge(inVertex, label, edge);
+            }
+            return storage;
+        }
+    }
+
+    /**
+     * Write the graph to the specified location.  The file is written beside the target and then moved over it so
+     * that an existing mapping of the target remains readable while the graph is being saved.  If the graph is mapped
+     * from the target then that mapping is replaced by one of the new file.
+     */
+    public static void save(final TinkerGraph graph, final String location) throws IOException {
+        final File file = new File(location);
+        final File parent = file.getAbsoluteFile().getParentFile();
+        if (!parent.exists()) parent.mkdirs();
+        final File temp = new File(parent, file.getName() + ".tmp");
+
+        final Kryo kryo = graph.io(IoCore.gryo()).mapper().create().createMapper();
+        final Output blob = new Output(4096, -1);
+        final List<TinkerVertex> vertices = new ArrayList<>(graph.vertices.size());
+        final long[] vertexOffsets = new long[graph.vertices.size()];
+        final List<TinkerEdge> edges = new ArrayList<>(graph.edges.size());
+        final long[] edgeOffsets = new long[graph.edges.size()];
+        final long tableOffset;
+
+        try (final RandomAccessFile raf = new RandomAccessFile(temp, "rw");
+             final FileChannel channel = raf.getChannel()) {
+            raf.setLength(0);
+            final ByteBuffer header = ByteBuffer.allocate(HEADER.length + 4);
+            header.put(HEADER).putInt(VERSION).flip();
+            channel.write(header);
+
+            int v = 0;
+            for (final Vertex vertex : graph.vertices.values()) {
+                vertices.add((TinkerVertex) vertex);
+                vertexOffsets[v++] = writeBlob(channel, blob, (TinkerVertex) vertex, kryo);
+            }
+            int e = 0;
+            for (final Edge edge : graph.edges.values()) {
+                edges.add((TinkerEdge) edge);
+                edgeOffsets[e++] = writeBlob(channel, blob, (TinkerEdge) edge, kryo);
+            }
+
+            tableOffset = channel.position();
+            final Output output = new Output(Channels.newOutputStream(channel));
+            output.writeLong(vertices.size());
+            for (int i = 0; i < vertices.size(); i++) {
+                final TinkerVertex vertex = vertices.get(i);
+                kryo.writeClassAndObject(output, vertex.id());
+                output.writeString(vertex.label());
+                output.writeLong(vertexOffsets[i]);
+            }
+            output.writeLong(edges.size());
+            for (int i = 0; i < edges.size(); i++) {
+                final TinkerEdge edge = edges.get(i);
+                kryo.writeClassAndObject(output, edge.id());
+                output.writeString(edge.label());
+                kryo.writeClassAndObject(output, edge.outVertex.id());
+                kryo.writeClassAndObject(output, edge.inVertex.id());
+                output.writeLong(edgeOffsets[i]);
+            }
+            output.writeLong(tableOffset);
+            output.flush();
+            channel.force(true);
+        }
+
+        final TinkerMappedStorage previous = graph.mappedStorage;
+        if (null == previous || !previous.file.getAbsoluteFile().equals(file.getAbsoluteFile())) {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return;
+        }
+
+        previous.lock.writeLock().lock();
+        try {
+            previous.unmap();
+            try {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException ex) {
+                // the old file is still in place so keep reading from it
+                previous.chunks = map(file, previous.blobsSize);
+                throw ex;
+            }
+            final TinkerMappedStorage next = new TinkerMappedStorage(file, tableOffset, graph.io(IoCore.gryo()).mapper().create());
+            for (int i = 0; i < vertices.size(); i++) {
+                if (-1L != vertices.get(i).mappedOffset) vertices.get(i).mappedOffset = vertexOffsets[i];
+            }
+            for (int i = 0; i < edges.size(); i++) {
+                if (-1L != edges.get(i).mappedOffset) edges.get(i).mappedOffset = edgeOffsets[i];
+            }
+            previous.replacement = next;
+            graph.mappedStorage = next;
+        } finally {
+            previous.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Release the mapping.  Elements whose properties were not yet read can no longer be read afterwards.
+     */
+    public void close() {
+        this.lock.writeLock().lock();
+        try {
+            this.unmap();
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Deserialize the properties of the vertex from the mapping if that has not already happened.
+     */
+    public void materialize(final TinkerVertex vertex) {
+        this.lock.readLock().lock();
+        try {
+            if (null != this.replacement)
+                this.replacement.materialize(vertex);
+            else
+                this.materializeProperties(vertex);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    private void materializeProperties(final TinkerVertex vertex) {
+        synchronized (vertex) {
+            if (-1L == vertex.mappedOffset) return;
+            final Kryo kryo = this.kryo.get();
+            final Input input = new Input(this.readBlob(vertex.mappedOffset));
+            final int count = input.readInt(true);
+            for (int i = 0; i < count; i++) {
+                final Object id = kryo.readClassAndObject(input);
+                final String key = input.readString();
+                final TinkerVertexProperty<?> vertexProperty = new TinkerVertexProperty<>(id, vertex, key, kryo.readClassAndObject(input));
+                final int metaCount = input.readInt(true);
+                if (metaCount > 0) vertexProperty.properties = new HashMap<>();
+                for (int j = 0; j < metaCount; j++) {
+                    final String metaKey = input.readString();
+                    vertexProperty.properties.put(metaKey, new TinkerProperty<>(vertexProperty, metaKey, kryo.readClassAndObject(input)));
+                }
+                if (null != vertex.compactStorage)
+                    vertex.compactStorage.addProperty(vertexProperty);
+                else {
+                    if (null == vertex.properties) vertex.properties = new HashMap<>();
+                    vertex.properties.computeIfAbsent(key, k -> new ArrayList<>()).add(vertexProperty);
+                }
+            }
+            vertex.mappedOffset = -1L;
+        }
+    }
+
+    /**
+     * Deserialize the properties of the edge from the mapping if that has not already happened.
+     */
+    public void materialize(final TinkerEdge edge) {
+        this.lock.readLock().lock();
+        try {
+            if (null != this.replacement)
+                this.replacement.materialize(edge);
+            else
+                this.materializeProperties(edge);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    private void materializeProperties(final TinkerEdge edge) {
+        synchronized (edge) {
+            if (-1L == edge.mappedOffset) return;
+            final Kryo kryo = this.kryo.get();
+            final Input input = new Input(this.readBlob(edge.mappedOffset));
+            final int count = input.readInt(true);
+            for (int i = 0; i < count; i++) {
+                edge.putProperty(input.readString(), kryo.readClassAndObject(input));
+            }
+            edge.mappedOffset = -1L;
+        }
+    }
+
+    private byte[] readBlob(final long offset) {
+        if (null == this.chunks) throw new IllegalStateException(String.format("The mapping of %s has been released", this.file));
+        final ByteBuffer chunk = this.chunks[(int) (offset / CHUNK_SIZE)].duplicate();
+        final int position = (int) (offset % CHUNK_SIZE);
+        final byte[] bytes = new byte[chunk.getInt(position)];
+        chunk.position(position + 4);
+        chunk.get(bytes);
+        return bytes;
+    }
+
+    private static MappedByteBuffer[] map(final File file, final long blobsSize) throws IOException {
+        try (final RandomAccessFile raf = new RandomAccessFile(file, "r");
+             final FileChannel channel = raf.getChannel()) {
+            final MappedByteBuffer[] chunks = new MappedByteBuffer[(int) ((blobsSize + CHUNK_SIZE - 1) / CHUNK_SIZE)];
+            for (int i = 0; i < chunks.length; i++) {
+                final long start = (long) i * CHUNK_SIZE;
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(CHUNK_SIZE, blobsSize - start));
+            }
+            return chunks;
+        }
+    }
+
+    /**
+     * Release the chunks now rather than when they are garbage collected so that the file can be replaced.  If a
+     * chunk cannot be released, the failure is logged and the release of the remaining chunks is left to the garbage
+     * collector.  Must be called with the write lock held as reading a released buffer crashes the JVM.
+     */
+    private void unmap() {
+        if (null == this.chunks) return;
+        final MappedByteBuffer[] chunks = this.chunks;
+        this.chunks = null;
+        for (final MappedByteBuffer chunk : chunks) {
+            try {
+                release(chunk);
+            } catch (Exception ex) {
+                logger.warn(String.format("Could not unmap %s - the mapping is released when it is garbage collected", this.file), ex);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Release a mapped buffer, which is not part of the public API.  On Java 9 and later this is done with
+     * {@code sun.misc.Unsafe.invokeCleaner()} and before that through the cleaner of the buffer itself.
+     */
+    static void release(final MappedByteBuffer buffer) throws Exception {
+        final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+        final Method invokeCleaner;
+        try {
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (NoSuchMethodException nsme) {
+            final Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            final Object cleaner = cleanerMethod.invoke(buffer);
+            if (null != cleaner) {
+                final Method clean = cleaner.getClass().getMethod("clean");
+                clean.setAccessible(true);
+                clean.invoke(cleaner);
+            }
+            return;
+        }
+
+        final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+        theUnsafe.setAccessible(true);
+        invokeCleaner.invoke(theUnsafe.get(null), buffer);
+    }
+
+    /**
+     * Write the properties of the vertex as a blob and return its offset or {@code -1} if it has no properties.
+     */
+    private static long writeBlob(final FileChannel channel, final Output blob, final TinkerVertex vertex, final Kryo kryo) throws IOException {
+        final TinkerMappedStorage storage = ((TinkerGraph) vertex.graph()).mappedStorage;
+        if (-1L != vertex.mappedOffset && null != storage)
+            return writeBlob(channel, storage.readBlob(vertex.mappedOffset));
+
+        final List<VertexProperty<Object>> vertexProperties = new ArrayList<>();
+        vertex.properties().forEachRemaining(p -> vertexProperties.add((VertexProperty<Object>) p));
+        if (vertexProperties.isEmpty()) return -1L;
+
+        blob.clear();
+        blob.writeInt(vertexProperties.size(), true);
+        for (final VertexProperty<Object> vertexProperty : vertexProperties) {
+            kryo.writeClassAndObject(blob, vertexProperty.id());
+            blob.writeString(vertexProperty.key());
+            kryo.writeClassAndObject(blob, vertexProperty.value());
+            final List<Property<Object>> properties = new ArrayList<>();
+            vertexProperty.properties().forEachRemaining(properties::add);
+            blob.writeInt(properties.size(), true);
+            for (final Property<Object> property : properties) {
+                blob.writeString(property.key());
+                kryo.writeClassAndObject(blob, property.value());
+            }
+        }
+        return writeBlob(channel, blob.toBytes());
+    }
+
+    /**
+     * Write the properties of the edge as a blob and return its offset or {@code -1} if it has no properties.
+     */
+    private static long writeBlob(final FileChannel channel, final Output blob, final TinkerEdge edge, final Kryo kryo) throws IOException {
+        final TinkerMappedStorage storage = ((TinkerGraph) edge.graph()).mappedStorage;
+        if (-1L != edge.mappedOffset && null != storage)
+            return writeBlob(channel, storage.readBlob(edge.mappedOffset));
+
+        final List<Property<Object>> properties = new ArrayList<>();
+        edge.properties().forEachRemaining(p -> properties.add((Property<Object>) p));
+        if (properties.isEmpty()) return -1L;
+
+        blob.clear();
+        blob.writeInt(properties.size(), true);
+        for (final Property<Object> property : properties) {
+            blob.writeString(property.key());
+            kryo.writeClassAndObject(blob, property.value());
+        }
+        return writeBlob(channel, blob.toBytes());
+    }
+
+    private static long writeBlob(final FileChannel channel, final byte[] bytes) throws IOException {
+        final int length = bytes.length + 4;
+        if (length > CHUNK_SIZE)
+            throw new IOException(String.format("The properties of an element may not serialize to more than %s bytes", CHUNK_SIZE - 4));
+
+        // pad to the next chunk rather than let the blob span two mappings
+        long position = channel.position();
+        if (position % CHUNK_SIZE + length > CHUNK_SIZE) {
+            position = (position / CHUNK_SIZE + 1) * CHUNK_SIZE;
+            channel.position(position);
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(length);
+        buffer.putInt(bytes.length).put(bytes).flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        return position;
+    }
+}
@@ -76,11 +76,19 @@ public final class TinkerProperty<V> implements Property<V> {
 
     @Override
     public void remove() {
-        if (this.element instanceof Edge) {
-            ((TinkerEdge) this.element).properties.remove(this.key);
-            TinkerHelper.removeIndex((TinkerEdge) this.element, this.key, this.value);
-        } else {
-            ((TinkerVertexProperty) this.element).properties.remove(this.key);
+        TinkerHelper.beginMutation((TinkerGraph) this.element.graph());
+        try {
+            final TinkerGraph graph = (TinkerGraph) this.element.graph();
+            if (this.element instanceof Edge) {
+                ((TinkerEdge) this.element).removeProperty(this.key);
+                TinkerHelper.removeIndex((TinkerEdge) this.element, this.key, this.value);
+            } else {
+                ((TinkerVertexProperty) this.element).properties.remove(this.key);
+            }
+            if (null != graph.writeAheadLog && !TinkerHelper.inComputerMode(graph))
+                graph.writeAheadLog.removeProperty(this.element, this.key);
+        } finally {
+            TinkerHelper.endMutation((TinkerGraph) this.element.graph());
         }
     }
 }
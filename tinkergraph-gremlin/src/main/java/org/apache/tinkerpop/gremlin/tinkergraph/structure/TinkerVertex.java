@@ -45,11 +45,19 @@ public final class TinkerVertex extends TinkerElement implements Vertex {
     protected Map<String, List<VertexProperty>> properties;
     protected Map<String, Set<Edge>> outEdges;
     protected Map<String, Set<Edge>> inEdges;
+    protected final TinkerCompactStorage compactStorage;
+
+    /**
+     * The offset of the properties of this vertex in the {@link TinkerMappedStorage} of the graph or {@code -1} if
+     * they are held on the heap.
+     */
+    protected volatile long mappedOffset = -1L;
     private final TinkerGraph graph;
 
     protected TinkerVertex(final Object id, final String label, final TinkerGraph graph) {
         super(id, label);
         this.graph = graph;
+        this.compactStorage = graph.vertexStorage == TinkerGraph.VertexStorage.COMPACT ? new TinkerCompactStorage() : null;
     }
 
     @Override
@@ -57,9 +65,14 @@ public final class TinkerVertex extends TinkerElement implements Vertex {
         return this.graph;
     }
 
+    void materialize() {
+        if (-1L != this.mappedOffset) this.graph.mappedStorage.materialize(this);
+    }
+
     @Override
     public <V> VertexProperty<V> property(final String key) {
         if (this.removed) return VertexProperty.empty();
+        this.materialize();
         if (TinkerHelper.inComputerMode(this.graph)) {
             final List<VertexProperty> list = (List) this.graph.graphComputerView.getProperty(this, key);
             if (list.size() == 0)
@@ -68,6 +81,12 @@ public final class TinkerVertex extends TinkerElement implements Vertex {
                 return list.get(0);
             else
                 throw Vertex.Exceptions.multiplePropertiesExistForProvidedKey(key);
+        } else if (null != this.compactStorage) {
+            final List<VertexProperty> list = this.compactStorage.getProperties(key);
+            if (list.size() > 1)
+                throw Vertex.Exceptions.multiplePropertiesExistForProvidedKey(key);
+            else
+                return list.isEmpty() ? VertexProperty.<V>empty() : list.get(0);
         } else {
             if (this.properties != null && this.properties.containsKey(key)) {
                 final List<VertexProperty> list = (List) this.properties.get(key);
@@ -82,36 +101,53 @@ public final class TinkerVertex extends TinkerElement implements Vertex {
 
     @Override
     public <V> VertexProperty<V> property(final VertexProperty.Cardinality cardinality, final String key, final V value, final Object... keyValues) {
-        if (this.removed) throw elementAlreadyRemoved(Vertex.class, id);
-        ElementHelper.legalPropertyKeyValueArray(keyValues);
-        ElementHelper.validateProperty(key, value);
-        final Optional<Object> optionalId = ElementHelper.getIdValue(keyValues);
-        final Optional<VertexProperty<V>> optionalVertexProperty = ElementHelper.stageVertexProperty(this, cardinality, key, value, keyValues);
-        if (optionalVertexProperty.isPresent()) return optionalVertexProperty.get();
-
-        if (TinkerHelper.inComputerMode(this.graph)) {
-            final VertexProperty<V> vertexProperty = (VertexProperty<V>) this.graph.graphComputerView.addProperty(this, key, value);
-            ElementHelper.attachProperties(vertexProperty, keyValues);
-            return vertexProperty;
-        } else {
-            final Object idValue = optionalId.isPresent() ?
-                    graph.vertexPropertyIdManager.convert(optionalId.get()) :
-                    graph.vertexPropertyIdManager.getNextId(graph);
-
-            final VertexProperty<V> vertexProperty = new TinkerVertexProperty<V>(idValue, this, key, value);
-
-            if (null == this.properties) this.properties = new HashMap<>();
-            final List<VertexProperty> list = this.properties.getOrDefault(key, new ArrayList<>());
-            list.add(vertexProperty);
-            this.properties.put(key, list);
-            TinkerHelper.autoUpdateIndex(this, key, value, null);
-            ElementHelper.attachProperties(vertexProperty, keyValues);
-            return vertexProperty;
+        TinkerHelper.beginMutation(this.graph);
+        try {
+            if (this.removed) throw elementAlreadyRemoved(Vertex.class, id);
+            ElementHelper.legalPropertyKeyValueArray(keyValues);
+            ElementHelper.validateProperty(key, value);
+            // compute keys written with single cardinality are overwritten in place rather than removed and re-added
+            if (VertexProperty.Cardinality.single == cardinality && 0 == keyValues.length && TinkerHelper.inComputerMode(this.graph) && this.graph.graphComputerView.isComputeKey(key))
+                return this.graph.graphComputerView.setProperty(this, key, value);
+            final Optional<Object> optionalId = ElementHelper.getIdValue(keyValues);
+            final Optional<VertexProperty<V>> optionalVertexProperty = ElementHelper.stageVertexProperty(this, cardinality, key, value, keyValues);
+            if (optionalVertexProperty.isPresent()) return optionalVertexProperty.get();
+            this.materialize();
+
+            if (TinkerHelper.inComputerMode(this.graph)) {
+                final VertexProperty<V> vertexProperty = (VertexProperty<V>) this.graph.graphComputerView.addProperty(this, key, value);
+                ElementHelper.attachProperties(vertexProperty, keyValues);
+                return vertexProperty;
+            } else {
+                final Object idValue = optionalId.isPresent() ?
+                        graph.vertexPropertyIdManager.convert(optionalId.get()) :
+                        graph.vertexPropertyIdManager.getNextId(graph);
+
+                final VertexProperty<V> vertexProperty = new TinkerVertexProperty<V>(idValue, this, key, value);
+
+                if (null != this.compactStorage)
+                    this.compactStorage.addProperty(vertexProperty);
+                else {
+                    if (null == this.properties) this.properties = new HashMap<>();
+                    final List<VertexProperty> list = this.properties.getOrDefault(key, new ArrayList<>());
+                    list.add(vertexProperty);
+                    this.properties.put(key, list);
+                }
+                TinkerHelper.autoUpdateIndex(this, key, value, null);
+                if (null != this.graph.writeAheadLog) this.graph.writeAheadLog.addVertexProperty(vertexProperty);
+                ElementHelper.attachProperties(vertexProperty, keyValues);
+                return vertexProperty;
+            }
+        } finally {
+            TinkerHelper.endMutation(this.graph);
         }
     }
 
     @Override
     public Set<String> keys() {
+        this.materialize();
+        if (null != this.compactStorage)
+            return TinkerHelper.inComputerMode(this.graph) ? Vertex.super.keys() : this.compactStorage.keys();
         if (null == this.properties) return Collections.emptySet();
         return TinkerHelper.inComputerMode((TinkerGraph) graph()) ?
                 Vertex.super.keys() :
@@ -127,13 +163,21 @@ public final class TinkerVertex extends TinkerElement implements Vertex {
 
     @Override
     public void remove() {
-        final List<Edge> edges = new ArrayList<>();
-        this.edges(Direction.BOTH).forEachRemaining(edges::add);
-        edges.stream().filter(edge -> !((TinkerEdge) edge).removed).forEach(Edge::remove);
-        this.properties = null;
-        TinkerHelper.removeElementIndex(this);
-        this.graph.vertices.remove(this.id);
-        this.removed = true;
+        TinkerHelper.beginMutation(this.graph);
+        try {
+            final List<Edge> edges = new ArrayList<>();
+            this.edges(Direction.BOTH).forEachRemaining(edges::add);
+            edges.stream().filter(edge -> !((TinkerEdge) edge).removed).forEach(Edge::remove);
+            this.properties = null;
+            this.mappedOffset = -1L;
+            if (null != this.compactStorage) this.compactStorage.clearProperties();
+            TinkerHelper.removeElementIndex(this);
+            this.graph.vertices.remove(this.id);
+            this.removed = true;
+            if (null != this.graph.writeAheadLog) this.graph.writeAheadLog.removeVertex(this);
+        } finally {
+            TinkerHelper.endMutation(this.graph);
+        }
     }
 
     @Override
@@ -163,9 +207,14 @@ public final class TinkerVertex extends TinkerElement implements Vertex {
     @Override
     public <V> Iterator<VertexProperty<V>> properties(final String... propertyKeys) {
         if (this.removed) return Collections.emptyIterator();
+        this.materialize();
         if (TinkerHelper.inComputerMode((TinkerGraph) graph()))
             return (Iterator) ((TinkerGraph) graph()).graphComputerView.getProperties(TinkerVertex.this).stream().filter(p -> ElementHelper.keyExists(p.key(), propertyKeys)).iterator();
-        else {
+        else if (null != this.compactStorage) {
+            return (Iterator) (propertyKeys.length == 1 ?
+                    this.compactStorage.getProperties(propertyKeys[0]) :
+                    this.compactStorage.getProperties(propertyKeys)).iterator();
+        } else {
             if (null == this.properties) return Collections.emptyIterator();
             if (propertyKeys.length == 1) {
                 final List<VertexProperty> properties = this.properties.getOrDefault(propertyKeys[0], Collections.emptyList());
@@ -52,9 +52,9 @@ public class TinkerVertexProperty<V> extends TinkerElement implements VertexProp
      * with {@link TinkerGraphComputerView}.
      */
     public TinkerVertexProperty(final TinkerVertex vertex, final String key, final V value, final Object... propertyKeyValues) {
-        super(((TinkerGraph) vertex.graph()).vertexPropertyIdManager.getNextId((TinkerGraph) vertex.graph()), key);
+        super(((TinkerGraph) vertex.graph()).vertexPropertyIdManager.getNextId((TinkerGraph) vertex.graph()), intern(vertex, key));
         this.vertex = vertex;
-        this.key = key;
+        this.key = this.label;
         this.value = value;
         ElementHelper.legalPropertyKeyValueArray(propertyKeyValues);
         ElementHelper.attachProperties(this, propertyKeyValues);
@@ -65,9 +65,9 @@ public class TinkerVertexProperty<V> extends TinkerElement implements VertexProp
      * can be explicitly set and validated against the expected data type.
      */
     public TinkerVertexProperty(final Object id, final TinkerVertex vertex, final String key, final V value, final Object... propertyKeyValues) {
-        super(id, key);
+        super(id, intern(vertex, key));
         this.vertex = vertex;
-        this.key = key;
+        this.key = this.label;
         this.value = value;
         ElementHelper.legalPropertyKeyValueArray(propertyKeyValues);
         ElementHelper.attachProperties(this, propertyKeyValues);
@@ -116,11 +116,19 @@ public class TinkerVertexProperty<V> extends TinkerElement implements VertexProp
 
     @Override
     public <U> Property<U> property(final String key, final U value) {
-        if (this.removed) throw elementAlreadyRemoved(VertexProperty.class, id);
-        final Property<U> property = new TinkerProperty<>(this, key, value);
-        if (this.properties == null) this.properties = new HashMap<>();
-        this.properties.put(key, property);
-        return property;
+        TinkerHelper.beginMutation((TinkerGraph) this.vertex.graph());
+        try {
+            if (this.removed) throw elementAlreadyRemoved(VertexProperty.class, id);
+            final Property<U> property = new TinkerProperty<>(this, key, value);
+            if (this.properties == null) this.properties = new HashMap<>();
+            this.properties.put(key, property);
+            final TinkerGraph graph = (TinkerGraph) this.vertex.graph();
+            if (null != graph.writeAheadLog && !TinkerHelper.inComputerMode(graph))
+                graph.writeAheadLog.setProperty(this, key, value);
+            return property;
+        } finally {
+            TinkerHelper.endMutation((TinkerGraph) this.vertex.graph());
+        }
     }
 
     @Override
@@ -130,20 +138,35 @@ public class TinkerVertexProperty<V> extends TinkerElement implements VertexProp
 
     @Override
     public void remove() {
-        if (null != this.vertex.properties && this.vertex.properties.containsKey(this.key)) {
-            this.vertex.properties.get(this.key).remove(this);
-            if (this.vertex.properties.get(this.key).size() == 0) {
-                this.vertex.properties.remove(this.key);
-                TinkerHelper.removeIndex(this.vertex, this.key, this.value);
+        TinkerHelper.beginMutation((TinkerGraph) this.vertex.graph());
+        try {
+            if (null != this.vertex.compactStorage) {
+                if (this.vertex.compactStorage.hasProperty(this.key)) {
+                    this.vertex.compactStorage.removeProperty(this);
+                    if (this.vertex.compactStorage.getProperties(this.key).stream().noneMatch(property -> property.value().equals(this.value)))
+                        TinkerHelper.removeIndex(this.vertex, this.key, this.value);
+                    this.properties = null;
+                    this.removed = true;
+                }
+            } else if (null != this.vertex.properties && this.vertex.properties.containsKey(this.key)) {
+                this.vertex.properties.get(this.key).remove(this);
+                if (this.vertex.properties.get(this.key).size() == 0) {
+                    this.vertex.properties.remove(this.key);
+                    TinkerHelper.removeIndex(this.vertex, this.key, this.value);
+                }
+                final AtomicBoolean delete = new AtomicBoolean(true);
+                this.vertex.properties(this.key).forEachRemaining(property -> {
+                    if (property.value().equals(this.value))
+                        delete.set(false);
+                });
+                if (delete.get()) TinkerHelper.removeIndex(this.vertex, this.key, this.value);
+                this.properties = null;
+                this.removed = true;
             }
-            final AtomicBoolean delete = new AtomicBoolean(true);
-            this.vertex.properties(this.key).forEachRemaining(property -> {
-                if (property.value().equals(this.value))
-                    delete.set(false);
-            });
-            if (delete.get()) TinkerHelper.removeIndex(this.vertex, this.key, this.value);
-            this.properties = null;
-            this.removed = true;
+            final TinkerWriteAheadLog writeAheadLog = ((TinkerGraph) this.vertex.graph()).writeAheadLog;
+            if (this.removed && null != writeAheadLog) writeAheadLog.removeVertexProperty(this);
+        } finally {
+            TinkerHelper.endMutation((TinkerGraph) this.vertex.graph());
         }
     }
 
@@ -156,4 +179,12 @@ public class TinkerVertexProperty<V> extends TinkerElement implements VertexProp
         } else
             return (Iterator) this.properties.entrySet().stream().filter(entry -> ElementHelper.keyExists(entry.getKey(), propertyKeys)).map(entry -> entry.getValue()).collect(Collectors.toList()).iterator();
     }
+
+    /**
+     * Property keys of vertices with {@link TinkerGraph.VertexStorage#COMPACT} storage are interned so that the many
+     * vertex properties sharing a key share the {@code String}.
+     */
+    private static String intern(final TinkerVertex vertex, final String key) {
+        return null != vertex && null != vertex.compactStorage ? key.intern() : key;
+    }
 }
@@ -0,0 +1,470 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.io.IoCore;
+import org.apache.tinkerpop.shaded.kryo.Kryo;
+import org.apache.tinkerpop.shaded.kryo.KryoException;
+import org.apache.tinkerpop.shaded.kryo.io.Input;
+import org.apache.tinkerpop.shaded.kryo.io.Output;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An append-only log of the mutations made to a {@link TinkerGraph} that is persisted at a {@code graphLocation}.
+ * The log is written in numbered segments beside the graph file, where each record is appended after the mutation
+ * it describes has been applied.  A checkpoint starts a new segment, writes a snapshot of the graph to the
+ * {@code graphLocation} and then deletes the segments that preceded it.  Mutations hold a shared lock between
+ * {@link #beginMutation()} and {@link #endMutation()} and a checkpoint holds it exclusively while it starts the new
+ * segment and copies the graph in memory, so the snapshot never observes a partially applied mutation.  The copy is
+ * written after the lock is released so that mutations only wait on the copy and not on the file.  A graph in the
+ * "mapped" format is not copied and is written while the lock is held.  Replay is nonetheless
+ * idempotent: elements and vertex properties that already exist are not added again and removals of elements that
+ * no longer exist are ignored.
+ * <p/>
+ * Records are flushed to the operating system as they are written and are only forced to the device when a segment
+ * is closed, unless {@code sync} is enabled, in which case every record is forced before the mutation returns.
+ * <p/>
+ * Checkpoints that fail are retried on the next interval.  Once {@link #MAX_CHECKPOINT_FAILURES} checkpoints have
+ * failed in a row, mutations are refused with the last failure as the cause until a checkpoint succeeds, so that the
+ * segments cannot grow without bound unnoticed.
+ *
+ * @author agent (agent@local)
+ */
+final class TinkerWriteAheadLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(TinkerWriteAheadLog.class);
+
+    private static final byte ADD_VERTEX = 1;
+    private static final byte ADD_EDGE = 2;
+    private static final byte ADD_VERTEX_PROPERTY = 3;
+    private static final byte SET_EDGE_PROPERTY = 4;
+    private static final byte SET_META_PROPERTY = 5;
+    private static final byte REMOVE_VERTEX = 6;
+    private static final byte REMOVE_EDGE = 7;
+    private static final byte REMOVE_VERTEX_PROPERTY = 8;
+    private static final byte REMOVE_EDGE_PROPERTY = 9;
+    private static final byte REMOVE_META_PROPERTY = 10;
+    private static final byte CLEAR = 11;
+
+    static final int MAX_CHECKPOINT_FAILURES = 3;
+
+    private final TinkerGraph graph;
+    private final File location;
+    private final Kryo kryo;
+    private final boolean sync;
+    private final Object checkpointLock = new Object();
+    private final ReadWriteLock mutationLock = new ReentrantReadWriteLock();
+    private final ScheduledExecutorService checkpoints;
+
+    private volatile int checkpointFailures = 0;
+    private volatile Exception lastCheckpointFailure = null;
+
+    private long segment;
+    private FileOutputStream stream;
+    private Output output;
+
+    private TinkerWriteAheadLog(final TinkerGraph graph, final File location, final Kryo kryo, final long segment,
+                                final long checkpointInterval, final boolean sync) throws IOException {
+        this.graph = graph;
+        this.location = location;
+        this.kryo = kryo;
+        this.sync = sync;
+        this.segment = segment;
+        this.openSegment();
+
+        if (checkpointInterval > 0) {
+            this.checkpoints = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "tinkergraph-checkpoint");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.checkpoints.scheduleWithFixedDelay(() -> {
+                try {
+                    this.checkpoint();
+                } catch (Exception ex) {
+                    // the segments are only deleted once a snapshot is in place so simply try again next time
+                    logger.error(String.format("Could not checkpoint graph at %s (%s failures in a row)", location, this.checkpointFailures), ex);
+                }
+            }, checkpointInterval, checkpointInterval, TimeUnit.MILLISECONDS);
+        } else {
+            this.checkpoints = null;
+        }
+    }
+
+    /**
+     * Replay the segments of the log of the graph at the specified location on top of whatever was loaded from the
+     * last snapshot and then start a new segment for subsequent mutations.
+     */
+    public static TinkerWriteAheadLog open(final TinkerGraph graph, final String location, final long checkpointInterval,
+                                           final boolean sync) throws IOException {
+        final File file = new File(location).getAbsoluteFile();
+        if (!file.getParentFile().exists()) file.getParentFile().mkdirs();
+        final Kryo kryo = graph.io(IoCore.gryo()).mapper().create().createMapper();
+        final List<Long> segments = segments(file);
+        for (final long segment : segments) {
+            replay(graph, segmentFile(file, segment), kryo);
+        }
+        return new TinkerWriteAheadLog(graph, file, kryo, segments.isEmpty() ? 0 : segments.get(segments.size() - 1) + 1, checkpointInterval, sync);
+    }
+
+    ///////////// MUTATIONS /////////////
+
+    /**
+     * Called before the graph is mutated.  Blocks while a checkpoint is in progress and fails if checkpoints have
+     * been failing repeatedly.
+     */
+    public void beginMutation() {
+        if (this.checkpointFailures >= MAX_CHECKPOINT_FAILURES)
+            throw new IllegalStateException(String.format("The last %s checkpoints of the graph at %s failed",
+                    this.checkpointFailures, this.location), this.lastCheckpointFailure);
+        this.mutationLock.readLock().lock();
+    }
+
+    public void endMutation() {
+        this.mutationLock.readLock().unlock();
+    }
+
+    public synchronized void addVertex(final TinkerVertex vertex) {
+        this.output.writeByte(ADD_VERTEX);
+        this.kryo.writeClassAndObject(this.output, vertex.id());
+        this.output.writeString(vertex.label());
+        this.commit();
+    }
+
+    public synchronized void addEdge(final TinkerEdge edge) {
+        this.output.writeByte(ADD_EDGE);
+        this.kryo.writeClassAndObject(this.output, edge.id());
+        this.output.writeString(edge.label());
+        this.kryo.writeClassAndObject(this.output, edge.outVertex.id());
+        this.kryo.writeClassAndObject(this.output, edge.inVertex.id());
+        this.commit();
+    }
+
+    public synchronized void addVertexProperty(final VertexProperty<?> vertexProperty) {
+        this.output.writeByte(ADD_VERTEX_PROPERTY);
+        this.kryo.writeClassAndObject(this.output, vertexProperty.element().id());
+        this.kryo.writeClassAndObject(this.output, vertexProperty.id());
+        this.output.writeString(vertexProperty.key());
+        this.kryo.writeClassAndObject(this.output, vertexProperty.value());
+        this.commit();
+    }
+
+    /**
+     * Record the setting of a property on an {@link Edge} or a {@link VertexProperty}.
+     */
+    public synchronized void setProperty(final Element element, final String key, final Object value) {
+        if (element instanceof Edge) {
+            this.output.writeByte(SET_EDGE_PROPERTY);
+            this.kryo.writeClassAndObject(this.output, element.id());
+        } else {
+            this.output.writeByte(SET_META_PROPERTY);
+            this.writeVertexProperty((VertexProperty) element);
+        }
+        this.output.writeString(key);
+        this.kryo.writeClassAndObject(this.output, value);
+        this.commit();
+    }
+
+    public synchronized void removeVertex(final TinkerVertex vertex) {
+        this.output.writeByte(REMOVE_VERTEX);
+        this.kryo.writeClassAndObject(this.output, vertex.id());
+        this.commit();
+    }
+
+    public synchronized void removeEdge(final TinkerEdge edge) {
+        this.output.writeByte(REMOVE_EDGE);
+        this.kryo.writeClassAndObject(this.output, edge.id());
+        this.commit();
+    }
+
+    public synchronized void removeVertexProperty(final VertexProperty<?> vertexProperty) {
+        this.output.writeByte(REMOVE_VERTEX_PROPERTY);
+        this.writeVertexProperty(vertexProperty);
+        this.commit();
+    }
+
+    /**
+     * Record the removal of a property from an {@link Edge} or a {@link VertexProperty}.
+     */
+    public synchronized void removeProperty(final Element element, final String key) {
+        if (element instanceof Edge) {
+            this.output.writeByte(REMOVE_EDGE_PROPERTY);
+            this.kryo.writeClassAndObject(this.output, element.id());
+        } else {
+            this.output.writeByte(REMOVE_META_PROPERTY);
+            this.writeVertexProperty((VertexProperty) element);
+        }
+        this.output.writeString(key);
+        this.commit();
+    }
+
+    public synchronized void clear() {
+        this.output.writeByte(CLEAR);
+        this.commit();
+    }
+
+    /**
+     * Write a reference to a vertex property which includes its key as vertex property identifiers are not
+     * guaranteed to be unique once a graph has been reopened.
+     */
+    private void writeVertexProperty(final VertexProperty<?> vertexProperty) {
+        this.kryo.writeClassAndObject(this.output, vertexProperty.element().id());
+        this.kryo.writeClassAndObject(this.output, vertexProperty.id());
+        this.output.writeString(vertexProperty.key());
+    }
+
+    /**
+     * Hand the record to the operating system so that it survives the process and, if {@code sync} is enabled,
+     * force it to the device so that it survives the machine as well.
+     */
+    private void commit() {
+        this.output.flush();
+        if (this.sync) {
+            try {
+                this.stream.getFD().sync();
+            } catch (IOException ioe) {
+                throw new IllegalStateException(String.format("Could not sync the write-ahead log of the graph at %s", this.location), ioe);
+            }
+        }
+    }
+
+    ///////////// CHECKPOINTS /////////////
+
+    /**
+     * Start a new segment, write a snapshot of the graph and delete the segments the snapshot supersedes.  The graph
+     * cannot be mutated while the segment is started and the graph is copied, which gives the snapshot the state of
+     * the graph as of the start of the new segment.  The copy is then written while mutations continue.
+     */
+    public void checkpoint() throws Exception {
+        synchronized (this.checkpointLock) {
+            final long snapshotSegment;
+            try {
+                final TinkerGraph snapshot;
+                this.mutationLock.writeLock().lock();
+                try {
+                    synchronized (this) {
+                        this.closeSegment();
+                        this.segment++;
+                        this.openSegment();
+                        snapshotSegment = this.segment;
+                    }
+                    snapshot = this.graph.canSnapshotCopy() ? this.graph.copy() : this.graph;
+                    if (snapshot == this.graph) this.graph.saveSnapshot(snapshot);
+                } finally {
+                    this.mutationLock.writeLock().unlock();
+                }
+                if (snapshot != this.graph) this.graph.saveSnapshot(snapshot);
+            } catch (Exception ex) {
+                this.lastCheckpointFailure = ex;
+                this.checkpointFailures++;
+                throw ex;
+            }
+            this.checkpointFailures = 0;
+            this.lastCheckpointFailure = null;
+            for (final long segment : segments(this.location)) {
+                if (segment < snapshotSegment)
+                    segmentFile(this.location, segment).delete();
+            }
+        }
+    }
+
+    public void close() throws IOException {
+        if (null != this.checkpoints) {
+            this.checkpoints.shutdown();
+            try {
+                this.checkpoints.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            this.closeSegment();
+        }
+    }
+
+    private void openSegment() throws IOException {
+        this.stream = new FileOutputStream(segmentFile(this.location, this.segment), true);
+        this.output = new Output(this.stream);
+    }
+
+    private void closeSegment() throws IOException {
+        this.output.flush();
+        this.stream.getFD().sync();
+        this.output.close();
+    }
+
+    ///////////// REPLAY /////////////
+
+    private static void replay(final TinkerGraph graph, final File segmentFile, final Kryo kryo) throws IOException {
+        try (final Input input = new Input(new FileInputStream(segmentFile))) {
+            while (!input.eof()) {
+                final byte operation = input.readByte();
+                switch (operation) {
+                    case ADD_VERTEX: {
+                        final Object id = kryo.readClassAndObject(input);
+                        final String label = input.readString();
+                        if (!graph.vertices.containsKey(id))
+                            graph.addVertex(T.id, id, T.label, label);
+                        break;
+                    }
+                    case ADD_EDGE: {
+                        final Object id = kryo.readClassAndObject(input);
+                        final String label = input.readString();
+                        final Vertex outVertex = graph.vertices.get(kryo.readClassAndObject(input));
+                        final Vertex inVertex = graph.vertices.get(kryo.readClassAndObject(input));
+                        if (!graph.edges.containsKey(id) && null != outVertex && null != inVertex)
+                            outVertex.addEdge(label, inVertex, T.id, id);
+                        break;
+                    }
+                    case ADD_VERTEX_PROPERTY: {
+                        final Vertex vertex = graph.vertices.get(kryo.readClassAndObject(input));
+                        final Object id = kryo.readClassAndObject(input);
+                        final String key = input.readString();
+                        final Object value = kryo.readClassAndObject(input);
+                        if (null != vertex && !hasVertexProperty(vertex, id, key, value))
+                            vertex.property(VertexProperty.Cardinality.list, key, value, T.id, id);
+                        break;
+                    }
+                    case SET_EDGE_PROPERTY: {
+                        final Edge edge = graph.edges.get(kryo.readClassAndObject(input));
+                        final String key = input.readString();
+                        final Object value = kryo.readClassAndObject(input);
+                        if (null != edge) edge.property(key, value);
+                        break;
+                    }
+                    case SET_META_PROPERTY: {
+                        final VertexProperty<?> vertexProperty = readVertexProperty(graph, input, kryo);
+                        final String key = input.readString();
+                        final Object value = kryo.readClassAndObject(input);
+                        if (null != vertexProperty) vertexProperty.property(key, value);
+                        break;
+                    }
+                    case REMOVE_VERTEX: {
+                        final Vertex vertex = graph.vertices.get(kryo.readClassAndObject(input));
+                        if (null != vertex) vertex.remove();
+                        break;
+                    }
+                    case REMOVE_EDGE: {
+                        final Edge edge = graph.edges.get(kryo.readClassAndObject(input));
+                        if (null != edge) edge.remove();
+                        break;
+                    }
+                    case REMOVE_VERTEX_PROPERTY: {
+                        final VertexProperty<?> vertexProperty = readVertexProperty(graph, input, kryo);
+                        if (null != vertexProperty) vertexProperty.remove();
+                        break;
+                    }
+                    case REMOVE_EDGE_PROPERTY: {
+                        final Edge edge = graph.edges.get(kryo.readClassAndObject(input));
+                        final String key = input.readString();
+                        if (null != edge) {
+                            final Property<?> property = edge.property(key);
+                            if (property.isPresent()) property.remove();
+                        }
+                        break;
+                    }
+                    case REMOVE_META_PROPERTY: {
+                        final VertexProperty<?> vertexProperty = readVertexProperty(graph, input, kryo);
+                        final String key = input.readString();
+                        if (null != vertexProperty) {
+                            final Property<?> property = vertexProperty.property(key);
+                            if (property.isPresent()) property.remove();
+                        }
+                        break;
+                    }
+                    case CLEAR:
+                        graph.clear();
+                        break;
+                    default:
+                        throw new IOException(String.format("Unknown operation %s in %s", operation, segmentFile));
+                }
+            }
+        } catch (KryoException ke) {
+            // a record that was only partially written when the process died - everything before it was replayed
+            logger.warn(String.format("Ignoring incomplete record at the end of %s", segmentFile), ke);
+        }
+    }
+
+    /**
+     * As vertex property identifiers are not guaranteed to be unique, a vertex property is only considered to be
+     * already present if its value matches as well.
+     */
+    private static boolean hasVertexProperty(final Vertex vertex, final Object id, final String key, final Object value) {
+        final Iterator<VertexProperty<Object>> vertexProperties = vertex.properties(key);
+        while (vertexProperties.hasNext()) {
+            final VertexProperty<?> vertexProperty = vertexProperties.next();
+            if (vertexProperty.id().equals(id) && vertexProperty.value().equals(value)) return true;
+        }
+        return false;
+    }
+
+    private static VertexProperty<?> readVertexProperty(final TinkerGraph graph, final Input input, final Kryo kryo) {
+        final Vertex vertex = graph.vertices.get(kryo.readClassAndObject(input));
+        final Object id = kryo.readClassAndObject(input);
+        final String key = input.readString();
+        if (null == vertex) return null;
+        final Iterator<VertexProperty<Object>> vertexProperties = vertex.properties(key);
+        while (vertexProperties.hasNext()) {
+            final VertexProperty<?> vertexProperty = vertexProperties.next();
+            if (vertexProperty.id().equals(id)) return vertexProperty;
+        }
+        return null;
+    }
+
+    private static File segmentFile(final File location, final long segment) {
+        return new File(location.getParentFile(), location.getName() + ".wal." + segment);
+    }
+
+    private static List<Long> segments(final File location) {
+        final String prefix = location.getName() + ".wal.";
+        final File[] files = location.getParentFile().listFiles((dir, name) -> name.startsWith(prefix));
+        if (null == files) return Collections.emptyList();
+        final List<Long> segments = new ArrayList<>();
+        for (final File file : files) {
+            try {
+                segments.add(Long.parseLong(file.getName().substring(prefix.length())));
+            } catch (NumberFormatException nfe) {
+                // not a segment of this log
+            }
+        }
+        Collections.sort(segments);
+        return segments;
+    }
+}
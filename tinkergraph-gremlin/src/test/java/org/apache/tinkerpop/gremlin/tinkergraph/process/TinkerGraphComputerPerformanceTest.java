@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process;
+
+import com.carrotsearch.junitbenchmarks.BenchmarkOptions;
+import com.carrotsearch.junitbenchmarks.BenchmarkRule;
+import com.carrotsearch.junitbenchmarks.annotation.AxisRange;
+import com.carrotsearch.junitbenchmarks.annotation.BenchmarkHistoryChart;
+import com.carrotsearch.junitbenchmarks.annotation.BenchmarkMethodChart;
+import com.carrotsearch.junitbenchmarks.annotation.LabelType;
+import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
+import org.apache.tinkerpop.gremlin.process.computer.ranking.pagerank.PageRankVertexProgram;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComputer;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestRule;
+
+import java.util.Random;
+
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Measures how {@link TinkerGraphComputer} scales with the number of workers for a cheap vertex program (PageRank)
+ * and for an OLAP traversal that also runs a {@code MapReduce} job.  Methods that require more workers than there
+ * are available processors are skipped.
+ *
+ * @author agent (agent@local)
+ */
+@AxisRange(min = 0, max = 1)
+@BenchmarkMethodChart(filePrefix = "tinkergraph-computer")
+@BenchmarkHistoryChart(labelWith = LabelType.CUSTOM_KEY, maxRuns = 20, filePrefix = "hx-tinkergraph-computer")
+public class TinkerGraphComputerPerformanceTest {
+
+    public final static int DEFAULT_BENCHMARK_ROUNDS = 5;
+    public final static int DEFAULT_WARMUP_ROUNDS = 2;
+
+    private static final int VERTICES = 50000;
+    private static final int EDGES_PER_VERTEX = 10;
+
+    private static TinkerGraph graph;
+
+    @Rule
+    public TestRule benchmarkRun = new BenchmarkRule();
+
+    @BeforeClass
+    public static void generateGraph() {
+        graph = TinkerGraph.open();
+        final Random random = new Random(12345l);
+        final Vertex[] vertices = new Vertex[VERTICES];
+        for (int i = 0; i < VERTICES; i++) {
+            vertices[i] = graph.addVertex("name", "v" + i);
+        }
+        for (int i = 0; i < VERTICES; i++) {
+            for (int j = 0; j < EDGES_PER_VERTEX; j++) {
+                vertices[i].addEdge("link", vertices[random.nextInt(VERTICES)]);
+            }
+        }
+    }
+
+    @BenchmarkOptions(benchmarkRounds = DEFAULT_BENCHMARK_ROUNDS, warmupRounds = DEFAULT_WARMUP_ROUNDS, concurrency = BenchmarkOptions.CONCURRENCY_SEQUENTIAL)
+    @Test
+    public void pageRankWith1Worker() throws Exception {
+        pageRank(1);
+    }
+
+    @BenchmarkOptions(benchmarkRounds = DEFAULT_BENCHMARK_ROUNDS, warmupRounds = DEFAULT_WARMUP_ROUNDS, concurrency = BenchmarkOptions.CONCURRENCY_SEQUENTIAL)
+    @Test
+    public void pageRankWith2Workers() throws Exception {
+        pageRank(2);
+    }
+
+    @BenchmarkOptions(benchmarkRounds = DEFAULT_BENCHMARK_ROUNDS, warmupRounds = DEFAULT_WARMUP_ROUNDS, concurrency = BenchmarkOptions.CONCURRENCY_SEQUENTIAL)
+    @Test
+    public void pageRankWith4Workers() throws Exception {
+        pageRank(4);
+    }
+
+    @BenchmarkOptions(benchmarkRounds = DEFAULT_BENCHMARK_ROUNDS, warmupRounds = DEFAULT_WARMUP_ROUNDS, concurrency = BenchmarkOptions.CONCURRENCY_SEQUENTIAL)
+    @Test
+    public void pageRankWith8Workers() throws Exception {
+        pageRank(8);
+    }
+
+    @BenchmarkOptions(benchmarkRounds = DEFAULT_BENCHMARK_ROUNDS, warmupRounds = DEFAULT_WARMUP_ROUNDS, concurrency = BenchmarkOptions.CONCURRENCY_SEQUENTIAL)
+    @Test
+    public void pageRankWith16Workers() throws Exception {
+        pageRank(16);
+    }
+
+    @BenchmarkOptions(benchmarkRounds = DEFAULT_BENCHMARK_ROUNDS, warmupRounds = DEFAULT_WARMUP_ROUNDS, concurrency = BenchmarkOptions.CONCURRENCY_SEQUENTIAL)
+    @Test
+    public void g_V_out_groupCount_byXnameXWith1Worker() throws Exception {
+        groupCount(1);
+    }
+
+    @BenchmarkOptions(benchmarkRounds = DEFAULT_BENCHMARK_ROUNDS, warmupRounds = DEFAULT_WARMUP_ROUNDS, concurrency = BenchmarkOptions.CONCURRENCY_SEQUENTIAL)
+    @Test
+    public void g_V_out_groupCount_byXnameXWith4Workers() throws Exception {
+        groupCount(4);
+    }
+
+    @BenchmarkOptions(benchmarkRounds = DEFAULT_BENCHMARK_ROUNDS, warmupRounds = DEFAULT_WARMUP_ROUNDS, concurrency = BenchmarkOptions.CONCURRENCY_SEQUENTIAL)
+    @Test
+    public void g_V_out_groupCount_byXnameXWith16Workers() throws Exception {
+        groupCount(16);
+    }
+
+    private static void pageRank(final int workers) throws Exception {
+        assumeTrue(workers <= Runtime.getRuntime().availableProcessors());
+        graph.compute(TinkerGraphComputer.class).workers(workers)
+                .program(PageRankVertexProgram.build().iterations(5).create(graph))
+                .result(GraphComputer.ResultGraph.ORIGINAL).persist(GraphComputer.Persist.NOTHING)
+                .submit().get();
+    }
+
+    private static void groupCount(final int workers) throws Exception {
+        assumeTrue(workers <= Runtime.getRuntime().availableProcessors());
+        graph.traversal().withComputer(g -> g.compute(TinkerGraphComputer.class).workers(workers))
+                .V().out().groupCount().by("name").iterate();
+    }
+}
@@ -21,12 +21,18 @@ package org.apache.tinkerpop.gremlin.tinkergraph.structure;
 import org.apache.commons.configuration.BaseConfiguration;
 import org.apache.commons.configuration.Configuration;
 import org.apache.tinkerpop.gremlin.TestHelper;
+import org.apache.tinkerpop.gremlin.process.computer.ComputerResult;
+import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
+import org.apache.tinkerpop.gremlin.process.computer.VertexComputeKey;
+import org.apache.tinkerpop.gremlin.process.computer.traversal.TraversalVertexProgram;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
 import org.apache.tinkerpop.gremlin.structure.io.Io;
 import org.apache.tinkerpop.gremlin.structure.io.GraphReader;
 import org.apache.tinkerpop.gremlin.structure.io.GraphWriter;
@@ -37,8 +43,11 @@ import org.apache.tinkerpop.gremlin.structure.io.Mapper;
 import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONReader;
 import org.apache.tinkerpop.gremlin.structure.io.graphson.GraphSONWriter;
 import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoClassResolver;
+import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoIo;
 import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoMapper;
+import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoReader;
 import org.apache.tinkerpop.gremlin.structure.io.gryo.GryoWriter;
+import org.apache.tinkerpop.gremlin.structure.util.Attachable;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 import org.apache.tinkerpop.shaded.jackson.databind.ObjectMapper;
 import org.apache.tinkerpop.shaded.kryo.ClassResolver;
@@ -55,18 +64,34 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 
 /**
@@ -297,6 +322,190 @@ public class TinkerGraphTest {
         }, 0.5)).has("oid", "1").count().next());
     }
 
+    @Test
+    public void shouldManageOrderedIndices() {
+        final TinkerGraph g = TinkerGraph.open();
+
+        g.createIndex("name", Vertex.class);
+        g.createIndex("age", Vertex.class, TinkerGraph.IndexType.ORDERED);
+        g.createIndex("weight", Edge.class, TinkerGraph.IndexType.ORDERED);
+
+        assertEquals(2, g.getIndexedKeys(Vertex.class).size());
+        assertEquals(1, g.getOrderedIndexedKeys(Vertex.class).size());
+        assertTrue(g.getOrderedIndexedKeys(Vertex.class).contains("age"));
+        assertTrue(g.getOrderedIndexedKeys(Edge.class).contains("weight"));
+
+        // upgrade the hash index to an ordered one
+        g.createIndex("name", Vertex.class, TinkerGraph.IndexType.ORDERED);
+        assertEquals(2, g.getIndexedKeys(Vertex.class).size());
+        assertEquals(2, g.getOrderedIndexedKeys(Vertex.class).size());
+
+        g.dropIndex("age", Vertex.class);
+        assertEquals(1, g.getIndexedKeys(Vertex.class).size());
+        assertEquals(1, g.getOrderedIndexedKeys(Vertex.class).size());
+        assertTrue(g.getOrderedIndexedKeys(Vertex.class).contains("name"));
+    }
+
+    @Test
+    public void shouldUseOrderedVertexIndexForRangeLookups() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("age", Vertex.class, TinkerGraph.IndexType.ORDERED);
+
+        g.addVertex("name", "marko", "age", 29);
+        g.addVertex("name", "vadas", "age", 27);
+        g.addVertex("name", "josh", "age", 32L);
+        g.addVertex("name", "peter", "age", 35);
+        g.addVertex("name", "lop", "age", "unknown");
+        g.addVertex("name", "ripple");
+
+        // spy on the pipeline with a fake BiPredicate - only vertices returned from the index lookup on "age"
+        // should have their names evaluated
+        assertEquals(new Long(2), g.traversal().V().has("name", P.test((t, u) -> {
+            assertTrue(t.equals("josh") || t.equals("peter"));
+            return true;
+        }, "x")).has("age", P.gt(30)).count().next());
+
+        assertEquals(new Long(2), g.traversal().V().has("name", P.test((t, u) -> {
+            assertTrue(t.equals("marko") || t.equals("josh"));
+            return true;
+        }, "x")).has("age", P.between(29, 33)).count().next());
+
+        assertEquals(new Long(2), g.traversal().V().has("name", P.test((t, u) -> {
+            assertTrue(t.equals("vadas") || t.equals("peter"));
+            return true;
+        }, "x")).has("age", P.outside(28L, 33L)).count().next());
+
+        assertEquals(new Long(1), g.traversal().V().has("name", P.test((t, u) -> {
+            assertTrue(t.equals("marko") || t.equals("vadas"));
+            return true;
+        }, "x")).has("age", P.lte(27)).count().next());
+
+        assertEquals(new Long(2), g.traversal().V().has("name", P.test((t, u) -> {
+            assertTrue(t.equals("josh") || t.equals("lop"));
+            return true;
+        }, "x")).has("age", P.within(32L, "unknown")).count().next());
+
+        assertEquals(new Long(0), g.traversal().V().has("age", P.inside(35, 29)).count().next());
+        assertEquals(new Long(1), g.traversal().V().has("age", P.lt("v")).count().next());
+    }
+
+    @Test
+    public void shouldUpdateOrderedIndices() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("weight", Edge.class, TinkerGraph.IndexType.ORDERED);
+
+        final Vertex v = g.addVertex();
+        final Edge e = v.addEdge("friend", v, "oid", "1", "weight", 0.5f);
+        v.addEdge("friend", v, "oid", "2", "weight", 0.6f);
+        v.addEdge("friend", v, "oid", "3", "weight", 0.9d);
+
+        assertEquals(new Long(2), g.traversal().E().has("oid", P.test((t, u) -> {
+            assertTrue(t.equals("2") || t.equals("3"));
+            return true;
+        }, "x")).has("weight", P.gte(0.6f)).count().next());
+
+        e.property("weight", 0.7f);
+        assertEquals(new Long(3), g.traversal().E().has("weight", P.gte(0.6f)).count().next());
+
+        e.remove();
+        assertEquals(new Long(2), g.traversal().E().has("weight", P.gte(0.6f)).count().next());
+        assertEquals(new Long(0), g.traversal().E().has("weight", P.lt(0.6f)).count().next());
+    }
+
+    @Test
+    public void shouldManageCompositeIndices() {
+        final TinkerGraph g = TinkerGraph.open();
+        assertEquals(0, g.getCompositeIndexedKeys(Vertex.class).size());
+
+        g.createCompositeIndex(Vertex.class, "tenant", "type");
+        g.createCompositeIndex(Vertex.class, "tenant", "type");
+        g.createCompositeIndex(Edge.class, "tenant", "weight");
+
+        assertEquals(1, g.getCompositeIndexedKeys(Vertex.class).size());
+        assertEquals(Arrays.asList("tenant", "type"), g.getCompositeIndexedKeys(Vertex.class).iterator().next());
+        assertEquals(0, g.getIndexedKeys(Vertex.class).size());
+        assertEquals(1, g.getCompositeIndexedKeys(Edge.class).size());
+
+        g.dropCompositeIndex(Vertex.class, "type", "tenant");
+        assertEquals(1, g.getCompositeIndexedKeys(Vertex.class).size());
+        g.dropCompositeIndex(Vertex.class, "tenant", "type");
+        assertEquals(0, g.getCompositeIndexedKeys(Vertex.class).size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotCreateCompositeIndexWithOneKey() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createCompositeIndex(Vertex.class, "tenant");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotCreateCompositeIndexWithDuplicateKeys() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createCompositeIndex(Vertex.class, "tenant", "tenant");
+    }
+
+    @Test
+    public void shouldUseCompositeVertexIndex() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("tenant", Vertex.class);
+        g.createCompositeIndex(Vertex.class, "tenant", "type");
+
+        g.addVertex("tenant", "a", "type", "person", "name", "marko");
+        g.addVertex("tenant", "a", "type", "software", "name", "lop");
+        g.addVertex("tenant", "a", "type", "software", "name", "ripple");
+        g.addVertex("tenant", "b", "type", "person", "name", "josh");
+        final Vertex v = g.addVertex("tenant", "b", "name", "peter");
+
+        // spy on the pipeline with a fake BiPredicate - the composite index should be chosen over the "tenant"
+        // index because it is more selective, so only "marko" should have a name to evaluate
+        assertEquals(new Long(1), g.traversal().V().has("name", P.test((t, u) -> {
+            assertEquals("marko", t);
+            return true;
+        }, "x")).has("tenant", "a").has("type", "person").count().next());
+
+        assertEquals(new Long(3), g.traversal().V().has("name", P.test((t, u) -> {
+            assertTrue(t.equals("marko") || t.equals("lop") || t.equals("ripple") || t.equals("josh"));
+            return true;
+        }, "x")).has("type", P.within("software", "person")).has("tenant", P.within("a", "b")).has("name", P.neq("marko")).count().next());
+
+        // the vertex is not in the composite index until it has all the keys
+        v.property("type", "person");
+        assertEquals(new Long(2), g.traversal().V().has("name", P.test((t, u) -> {
+            assertTrue(t.equals("josh") || t.equals("peter"));
+            return true;
+        }, "x")).has("tenant", "b").has("type", "person").count().next());
+
+        v.property("type", "software");
+        assertEquals(new Long(1), g.traversal().V().has("tenant", "b").has("type", "person").count().next());
+        assertEquals(new Long(1), g.traversal().V().has("tenant", "b").has("type", "software").count().next());
+
+        v.properties("type").forEachRemaining(VertexProperty::remove);
+        assertEquals(new Long(0), g.traversal().V().has("tenant", "b").has("type", "software").count().next());
+
+        g.traversal().V().has("name", "josh").drop().iterate();
+        assertEquals(new Long(0), g.traversal().V().has("tenant", "b").has("type", "person").count().next());
+    }
+
+    @Test
+    public void shouldUseCompositeEdgeIndexInExistingGraph() {
+        final TinkerGraph g = TinkerGraph.open();
+
+        final Vertex v = g.addVertex();
+        v.addEdge("friend", v, "oid", "1", "tenant", "a", "weight", 0.5f);
+        final Edge e = v.addEdge("friend", v, "oid", "2", "tenant", "a", "weight", 0.6f);
+        v.addEdge("friend", v, "oid", "3", "tenant", "b", "weight", 0.5f);
+
+        g.createCompositeIndex(Edge.class, "tenant", "weight");
+
+        assertEquals(new Long(1), g.traversal().E().has("oid", P.test((t, u) -> {
+            assertEquals("1", t);
+            return true;
+        }, "x")).has("weight", 0.5f).has("tenant", "a").count().next());
+
+        e.property("weight", 0.5f);
+        assertEquals(new Long(2), g.traversal().E().has("weight", 0.5f).has("tenant", "a").count().next());
+    }
+
     @Test
     public void shouldSerializeTinkerGraphToGryo() throws Exception {
         final TinkerGraph graph = TinkerFactory.createModern();
@@ -439,6 +648,338 @@ public class TinkerGraphTest {
         reloadedGraph.close();
     }
 
+    @Test
+    public void shouldKeepComputeKeyPropertyIdsStableAcrossReads() {
+        final TinkerGraph graph = TinkerFactory.createModern();
+        TinkerHelper.createGraphComputerView(graph, new GraphFilter(), Collections.singleton(VertexComputeKey.of("rank", false)));
+        try {
+            final Vertex vertex = graph.vertices(1).next();
+            vertex.property(VertexProperty.Cardinality.single, "rank", 0.5d);
+            final VertexProperty<Double> first = vertex.property("rank");
+            final VertexProperty<Double> second = vertex.property("rank");
+            assertEquals(first.id(), second.id());
+            assertEquals(first, second);
+            assertEquals(first.hashCode(), second.hashCode());
+
+            // a further value gets an identifier of its own and the first value keeps its identifier
+            final VertexProperty<Double> added = vertex.property(VertexProperty.Cardinality.list, "rank", 0.25d);
+            assertNotEquals(first.id(), added.id());
+            final List<Object> ids = IteratorUtils.list(IteratorUtils.map(vertex.properties("rank"), VertexProperty::id));
+            assertEquals(Arrays.asList(first.id(), added.id()), ids);
+            assertEquals(ids, IteratorUtils.list(IteratorUtils.map(vertex.properties("rank"), VertexProperty::id)));
+        } finally {
+            TinkerHelper.dropGraphComputerView(graph);
+        }
+    }
+
+    @Test
+    public void shouldPersistToMapped() {
+        final String graphLocation = TestHelper.makeTestDataDirectory(TinkerGraphTest.class) + "shouldPersistToMapped.dat";
+        final File f = new File(graphLocation);
+        if (f.exists() && f.isFile()) f.delete();
+
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT, "mapped");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION, graphLocation);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateModern(graph);
+        graph.close();
+
+        final TinkerGraph reloadedGraph = TinkerGraph.open(conf);
+        IoTest.assertModernGraph(reloadedGraph, true, false);
+        reloadedGraph.close();
+    }
+
+    @Test
+    public void shouldPersistChangesToMappedGraph() {
+        final String graphLocation = TestHelper.makeTestDataDirectory(TinkerGraphTest.class) + "shouldPersistChangesToMappedGraph.dat";
+        final File f = new File(graphLocation);
+        if (f.exists() && f.isFile()) f.delete();
+
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT, "mapped");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION, graphLocation);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_DEFAULT_VERTEX_PROPERTY_CARDINALITY, VertexProperty.Cardinality.list.name());
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateModern(graph);
+        graph.vertices(1).next().property("location", "santa fe", "startTime", 1997);
+        graph.vertices(1).next().property("location", "brussels", "startTime", 2004);
+        graph.close();
+
+        // only touch some of the elements so that the rest are written back straight from the mapped file
+        final TinkerGraph reopenedGraph = TinkerGraph.open(conf);
+        reopenedGraph.vertices(2).next().property("age", 28);
+        reopenedGraph.edges(7).next().remove();
+        reopenedGraph.addVertex(T.id, 100, T.label, "person", "name", "stephen");
+        reopenedGraph.close();
+
+        final TinkerGraph reloadedGraph = TinkerGraph.open(conf);
+        final GraphTraversalSource g = reloadedGraph.traversal();
+        assertEquals(7, g.V().count().next().intValue());
+        assertEquals(5, g.E().count().next().intValue());
+        assertEquals(Arrays.asList(27, 28), g.V(2).values("age").order().toList());
+        assertEquals(Arrays.asList(1997, 2004), g.V(1).properties("location").values("startTime").order().toList());
+        assertEquals("stephen", g.V(100).values("name").next());
+        assertEquals(0.4d, g.V(1).outE("created").values("weight").next());
+
+        reloadedGraph.createIndex("name", Vertex.class);
+        assertEquals("lop", g.V().has("name", "lop").values("name").next());
+        reloadedGraph.close();
+    }
+
+    @Test
+    public void shouldRemapMappedGraphWhenSavedOverItsOwnFile() throws Exception {
+        final String graphLocation = TestHelper.makeTestDataDirectory(TinkerGraphTest.class) + "shouldRemapMappedGraphWhenSavedOverItsOwnFile.dat";
+        final File f = new File(graphLocation);
+        if (f.exists() && f.isFile()) f.delete();
+
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT, "mapped");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION, graphLocation);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateModern(graph);
+        graph.close();
+
+        final TinkerGraph reopenedGraph = TinkerGraph.open(conf);
+        final TinkerMappedStorage storage = reopenedGraph.mappedStorage;
+        reopenedGraph.vertices(2).next().property("age", 28);
+        TinkerMappedStorage.save(reopenedGraph, graphLocation);
+        assertNotSame(storage, reopenedGraph.mappedStorage);
+
+        // the untouched elements are read from the new file
+        final GraphTraversalSource g = reopenedGraph.traversal();
+        assertEquals("marko", g.V(1).values("name").next());
+        assertEquals(0.4d, g.E(9).values("weight").next());
+        assertEquals(28, g.V(2).values("age").next());
+        reopenedGraph.vertices(4).next().property("age", 33);
+        reopenedGraph.close();
+
+        final TinkerGraph reloadedGraph = TinkerGraph.open(conf);
+        assertEquals(Arrays.asList(28, 29, 33, 35), reloadedGraph.traversal().V().values("age").order().toList());
+        assertEquals("lop", reloadedGraph.traversal().V(3).values("name").next());
+        reloadedGraph.close();
+    }
+
+    @Test
+    public void shouldReleaseMappedBuffer() throws Exception {
+        final File f = new File(TestHelper.makeTestDataDirectory(TinkerGraphTest.class) + "shouldReleaseMappedBuffer.dat");
+        try (final RandomAccessFile raf = new RandomAccessFile(f, "rw");
+             final FileChannel channel = raf.getChannel()) {
+            raf.setLength(4096);
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, 4096);
+
+            // fails rather than leaving the mapping to the garbage collector if neither way of releasing it exists
+            TinkerMappedStorage.release(buffer);
+        }
+        assertTrue(f.delete());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldRequireGraphLocationIfWriteAheadLogIsEnabled() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_WRITE_AHEAD_LOG, true);
+        TinkerGraph.open(conf);
+    }
+
+    @Test
+    public void shouldRecoverFromWriteAheadLog() throws Exception {
+        final File directory = TestHelper.makeTestDataPath(TinkerGraphTest.class, "shouldRecoverFromWriteAheadLog");
+        if (directory.exists()) Arrays.stream(directory.listFiles()).forEach(File::delete);
+        final String graphLocation = directory.getAbsolutePath() + File.separator + "graph.kryo";
+
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT, "gryo");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION, graphLocation);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_WRITE_AHEAD_LOG, true);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_CHECKPOINT_INTERVAL, 0);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateModern(graph);
+        graph.vertices(1).next().property("location", "santa fe", "startTime", 1997);
+        graph.vertices(2).next().property("age").remove();
+        graph.vertices(3).next().remove();
+        graph.edges(7).next().property("weight", 0.75d);
+
+        // closing only flushes the log so the graph is recovered from the log alone as if the process had died
+        graph.close();
+        assertEquals(false, new File(graphLocation).exists());
+        final TinkerGraph recoveredGraph = TinkerGraph.open(conf);
+        assertEquals(5, IteratorUtils.count(recoveredGraph.vertices()));
+        assertEquals(3, IteratorUtils.count(recoveredGraph.edges()));
+        assertEquals(1997, (int) recoveredGraph.vertices(1).next().property("location").value("startTime"));
+        assertEquals(false, recoveredGraph.vertices(2).next().property("age").isPresent());
+        assertEquals(0.75d, recoveredGraph.edges(7).next().value("weight"), 0.0d);
+
+        // a checkpoint writes a snapshot and compacts the log
+        recoveredGraph.writeAheadLog.checkpoint();
+        assertTrue(new File(graphLocation).exists());
+        assertEquals(1, directory.listFiles((dir, name) -> name.startsWith("graph.kryo.wal.")).length);
+        recoveredGraph.addVertex(T.id, 100, "name", "stephen").addEdge("knows", recoveredGraph.vertices(1).next(), T.id, 101);
+        recoveredGraph.vertices(1).next().property("name", "okram");
+        recoveredGraph.close();
+
+        final TinkerGraph reloadedGraph = TinkerGraph.open(conf);
+        assertEquals(6, IteratorUtils.count(reloadedGraph.vertices()));
+        assertEquals(4, IteratorUtils.count(reloadedGraph.edges()));
+        assertEquals("okram", reloadedGraph.vertices(1).next().value("name"));
+        assertEquals(1997, (int) reloadedGraph.vertices(1).next().property("location").value("startTime"));
+        assertEquals(1, IteratorUtils.count(reloadedGraph.vertices(100).next().edges(Direction.OUT, "knows")));
+        reloadedGraph.close();
+    }
+
+    @Test
+    public void shouldCheckpointWhileGraphIsMutatedConcurrently() throws Exception {
+        final File directory = TestHelper.makeTestDataPath(TinkerGraphTest.class, "shouldCheckpointWhileGraphIsMutatedConcurrently");
+        if (directory.exists()) Arrays.stream(directory.listFiles()).forEach(File::delete);
+        final String graphLocation = directory.getAbsolutePath() + File.separator + "graph.kryo";
+
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT, "gryo");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION, graphLocation);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_WRITE_AHEAD_LOG, true);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_CHECKPOINT_INTERVAL, 0);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+
+        final int threads = 4;
+        final int verticesPerThread = 500;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final int thread = t;
+            futures.add(executor.submit(() -> {
+                Vertex previous = null;
+                for (int i = 0; i < verticesPerThread; i++) {
+                    final Vertex vertex = graph.addVertex(T.id, thread * verticesPerThread + i, "name", "v" + i);
+                    vertex.property("age", i);
+                    if (null != previous) previous.addEdge("next", vertex, "thread", thread);
+                    previous = vertex;
+                }
+            }));
+        }
+
+        int checkpoints = 0;
+        while (futures.stream().anyMatch(f -> !f.isDone()) || 0 == checkpoints) {
+            graph.writeAheadLog.checkpoint();
+            checkpoints++;
+        }
+        for (final Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        graph.writeAheadLog.checkpoint();
+        graph.close();
+
+        // only the snapshot remains to be read along with the empty segment that followed it
+        assertEquals(1, directory.listFiles((dir, name) -> name.startsWith("graph.kryo.wal.")).length);
+        final TinkerGraph reloadedGraph = TinkerGraph.open(conf);
+        assertEquals(threads * verticesPerThread, IteratorUtils.count(reloadedGraph.vertices()));
+        assertEquals(threads * (verticesPerThread - 1), IteratorUtils.count(reloadedGraph.edges()));
+        assertEquals(threads * verticesPerThread, reloadedGraph.traversal().V().values("age").count().next().intValue());
+        reloadedGraph.close();
+    }
+
+    @Test
+    public void shouldRefuseMutationsAfterRepeatedCheckpointFailures() throws Exception {
+        final File directory = TestHelper.makeTestDataPath(TinkerGraphTest.class, "shouldRefuseMutationsAfterRepeatedCheckpointFailures");
+        if (directory.exists()) deleteDirectory(directory);
+        directory.mkdirs();
+        final String graphLocation = directory.getAbsolutePath() + File.separator + "graph.kryo";
+
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT, "gryo");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION, graphLocation);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_WRITE_AHEAD_LOG, true);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_CHECKPOINT_INTERVAL, 0);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        graph.addVertex(T.id, 1);
+
+        // a non-empty directory in place of the temporary snapshot file makes every snapshot fail
+        final File blocker = new File(graphLocation + ".tmp");
+        blocker.mkdirs();
+        new File(blocker, "blocker").createNewFile();
+        for (int i = 0; i < TinkerWriteAheadLog.MAX_CHECKPOINT_FAILURES; i++) {
+            try {
+                graph.writeAheadLog.checkpoint();
+                fail("The snapshot should not have been written");
+            } catch (Exception ex) {
+                assertTrue(ex instanceof IOException);
+            }
+        }
+
+        try {
+            graph.addVertex(T.id, 2);
+            fail("Mutations should be refused after repeated checkpoint failures");
+        } catch (IllegalStateException ise) {
+            assertTrue(ise.getCause() instanceof IOException);
+        }
+
+        deleteDirectory(blocker);
+        graph.writeAheadLog.checkpoint();
+        graph.addVertex(T.id, 2);
+        graph.close();
+
+        final TinkerGraph reloadedGraph = TinkerGraph.open(conf);
+        assertEquals(2, IteratorUtils.count(reloadedGraph.vertices()));
+        reloadedGraph.close();
+    }
+
+    @Test
+    public void shouldMutateGraphWhileCheckpointWritesSnapshot() throws Exception {
+        final File directory = TestHelper.makeTestDataPath(TinkerGraphTest.class, "shouldMutateGraphWhileCheckpointWritesSnapshot");
+        if (directory.exists()) deleteDirectory(directory);
+        directory.mkdirs();
+        final String graphLocation = directory.getAbsolutePath() + File.separator + "graph.kryo";
+
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT, BlockingGryoIoBuilder.class.getName());
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION, graphLocation);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_WRITE_AHEAD_LOG, true);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_CHECKPOINT_INTERVAL, 0);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        graph.addVertex(T.id, 1, "name", "marko");
+
+        BlockingGryoIoBuilder.writing = new CountDownLatch(1);
+        BlockingGryoIoBuilder.release = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<?> checkpoint = executor.submit(() -> {
+                graph.writeAheadLog.checkpoint();
+                return null;
+            });
+            assertTrue(BlockingGryoIoBuilder.writing.await(30, TimeUnit.SECONDS));
+
+            // the snapshot is being written so mutations on another thread must not wait on it
+            executor.submit(() -> graph.vertices(1).next().addEdge("knows", graph.addVertex(T.id, 2, "name", "vadas")))
+                    .get(30, TimeUnit.SECONDS);
+
+            BlockingGryoIoBuilder.release.countDown();
+            checkpoint.get(30, TimeUnit.SECONDS);
+        } finally {
+            BlockingGryoIoBuilder.release.countDown();
+            executor.shutdown();
+        }
+        graph.close();
+
+        // the snapshot holds the graph as it was when the checkpoint started
+        final TinkerGraph snapshot = TinkerGraph.open();
+        snapshot.io(IoCore.gryo()).readGraph(graphLocation);
+        assertEquals(1, IteratorUtils.count(snapshot.vertices()));
+        assertEquals(0, IteratorUtils.count(snapshot.edges()));
+
+        // and the log holds what followed
+        final TinkerGraph reloadedGraph = TinkerGraph.open(conf);
+        assertEquals(2, IteratorUtils.count(reloadedGraph.vertices()));
+        assertEquals("vadas", reloadedGraph.vertices(1).next().vertices(Direction.OUT, "knows").next().value("name"));
+        reloadedGraph.close();
+    }
+
+    private static void deleteDirectory(final File directory) {
+        Arrays.stream(directory.listFiles()).forEach(f -> {
+            if (f.isDirectory()) deleteDirectory(f);
+            else f.delete();
+        });
+        directory.delete();
+    }
+
     @Test
     public void shouldPersistToAnyGraphFormat() {
         final String graphLocation = TestHelper.makeTestDataDirectory(TinkerGraphTest.class) + "shouldPersistToAnyGraphFormat.dat";
@@ -470,6 +1011,143 @@ public class TinkerGraphTest {
         assertEquals(TestIoBuilder.calledCreate, 1);
     }
 
+    @Test
+    public void shouldCountTraversalVertexProgramMessages() throws Exception {
+        final TinkerGraph graph = TinkerFactory.createModern();
+        final TraversalVertexProgram vertexProgram = TraversalVertexProgram.build()
+                .traversal(graph.traversal().V().out().out().asAdmin())
+                .measureMessageBytes(true).create(graph);
+        final ComputerResult result = graph.compute().program(vertexProgram).submit().get();
+        // v1 messages v2, v3 and v4, v4 messages v3 and v5 and v6 messages v3 (the second out() halts at v4)
+        assertEquals(6l, result.memory().<Long>get(TraversalVertexProgram.MESSAGE_COUNT).longValue());
+        assertTrue(result.memory().<Long>get(TraversalVertexProgram.MESSAGE_BYTES) > 0l);
+    }
+
+    @Test
+    public void shouldReadGraphWithParallelWorkers() throws Exception {
+        final TinkerGraph source = createGraphToReadWithParallelWorkers();
+        final TinkerGraph target = TinkerGraph.open();
+        readGraphWithParallelWorkers(source, target);
+
+        assertEquals(2000, IteratorUtils.count(target.vertices()));
+        assertEquals(20000, IteratorUtils.count(target.edges()));
+        source.vertices().forEachRemaining(v -> {
+            final Vertex read = target.vertices(v.id()).next();
+            assertEquals(v.label(), read.label());
+            assertEquals(v.<String>value("name"), read.value("name"));
+            assertEquals(IteratorUtils.count(v.edges(Direction.OUT)), IteratorUtils.count(read.edges(Direction.OUT)));
+            assertEquals(IteratorUtils.count(v.edges(Direction.IN)), IteratorUtils.count(read.edges(Direction.IN)));
+        });
+        source.edges().forEachRemaining(e -> {
+            final Edge read = target.edges(e.id()).next();
+            assertEquals(e.label(), read.label());
+            assertEquals(e.outVertex().id(), read.outVertex().id());
+            assertEquals(e.inVertex().id(), read.inVertex().id());
+            assertEquals(e.<Double>value("weight"), read.value("weight"));
+        });
+    }
+
+    @Test
+    public void shouldReadGraphWithParallelWorkersIntoIndexedGraph() throws Exception {
+        final TinkerGraph source = createGraphToReadWithParallelWorkers();
+        final TinkerGraph target = TinkerGraph.open();
+        target.createIndex("name", Vertex.class);
+        target.createIndex("weight", Edge.class, TinkerGraph.IndexType.ORDERED);
+        target.createCompositeIndex(Vertex.class, "name", "group");
+        readGraphWithParallelWorkers(source, target);
+
+        // every element must be found through the indices that the workers updated concurrently
+        final GraphTraversalSource g = target.traversal();
+        source.vertices().forEachRemaining(v -> {
+            assertEquals(Collections.singletonList(v.id()), g.V().has("name", v.<String>value("name")).id().toList());
+            assertEquals(Collections.singletonList(v.id()), g.V().has("name", v.<String>value("name")).has("group", v.<Integer>value("group")).id().toList());
+        });
+        source.edges().forEachRemaining(e ->
+            assertEquals(Collections.singletonList(e.id()), g.E().has("weight", e.<Double>value("weight")).id().toList()));
+        assertEquals(source.traversal().E().has("weight", P.gt(0.5d)).count().next(), g.E().has("weight", P.gt(0.5d)).count().next());
+    }
+
+    @Test
+    public void shouldNotReadGraphWithParallelWorkersWhenAnEdgeVertexIsMissing() throws Exception {
+        final TinkerGraph source = TinkerFactory.createModern();
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        // vertex 1 has no edges pointing at it so leaving it out strands all of its out edges
+        GryoWriter.build().create().writeVertices(os, IteratorUtils.filter(source.vertices(), v -> !v.id().equals(1)), Direction.BOTH);
+        try {
+            GryoReader.build().workers(4).create().readGraph(new ByteArrayInputStream(os.toByteArray()), TinkerGraph.open());
+            fail("The edges of vertex 1 can't be added without it");
+        } catch (IllegalStateException ise) {
+            assertEquals("The stream contains 3 edges whose other vertex is not in the stream", ise.getMessage());
+        }
+    }
+
+    private static TinkerGraph createGraphToReadWithParallelWorkers() {
+        final TinkerGraph source = TinkerGraph.open();
+        final Random random = new Random(12345l);
+        final List<Vertex> vertices = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            vertices.add(source.addVertex(T.id, i, T.label, i % 2 == 0 ? "person" : "software", "name", "v" + i, "group", i % 10));
+        }
+        for (int i = 0; i < 20000; i++) {
+            // concentrate some edges on a few vertices so that workers contend for them
+            final Vertex out = vertices.get(i % 3 == 0 ? random.nextInt(10) : random.nextInt(vertices.size()));
+            final Vertex in = vertices.get(random.nextInt(vertices.size()));
+            out.addEdge(i % 2 == 0 ? "knows" : "created", in, T.id, 100000 + i, "weight", random.nextDouble());
+        }
+        return source;
+    }
+
+    private static void readGraphWithParallelWorkers(final TinkerGraph source, final TinkerGraph target) throws IOException {
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        GryoWriter.build().create().writeGraph(os, source);
+        GryoReader.build().workers(4).batchSize(100).create().readGraph(new ByteArrayInputStream(os.toByteArray()), target);
+    }
+
+    @Test
+    public void shouldReadAndWriteGraphSONInParallel() throws Exception {
+        final TinkerGraph source = TinkerFactory.createTheCrew();
+        final Random random = new Random(12345l);
+        final List<Vertex> vertices = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            vertices.add(source.addVertex(T.id, 1000 + i, "name", "v" + i));
+        }
+        for (int i = 0; i < 10000; i++) {
+            vertices.get(random.nextInt(vertices.size())).addEdge("knows", vertices.get(random.nextInt(vertices.size())), "weight", random.nextDouble());
+        }
+
+        for (final boolean wrap : Arrays.asList(false, true)) {
+            final ByteArrayOutputStream serial = new ByteArrayOutputStream();
+            GraphSONWriter.build().wrapAdjacencyList(wrap).create().writeGraph(serial, source);
+            final ByteArrayOutputStream parallel = new ByteArrayOutputStream();
+            GraphSONWriter.build().wrapAdjacencyList(wrap).parallelism(4).create().writeGraph(parallel, source);
+            assertEquals(serial.toString(), parallel.toString());
+
+            final Configuration conf = new BaseConfiguration();
+            conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_DEFAULT_VERTEX_PROPERTY_CARDINALITY, VertexProperty.Cardinality.list.name());
+            final TinkerGraph target = TinkerGraph.open(conf);
+            GraphSONReader.build().unwrapAdjacencyList(wrap).parallelism(4).create().readGraph(new ByteArrayInputStream(parallel.toByteArray()), target);
+            assertEquals(IteratorUtils.count(source.vertices()), IteratorUtils.count(target.vertices()));
+            assertEquals(IteratorUtils.count(source.edges()), IteratorUtils.count(target.edges()));
+            source.vertices().forEachRemaining(v -> {
+                final Vertex read = target.vertices(v.id()).next();
+                assertEquals(v.label(), read.label());
+                assertEquals(IteratorUtils.count(v.properties()), IteratorUtils.count(read.properties()));
+                assertEquals(IteratorUtils.count(v.edges(Direction.OUT)), IteratorUtils.count(read.edges(Direction.OUT)));
+                assertEquals(IteratorUtils.count(v.edges(Direction.IN)), IteratorUtils.count(read.edges(Direction.IN)));
+            });
+
+            // vertices come back in the order they were written
+            final List<Object> expectedIds = new ArrayList<>();
+            source.vertices().forEachRemaining(v -> expectedIds.add(v.id()));
+            final List<Object> readIds = new ArrayList<>();
+            GraphSONReader.build().unwrapAdjacencyList(wrap).parallelism(4).create()
+                    .readVertices(new ByteArrayInputStream(parallel.toByteArray()), Attachable::get, null, Direction.BOTH)
+                    .forEachRemaining(v -> readIds.add(v.id()));
+            assertEquals(expectedIds.stream().map(Object::toString).collect(Collectors.toList()),
+                    readIds.stream().map(Object::toString).collect(Collectors.toList()));
+        }
+    }
+
     @Test
     public void shouldSerializeWithColorClassResolverToTinkerGraph() throws Exception {
         final Map<String,Color> colors = new HashMap<>();
@@ -604,4 +1282,44 @@ public class TinkerGraphTest {
             return mock(Io.class);
         }
     }
+
+    /**
+     * Builds a Gryo {@link Io} that counts down {@link #writing} when it starts to write a graph and then waits on
+     * {@link #release} before writing it.
+     */
+    public static class BlockingGryoIoBuilder implements Io.Builder<Io> {
+
+        static volatile CountDownLatch writing = new CountDownLatch(0);
+        static volatile CountDownLatch release = new CountDownLatch(0);
+
+        private final Io.Builder<GryoIo> builder = GryoIo.build();
+
+        @Override
+        public Io.Builder<? extends Io> registry(final IoRegistry registry) {
+            builder.registry(registry);
+            return this;
+        }
+
+        @Override
+        public Io.Builder<? extends Io> graph(final Graph graph) {
+            builder.graph(graph);
+            return this;
+        }
+
+        @Override
+        public Io create() {
+            final GryoIo io = builder.create();
+            return (Io) Proxy.newProxyInstance(Io.class.getClassLoader(), new Class[]{Io.class}, (proxy, method, args) -> {
+                if (method.getName().equals("writeGraph")) {
+                    writing.countDown();
+                    release.await();
+                }
+                try {
+                    return method.invoke(io, args);
+                } catch (InvocationTargetException ite) {
+                    throw ite.getCause();
+                }
+            });
+        }
+    }
 }